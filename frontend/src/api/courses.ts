@@ -1,4 +1,7 @@
 import { client } from './client';
+import type { Module } from './modules';
+import type { Lesson } from './lessons';
+import type { FileDto } from './files';
 
 export interface CourseDto {
     id: string;
@@ -125,8 +128,51 @@ export const extendAccessForReview = async (courseId: string, video: File): Prom
     });
 };
 
-export const cloneCourse = async (id: string): Promise<void> => {
-    await client.post(`/courses/${id}/clone`);
+export interface CourseTree {
+    course: CourseDto;
+    locked: boolean;
+    modules: {
+        module: Module;
+        lessons: { lesson: Lesson; files: FileDto[] }[];
+    }[];
+}
+
+// Course, modules, lessons and file metadata in a single request
+export const getCourseTree = async (id: string): Promise<CourseTree> => {
+    const response = await client.get(`/courses/${id}/tree`);
+    return response.data;
+};
+
+export interface CourseCloneJob {
+    jobId: string;
+    sourceCourseId: string;
+    courseId: string;
+    status: 'PENDING' | 'RUNNING' | 'COMPLETED' | 'FAILED';
+    modulesCopied: number;
+    lessonsCopied: number;
+    filesCopied: number;
+    error?: string;
+}
+
+const CLONE_POLL_INTERVAL_MS = 500;
+
+export const getCloneJob = async (jobId: string): Promise<CourseCloneJob> => {
+    const response = await client.get(`/courses/clone-jobs/${jobId}`);
+    return response.data;
+};
+
+// The server copies the course content in the background; resolves once the copy has finished.
+export const cloneCourse = async (id: string): Promise<CourseCloneJob> => {
+    const response = await client.post(`/courses/${id}/clone`);
+    let job: CourseCloneJob = response.data;
+    while (job.status === 'PENDING' || job.status === 'RUNNING') {
+        await new Promise((resolve) => setTimeout(resolve, CLONE_POLL_INTERVAL_MS));
+        job = await getCloneJob(job.jobId);
+    }
+    if (job.status === 'FAILED') {
+        throw new Error(job.error || 'Course clone failed');
+    }
+    return job;
 };
 
 export const updateCourseStatus = async (id: string, status: string): Promise<void> => {
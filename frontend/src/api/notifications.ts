@@ -1,5 +1,5 @@
 
-import { client } from './client';
+import { API_URL, client } from './client';
 
 export interface NotificationDto {
     id: string;
@@ -23,6 +23,10 @@ export const markAsRead = async (id: string): Promise<void> => {
     await client.put(`/notifications/${id}/read`);
 };
 
+export const markManyAsRead = async (ids: string[]): Promise<void> => {
+    await client.put('/notifications/read', ids);
+};
+
 export const markAsUnread = async (id: string): Promise<void> => {
     await client.put(`/notifications/${id}/unread`);
 };
@@ -68,3 +72,74 @@ export const getUnreadCount = async (): Promise<number> => {
     const response = await client.get('/notifications/unread-count');
     return response.data;
 };
+
+export interface NotificationStreamHandlers {
+    onUnreadCount: (count: number) => void;
+    onNotification: () => void;
+}
+
+/**
+ * Follows GET /notifications/stream and reconnects with backoff until the returned function is called.
+ * Uses fetch rather than EventSource, which cannot send the bearer token.
+ */
+export const subscribeToNotifications = (handlers: NotificationStreamHandlers): (() => void) => {
+    const controller = new AbortController();
+    let retryDelay = 1000;
+
+    const handleEvent = (block: string) => {
+        let event = 'message';
+        let data = '';
+        for (const line of block.split('\n')) {
+            if (line.startsWith('event:')) {
+                event = line.slice(6).trim();
+            } else if (line.startsWith('data:')) {
+                data += line.slice(5).trim();
+            }
+        }
+        if (event === 'unread-count') {
+            handlers.onUnreadCount(Number(data));
+        } else if (event === 'notification') {
+            handlers.onNotification();
+        }
+    };
+
+    const connect = async () => {
+        while (!controller.signal.aborted) {
+            try {
+                const response = await fetch(`${API_URL}/notifications/stream`, {
+                    headers: {
+                        Accept: 'text/event-stream',
+                        Authorization: `Bearer ${localStorage.getItem('token')}`,
+                    },
+                    credentials: 'include',
+                    signal: controller.signal,
+                });
+                if (response.status === 401) {
+                    // goes through the axios interceptor, which refreshes the token
+                    await getUnreadCount();
+                } else if (response.ok && response.body) {
+                    retryDelay = 1000;
+                    const reader = response.body.pipeThrough(new TextDecoderStream()).getReader();
+                    let buffer = '';
+                    for (;;) {
+                        const { value, done } = await reader.read();
+                        if (done) break;
+                        buffer += value.replace(/\r/g, '');
+                        let end: number;
+                        while ((end = buffer.indexOf('\n\n')) >= 0) {
+                            handleEvent(buffer.slice(0, end));
+                            buffer = buffer.slice(end + 2);
+                        }
+                    }
+                }
+            } catch {
+                if (controller.signal.aborted) return;
+            }
+            await new Promise(resolve => setTimeout(resolve, retryDelay));
+            retryDelay = Math.min(retryDelay * 2, 30000);
+        }
+    };
+
+    connect();
+    return () => controller.abort();
+};
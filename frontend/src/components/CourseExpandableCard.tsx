@@ -3,7 +3,9 @@ import { createPortal } from 'react-dom';
 import { useTranslation } from 'react-i18next';
 import { BookOpen, Edit2, Trash2, ChevronDown, ChevronUp, ShoppingCart, Clock, X, Settings2, Tag } from 'lucide-react';
 import type { CourseDto } from '../api/courses';
-import { cloneCourse, updateCourseStatus } from '../api/courses';
+import { cloneCourse, getCourseTree, updateCourseStatus } from '../api/courses';
+import { useQuery } from '@tanstack/react-query';
+import type { FileDto } from '../api/files';
 import type { Module } from '../api/modules';
 import type { Lesson } from '../api/lessons';
 import { removeCourseAccess } from '../api/users';
@@ -14,6 +16,12 @@ import { ConfirmModal } from './ConfirmModal';
 import { PaymentModal } from './modals/PaymentModal';
 import { API_URL } from '../api/client';
 
+// Widths the backend pre-renders for course covers (see /courses/{id}/cover?w=)
+const COVER_WIDTHS = [320, 640, 1280];
+
+const coverUrl = (url: string, width: number) =>
+    `${API_URL}${url}${url.includes('?') ? '&' : '?'}w=${width}`;
+
 interface CourseExpandableCardProps {
     course: CourseDto;
     modules: Module[]; // All modules, we will filter for this course
@@ -77,6 +85,21 @@ function CourseExpandableCard({
     const courseModules = modules.filter(m => m.courseId === course.id);
     const isLocked = (!course.isEnrolled && !isCatalogMode) || (course.enrollmentStatus === 'BLOCKED' && !isCatalogMode);
 
+    // One request for every module's lessons and files instead of one per module and lesson
+    const { data: courseTree, isLoading: courseTreeLoading } = useQuery({
+        queryKey: ['courseTree', course.id],
+        queryFn: () => getCourseTree(course.id),
+        enabled: isExpanded,
+    });
+    const preloadedContent = (moduleId: string) => {
+        const node = courseTree?.modules.find(m => m.module.id === moduleId);
+        if (!courseTree) return undefined;
+        return {
+            lessons: node ? node.lessons.map(l => l.lesson) : [],
+            files: Object.fromEntries((node?.lessons ?? []).map(l => [l.lesson.id, l.files])) as Record<string, FileDto[]>,
+        };
+    };
+
     const lessonCount = courseModules.reduce((sum, m) => sum + (m.lessonsNumber || 0), 0);
     const totalMinutes = courseModules.reduce((sum, m) => sum + (m.durationMinutes || 0), 0);
 
@@ -208,7 +231,9 @@ function CourseExpandableCard({
                 >
                     <div className="relative w-full">
                         <img
-                            src={`${API_URL}${course.coverImageUrl}`}
+                            src={coverUrl(course.coverImageUrl!, 1280)}
+                            srcSet={COVER_WIDTHS.map(w => `${coverUrl(course.coverImageUrl!, w)} ${w}w`).join(', ')}
+                            sizes="(max-width: 768px) 100vw, 640px"
                             alt=""
                             className="w-full object-cover object-top"
                             style={{
@@ -527,6 +552,8 @@ function CourseExpandableCard({
                                             onDeleteLesson={onDeleteLesson}
                                             isTransparent={hasImage}
                                             isCatalogMode={isCatalogMode}
+                                            preloaded={preloadedContent(module.id)}
+                                            preloadLoading={courseTreeLoading}
                                         />
                                     ))}
                                 </div>
@@ -17,20 +17,27 @@ interface ModuleExpandableItemProps {
     onDeleteLesson?: (lessonId: string) => void;
     isTransparent?: boolean;
     isCatalogMode?: boolean;
+    // Lessons and files already loaded with the course tree; undefined while the parent has not provided them
+    preloaded?: { lessons: Lesson[]; files: Record<string, FileDto[]> };
+    preloadLoading?: boolean;
 }
 
-export function ModuleExpandableItem({ module, isLocked = false, onEditLesson, onDeleteLesson, isTransparent = false, isCatalogMode = false }: ModuleExpandableItemProps) {
+export function ModuleExpandableItem({ module, isLocked = false, onEditLesson, onDeleteLesson, isTransparent = false, isCatalogMode = false, preloaded, preloadLoading = false }: ModuleExpandableItemProps) {
     const { t } = useTranslation();
     const [isExpanded, setIsExpanded] = useState(false);
 
-    const { data: lessons, isLoading: lessonsLoading } = useQuery({
+    const usesPreloaded = !!preloaded || preloadLoading;
+
+    const { data: fetchedLessons, isLoading: fetchedLessonsLoading } = useQuery({
         queryKey: ['moduleLessons', module.id],
         queryFn: () => getModuleLessons(module.id),
-        enabled: isExpanded, // Only fetch when expanded
+        enabled: isExpanded && !usesPreloaded, // Only fetch when expanded
     });
+    const lessons = preloaded ? preloaded.lessons : fetchedLessons;
+    const lessonsLoading = usesPreloaded ? preloadLoading : fetchedLessonsLoading;
 
     // Fetch files for the lessons in this module
-    const { data: filesMap = {} } = useQuery({
+    const { data: fetchedFilesMap = {} } = useQuery({
         queryKey: ['moduleLessonFiles', module.id],
         queryFn: async (): Promise<Record<string, FileDto[]>> => {
             if (!lessons) return {};
@@ -44,8 +51,9 @@ export function ModuleExpandableItem({ module, isLocked = false, onEditLesson, o
                 filesData.map(({ lessonId, files }) => [lessonId, files])
             );
         },
-        enabled: !!lessons && lessons.length > 0 && !isLocked, // Disable file fetching if locked
+        enabled: !usesPreloaded && !!lessons && lessons.length > 0 && !isLocked, // Disable file fetching if locked
     });
+    const filesMap = preloaded ? preloaded.files : fetchedFilesMap;
 
     // Helper to get files for a specific lesson
     const getLessonFilesById = (lessonId: string) => {
@@ -5,7 +5,7 @@ import { enrollInCourse } from '../api/enrollments';
 import { useQueryClient } from '@tanstack/react-query';
 
 import { useEffect, useState, useRef } from 'react';
-import { getUnreadCount } from '../api/notifications';
+import { getUnreadCount, subscribeToNotifications } from '../api/notifications';
 import { ScrollToTop } from '../components/ScrollToTop';
 import { LanguageSwitcher } from '../components/LanguageSwitcher';
 import { useTranslation } from 'react-i18next';
@@ -55,6 +55,7 @@ export default function DashboardLayout() {
         return userStr ? JSON.parse(userStr) : null;
     });
     const [unreadCount, setUnreadCount] = useState(0);
+    const [notificationsVersion, setNotificationsVersion] = useState(0);
     const { t, i18n } = useTranslation();
 
     const userRole = localStorage.getItem('userRole') || 'USER';
@@ -103,10 +104,13 @@ export default function DashboardLayout() {
         fetchUnreadCount();
         fetchUserProfile();
 
-        // Optional: Set up interval to refresh count periodically
-        const interval = setInterval(fetchUnreadCount, 60000); // Every minute
-        
-        return () => clearInterval(interval);
+        if (!localStorage.getItem('token')) return;
+
+        // The server pushes count changes and new notifications as they happen
+        return subscribeToNotifications({
+            onUnreadCount: setUnreadCount,
+            onNotification: () => setNotificationsVersion(version => version + 1),
+        });
     }, []);
 
     // Handle pending enrollments (e.g. from landing page)
@@ -230,7 +234,7 @@ export default function DashboardLayout() {
 
             {/* Main Content */}
             <main ref={mainRef} className="flex-1 overflow-auto relative">
-                <Outlet context={{ refreshUnreadCount: fetchUnreadCount }} />
+                <Outlet context={{ refreshUnreadCount: fetchUnreadCount, notificationsVersion }} />
                 <ScrollToTop scrollContainerRef={mainRef} />
             </main>
         </div>
@@ -38,7 +38,8 @@ export default function MyCoursesPage() {
             refetchCourses(),
             refetchModules(),
             queryClient.invalidateQueries({ queryKey: ['moduleLessons'] }),
-            queryClient.invalidateQueries({ queryKey: ['moduleLessonFiles'] })
+            queryClient.invalidateQueries({ queryKey: ['moduleLessonFiles'] }),
+            queryClient.invalidateQueries({ queryKey: ['courseTree'] })
         ]);
     };
 
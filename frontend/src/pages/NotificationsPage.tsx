@@ -2,7 +2,7 @@ import { useEffect, useState } from 'react';
 import { createPortal } from 'react-dom';
 import { useOutletContext } from 'react-router-dom';
 import apiClient from '../api/client';
-import { getNotifications, markAsRead, markAsUnread, deleteNotification, markAllAsRead, markAllAsUnread, deleteAllNotifications } from '../api/notifications';
+import { getNotifications, markAsRead, markManyAsRead, markAsUnread, deleteNotification, markAllAsRead, markAllAsUnread, deleteAllNotifications } from '../api/notifications';
 import type { NotificationDto } from '../api/notifications';
 import { Bell, CheckCircle, Info, ShoppingCart, UserPlus, Megaphone, Download, ExternalLink, Plus, Trash2, Search } from 'lucide-react';
 import { format } from 'date-fns';
@@ -40,7 +40,8 @@ export const NotificationsPage: React.FC = () => {
     };
 
     // Get the refresh function from DashboardLayout context
-    const { refreshUnreadCount } = useOutletContext<{ refreshUnreadCount: () => void }>() || { refreshUnreadCount: () => { } };
+    const { refreshUnreadCount, notificationsVersion } =
+        useOutletContext<{ refreshUnreadCount: () => void; notificationsVersion?: number }>() || { refreshUnreadCount: () => { } };
 
     const userStr = localStorage.getItem('user');
     const user = userStr ? JSON.parse(userStr) : null;
@@ -50,6 +51,13 @@ export const NotificationsPage: React.FC = () => {
         loadNotifications();
     }, []);
 
+    // Something new arrived while the page is open
+    useEffect(() => {
+        if (notificationsVersion) {
+            loadNotifications();
+        }
+    }, [notificationsVersion]);
+
     const loadNotifications = async () => {
         try {
             const data = await getNotifications();
@@ -63,6 +71,11 @@ export const NotificationsPage: React.FC = () => {
         }
     };
 
+    const visibleNotifications = notifications.filter(n =>
+        n.title.toLowerCase().includes(searchQuery.toLowerCase()) ||
+        n.message.toLowerCase().includes(searchQuery.toLowerCase())
+    );
+
     const handleMarkAsRead = async (id: string, e: React.MouseEvent) => {
         e.stopPropagation();
         try {
@@ -150,6 +163,15 @@ export const NotificationsPage: React.FC = () => {
 
     const handleMarkAllAsRead = async () => {
         try {
+            if (searchQuery) {
+                // Only what the search shows, in one request
+                const ids = visibleNotifications.filter(n => !n.read).map(n => n.id);
+                if (ids.length === 0) return;
+                await markManyAsRead(ids);
+                setNotifications(prev => prev.map(n => ids.includes(n.id) ? { ...n, read: true, viewAgain: false } as any : n));
+                refreshUnreadCount();
+                return;
+            }
             await markAllAsRead();
             setNotifications(prev => prev.map(n => ({ ...n, read: true, viewAgain: false } as any)));
             refreshUnreadCount();
@@ -262,10 +284,7 @@ export const NotificationsPage: React.FC = () => {
             </div>
 
             <div className="space-y-2">
-                {notifications.filter(n =>
-                    n.title.toLowerCase().includes(searchQuery.toLowerCase()) ||
-                    n.message.toLowerCase().includes(searchQuery.toLowerCase())
-                ).length === 0 ? (
+                {visibleNotifications.length === 0 ? (
                     <div className="text-center py-20 bg-gray-50 rounded-lg border border-dashed border-gray-200">
                         <div className="w-16 h-16 bg-white rounded-full flex items-center justify-center mx-auto mb-4 shadow-sm">
                             <Bell className="w-8 h-8 text-gray-300" />
@@ -274,10 +293,7 @@ export const NotificationsPage: React.FC = () => {
                         <p className="text-gray-400">{t('notifications.noNewNotificationsDesc', 'Тут будуть показані всі важливі події')}</p>
                     </div>
                 ) : (
-                    notifications.filter(n =>
-                        n.title.toLowerCase().includes(searchQuery.toLowerCase()) ||
-                        n.message.toLowerCase().includes(searchQuery.toLowerCase())
-                    ).map(notification => (
+                    visibleNotifications.map(notification => (
                         <div
                             key={notification.id}
                             onClick={() => handleNotificationClick(notification)}
@@ -1,14 +1,21 @@
 package com.mishchuk.onlineschool.controller;
 
+import com.mishchuk.onlineschool.controller.dto.CourseCloneJobDto;
 import com.mishchuk.onlineschool.controller.dto.CourseCreateDto;
 import com.mishchuk.onlineschool.controller.dto.CourseDto;
+import com.mishchuk.onlineschool.controller.dto.CoursePageDto;
+import com.mishchuk.onlineschool.controller.dto.CoursePageRequest;
+import com.mishchuk.onlineschool.controller.dto.CourseTreeDto;
 import com.mishchuk.onlineschool.controller.dto.CourseUpdateDto;
-import com.mishchuk.onlineschool.repository.PersonRepository;
 import com.mishchuk.onlineschool.repository.entity.CourseStatus;
 import com.mishchuk.onlineschool.repository.entity.PersonEntity;
 import com.mishchuk.onlineschool.repository.entity.PersonRole;
+import com.mishchuk.onlineschool.security.CurrentPerson;
 import com.mishchuk.onlineschool.service.CourseService;
+import com.mishchuk.onlineschool.service.CoverImagePipeline;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -18,12 +25,16 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
+import java.math.BigDecimal;
+import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardCopyOption;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @RestController
 @RequestMapping("/courses")
@@ -31,7 +42,7 @@ import java.util.UUID;
 public class CourseController {
 
     private final CourseService courseService;
-    private final PersonRepository personRepository;
+    private final CurrentPerson currentPerson;
 
     @PreAuthorize("hasAnyRole('ADMIN', 'FAKE_ADMIN')")
     @PostMapping(consumes = org.springframework.http.MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -49,6 +60,13 @@ public class CourseController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/{id}/tree")
+    public ResponseEntity<CourseTreeDto> getCourseTree(@PathVariable UUID id) {
+        return courseService.getCourseTree(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping
     public ResponseEntity<List<CourseDto>> getAllCourses(
             @RequestParam(required = false) UUID userId,
@@ -62,8 +80,7 @@ public class CourseController {
             }
 
             // Check if requesting own data or is Admin
-            com.mishchuk.onlineschool.repository.entity.PersonEntity currentUser = personRepository
-                    .findByEmail(principal.getName())
+            PersonEntity currentUser = currentPerson.get()
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
             boolean isAdmin = currentUser.getRole() == PersonRole.ADMIN;
@@ -83,6 +100,21 @@ public class CourseController {
         return ResponseEntity.ok(courses);
     }
 
+    @GetMapping("/catalog")
+    public ResponseEntity<CoursePageDto> getCoursePage(
+            @RequestParam(required = false) CourseStatus status,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(required = false) UUID createdBy,
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String direction,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer size) {
+        return ResponseEntity.ok(courseService.getCoursePage(new CoursePageRequest(
+                status, minPrice, maxPrice, createdBy, q, sort, direction, cursor, size)));
+    }
+
     @PreAuthorize("hasAnyRole('ADMIN', 'FAKE_ADMIN')")
     @PutMapping(value = "/{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     public ResponseEntity<Void> updateCourse(
@@ -97,13 +129,96 @@ public class CourseController {
         }
     }
 
+    /**
+     * Serves a cover with a strong ETag. URLs carrying the current content hash as {@code v}
+     * never change their content and are cached as immutable; plain URLs must be revalidated.
+     * With {@code w} the smallest pre-rendered width that fits is served; until it has been rendered
+     * the original is returned without long-lived caching.
+     * A matching {@code If-None-Match} is answered with 304 without reading the image itself.
+     */
     @GetMapping("/{id}/cover")
-    public ResponseEntity<byte[]> getCourseCover(@PathVariable UUID id) {
-        return courseService.getCourseCoverImage(id)
-                .map(bytes -> ResponseEntity.ok()
+    public ResponseEntity<byte[]> getCourseCover(
+            @PathVariable UUID id,
+            @RequestParam(value = "v", required = false) String version,
+            @RequestParam(value = "w", required = false) Integer width,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<CourseService.CoverMetadata> metadata = courseService.getCourseCoverMetadata(id);
+        if (metadata.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        String hash = metadata.get().contentHash();
+        boolean versioned = hash != null && hash.equals(version);
+
+        Optional<Integer> derivativeWidth = hash != null && width != null
+                ? CoverImagePipeline.derivativeWidthFor(width)
+                : Optional.empty();
+        if (derivativeWidth.isPresent()) {
+            String eTag = "\"" + hash + "-w" + derivativeWidth.get() + "\"";
+            if (eTagMatches(ifNoneMatch, eTag)) {
+                return notModified(eTag, coverCacheControl(versioned));
+            }
+            Optional<byte[]> derivative = courseService.getCourseCoverDerivative(id, derivativeWidth.get(), hash);
+            if (derivative.isPresent()) {
+                return ResponseEntity.ok()
+                        .eTag(eTag)
+                        .cacheControl(coverCacheControl(versioned))
                         .contentType(MediaType.IMAGE_JPEG)
-                        .body(bytes))
-                .orElse(ResponseEntity.notFound().build());
+                        .body(derivative.get());
+            }
+            // not rendered yet: the original must not stick under this URL
+            versioned = false;
+        }
+
+        String eTag = hash != null ? "\"" + hash + "\"" : null;
+        CacheControl cacheControl = coverCacheControl(versioned);
+        if (eTag != null && eTagMatches(ifNoneMatch, eTag)) {
+            return notModified(eTag, cacheControl);
+        }
+
+        Optional<byte[]> image = courseService.getCourseCoverImage(id);
+        if (image.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .contentType(metadata.get().contentType() != null
+                        ? MediaType.parseMediaType(metadata.get().contentType())
+                        : MediaType.IMAGE_JPEG);
+        if (eTag != null) {
+            response.eTag(eTag);
+        }
+        return response.body(image.get());
+    }
+
+    private static CacheControl coverCacheControl(boolean versioned) {
+        return versioned
+                ? CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable()
+                : CacheControl.noCache().cachePublic();
+    }
+
+    private static ResponseEntity<byte[]> notModified(String eTag, CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(eTag)
+                .cacheControl(cacheControl)
+                .build();
+    }
+
+    private static boolean eTagMatches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'FAKE_ADMIN')")
@@ -120,8 +235,7 @@ public class CourseController {
             @AuthenticationPrincipal UserDetails userDetails) {
         try {
             // Get person from authenticated user
-            PersonEntity person = personRepository
-                    .findByEmail(userDetails.getUsername())
+            PersonEntity person = currentPerson.get()
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
             // Create directory if not exists
@@ -151,9 +265,19 @@ public class CourseController {
 
     @PreAuthorize("hasAnyRole('ADMIN', 'FAKE_ADMIN')")
     @PostMapping("/{id}/clone")
-    public ResponseEntity<Void> cloneCourse(@PathVariable UUID id) {
-        courseService.cloneCourse(id);
-        return ResponseEntity.status(HttpStatus.CREATED).build();
+    public ResponseEntity<CourseCloneJobDto> cloneCourse(@PathVariable UUID id) {
+        CourseCloneJobDto job = courseService.cloneCourse(id);
+        return ResponseEntity.accepted()
+                .location(URI.create("/courses/clone-jobs/" + job.jobId()))
+                .body(job);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'FAKE_ADMIN')")
+    @GetMapping("/clone-jobs/{jobId}")
+    public ResponseEntity<CourseCloneJobDto> getCloneJob(@PathVariable UUID jobId) {
+        return courseService.getCloneJob(jobId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'FAKE_ADMIN')")
@@ -2,8 +2,8 @@ package com.mishchuk.onlineschool.controller;
 
 import com.mishchuk.onlineschool.controller.dto.FileDto;
 import com.mishchuk.onlineschool.exception.ResourceNotFoundException;
-import com.mishchuk.onlineschool.repository.PersonRepository;
 import com.mishchuk.onlineschool.repository.entity.PersonEntity;
+import com.mishchuk.onlineschool.security.CurrentPerson;
 import com.mishchuk.onlineschool.service.FileStorageService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.core.io.InputStreamResource;
@@ -25,7 +25,7 @@ import java.util.UUID;
 public class FileController {
 
     private final FileStorageService fileStorageService;
-    private final PersonRepository personRepository;
+    private final CurrentPerson currentPerson;
 
     @PostMapping("/upload")
     public ResponseEntity<FileDto> uploadFile(
@@ -36,7 +36,7 @@ public class FileController {
 
         PersonEntity currentUser = null;
         if (userDetails != null) {
-            currentUser = getCurrentUser(userDetails);
+            currentUser = getCurrentUser();
         }
 
         FileDto fileDto = fileStorageService.uploadFile(file, entityType, entityId, currentUser);
@@ -77,13 +77,13 @@ public class FileController {
         if (userDetails == null) {
             return ResponseEntity.status(401).build();
         }
-        PersonEntity currentUser = getCurrentUser(userDetails);
+        PersonEntity currentUser = getCurrentUser();
         List<FileDto> files = fileStorageService.getFilesByUser(currentUser);
         return ResponseEntity.ok(files);
     }
 
-    private PersonEntity getCurrentUser(UserDetails userDetails) {
-        return personRepository.findByEmail(userDetails.getUsername())
+    private PersonEntity getCurrentUser() {
+        return currentPerson.get()
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
     }
 }
@@ -1,23 +1,26 @@
 package com.mishchuk.onlineschool.controller;
 
 import com.mishchuk.onlineschool.controller.dto.NotificationDto;
-import com.mishchuk.onlineschool.repository.entity.NotificationEntity;
 import com.mishchuk.onlineschool.repository.entity.PersonEntity;
+import com.mishchuk.onlineschool.security.CurrentPerson;
 import com.mishchuk.onlineschool.security.CustomUserDetailsService;
 import com.mishchuk.onlineschool.service.NotificationService;
+import com.mishchuk.onlineschool.service.NotificationStreams;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.security.Principal;
 import java.util.List;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
 @Slf4j
 @RestController
@@ -27,6 +30,8 @@ public class NotificationController {
 
     private final NotificationService notificationService;
     private final CustomUserDetailsService userDetailsService;
+    private final CurrentPerson currentPerson;
+    private final NotificationStreams notificationStreams;
 
     @GetMapping
     public ResponseEntity<List<NotificationDto>> getUserNotifications(
@@ -40,13 +45,9 @@ public class NotificationController {
 
         PersonEntity person = userDetailsService.getPerson(principal.getName());
         Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        Page<NotificationEntity> notifications = notificationService.getUserNotifications(person.getId(), pageable);
+        Page<NotificationDto> notifications = notificationService.getUserNotifications(person.getId(), pageable);
 
-        List<NotificationDto> dtos = notifications.getContent().stream()
-                .map(this::toDto)
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(dtos);
+        return ResponseEntity.ok(notifications.getContent());
     }
 
     @PutMapping("/{id}/read")
@@ -54,8 +55,24 @@ public class NotificationController {
             @PathVariable UUID id,
             Principal principal) {
 
-        // In a real app we might verify ownership here
-        notificationService.markAsRead(id);
+        if (principal == null) {
+            return ResponseEntity.status(401).build();
+        }
+        PersonEntity person = userDetailsService.getPerson(principal.getName());
+        notificationService.markAsRead(person.getId(), id);
+        return ResponseEntity.ok().build();
+    }
+
+    @PutMapping("/read")
+    public ResponseEntity<Void> markManyAsRead(
+            @RequestBody List<UUID> ids,
+            Principal principal) {
+
+        if (principal == null) {
+            return ResponseEntity.status(401).build();
+        }
+        PersonEntity person = userDetailsService.getPerson(principal.getName());
+        notificationService.markAsRead(person.getId(), ids);
         return ResponseEntity.ok().build();
     }
 
@@ -64,18 +81,40 @@ public class NotificationController {
             @PathVariable UUID id,
             Principal principal) {
 
-        // In a real app we might verify ownership here
-        notificationService.markAsUnread(id);
+        if (principal == null) {
+            return ResponseEntity.status(401).build();
+        }
+        PersonEntity person = userDetailsService.getPerson(principal.getName());
+        notificationService.markAsUnread(person.getId(), id);
         return ResponseEntity.ok().build();
     }
 
     @GetMapping("/unread-count")
     public ResponseEntity<Long> getUnreadCount(Principal principal) {
+        if (principal == null) {
+            return ResponseEntity.status(401).build();
+        }
+        // the id comes from the token claims: a cached count is answered without touching the database
+        return currentPerson.getId()
+                .map(personId -> ResponseEntity.ok(notificationService.getUnreadCount(personId)))
+                .orElseGet(() -> ResponseEntity.status(401).build());
+    }
+
+    /**
+     * Pushes {@code notification} when something new arrives and {@code unread-count} whenever the count changes,
+     * starting with the current count.
+     */
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> stream(Principal principal, HttpServletResponse response) {
         if (principal == null) {
             return ResponseEntity.status(401).build();
         }
         PersonEntity person = userDetailsService.getPerson(principal.getName());
-        return ResponseEntity.ok(notificationService.getUnreadCount(person.getId()));
+        // set on the response itself: entity headers are only written with the first event
+        response.setHeader("X-Accel-Buffering", "no"); // keeps nginx from buffering the stream
+        return notificationStreams.open(person)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(503).build());
     }
 
     @PutMapping("/read-all")
@@ -113,9 +152,8 @@ public class NotificationController {
         if (principal == null) {
             return ResponseEntity.status(401).build();
         }
-        // In a real app we might verify ownership here (that the notification belongs
-        // to the user)
-        notificationService.deleteNotification(id);
+        PersonEntity person = userDetailsService.getPerson(principal.getName());
+        notificationService.deleteNotification(person.getId(), id);
         return ResponseEntity.noContent().build();
     }
 
@@ -146,15 +184,4 @@ public class NotificationController {
         notificationService.sendToUsers(request.title(), request.message(), request.userIds(), request.buttonUrl());
         return ResponseEntity.ok().build();
     }
-
-    private NotificationDto toDto(NotificationEntity entity) {
-        return new NotificationDto(
-                entity.getId(),
-                entity.getTitle(),
-                entity.getMessage(),
-                entity.getType(),
-                entity.isRead(),
-                entity.getCreatedAt(),
-                entity.getButtonUrl());
-    }
 }
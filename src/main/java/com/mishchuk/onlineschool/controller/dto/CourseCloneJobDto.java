@@ -0,0 +1,21 @@
+package com.mishchuk.onlineschool.controller.dto;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+public record CourseCloneJobDto(
+        UUID jobId,
+        UUID sourceCourseId,
+        UUID courseId,
+        Status status,
+        int modulesCopied,
+        int lessonsCopied,
+        int filesCopied,
+        String error,
+        OffsetDateTime startedAt,
+        OffsetDateTime finishedAt) {
+
+    public enum Status {
+        PENDING, RUNNING, COMPLETED, FAILED
+    }
+}
@@ -0,0 +1,11 @@
+package com.mishchuk.onlineschool.controller.dto;
+
+import java.util.List;
+
+/**
+ * One catalog page; {@code nextCursor} is null on the last page.
+ */
+public record CoursePageDto(
+        List<CourseDto> items,
+        String nextCursor) {
+}
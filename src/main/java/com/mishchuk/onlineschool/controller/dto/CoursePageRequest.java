@@ -0,0 +1,18 @@
+package com.mishchuk.onlineschool.controller.dto;
+
+import com.mishchuk.onlineschool.repository.entity.CourseStatus;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+public record CoursePageRequest(
+        CourseStatus status,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        UUID createdBy,
+        String q,
+        String sort,
+        String direction,
+        String cursor,
+        Integer size) {
+}
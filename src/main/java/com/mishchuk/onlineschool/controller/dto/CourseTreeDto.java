@@ -0,0 +1,24 @@
+package com.mishchuk.onlineschool.controller.dto;
+
+import java.util.List;
+
+/**
+ * A course with its modules, lessons and lesson files, as rendered on the course page.
+ * When {@code locked} is true the lessons are scrubbed the same way as {@code /modules/{id}/lessons}
+ * and carry no files.
+ */
+public record CourseTreeDto(
+        CourseDto course,
+        boolean locked,
+        List<ModuleNode> modules) {
+
+    public record ModuleNode(
+            ModuleDto module,
+            List<LessonNode> lessons) {
+    }
+
+    public record LessonNode(
+            LessonDto lesson,
+            List<FileDto> files) {
+    }
+}
@@ -0,0 +1,10 @@
+package com.mishchuk.onlineschool.controller.dto;
+
+import java.util.List;
+
+public record SearchPageDto(
+        List<SearchResultDto> items,
+        int page,
+        int size,
+        boolean hasMore) {
+}
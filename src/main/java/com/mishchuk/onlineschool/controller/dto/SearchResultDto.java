@@ -0,0 +1,19 @@
+package com.mishchuk.onlineschool.controller.dto;
+
+import java.util.UUID;
+
+/**
+ * A search hit. {@code title} and {@code snippet} are HTML-escaped with matches wrapped in {@code <mark>}.
+ * Lessons of courses the caller has no access to are {@code locked} and carry no video URL.
+ */
+public record SearchResultDto(
+        String type,
+        UUID id,
+        UUID courseId,
+        UUID moduleId,
+        String title,
+        String snippet,
+        double rank,
+        boolean locked,
+        String videoUrl) {
+}
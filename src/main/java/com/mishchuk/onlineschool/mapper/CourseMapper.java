@@ -4,9 +4,11 @@ import com.mishchuk.onlineschool.controller.dto.CourseCreateDto;
 import com.mishchuk.onlineschool.controller.dto.CourseDto;
 import com.mishchuk.onlineschool.controller.dto.CourseUpdateDto;
 import com.mishchuk.onlineschool.repository.entity.CourseEntity;
+import com.mishchuk.onlineschool.repository.entity.EnrollmentEntity;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
+import org.mapstruct.Named;
 
 @Mapper(componentModel = "spring")
 public interface CourseMapper {
@@ -16,31 +18,59 @@ public interface CourseMapper {
     @Mapping(target = "expiresAt", ignore = true)
     @Mapping(target = "nextCourseId", source = "nextCourse.id")
     @Mapping(target = "nextCourseName", source = "nextCourse.name")
-    @Mapping(target = "modulesNumber", expression = "java(entity.getModules() != null ? entity.getModules().size() : 0)")
-    @Mapping(target = "lessonsCount", expression = "java(calculateLessonsCount(entity))")
-    @Mapping(target = "durationMinutes", expression = "java(calculateDuration(entity))")
-    @Mapping(target = "coverImageUrl", expression = "java(entity.getCoverImage() != null ? \"/courses/\" + entity.getId() + \"/cover\" : null)")
+    @Mapping(target = "modulesNumber", source = "modulesNumber", defaultValue = "0")
+    @Mapping(target = "lessonsCount", source = "lessonsCount", defaultValue = "0")
+    @Mapping(target = "durationMinutes", source = "totalDurationMinutes", defaultValue = "0")
+    @Mapping(target = "coverImageUrl", expression = "java(coverImageUrl(entity))")
     @Mapping(target = "averageColor", source = "coverImage.averageColor")
     @Mapping(target = "createdBy", expression = "java(entity.getCreatedBy() != null ? new com.mishchuk.onlineschool.controller.dto.CreatedByDto(entity.getCreatedBy().getId(), entity.getCreatedBy().getFirstName(), entity.getCreatedBy().getLastName(), entity.getCreatedBy().getEmail()) : null)")
     CourseDto toDto(CourseEntity entity);
 
-    default Integer calculateLessonsCount(CourseEntity entity) {
-        if (entity.getModules() == null)
-            return 0;
-        return entity.getModules().stream()
-                .filter(m -> m.getLessons() != null)
-                .mapToInt(m -> m.getLessons().size())
-                .sum();
+    /**
+     * Cover URL versioned by the content hash, so clients may cache it forever and pick up a new one on change.
+     */
+    @Named("coverImageUrl")
+    default String coverImageUrl(CourseEntity entity) {
+        if (entity.getCoverImage() == null) {
+            return null;
+        }
+        String url = "/courses/" + entity.getId() + "/cover";
+        String hash = entity.getCoverImage().getContentHash();
+        return hash != null ? url + "?v=" + hash : url;
     }
 
-    default Integer calculateDuration(CourseEntity entity) {
-        if (entity.getModules() == null)
-            return 0;
-        return entity.getModules().stream()
-                .filter(m -> m.getLessons() != null)
-                .flatMap(m -> m.getLessons().stream())
-                .mapToInt(l -> l.getDurationMinutes() != null ? l.getDurationMinutes() : 0)
-                .sum();
+    default CourseDto withEnrollment(CourseDto course, EnrollmentEntity enrollment) {
+        return new CourseDto(
+                course.id(),
+                course.name(),
+                course.description(),
+                course.modulesNumber(),
+                course.lessonsCount(),
+                course.durationMinutes(),
+                course.status(),
+                course.version(),
+                course.price(),
+                course.discountAmount(),
+                course.discountPercentage(),
+                course.accessDuration(),
+                course.promotionalDiscountPercentage(),
+                course.promotionalDiscountAmount(),
+                course.renewalDiscountPercentage(),
+                course.renewalDiscountAmount(),
+                course.extendForReviewEnabled(),
+                course.renewalEnabled(),
+                course.nextCourseDiscountEnabled(),
+                course.nextCourseId(),
+                course.nextCourseName(),
+                course.createdAt(),
+                course.updatedAt(),
+                true,
+                enrollment.getCreatedAt(),
+                enrollment.getStatus(),
+                course.coverImageUrl(),
+                enrollment.getExpiresAt(),
+                course.averageColor(),
+                course.createdBy());
     }
 
     @Mapping(target = "id", ignore = true)
@@ -49,6 +79,8 @@ public interface CourseMapper {
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "nextCourse", ignore = true)
     @Mapping(target = "modulesNumber", ignore = true)
+    @Mapping(target = "lessonsCount", ignore = true)
+    @Mapping(target = "totalDurationMinutes", ignore = true)
     @Mapping(target = "status", constant = "DRAFT") // Default status for new course
     @Mapping(target = "version", constant = "1.0") // Default version for new course
     @Mapping(target = "coverImage", ignore = true)
@@ -61,6 +93,8 @@ public interface CourseMapper {
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "nextCourse", ignore = true)
     @Mapping(target = "modulesNumber", ignore = true)
+    @Mapping(target = "lessonsCount", ignore = true)
+    @Mapping(target = "totalDurationMinutes", ignore = true)
     @Mapping(target = "status", ignore = true) // Do not update status via standard DTO
     @Mapping(target = "version", ignore = true) // Do not update version via standard DTO
     @Mapping(target = "coverImage", ignore = true)
@@ -13,8 +13,8 @@ import org.mapstruct.NullValuePropertyMappingStrategy;
 @Mapper(componentModel = "spring")
 public interface ModuleMapper {
     @Mapping(target = "courseId", source = "course.id")
-    @Mapping(target = "lessonsNumber", expression = "java(entity.getLessons() != null ? entity.getLessons().size() : 0)")
-    @Mapping(target = "durationMinutes", expression = "java(entity.getLessons() != null ? entity.getLessons().stream().mapToInt(l -> l.getDurationMinutes() != null ? l.getDurationMinutes() : 0).sum() : 0)")
+    @Mapping(target = "lessonsNumber", source = "lessonsCount", defaultValue = "0")
+    @Mapping(target = "durationMinutes", source = "totalDurationMinutes", defaultValue = "0")
     @Mapping(target = "createdBy", expression = "java(entity.getCreatedBy() != null ? new com.mishchuk.onlineschool.controller.dto.CreatedByDto(entity.getCreatedBy().getId(), entity.getCreatedBy().getFirstName(), entity.getCreatedBy().getLastName(), entity.getCreatedBy().getEmail()) : null)")
     ModuleDto toDto(ModuleEntity entity);
 
@@ -25,6 +25,8 @@ public interface ModuleMapper {
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "lessonsNumber", ignore = true)
+    @Mapping(target = "lessonsCount", ignore = true)
+    @Mapping(target = "totalDurationMinutes", ignore = true)
     @Mapping(target = "createdBy", ignore = true)
     ModuleEntity toEntity(ModuleCreateDto dto);
 
@@ -36,5 +38,7 @@ public interface ModuleMapper {
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "createdBy", ignore = true)
     @Mapping(target = "lessonsNumber", ignore = true)
+    @Mapping(target = "lessonsCount", ignore = true)
+    @Mapping(target = "totalDurationMinutes", ignore = true)
     void updateEntity(@MappingTarget ModuleEntity entity, ModuleUpdateDto dto);
 }
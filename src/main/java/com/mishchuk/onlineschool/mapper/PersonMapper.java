@@ -27,6 +27,7 @@ public interface PersonMapper {
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "createdBy", ignore = true)
+    @Mapping(target = "tokenVersion", ignore = true)
     PersonEntity toEntity(PersonCreateDto dto);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
@@ -36,5 +37,6 @@ public interface PersonMapper {
     @Mapping(target = "createdAt", ignore = true)
     @Mapping(target = "updatedAt", ignore = true)
     @Mapping(target = "createdBy", ignore = true)
+    @Mapping(target = "tokenVersion", ignore = true)
     void updateEntityFromDto(PersonUpdateDto dto, @MappingTarget PersonEntity entity);
 }
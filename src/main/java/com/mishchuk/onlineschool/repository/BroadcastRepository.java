@@ -0,0 +1,11 @@
+package com.mishchuk.onlineschool.repository;
+
+import com.mishchuk.onlineschool.repository.entity.BroadcastEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+@Repository
+public interface BroadcastRepository extends JpaRepository<BroadcastEntity, UUID>, BroadcastRepositoryCustom {
+}
@@ -0,0 +1,37 @@
+package com.mishchuk.onlineschool.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Per-person state of broadcasts, kept as sparse rows in {@code broadcast_receipts}. Every statement only
+ * touches broadcasts the person is in the audience of, so the row counts double as "found" checks.
+ */
+public interface BroadcastRepositoryCustom {
+
+    /**
+     * Returns 0 when the broadcast does not exist, is not addressed to the person or was deleted by them.
+     */
+    default int markRead(UUID broadcastId, UUID personId, boolean read) {
+        return markRead(List.of(broadcastId), personId, read);
+    }
+
+    /**
+     * Ids that are not broadcasts addressed to the person are skipped.
+     */
+    int markRead(Collection<UUID> broadcastIds, UUID personId, boolean read);
+
+    /**
+     * Returns 0 when the broadcast does not exist, is not addressed to the person or was already deleted by them.
+     */
+    int markDeleted(UUID broadcastId, UUID personId);
+
+    int markAllRead(UUID personId);
+
+    int markAllUnread(UUID personId);
+
+    int markAllDeleted(UUID personId);
+
+    long countUnread(UUID personId);
+}
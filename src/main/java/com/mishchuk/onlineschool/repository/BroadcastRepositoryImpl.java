@@ -0,0 +1,116 @@
+package com.mishchuk.onlineschool.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.UUID;
+
+@Repository
+public class BroadcastRepositoryImpl implements BroadcastRepositoryCustom {
+
+    /**
+     * Broadcasts {@code b} addressed to person {@code p}: sent after the person joined, to everyone or to
+     * an audience owned by the person or by whoever created them. Shared with the notification feed.
+     */
+    static final String ADDRESSED_TO_PERSON = "(p.created_at IS NULL OR b.created_at >= p.created_at)"
+            + " AND (b.owner_id IS NULL OR b.owner_id = p.id OR b.owner_id = p.created_by_id)";
+
+    private static final String ADDRESSED_BROADCASTS = """
+            SELECT b.id
+            FROM broadcasts b
+            JOIN persons p ON p.id = :personId
+            LEFT JOIN broadcast_receipts r ON r.broadcast_id = b.id AND r.person_id = p.id
+            WHERE r.is_deleted IS NOT TRUE AND\s""" + ADDRESSED_TO_PERSON;
+
+    private static final String MARK_READ = """
+            INSERT INTO broadcast_receipts (person_id, broadcast_id, is_read, is_deleted)
+            SELECT CAST(:personId AS uuid), a.id, :read, FALSE
+            FROM (%s) a
+            WHERE a.id IN (:broadcastIds)
+            ON CONFLICT (person_id, broadcast_id) DO UPDATE SET is_read = EXCLUDED.is_read
+            """.formatted(ADDRESSED_BROADCASTS);
+
+    private static final String MARK_DELETED = """
+            INSERT INTO broadcast_receipts (person_id, broadcast_id, is_read, is_deleted)
+            SELECT CAST(:personId AS uuid), a.id, TRUE, TRUE
+            FROM (%s) a
+            WHERE a.id = :broadcastId
+            ON CONFLICT (person_id, broadcast_id) DO UPDATE SET is_deleted = TRUE
+            """.formatted(ADDRESSED_BROADCASTS);
+
+    private static final String MARK_ALL_READ = """
+            INSERT INTO broadcast_receipts (person_id, broadcast_id, is_read, is_deleted)
+            SELECT CAST(:personId AS uuid), a.id, TRUE, FALSE
+            FROM (%s) a
+            ON CONFLICT (person_id, broadcast_id) DO UPDATE SET is_read = TRUE
+            WHERE broadcast_receipts.is_read = FALSE
+            """.formatted(ADDRESSED_BROADCASTS);
+
+    private static final String MARK_ALL_DELETED = """
+            INSERT INTO broadcast_receipts (person_id, broadcast_id, is_read, is_deleted)
+            SELECT CAST(:personId AS uuid), a.id, TRUE, TRUE
+            FROM (%s) a
+            ON CONFLICT (person_id, broadcast_id) DO UPDATE SET is_deleted = TRUE
+            """.formatted(ADDRESSED_BROADCASTS);
+
+    private static final String COUNT_UNREAD = """
+            SELECT COUNT(*)
+            FROM broadcasts b
+            JOIN persons p ON p.id = :personId
+            LEFT JOIN broadcast_receipts r ON r.broadcast_id = b.id AND r.person_id = p.id
+            WHERE r.is_deleted IS NOT TRUE AND r.is_read IS NOT TRUE AND\s""" + ADDRESSED_TO_PERSON;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public int markRead(Collection<UUID> broadcastIds, UUID personId, boolean read) {
+        if (broadcastIds.isEmpty()) {
+            return 0;
+        }
+        return em.createNativeQuery(MARK_READ)
+                .setParameter("personId", personId)
+                .setParameter("broadcastIds", broadcastIds)
+                .setParameter("read", read)
+                .executeUpdate();
+    }
+
+    @Override
+    public int markDeleted(UUID broadcastId, UUID personId) {
+        return em.createNativeQuery(MARK_DELETED)
+                .setParameter("personId", personId)
+                .setParameter("broadcastId", broadcastId)
+                .executeUpdate();
+    }
+
+    @Override
+    public int markAllRead(UUID personId) {
+        return em.createNativeQuery(MARK_ALL_READ)
+                .setParameter("personId", personId)
+                .executeUpdate();
+    }
+
+    @Override
+    public int markAllUnread(UUID personId) {
+        return em.createNativeQuery("UPDATE broadcast_receipts SET is_read = FALSE"
+                        + " WHERE person_id = :personId AND is_read = TRUE AND is_deleted = FALSE")
+                .setParameter("personId", personId)
+                .executeUpdate();
+    }
+
+    @Override
+    public int markAllDeleted(UUID personId) {
+        return em.createNativeQuery(MARK_ALL_DELETED)
+                .setParameter("personId", personId)
+                .executeUpdate();
+    }
+
+    @Override
+    public long countUnread(UUID personId) {
+        return ((Number) em.createNativeQuery(COUNT_UNREAD)
+                .setParameter("personId", personId)
+                .getSingleResult()).longValue();
+    }
+}
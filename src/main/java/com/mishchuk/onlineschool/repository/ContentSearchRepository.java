@@ -0,0 +1,101 @@
+package com.mishchuk.onlineschool.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Full-text search over the generated {@code search_vector} columns of courses, modules and lessons.
+ * Every branch filters with {@code @@} on a GIN-indexed vector; headlines are only built for the requested page.
+ */
+@Repository
+public class ContentSearchRepository {
+
+    private static final String HIGHLIGHT = "StartSel=<mark>, StopSel=</mark>";
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @SuppressWarnings("unchecked")
+    public List<SearchHit> search(String text, boolean publishedOnly, int offset, int limit) {
+        String visibility = publishedOnly ? "AND c.status = 'PUBLISHED' " : "";
+        String sql = "WITH q AS (SELECT websearch_to_tsquery('simple', :text) AS query), "
+                + "hits AS ( "
+                + "  SELECT 'COURSE' AS type, c.id AS id, c.id AS course_id, CAST(NULL AS uuid) AS module_id, "
+                + "         c.name AS name, c.description AS description, CAST(NULL AS varchar) AS video_url, "
+                + "         ts_rank(c.search_vector, q.query) AS rank "
+                + "  FROM courses c CROSS JOIN q "
+                + "  WHERE c.search_vector @@ q.query " + visibility
+                + "  UNION ALL "
+                + "  SELECT 'MODULE', m.id, c.id, m.id, m.name, m.description, NULL, ts_rank(m.search_vector, q.query) "
+                + "  FROM modules m JOIN courses c ON c.id = m.course_id CROSS JOIN q "
+                + "  WHERE m.search_vector @@ q.query " + visibility
+                + "  UNION ALL "
+                + "  SELECT 'LESSON', l.id, c.id, m.id, l.name, l.description, l.video_url, ts_rank(l.search_vector, q.query) "
+                + "  FROM lessons l JOIN modules m ON m.id = l.module_id JOIN courses c ON c.id = m.course_id CROSS JOIN q "
+                + "  WHERE l.search_vector @@ q.query " + visibility
+                + "), "
+                + "page AS (SELECT * FROM hits ORDER BY rank DESC, id LIMIT :limit OFFSET :offset) "
+                + "SELECT p.type, p.id, p.course_id, p.module_id, "
+                + "       ts_headline('simple', " + escapeHtml("p.name") + ", q.query, '" + HIGHLIGHT + ", HighlightAll=true'), "
+                + "       ts_headline('simple', " + escapeHtml("p.description") + ", q.query, '"
+                + HIGHLIGHT + ", MaxFragments=2, MaxWords=25, MinWords=8'), "
+                + "       p.rank, p.video_url "
+                + "FROM page p CROSS JOIN q "
+                + "ORDER BY p.rank DESC, p.id";
+
+        Query query = em.createNativeQuery(sql);
+        query.setParameter("text", text);
+        query.setParameter("limit", limit);
+        query.setParameter("offset", offset);
+
+        List<Object[]> rows = query.getResultList();
+        List<SearchHit> hits = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            hits.add(new SearchHit(
+                    SearchHit.Type.valueOf((String) row[0]),
+                    toUuid(row[1]),
+                    toUuid(row[2]),
+                    toUuid(row[3]),
+                    (String) row[4],
+                    (String) row[5],
+                    ((Number) row[6]).doubleValue(),
+                    (String) row[7]));
+        }
+        return hits;
+    }
+
+    /**
+     * Headlines are returned as HTML with {@code <mark>} highlights, so the stored text is escaped first.
+     */
+    private static String escapeHtml(String column) {
+        return "replace(replace(replace(COALESCE(" + column + ", ''), '&', '&amp;'), '<', '&lt;'), '>', '&gt;')";
+    }
+
+    private static UUID toUuid(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof UUID uuid ? uuid : UUID.fromString(value.toString());
+    }
+
+    public record SearchHit(
+            Type type,
+            UUID id,
+            UUID courseId,
+            UUID moduleId,
+            String title,
+            String snippet,
+            double rank,
+            String videoUrl) {
+
+        public enum Type {
+            COURSE, MODULE, LESSON
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.mishchuk.onlineschool.repository;
+
+import com.mishchuk.onlineschool.repository.entity.CourseStatus;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * One page of the course catalog: optional filters, a sort key and the position of the last row already seen.
+ * A null {@code afterId} starts from the first page.
+ */
+public record CourseCatalogQuery(
+        CourseStatus status,
+        BigDecimal minPrice,
+        BigDecimal maxPrice,
+        UUID createdById,
+        String search,
+        Sort sort,
+        boolean descending,
+        String afterKey,
+        UUID afterId,
+        int limit) {
+
+    /**
+     * Sort keys with the SQL expression they order by; each is backed by an ({@code expression}, id) index.
+     */
+    public enum Sort {
+        CREATED("c.created_at", "timestamptz"),
+        PRICE("COALESCE(c.price, 0)", "numeric"),
+        NAME("lower(COALESCE(c.name, ''))", "text");
+
+        final String expression;
+        final String sqlType;
+
+        Sort(String expression, String sqlType) {
+            this.expression = expression;
+            this.sqlType = sqlType;
+        }
+    }
+}
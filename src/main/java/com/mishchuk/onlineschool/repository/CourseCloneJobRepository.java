@@ -0,0 +1,41 @@
+package com.mishchuk.onlineschool.repository;
+
+import com.mishchuk.onlineschool.repository.entity.CourseCloneJobEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface CourseCloneJobRepository extends JpaRepository<CourseCloneJobEntity, UUID> {
+
+    @Modifying
+    @Query("DELETE FROM CourseCloneJobEntity j WHERE j.finishedAt < :threshold")
+    int deleteFinishedBefore(@Param("threshold") OffsetDateTime threshold);
+
+    /**
+     * Moves a pending job to RUNNING; 0 when another run already started it or it finished.
+     */
+    @Modifying
+    @Query(value = """
+            UPDATE course_clone_jobs SET status = 'RUNNING', started_at = :startedAt
+            WHERE id = :id AND status = 'PENDING'
+            """, nativeQuery = true)
+    int markRunning(@Param("id") UUID id, @Param("startedAt") OffsetDateTime startedAt);
+
+    /**
+     * Locks the unfinished job until the caller's transaction ends; empty when it finished
+     * or another run holds the lock, so only one run at a time copies into the job's course.
+     */
+    @Query(value = """
+            SELECT * FROM course_clone_jobs
+            WHERE id = :id AND finished_at IS NULL
+            FOR UPDATE SKIP LOCKED
+            """, nativeQuery = true)
+    Optional<CourseCloneJobEntity> lockUnfinished(@Param("id") UUID id);
+}
@@ -0,0 +1,27 @@
+package com.mishchuk.onlineschool.repository;
+
+import com.mishchuk.onlineschool.repository.entity.CourseCoverDerivativeEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface CourseCoverDerivativeRepository extends JpaRepository<CourseCoverDerivativeEntity, UUID> {
+
+    @Query("""
+            SELECT d.imageData FROM CourseCoverDerivativeEntity d
+            WHERE d.courseId = :courseId AND d.width = :width AND d.sourceHash = :sourceHash
+            """)
+    Optional<byte[]> findImageData(@Param("courseId") UUID courseId,
+                                   @Param("width") int width,
+                                   @Param("sourceHash") String sourceHash);
+
+    @Modifying
+    @Query("DELETE FROM CourseCoverDerivativeEntity d WHERE d.courseId = :courseId")
+    void deleteByCourseId(@Param("courseId") UUID courseId);
+}
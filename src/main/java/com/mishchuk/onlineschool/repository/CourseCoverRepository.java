@@ -0,0 +1,64 @@
+package com.mishchuk.onlineschool.repository;
+
+import com.mishchuk.onlineschool.repository.entity.CourseCoverEntity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface CourseCoverRepository extends JpaRepository<CourseCoverEntity, UUID> {
+
+    @Query("""
+            SELECT c.contentHash AS contentHash, c.contentType AS contentType, c.storageKey AS storageKey
+            FROM CourseCoverEntity c WHERE c.id = :courseId
+            """)
+    Optional<CoverMetadata> findMetadataByCourseId(@Param("courseId") UUID courseId);
+
+    @Query("SELECT c.imageData FROM CourseCoverEntity c WHERE c.id = :courseId")
+    Optional<byte[]> findImageDataByCourseId(@Param("courseId") UUID courseId);
+
+    @Modifying
+    @Query("UPDATE CourseCoverEntity c SET c.averageColor = :averageColor WHERE c.id = :courseId AND c.contentHash = :contentHash")
+    int updateAverageColor(@Param("courseId") UUID courseId,
+                           @Param("contentHash") String contentHash,
+                           @Param("averageColor") String averageColor);
+
+    boolean existsByStorageKey(String storageKey);
+
+    /**
+     * Next chunk of covers whose bytes still live in the database, in id order after {@code after}.
+     */
+    @Query("""
+            SELECT c.id FROM CourseCoverEntity c
+            WHERE c.imageData IS NOT NULL AND c.storageKey IS NULL AND c.id > :after
+            ORDER BY c.id
+            """)
+    List<UUID> findIdsStoredInDatabase(@Param("after") UUID after, Pageable pageable);
+
+    @Modifying
+    @Query("""
+            UPDATE CourseCoverEntity c
+            SET c.storageKey = :storageKey, c.sizeBytes = :sizeBytes, c.contentHash = :contentHash, c.imageData = NULL
+            WHERE c.id = :courseId AND c.storageKey IS NULL
+              AND (c.contentHash = :contentHash OR c.contentHash IS NULL)
+            """)
+    int moveToStorage(@Param("courseId") UUID courseId,
+                      @Param("contentHash") String contentHash,
+                      @Param("storageKey") String storageKey,
+                      @Param("sizeBytes") long sizeBytes);
+
+    interface CoverMetadata {
+        String getContentHash();
+
+        String getContentType();
+
+        String getStorageKey();
+    }
+}
@@ -1,9 +1,44 @@
 package com.mishchuk.onlineschool.repository;
 
 import com.mishchuk.onlineschool.repository.entity.CourseEntity;
+import com.mishchuk.onlineschool.repository.entity.CourseStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
 @Repository
-public interface CourseRepository extends JpaRepository<CourseEntity, java.util.UUID> {
+public interface CourseRepository extends JpaRepository<CourseEntity, UUID>, CourseRepositoryCustom {
+    List<CourseEntity> findByStatusNot(CourseStatus status);
+
+    /**
+     * Courses with everything {@code CourseMapper.toDto} reads, in one query; order is not preserved.
+     */
+    @Query("""
+            SELECT c FROM CourseEntity c
+            LEFT JOIN FETCH c.coverImage
+            LEFT JOIN FETCH c.createdBy
+            LEFT JOIN FETCH c.nextCourse
+            WHERE c.id IN :ids
+            """)
+    List<CourseEntity> findForListingByIdIn(@Param("ids") Collection<UUID> ids);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            UPDATE courses c
+            SET modules_number = (SELECT COUNT(*) FROM modules m WHERE m.course_id = c.id),
+                lessons_count = (SELECT COUNT(*) FROM lessons l
+                                 JOIN modules m ON m.id = l.module_id
+                                 WHERE m.course_id = c.id),
+                total_duration_minutes = (SELECT COALESCE(SUM(l.duration_minutes), 0) FROM lessons l
+                                          JOIN modules m ON m.id = l.module_id
+                                          WHERE m.course_id = c.id)
+            WHERE c.id IN (:ids)
+            """, nativeQuery = true)
+    int refreshCounters(@Param("ids") Collection<UUID> ids);
 }
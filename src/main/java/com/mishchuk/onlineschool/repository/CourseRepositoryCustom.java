@@ -0,0 +1,15 @@
+package com.mishchuk.onlineschool.repository;
+
+import java.util.List;
+import java.util.UUID;
+
+public interface CourseRepositoryCustom {
+
+    /**
+     * Ids of the next catalog page in sort order, with each row's sort key rendered as text for the next cursor.
+     */
+    List<CatalogRow> findCatalogKeys(CourseCatalogQuery query);
+
+    record CatalogRow(UUID id, String sortKey) {
+    }
+}
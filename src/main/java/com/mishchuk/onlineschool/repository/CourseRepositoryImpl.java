@@ -0,0 +1,85 @@
+package com.mishchuk.onlineschool.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public class CourseRepositoryImpl implements CourseRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<CatalogRow> findCatalogKeys(CourseCatalogQuery query) {
+        CourseCatalogQuery.Sort sort = query.sort();
+        String dir = query.descending() ? "DESC" : "ASC";
+
+        StringBuilder sql = new StringBuilder("SELECT c.id, CAST(")
+                .append(sort.expression).append(" AS text) FROM courses c WHERE 1=1 ");
+        if (query.status() != null) {
+            sql.append("AND c.status = :status ");
+        }
+        if (query.minPrice() != null) {
+            sql.append("AND COALESCE(c.price, 0) >= :minPrice ");
+        }
+        if (query.maxPrice() != null) {
+            sql.append("AND COALESCE(c.price, 0) <= :maxPrice ");
+        }
+        if (query.createdById() != null) {
+            sql.append("AND c.created_by_id = :createdById ");
+        }
+        boolean hasSearch = query.search() != null && !query.search().isBlank();
+        if (hasSearch) {
+            sql.append("AND c.name ILIKE :search ESCAPE '\\' ");
+        }
+        if (query.afterId() != null) {
+            // seek past the last row of the previous page instead of skipping OFFSET rows
+            sql.append("AND (").append(sort.expression).append(", c.id) ")
+                    .append(query.descending() ? "<" : ">")
+                    .append(" (CAST(:afterKey AS ").append(sort.sqlType).append("), CAST(:afterId AS uuid)) ");
+        }
+        sql.append("ORDER BY ").append(sort.expression).append(' ').append(dir)
+                .append(", c.id ").append(dir);
+
+        Query nativeQuery = em.createNativeQuery(sql.toString());
+        if (query.status() != null) {
+            nativeQuery.setParameter("status", query.status().name());
+        }
+        if (query.minPrice() != null) {
+            nativeQuery.setParameter("minPrice", query.minPrice());
+        }
+        if (query.maxPrice() != null) {
+            nativeQuery.setParameter("maxPrice", query.maxPrice());
+        }
+        if (query.createdById() != null) {
+            nativeQuery.setParameter("createdById", query.createdById());
+        }
+        if (hasSearch) {
+            nativeQuery.setParameter("search", "%" + escapeLike(query.search().trim()) + "%");
+        }
+        if (query.afterId() != null) {
+            nativeQuery.setParameter("afterKey", query.afterKey());
+            nativeQuery.setParameter("afterId", query.afterId().toString());
+        }
+        nativeQuery.setMaxResults(query.limit());
+
+        List<Object[]> rows = nativeQuery.getResultList();
+        List<CatalogRow> result = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            UUID id = row[0] instanceof UUID uuid ? uuid : UUID.fromString(row[0].toString());
+            result.add(new CatalogRow(id, (String) row[1]));
+        }
+        return result;
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
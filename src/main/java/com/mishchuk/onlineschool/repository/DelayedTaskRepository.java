@@ -0,0 +1,119 @@
+package com.mishchuk.onlineschool.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * The {@code delayed_tasks} table: at most one pending task per (type, subject), due at a point in time.
+ * Workers claim due tasks with {@code FOR UPDATE SKIP LOCKED} by moving them to a lease time, so several
+ * instances never pick the same task and a task whose worker died is picked up again once the lease ends.
+ */
+@Repository
+public class DelayedTaskRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * Creates the task or moves an existing one of the same type and subject to the new due time.
+     */
+    public void schedule(String type, UUID subjectId, OffsetDateTime dueAt) {
+        em.createNativeQuery("""
+                        INSERT INTO delayed_tasks (id, task_type, subject_id, due_at, attempts, created_at)
+                        VALUES (:id, :type, :subjectId, CAST(:dueAt AS timestamptz), 0, NOW())
+                        ON CONFLICT (task_type, subject_id)
+                        DO UPDATE SET due_at = EXCLUDED.due_at, attempts = 0
+                        """)
+                .setParameter("id", UUID.randomUUID())
+                .setParameter("type", type)
+                .setParameter("subjectId", subjectId)
+                .setParameter("dueAt", dueAt)
+                .executeUpdate();
+    }
+
+    public void cancel(String type, UUID subjectId) {
+        em.createNativeQuery("DELETE FROM delayed_tasks WHERE task_type = :type AND subject_id = :subjectId")
+                .setParameter("type", type)
+                .setParameter("subjectId", subjectId)
+                .executeUpdate();
+    }
+
+    /**
+     * Claims up to {@code limit} tasks due at {@code now}: each one is leased until {@code leaseUntil}
+     * and its attempt counter is incremented.
+     */
+    @SuppressWarnings("unchecked")
+    public List<ClaimedTask> claimDue(OffsetDateTime now, OffsetDateTime leaseUntil, int limit) {
+        Query query = em.createNativeQuery("""
+                UPDATE delayed_tasks t
+                SET due_at = CAST(:leaseUntil AS timestamptz), attempts = t.attempts + 1
+                WHERE t.id IN (
+                    SELECT d.id FROM delayed_tasks d
+                    WHERE d.due_at <= CAST(:now AS timestamptz)
+                    ORDER BY d.due_at
+                    LIMIT :limit
+                    FOR UPDATE SKIP LOCKED)
+                RETURNING t.id, t.task_type, t.subject_id, t.attempts
+                """);
+        query.setParameter("now", now);
+        query.setParameter("leaseUntil", leaseUntil);
+        query.setParameter("limit", limit);
+
+        List<Object[]> rows = query.getResultList();
+        List<ClaimedTask> claimed = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            claimed.add(new ClaimedTask(toUuid(row[0]), (String) row[1], toUuid(row[2]), ((Number) row[3]).intValue()));
+        }
+        return claimed;
+    }
+
+    /**
+     * Deletes claimed tasks that still carry this lease; a task rescheduled in the meantime is kept.
+     */
+    public int complete(Collection<UUID> ids, OffsetDateTime leaseUntil) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return em.createNativeQuery("""
+                        DELETE FROM delayed_tasks
+                        WHERE id IN (:ids) AND due_at = CAST(:leaseUntil AS timestamptz)
+                        """)
+                .setParameter("ids", ids)
+                .setParameter("leaseUntil", leaseUntil)
+                .executeUpdate();
+    }
+
+    public Optional<OffsetDateTime> findNextDueAt() {
+        Object next = em.createNativeQuery("SELECT MIN(due_at) FROM delayed_tasks").getSingleResult();
+        return Optional.ofNullable(toOffsetDateTime(next));
+    }
+
+    private static OffsetDateTime toOffsetDateTime(Object value) {
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime;
+        }
+        if (value instanceof java.time.Instant instant) {
+            return instant.atOffset(java.time.ZoneOffset.UTC);
+        }
+        return ((java.sql.Timestamp) value).toInstant().atOffset(java.time.ZoneOffset.UTC);
+    }
+
+    private static UUID toUuid(Object value) {
+        return value instanceof UUID uuid ? uuid : UUID.fromString(value.toString());
+    }
+
+    public record ClaimedTask(UUID id, String type, UUID subjectId, int attempts) {
+    }
+}
@@ -0,0 +1,114 @@
+package com.mishchuk.onlineschool.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Set-based removal of everything demo users created before a point in time.
+ * Each statement walks the {@code (created_by_id, created_at)} index of one table; content of removed
+ * courses and modules goes with them even when someone else created it. Callers run the steps in
+ * declaration order inside one transaction, since foreign keys between the tables do not cascade.
+ */
+@Repository
+public class DemoDataRepository {
+
+    private static final String DOOMED_COURSES = "SELECT c.id FROM courses c WHERE " + own("c");
+    private static final String DOOMED_MODULES = "SELECT m.id FROM modules m WHERE (" + own("m") + ")"
+            + " OR m.course_id IN (" + DOOMED_COURSES + ")";
+    private static final String DOOMED_PERSONS = "SELECT p.id FROM persons p WHERE " + own("p");
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * Returns the modules the deleted lessons belonged to, and their courses, so their counters can be refreshed.
+     */
+    @SuppressWarnings("unchecked")
+    public LessonParents deleteLessons(Collection<UUID> creatorIds, OffsetDateTime threshold) {
+        List<Object[]> rows = em.createNativeQuery("DELETE FROM lessons l WHERE (" + own("l") + ")"
+                        + " OR l.module_id IN (" + DOOMED_MODULES + ")"
+                        + " RETURNING l.module_id, (SELECT mm.course_id FROM modules mm WHERE mm.id = l.module_id)")
+                .setParameter("creatorIds", creatorIds)
+                .setParameter("threshold", threshold)
+                .getResultList();
+        Set<UUID> moduleIds = new HashSet<>();
+        Set<UUID> courseIds = new HashSet<>();
+        for (Object[] row : rows) {
+            addIfPresent(moduleIds, row[0]);
+            addIfPresent(courseIds, row[1]);
+        }
+        return new LessonParents(rows.size(), moduleIds, courseIds);
+    }
+
+    /**
+     * Returns the courses the deleted modules belonged to, one entry per deleted module.
+     */
+    @SuppressWarnings("unchecked")
+    public List<UUID> deleteModules(Collection<UUID> creatorIds, OffsetDateTime threshold) {
+        List<Object> rows = em.createNativeQuery("DELETE FROM modules md WHERE (" + own("md") + ")"
+                        + " OR md.course_id IN (" + DOOMED_COURSES + ")"
+                        + " RETURNING md.course_id")
+                .setParameter("creatorIds", creatorIds)
+                .setParameter("threshold", threshold)
+                .getResultList();
+        return rows.stream().map(DemoDataRepository::toUuid).toList();
+    }
+
+    /**
+     * Review requests reference their course and author without cascading, so they go before either.
+     */
+    public int deleteReviewRequests(Collection<UUID> creatorIds, OffsetDateTime threshold) {
+        return execute("DELETE FROM course_review_requests r WHERE r.course_id IN (" + DOOMED_COURSES + ")"
+                + " OR r.user_id IN (" + DOOMED_PERSONS + ")", creatorIds, threshold);
+    }
+
+    public int deleteCourses(Collection<UUID> creatorIds, OffsetDateTime threshold) {
+        return execute("DELETE FROM courses co WHERE " + own("co"), creatorIds, threshold);
+    }
+
+    public int deletePromoCodes(Collection<UUID> creatorIds, OffsetDateTime threshold) {
+        return execute("DELETE FROM promo_codes pc WHERE " + own("pc"), creatorIds, threshold);
+    }
+
+    public int deletePersons(Collection<UUID> creatorIds, OffsetDateTime threshold) {
+        return execute("DELETE FROM persons pe WHERE " + own("pe"), creatorIds, threshold);
+    }
+
+    private static String own(String alias) {
+        return alias + ".created_by_id IN (:creatorIds) AND " + alias + ".created_at < CAST(:threshold AS timestamptz)";
+    }
+
+    private int execute(String sql, Collection<UUID> creatorIds, OffsetDateTime threshold) {
+        return em.createNativeQuery(sql)
+                .setParameter("creatorIds", creatorIds)
+                .setParameter("threshold", threshold)
+                .executeUpdate();
+    }
+
+    private static void addIfPresent(Set<UUID> ids, Object value) {
+        if (value != null) {
+            ids.add(toUuid(value));
+        }
+    }
+
+    private static UUID toUuid(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof UUID uuid ? uuid : UUID.fromString(value.toString());
+    }
+
+    /**
+     * {@code deleted} lessons were removed from {@code moduleIds}, which belong to {@code courseIds}.
+     */
+    public record LessonParents(int deleted, Set<UUID> moduleIds, Set<UUID> courseIds) {
+    }
+}
@@ -8,7 +8,7 @@ import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface EnrollmentRepository extends JpaRepository<EnrollmentEntity, UUID> {
+public interface EnrollmentRepository extends JpaRepository<EnrollmentEntity, UUID>, EnrollmentRepositoryCustom {
     List<EnrollmentEntity> findByStudentId(UUID studentId);
 
     Optional<EnrollmentEntity> findByStudentIdAndCourseId(UUID studentId, UUID courseId);
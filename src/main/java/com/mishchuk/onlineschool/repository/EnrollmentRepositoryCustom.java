@@ -0,0 +1,49 @@
+package com.mishchuk.onlineschool.repository;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+public interface EnrollmentRepositoryCustom {
+
+    /**
+     * Blocks those of the given enrollments that are still ACTIVE and whose {@code expires_at} has passed
+     * at {@code now}, in a single UPDATE, and returns what was blocked. Enrollments that were renewed
+     * or removed in the meantime are left alone.
+     */
+    List<ExpiredEnrollment> blockExpired(Collection<UUID> ids, OffsetDateTime now);
+
+    /**
+     * Returns up to {@code limit} ACTIVE enrollments expiring before {@code to} that have not been reminded about
+     * their current {@code expires_at} yet, ordered by {@code (expires_at, id)} and starting after
+     * {@code (afterExpiresAt, afterId)}, so a caller can page through them without the reminders being recorded.
+     */
+    List<DueReminder> findDueExpirationReminders(OffsetDateTime afterExpiresAt, UUID afterId, OffsetDateTime to,
+                                                 int limit);
+
+    /**
+     * Returns up to {@code limit} ACTIVE enrollments whose reminder for the current {@code expires_at} failed
+     * fewer than {@code maxAttempts} times and was never sent, paged like {@link #findDueExpirationReminders}.
+     */
+    List<DueReminder> findRetriableExpirationReminders(OffsetDateTime afterExpiresAt, UUID afterId, int maxAttempts,
+                                                       int limit);
+
+    /**
+     * Records that the reminder for this expiry was sent; false if it had already been recorded as sent.
+     */
+    boolean recordExpirationReminder(UUID enrollmentId, OffsetDateTime expiresAt);
+
+    /**
+     * Records a failed attempt to send the reminder for this expiry and returns how many attempts it has had;
+     * 0 if it was sent in the meantime.
+     */
+    int recordFailedExpirationReminder(UUID enrollmentId, OffsetDateTime expiresAt);
+
+    record ExpiredEnrollment(UUID id, UUID studentId, UUID courseId) {
+    }
+
+    record DueReminder(UUID enrollmentId, UUID studentId, String email, String firstName, String courseName,
+                       OffsetDateTime expiresAt) {
+    }
+}
@@ -0,0 +1,167 @@
+package com.mishchuk.onlineschool.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public class EnrollmentRepositoryImpl implements EnrollmentRepositoryCustom {
+
+    private static final String BLOCK_EXPIRED = """
+            UPDATE enrollments
+            SET status = 'BLOCKED', updated_at = NOW()
+            WHERE id IN (:ids)
+              AND status = 'ACTIVE'
+              AND expires_at <= CAST(:now AS timestamptz)
+            RETURNING id, student_id, course_id
+            """;
+
+    private static final String FIND_DUE_EXPIRATION_REMINDERS = """
+            SELECT e.id, p.id, p.email, p.first_name, co.name, e.expires_at
+            FROM enrollments e
+            JOIN persons p ON p.id = e.student_id
+            JOIN courses co ON co.id = e.course_id
+            WHERE e.status = 'ACTIVE'
+              AND e.expires_at >= CAST(:afterExpiresAt AS timestamptz)
+              AND (e.expires_at, e.id) > (CAST(:afterExpiresAt AS timestamptz), CAST(:afterId AS uuid))
+              AND e.expires_at < CAST(:to AS timestamptz)
+              AND NOT EXISTS (
+                  SELECT 1 FROM enrollment_expiry_reminders r
+                  WHERE r.enrollment_id = e.id AND r.expires_at = e.expires_at)
+            ORDER BY e.expires_at, e.id
+            LIMIT :limit
+            """;
+
+    private static final String FIND_RETRIABLE_EXPIRATION_REMINDERS = """
+            SELECT e.id, p.id, p.email, p.first_name, co.name, e.expires_at
+            FROM enrollment_expiry_reminders r
+            JOIN enrollments e ON e.id = r.enrollment_id AND e.expires_at = r.expires_at
+            JOIN persons p ON p.id = e.student_id
+            JOIN courses co ON co.id = e.course_id
+            WHERE r.sent_at IS NULL
+              AND r.attempts < :maxAttempts
+              AND e.status = 'ACTIVE'
+              AND (e.expires_at, e.id) > (CAST(:afterExpiresAt AS timestamptz), CAST(:afterId AS uuid))
+            ORDER BY e.expires_at, e.id
+            LIMIT :limit
+            """;
+
+    private static final String RECORD_EXPIRATION_REMINDER = """
+            INSERT INTO enrollment_expiry_reminders (enrollment_id, expires_at, sent_at, attempts)
+            VALUES (:enrollmentId, CAST(:expiresAt AS timestamptz), NOW(), 1)
+            ON CONFLICT (enrollment_id, expires_at) DO UPDATE
+            SET sent_at = NOW(), attempts = enrollment_expiry_reminders.attempts + 1
+            WHERE enrollment_expiry_reminders.sent_at IS NULL
+            """;
+
+    private static final String RECORD_FAILED_EXPIRATION_REMINDER = """
+            INSERT INTO enrollment_expiry_reminders (enrollment_id, expires_at, sent_at, attempts)
+            VALUES (:enrollmentId, CAST(:expiresAt AS timestamptz), NULL, 1)
+            ON CONFLICT (enrollment_id, expires_at) DO UPDATE
+            SET attempts = enrollment_expiry_reminders.attempts + 1
+            WHERE enrollment_expiry_reminders.sent_at IS NULL
+            RETURNING attempts
+            """;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<ExpiredEnrollment> blockExpired(Collection<UUID> ids, OffsetDateTime now) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Query query = em.createNativeQuery(BLOCK_EXPIRED);
+        query.setParameter("ids", ids);
+        query.setParameter("now", now);
+
+        List<Object[]> rows = query.getResultList();
+        List<ExpiredEnrollment> expired = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            expired.add(new ExpiredEnrollment(toUuid(row[0]), toUuid(row[1]), toUuid(row[2])));
+        }
+        return expired;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<DueReminder> findDueExpirationReminders(OffsetDateTime afterExpiresAt, UUID afterId,
+                                                        OffsetDateTime to, int limit) {
+        Query query = em.createNativeQuery(FIND_DUE_EXPIRATION_REMINDERS);
+        query.setParameter("afterExpiresAt", afterExpiresAt);
+        query.setParameter("afterId", afterId);
+        query.setParameter("to", to);
+        query.setParameter("limit", limit);
+
+        return toDueReminders(query.getResultList());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<DueReminder> findRetriableExpirationReminders(OffsetDateTime afterExpiresAt, UUID afterId,
+                                                              int maxAttempts, int limit) {
+        Query query = em.createNativeQuery(FIND_RETRIABLE_EXPIRATION_REMINDERS);
+        query.setParameter("afterExpiresAt", afterExpiresAt);
+        query.setParameter("afterId", afterId);
+        query.setParameter("maxAttempts", maxAttempts);
+        query.setParameter("limit", limit);
+        return toDueReminders(query.getResultList());
+    }
+
+    @Override
+    public boolean recordExpirationReminder(UUID enrollmentId, OffsetDateTime expiresAt) {
+        return em.createNativeQuery(RECORD_EXPIRATION_REMINDER)
+                .setParameter("enrollmentId", enrollmentId)
+                .setParameter("expiresAt", expiresAt)
+                .executeUpdate() > 0;
+    }
+
+    @Override
+    public int recordFailedExpirationReminder(UUID enrollmentId, OffsetDateTime expiresAt) {
+        List<?> attempts = em.createNativeQuery(RECORD_FAILED_EXPIRATION_REMINDER)
+                .setParameter("enrollmentId", enrollmentId)
+                .setParameter("expiresAt", expiresAt)
+                .getResultList();
+        return attempts.isEmpty() ? 0 : ((Number) attempts.get(0)).intValue();
+    }
+
+    private static List<DueReminder> toDueReminders(List<Object[]> rows) {
+        List<DueReminder> reminders = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            reminders.add(new DueReminder(toUuid(row[0]), toUuid(row[1]), (String) row[2], (String) row[3],
+                    (String) row[4], toOffsetDateTime(row[5])));
+        }
+        return reminders;
+    }
+
+    private static OffsetDateTime toOffsetDateTime(Object value) {
+        Instant instant;
+        if (value instanceof OffsetDateTime offsetDateTime) {
+            instant = offsetDateTime.toInstant();
+        } else if (value instanceof Instant i) {
+            instant = i;
+        } else {
+            instant = ((Timestamp) value).toInstant();
+        }
+        // reminders print the expiry date in the server's zone, as the daily schedule does
+        return instant.atZone(ZoneId.systemDefault()).toOffsetDateTime();
+    }
+
+    private static UUID toUuid(Object value) {
+        if (value == null) {
+            return null;
+        }
+        return value instanceof UUID uuid ? uuid : UUID.fromString(value.toString());
+    }
+}
@@ -4,6 +4,7 @@ import com.mishchuk.onlineschool.repository.entity.FileEntity;
 import com.mishchuk.onlineschool.repository.entity.LessonEntity;
 import com.mishchuk.onlineschool.repository.entity.PersonEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -28,4 +29,34 @@ public interface FileRepository extends JpaRepository<FileEntity, UUID> {
     // Пошук файлів уроку з сортуванням по даті завантаження
     @Query("SELECT f FROM FileEntity f WHERE f.lesson.id = :lessonId ORDER BY f.uploadedAt ASC")
     List<FileEntity> findLessonFilesOrdered(@Param("lessonId") UUID lessonId);
+
+    // Усі файли уроків курсу одним запитом
+    @Query("""
+            SELECT f FROM FileEntity f
+            JOIN f.lesson l
+            JOIN l.module m
+            WHERE m.course.id = :courseId
+            ORDER BY f.uploadedAt ASC, f.id
+            """)
+    List<FileEntity> findTreeByCourseId(@Param("courseId") UUID courseId);
+
+    /**
+     * Copies the file records of the source course's lessons onto the lesson copies made by
+     * {@link LessonRepository#copyIntoCourse}; the stored objects themselves are shared.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO files (id, file_name, original_name, content_type, file_size, minio_object_name, bucket_name,
+                               uploaded_by, uploaded_at, related_entity_type, related_entity_id, lesson_id)
+            SELECT gen_random_uuid(), f.file_name, f.original_name, f.content_type, f.file_size, f.minio_object_name,
+                   f.bucket_name, CAST(:createdById AS uuid), NOW(), f.related_entity_type, f.related_entity_id,
+                   CAST(md5(CAST(f.lesson_id AS text) || CAST(:targetCourseId AS text)) AS uuid)
+            FROM files f
+            JOIN lessons l ON l.id = f.lesson_id
+            JOIN modules m ON m.id = l.module_id
+            WHERE m.course_id = :sourceCourseId
+            """, nativeQuery = true)
+    int copyIntoCourse(@Param("sourceCourseId") UUID sourceCourseId,
+                       @Param("targetCourseId") UUID targetCourseId,
+                       @Param("createdById") UUID createdById);
 }
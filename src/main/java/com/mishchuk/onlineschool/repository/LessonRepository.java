@@ -2,6 +2,9 @@ package com.mishchuk.onlineschool.repository;
 
 import com.mishchuk.onlineschool.repository.entity.LessonEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.UUID;
 
@@ -10,4 +13,34 @@ public interface LessonRepository extends JpaRepository<LessonEntity, UUID> {
     java.util.List<LessonEntity> findByModuleId(UUID moduleId);
 
     java.util.List<LessonEntity> findByModuleIdIsNull();
+
+    /**
+     * Every lesson of every module of a course in one query, for the course content tree.
+     */
+    @Query("""
+            SELECT l FROM LessonEntity l
+            JOIN l.module m
+            LEFT JOIN FETCH l.createdBy
+            WHERE m.course.id = :courseId
+            ORDER BY l.createdAt, l.id
+            """)
+    java.util.List<LessonEntity> findTreeByCourseId(@Param("courseId") UUID courseId);
+
+    /**
+     * Copies the lessons of the source course's modules, attaching each to the module copy made by
+     * {@link ModuleRepository#copyIntoCourse}. Must run after it, in the same transaction.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO lessons (id, module_id, name, description, video_url, duration_minutes, created_by_id, created_at, updated_at)
+            SELECT CAST(md5(CAST(l.id AS text) || CAST(:targetCourseId AS text)) AS uuid),
+                   CAST(md5(CAST(l.module_id AS text) || CAST(:targetCourseId AS text)) AS uuid),
+                   l.name, l.description, l.video_url, l.duration_minutes, CAST(:createdById AS uuid), NOW(), NOW()
+            FROM lessons l
+            JOIN modules m ON m.id = l.module_id
+            WHERE m.course_id = :sourceCourseId
+            """, nativeQuery = true)
+    int copyIntoCourse(@Param("sourceCourseId") UUID sourceCourseId,
+                       @Param("targetCourseId") UUID targetCourseId,
+                       @Param("createdById") UUID createdById);
 }
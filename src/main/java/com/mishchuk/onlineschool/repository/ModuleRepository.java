@@ -2,12 +2,57 @@ package com.mishchuk.onlineschool.repository;
 
 import com.mishchuk.onlineschool.repository.entity.ModuleEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.UUID;
 
 @Repository
 public interface ModuleRepository extends JpaRepository<ModuleEntity, UUID> {
     List<ModuleEntity> findByCourseId(UUID courseId);
+
+    /**
+     * Modules of a course with their authors, for the course content tree.
+     */
+    @Query("""
+            SELECT m FROM ModuleEntity m
+            LEFT JOIN FETCH m.createdBy
+            WHERE m.course.id = :courseId
+            ORDER BY m.createdAt, m.id
+            """)
+    List<ModuleEntity> findTreeByCourseId(@Param("courseId") UUID courseId);
+
+    @Query("SELECT m.id FROM ModuleEntity m WHERE m.course.id = :courseId")
+    List<UUID> findIdsByCourseId(@Param("courseId") UUID courseId);
+
+    /**
+     * Copies every module of the source course into the target course in one statement.
+     * Copy ids are derived from (source id, target course), so the lesson copy can find its module
+     * without a mapping table; see {@link LessonRepository#copyIntoCourse}.
+     */
+    @Modifying
+    @Query(value = """
+            INSERT INTO modules (id, course_id, name, description, lessons_number, created_by_id, created_at, updated_at)
+            SELECT CAST(md5(CAST(m.id AS text) || CAST(:targetCourseId AS text)) AS uuid),
+                   :targetCourseId, m.name, m.description, m.lessons_number, CAST(:createdById AS uuid), NOW(), NOW()
+            FROM modules m
+            WHERE m.course_id = :sourceCourseId
+            """, nativeQuery = true)
+    int copyIntoCourse(@Param("sourceCourseId") UUID sourceCourseId,
+                       @Param("targetCourseId") UUID targetCourseId,
+                       @Param("createdById") UUID createdById);
+
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+            UPDATE modules m
+            SET lessons_count = (SELECT COUNT(*) FROM lessons l WHERE l.module_id = m.id),
+                total_duration_minutes = (SELECT COALESCE(SUM(l.duration_minutes), 0)
+                                          FROM lessons l WHERE l.module_id = m.id)
+            WHERE m.id IN (:ids)
+            """, nativeQuery = true)
+    int refreshCounters(@Param("ids") Collection<UUID> ids);
 }
@@ -0,0 +1,89 @@
+package com.mishchuk.onlineschool.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Unread personal notifications per person in {@code notification_counters}. Writers adjust a counter in the
+ * transaction that changes the notifications (fan-outs do it inside their INSERT, see
+ * {@link NotificationRepositoryCustom}); {@link #repair()} reconciles whatever drifted from the rows themselves.
+ */
+@Repository
+public class NotificationCounterRepository {
+
+    private static final String ADJUST = """
+            INSERT INTO notification_counters (person_id, unread_count)
+            VALUES (:personId, GREATEST(:delta, 0))
+            ON CONFLICT (person_id) DO UPDATE
+            SET unread_count = GREATEST(notification_counters.unread_count + :delta, 0)
+            """;
+
+    private static final String RECOUNT = """
+            INSERT INTO notification_counters (person_id, unread_count)
+            SELECT CAST(:personId AS uuid), COUNT(*)
+            FROM notifications n
+            WHERE n.recipient_id = :personId AND n.is_read = FALSE
+            ON CONFLICT (person_id) DO UPDATE SET unread_count = EXCLUDED.unread_count
+            """;
+
+    private static final String REPAIR_COUNTED = """
+            INSERT INTO notification_counters (person_id, unread_count)
+            SELECT n.recipient_id, COUNT(*)
+            FROM notifications n
+            WHERE n.is_read = FALSE
+            GROUP BY n.recipient_id
+            ON CONFLICT (person_id) DO UPDATE SET unread_count = EXCLUDED.unread_count
+            WHERE notification_counters.unread_count <> EXCLUDED.unread_count
+            """;
+
+    private static final String REPAIR_EMPTY = """
+            UPDATE notification_counters c SET unread_count = 0
+            WHERE c.unread_count <> 0
+              AND NOT EXISTS (SELECT 1 FROM notifications n WHERE n.recipient_id = c.person_id AND n.is_read = FALSE)
+            """;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    public long findUnread(UUID personId) {
+        List<?> rows = em.createNativeQuery("SELECT unread_count FROM notification_counters WHERE person_id = :personId")
+                .setParameter("personId", personId)
+                .getResultList();
+        return rows.isEmpty() ? 0 : ((Number) rows.get(0)).longValue();
+    }
+
+    public void adjust(UUID personId, int delta) {
+        em.createNativeQuery(ADJUST)
+                .setParameter("personId", personId)
+                .setParameter("delta", delta)
+                .executeUpdate();
+    }
+
+    public void reset(UUID personId) {
+        em.createNativeQuery("UPDATE notification_counters SET unread_count = 0 WHERE person_id = :personId")
+                .setParameter("personId", personId)
+                .executeUpdate();
+    }
+
+    /**
+     * Recounts one person from their notifications, for bulk changes whose effect on the count is not known.
+     */
+    public void recount(UUID personId) {
+        em.createNativeQuery(RECOUNT)
+                .setParameter("personId", personId)
+                .executeUpdate();
+    }
+
+    /**
+     * Returns the number of counters that were wrong. A write committing while this runs may be overwritten
+     * by the older count; the next run puts it right.
+     */
+    public int repair() {
+        return em.createNativeQuery(REPAIR_COUNTED).executeUpdate()
+                + em.createNativeQuery(REPAIR_EMPTY).executeUpdate();
+    }
+}
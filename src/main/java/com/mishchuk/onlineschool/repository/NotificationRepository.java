@@ -4,17 +4,45 @@ import com.mishchuk.onlineschool.repository.entity.NotificationEntity;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @Repository
-public interface NotificationRepository extends JpaRepository<NotificationEntity, UUID> {
+public interface NotificationRepository extends JpaRepository<NotificationEntity, UUID>, NotificationRepositoryCustom {
 
     Page<NotificationEntity> findByRecipientIdOrderByCreatedAtDesc(UUID recipientId, Pageable pageable);
 
     long countByRecipientIdAndIsReadFalse(UUID recipientId);
 
+    Optional<NotificationEntity> findByIdAndRecipientId(UUID id, UUID recipientId);
+
     List<NotificationEntity> findByRecipientIdOrderByCreatedAtDesc(UUID recipientId);
+
+    /**
+     * Returns the number of notifications whose state actually changed.
+     */
+    @Modifying
+    @Query("UPDATE NotificationEntity n SET n.isRead = :read WHERE n.recipient.id = :recipientId AND n.isRead <> :read")
+    int updateReadByRecipientId(@Param("recipientId") UUID recipientId, @Param("read") boolean read);
+
+    /**
+     * Marks the given notifications read; ids of other recipients' notifications are ignored.
+     */
+    @Modifying
+    @Query("""
+            UPDATE NotificationEntity n SET n.isRead = true
+            WHERE n.recipient.id = :recipientId AND n.id IN :ids AND n.isRead = false
+            """)
+    int markReadByRecipientIdAndIdIn(@Param("recipientId") UUID recipientId, @Param("ids") Collection<UUID> ids);
+
+    @Modifying
+    @Query("DELETE FROM NotificationEntity n WHERE n.recipient.id = :recipientId")
+    int deleteByRecipientId(@Param("recipientId") UUID recipientId);
 }
@@ -0,0 +1,40 @@
+package com.mishchuk.onlineschool.repository;
+
+import com.mishchuk.onlineschool.repository.entity.NotificationType;
+import com.mishchuk.onlineschool.repository.entity.PersonRole;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * Fan-out as single {@code INSERT ... SELECT FROM persons} statements: recipients are never loaded
+ * and the database writes all rows in one pass. A non-null {@code ownerId} narrows the audience to that
+ * person and the persons they created, which is how a FAKE_ADMIN's messages are scoped. The same statement
+ * bumps the recipients' {@code notification_counters}.
+ * Announcements to everyone are not fanned out at all but stored once, see {@link BroadcastRepository};
+ * {@link #findFeed} merges both on read.
+ */
+public interface NotificationRepositoryCustom {
+
+    /**
+     * Returns the number of notifications created.
+     */
+    int insertForRole(Broadcast broadcast, PersonRole role);
+
+    int insertForPersons(Broadcast broadcast, Collection<UUID> personIds, UUID ownerId);
+
+    /**
+     * The person's personal notifications merged with the broadcasts addressed to them, newest first.
+     */
+    Page<FeedItem> findFeed(UUID personId, Pageable pageable);
+
+    record Broadcast(String title, String message, NotificationType type, String buttonUrl) {
+    }
+
+    record FeedItem(UUID id, String title, String message, String buttonUrl, NotificationType type,
+                    boolean read, OffsetDateTime createdAt) {
+    }
+}
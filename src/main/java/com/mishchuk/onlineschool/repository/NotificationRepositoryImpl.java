@@ -0,0 +1,129 @@
+package com.mishchuk.onlineschool.repository;
+
+import com.mishchuk.onlineschool.repository.entity.NotificationType;
+import com.mishchuk.onlineschool.repository.entity.PersonRole;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public class NotificationRepositoryImpl implements NotificationRepositoryCustom {
+
+    private static final String INSERT_FROM_PERSONS = """
+            INSERT INTO notifications (id, recipient_id, title, message, button_url, type, is_read, created_at)
+            SELECT gen_random_uuid(), p.id, :title, :message, CAST(:buttonUrl AS varchar), :type, FALSE, NOW()
+            FROM persons p
+            WHERE 1=1
+            """;
+    private static final String OWNED = " AND (p.id = :ownerId OR p.created_by_id = :ownerId)";
+
+    // every recipient gets exactly one row, so the counter upsert touches as many rows as were sent
+    private static final String COUNTED = """
+            WITH sent AS (%s RETURNING recipient_id)
+            INSERT INTO notification_counters (person_id, unread_count)
+            SELECT sent.recipient_id, 1 FROM sent
+            ON CONFLICT (person_id) DO UPDATE SET unread_count = notification_counters.unread_count + 1
+            """;
+
+    private static final String FEED = """
+            SELECT n.id, n.title, n.message, n.button_url, n.type, n.is_read, n.created_at
+            FROM notifications n
+            WHERE n.recipient_id = :personId
+            UNION ALL
+            SELECT b.id, b.title, b.message, b.button_url, b.type, COALESCE(r.is_read, FALSE), b.created_at
+            FROM broadcasts b
+            JOIN persons p ON p.id = :personId
+            LEFT JOIN broadcast_receipts r ON r.broadcast_id = b.id AND r.person_id = p.id
+            WHERE r.is_deleted IS NOT TRUE AND\s""" + BroadcastRepositoryImpl.ADDRESSED_TO_PERSON;
+
+    @PersistenceContext
+    private EntityManager em;
+
+    @Override
+    public int insertForRole(Broadcast broadcast, PersonRole role) {
+        Query query = em.createNativeQuery(COUNTED.formatted(INSERT_FROM_PERSONS + " AND p.role = :role"));
+        bind(query, broadcast);
+        query.setParameter("role", role.name());
+        return query.executeUpdate();
+    }
+
+    @Override
+    public int insertForPersons(Broadcast broadcast, Collection<UUID> personIds, UUID ownerId) {
+        if (personIds.isEmpty()) {
+            return 0;
+        }
+        Query query = em.createNativeQuery(COUNTED.formatted(INSERT_FROM_PERSONS + " AND p.id IN (:personIds)"
+                + (ownerId != null ? OWNED : "")));
+        bind(query, broadcast);
+        query.setParameter("personIds", personIds);
+        if (ownerId != null) {
+            query.setParameter("ownerId", ownerId);
+        }
+        return query.executeUpdate();
+    }
+
+    private static void bind(Query query, Broadcast broadcast) {
+        query.setParameter("title", broadcast.title());
+        query.setParameter("message", broadcast.message());
+        query.setParameter("buttonUrl", broadcast.buttonUrl());
+        query.setParameter("type", broadcast.type().name());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Page<FeedItem> findFeed(UUID personId, Pageable pageable) {
+        List<Object[]> rows = em.createNativeQuery("SELECT * FROM (" + FEED + ") feed"
+                        + " ORDER BY feed.created_at DESC, feed.id LIMIT :limit OFFSET :offset")
+                .setParameter("personId", personId)
+                .setParameter("limit", pageable.getPageSize())
+                .setParameter("offset", pageable.getOffset())
+                .getResultList();
+        long total = ((Number) em.createNativeQuery("SELECT COUNT(*) FROM (" + FEED + ") feed")
+                .setParameter("personId", personId)
+                .getSingleResult()).longValue();
+
+        List<FeedItem> items = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            items.add(new FeedItem(
+                    toUuid(row[0]),
+                    (String) row[1],
+                    (String) row[2],
+                    (String) row[3],
+                    NotificationType.valueOf((String) row[4]),
+                    (Boolean) row[5],
+                    toOffsetDateTime(row[6])));
+        }
+        return new PageImpl<>(items, pageable, total);
+    }
+
+    private static UUID toUuid(Object value) {
+        return value instanceof UUID uuid ? uuid : UUID.fromString(value.toString());
+    }
+
+    private static OffsetDateTime toOffsetDateTime(Object value) {
+        Instant instant;
+        if (value == null) {
+            return null;
+        } else if (value instanceof OffsetDateTime offsetDateTime) {
+            instant = offsetDateTime.toInstant();
+        } else if (value instanceof Instant i) {
+            instant = i;
+        } else {
+            instant = ((Timestamp) value).toInstant();
+        }
+        return instant.atZone(ZoneId.systemDefault()).toOffsetDateTime();
+    }
+}
@@ -8,6 +8,8 @@ import java.util.UUID;
 
 import com.mishchuk.onlineschool.repository.entity.PersonRole;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -17,4 +19,10 @@ public interface PersonRepository extends JpaRepository<PersonEntity, UUID>, Per
     List<PersonEntity> findAllByRole(PersonRole role);
 
     List<PersonEntity> findAllByCreatedById(UUID createdById);
+
+    @Query("SELECT p.id FROM PersonEntity p WHERE p.role IN :roles")
+    List<UUID> findIdsByRoleIn(@Param("roles") java.util.Collection<PersonRole> roles);
+
+    @Query("SELECT p.tokenVersion FROM PersonEntity p WHERE p.id = :id")
+    Optional<Integer> findTokenVersionById(@Param("id") UUID id);
 }
@@ -1,12 +1,14 @@
 package com.mishchuk.onlineschool.repository;
 
 import com.mishchuk.onlineschool.repository.entity.PromoCodeEntity;
-import com.mishchuk.onlineschool.repository.entity.PromoCodeStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.Collection;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -14,5 +16,30 @@ import java.util.UUID;
 public interface PromoCodeRepository extends JpaRepository<PromoCodeEntity, UUID>, PromoCodeRepositoryCustom {
     Optional<PromoCodeEntity> findByCodeIgnoreCase(String code);
 
-    List<PromoCodeEntity> findByStatusAndValidFromLessThanEqual(PromoCodeStatus status, LocalDateTime date);
+    /**
+     * Activates the given INACTIVE codes whose {@code validFrom} has come and which have not expired meanwhile.
+     */
+    @Modifying
+    @Query("""
+            UPDATE PromoCodeEntity p
+            SET p.status = com.mishchuk.onlineschool.repository.entity.PromoCodeStatus.ACTIVE, p.statusUpdatedAt = :now
+            WHERE p.id IN :ids
+              AND p.status = com.mishchuk.onlineschool.repository.entity.PromoCodeStatus.INACTIVE
+              AND p.validFrom <= :now
+              AND (p.validUntil IS NULL OR p.validUntil > :now)
+            """)
+    int activateDue(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    /**
+     * Deactivates the given ACTIVE codes whose {@code validUntil} has passed.
+     */
+    @Modifying
+    @Query("""
+            UPDATE PromoCodeEntity p
+            SET p.status = com.mishchuk.onlineschool.repository.entity.PromoCodeStatus.INACTIVE, p.statusUpdatedAt = :now
+            WHERE p.id IN :ids
+              AND p.status = com.mishchuk.onlineschool.repository.entity.PromoCodeStatus.ACTIVE
+              AND p.validUntil <= :now
+            """)
+    int deactivateExpired(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
 }
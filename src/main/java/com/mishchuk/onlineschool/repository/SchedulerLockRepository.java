@@ -0,0 +1,56 @@
+package com.mishchuk.onlineschool.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+
+import java.time.Duration;
+
+/**
+ * The {@code scheduler_locks} table: named leases that let one instance at a time run a scheduled job.
+ * Lease times are taken from the database clock, so instances with skewed clocks agree on them.
+ */
+@Repository
+public class SchedulerLockRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    /**
+     * Takes the lock for {@code lockAtMostFor} if it is free or its lease has ended; false if someone else holds it.
+     */
+    public boolean tryAcquire(String name, String owner, Duration lockAtMostFor) {
+        return !em.createNativeQuery("""
+                        INSERT INTO scheduler_locks (name, locked_at, locked_until, locked_by)
+                        VALUES (:name, NOW(), NOW() + CAST(:atMostMillis AS double precision) * INTERVAL '1 millisecond', :owner)
+                        ON CONFLICT (name) DO UPDATE
+                        SET locked_at = EXCLUDED.locked_at,
+                            locked_until = EXCLUDED.locked_until,
+                            locked_by = EXCLUDED.locked_by
+                        WHERE scheduler_locks.locked_until <= NOW()
+                        RETURNING name
+                        """)
+                .setParameter("name", name)
+                .setParameter("owner", owner)
+                .setParameter("atMostMillis", lockAtMostFor.toMillis())
+                .getResultList()
+                .isEmpty();
+    }
+
+    /**
+     * Ends the lease, but not before {@code lockAtLeastFor} after it was taken, so that instances whose
+     * clocks lag behind do not run the same cron tick again. Does nothing if the lock moved to another owner.
+     */
+    public void release(String name, String owner, Duration lockAtLeastFor) {
+        em.createNativeQuery("""
+                        UPDATE scheduler_locks
+                        SET locked_until = GREATEST(NOW(),
+                            locked_at + CAST(:atLeastMillis AS double precision) * INTERVAL '1 millisecond')
+                        WHERE name = :name AND locked_by = :owner
+                        """)
+                .setParameter("name", name)
+                .setParameter("owner", owner)
+                .setParameter("atLeastMillis", lockAtLeastFor.toMillis())
+                .executeUpdate();
+    }
+}
@@ -0,0 +1,51 @@
+package com.mishchuk.onlineschool.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.stereotype.Repository;
+
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * The {@code scheduler_runs} table: for jobs that work through a range, the point up to which the last completed
+ * run got, so the next run starts there instead of at a fixed offset from today.
+ */
+@Repository
+public class SchedulerRunRepository {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    public Optional<OffsetDateTime> findCoveredUntil(String name) {
+        List<?> rows = em.createNativeQuery("SELECT covered_until FROM scheduler_runs WHERE name = :name")
+                .setParameter("name", name)
+                .getResultList();
+        return rows.stream().findFirst().map(SchedulerRunRepository::toOffsetDateTime);
+    }
+
+    public void recordSuccess(String name, OffsetDateTime coveredUntil) {
+        em.createNativeQuery("""
+                        INSERT INTO scheduler_runs (name, covered_until, succeeded_at)
+                        VALUES (:name, CAST(:coveredUntil AS timestamptz), NOW())
+                        ON CONFLICT (name) DO UPDATE
+                        SET covered_until = EXCLUDED.covered_until,
+                            succeeded_at = EXCLUDED.succeeded_at
+                        """)
+                .setParameter("name", name)
+                .setParameter("coveredUntil", coveredUntil)
+                .executeUpdate();
+    }
+
+    private static OffsetDateTime toOffsetDateTime(Object value) {
+        if (value instanceof OffsetDateTime offsetDateTime) {
+            return offsetDateTime;
+        }
+        if (value instanceof java.time.Instant instant) {
+            return instant.atOffset(ZoneOffset.UTC);
+        }
+        return ((java.sql.Timestamp) value).toInstant().atOffset(ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,43 @@
+package com.mishchuk.onlineschool.repository.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+/**
+ * An announcement stored once for its whole audience; per-person read and delete state lives in
+ * {@code broadcast_receipts}. A null owner means every person, otherwise the owner and the persons they created.
+ */
+@Data
+@Entity
+@Table(name = "broadcasts")
+public class BroadcastEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "owner_id")
+    private PersonEntity owner;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false, length = 1000)
+    private String message;
+
+    @Column(name = "button_url")
+    private String buttonUrl;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private NotificationType type;
+
+    @CreationTimestamp
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private OffsetDateTime createdAt;
+}
@@ -0,0 +1,53 @@
+package com.mishchuk.onlineschool.repository.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Data
+@Entity
+@Table(name = "course_clone_jobs")
+public class CourseCloneJobEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "source_course_id", nullable = false)
+    private UUID sourceCourseId;
+
+    @Column(name = "course_id", nullable = false)
+    private UUID courseId;
+
+    @Column(name = "created_by_id")
+    private UUID createdById;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private CourseCloneJobStatus status = CourseCloneJobStatus.PENDING;
+
+    @Column(name = "modules_copied", nullable = false)
+    private int modulesCopied;
+
+    @Column(name = "lessons_copied", nullable = false)
+    private int lessonsCopied;
+
+    @Column(name = "files_copied", nullable = false)
+    private int filesCopied;
+
+    @Column(name = "error")
+    private String error;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private OffsetDateTime createdAt;
+
+    @Column(name = "started_at")
+    private OffsetDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private OffsetDateTime finishedAt;
+}
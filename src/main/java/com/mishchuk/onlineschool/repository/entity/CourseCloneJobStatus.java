@@ -0,0 +1,5 @@
+package com.mishchuk.onlineschool.repository.entity;
+
+public enum CourseCloneJobStatus {
+    PENDING, RUNNING, COMPLETED, FAILED
+}
@@ -0,0 +1,40 @@
+package com.mishchuk.onlineschool.repository.entity;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.JdbcTypeCode;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+@Data
+@Entity
+@Table(name = "course_cover_derivatives")
+public class CourseCoverDerivativeEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "course_id", nullable = false)
+    private UUID courseId;
+
+    @Column(name = "width", nullable = false)
+    private Integer width;
+
+    // content hash of the original the derivative was rendered from
+    @Column(name = "source_hash", nullable = false)
+    private String sourceHash;
+
+    @Column(name = "content_type", nullable = false)
+    private String contentType;
+
+    @JdbcTypeCode(java.sql.Types.BINARY)
+    @Column(name = "image_data", nullable = false)
+    private byte[] imageData;
+
+    @CreationTimestamp
+    @Column(name = "created_at")
+    private OffsetDateTime createdAt;
+}
@@ -24,6 +24,20 @@ public class CourseCoverEntity {
     @Column(name = "average_color")
     private String averageColor;
 
+    // SHA-256 of imageData, hex encoded; used as the ETag and as the version in cover URLs
+    @Column(name = "content_hash")
+    private String contentHash;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    // key of the original in object storage; when set, imageData is empty
+    @Column(name = "storage_key")
+    private String storageKey;
+
+    @Column(name = "size_bytes")
+    private Long sizeBytes;
+
     @OneToOne(fetch = FetchType.LAZY)
     @MapsId
     @JoinColumn(name = "course_id")
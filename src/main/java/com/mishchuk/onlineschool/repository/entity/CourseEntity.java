@@ -22,8 +22,15 @@ public class CourseEntity {
     @Column(name = "description")
     private String description;
 
-    @Column(name = "modules_number")
-    private Integer modulesNumber;
+    // counters are maintained by CourseRepository.refreshCounters, never written from the entity
+    @Column(name = "modules_number", insertable = false, updatable = false)
+    private Integer modulesNumber = 0;
+
+    @Column(name = "lessons_count", insertable = false, updatable = false)
+    private Integer lessonsCount = 0;
+
+    @Column(name = "total_duration_minutes", insertable = false, updatable = false)
+    private Integer totalDurationMinutes = 0;
 
     @Column(name = "access_duration")
     private Integer accessDuration;
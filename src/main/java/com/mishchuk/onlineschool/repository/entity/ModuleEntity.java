@@ -25,6 +25,13 @@ public class ModuleEntity {
     @Column(name = "lessons_number")
     private Integer lessonsNumber;
 
+    // maintained by ModuleRepository.refreshCounters, never written from the entity
+    @Column(name = "lessons_count", insertable = false, updatable = false)
+    private Integer lessonsCount = 0;
+
+    @Column(name = "total_duration_minutes", insertable = false, updatable = false)
+    private Integer totalDurationMinutes = 0;
+
     @Column(name = "status")
     private String status;
 
@@ -49,6 +49,9 @@ public class PersonEntity {
     @Column(name = "status", nullable = false)
     private PersonStatus status = PersonStatus.ACTIVE;
 
+    @Column(name = "token_version", nullable = false)
+    private Integer tokenVersion = 0;
+
     @Column(name = "language", nullable = false)
     private String language = "uk";
 
@@ -0,0 +1,155 @@
+package com.mishchuk.onlineschool.scheduler;
+
+import com.mishchuk.onlineschool.repository.CourseCloneJobRepository;
+import com.mishchuk.onlineschool.repository.CourseRepository;
+import com.mishchuk.onlineschool.repository.DelayedTaskRepository;
+import com.mishchuk.onlineschool.repository.FileRepository;
+import com.mishchuk.onlineschool.repository.LessonRepository;
+import com.mishchuk.onlineschool.repository.ModuleRepository;
+import com.mishchuk.onlineschool.repository.entity.CourseCloneJobEntity;
+import com.mishchuk.onlineschool.repository.entity.CourseCloneJobStatus;
+import com.mishchuk.onlineschool.service.CourseCounters;
+import com.mishchuk.onlineschool.service.CourseTreeCloner;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Copies course content for jobs registered by {@link CourseTreeCloner}. Each level is copied with a single
+ * {@code INSERT ... SELECT}, and the whole copy commits together with the job's {@code COMPLETED} status.
+ * Copies run on their own threads so a large course does not hold up other delayed tasks; the job's task is
+ * moved one lease ahead until the job finishes, so a copy lost with its instance is started again.
+ * The copy holds a row lock on its job, so a run started while another is still copying skips the job.
+ */
+@Slf4j
+@Component
+public class CourseCloneHandler implements DelayedTaskHandler {
+
+    private final CourseCloneJobRepository courseCloneJobRepository;
+    private final DelayedTaskRepository delayedTaskRepository;
+    private final CourseRepository courseRepository;
+    private final ModuleRepository moduleRepository;
+    private final LessonRepository lessonRepository;
+    private final FileRepository fileRepository;
+    private final CourseCounters courseCounters;
+    private final TransactionTemplate jobTransaction;
+    private final ExecutorService executor;
+
+    public CourseCloneHandler(CourseCloneJobRepository courseCloneJobRepository,
+                              DelayedTaskRepository delayedTaskRepository,
+                              CourseRepository courseRepository,
+                              ModuleRepository moduleRepository,
+                              LessonRepository lessonRepository,
+                              FileRepository fileRepository,
+                              CourseCounters courseCounters,
+                              PlatformTransactionManager transactionManager) {
+        this.courseCloneJobRepository = courseCloneJobRepository;
+        this.delayedTaskRepository = delayedTaskRepository;
+        this.courseRepository = courseRepository;
+        this.moduleRepository = moduleRepository;
+        this.lessonRepository = lessonRepository;
+        this.fileRepository = fileRepository;
+        this.courseCounters = courseCounters;
+        // a failed copy must still record FAILED, so each step commits on its own rather than with the queue
+        this.jobTransaction = new TransactionTemplate(transactionManager);
+        this.jobTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "course-clone-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public String type() {
+        return CourseTreeCloner.TASK_TYPE;
+    }
+
+    /**
+     * Hands unfinished jobs to the copy threads and keeps their tasks queued; finished jobs let their task complete.
+     */
+    @Override
+    public void handle(List<UUID> jobIds) {
+        OffsetDateTime recheckAt = OffsetDateTime.now().plus(DelayedTaskQueue.LEASE);
+        for (CourseCloneJobEntity job : courseCloneJobRepository.findAllById(jobIds)) {
+            if (job.getFinishedAt() != null) {
+                continue;
+            }
+            delayedTaskRepository.schedule(type(), job.getId(), recheckAt);
+            executor.execute(() -> run(job.getId()));
+        }
+    }
+
+    void run(UUID jobId) {
+        jobTransaction.executeWithoutResult(status -> courseCloneJobRepository.markRunning(jobId, OffsetDateTime.now()));
+        CourseCloneJobEntity job;
+        try {
+            job = jobTransaction.execute(status -> courseCloneJobRepository.lockUnfinished(jobId)
+                    .map(this::copy)
+                    .orElse(null));
+        } catch (RuntimeException e) {
+            log.error("Failed to copy the course content of clone job {}", jobId, e);
+            fail(jobId);
+            return;
+        }
+        if (job != null) {
+            log.info("Cloned course {} into {}: {} modules, {} lessons, {} files", job.getSourceCourseId(),
+                    job.getCourseId(), job.getModulesCopied(), job.getLessonsCopied(), job.getFilesCopied());
+        }
+    }
+
+    private CourseCloneJobEntity copy(CourseCloneJobEntity job) {
+        int modules = moduleRepository.copyIntoCourse(job.getSourceCourseId(), job.getCourseId(), job.getCreatedById());
+        int lessons = lessonRepository.copyIntoCourse(job.getSourceCourseId(), job.getCourseId(), job.getCreatedById());
+        int files = fileRepository.copyIntoCourse(job.getSourceCourseId(), job.getCourseId(), job.getCreatedById());
+        courseCounters.refresh(moduleRepository.findIdsByCourseId(job.getCourseId()), List.of(job.getCourseId()));
+        job.setModulesCopied(modules);
+        job.setLessonsCopied(lessons);
+        job.setFilesCopied(files);
+        finish(job, CourseCloneJobStatus.COMPLETED);
+        return job;
+    }
+
+    /**
+     * The copy transaction rolled back, so the target course is still empty; remove it rather than leave a stub.
+     * The job is locked again first, so a copy another run has started in the meantime is left alone.
+     */
+    private void fail(UUID jobId) {
+        try {
+            jobTransaction.executeWithoutResult(status -> courseCloneJobRepository.lockUnfinished(jobId)
+                    .ifPresent(job -> {
+                        courseRepository.findById(job.getCourseId()).ifPresent(courseRepository::delete);
+                        job.setModulesCopied(0);
+                        job.setLessonsCopied(0);
+                        job.setFilesCopied(0);
+                        job.setError("Course content could not be copied");
+                        finish(job, CourseCloneJobStatus.FAILED);
+                    }));
+        } catch (RuntimeException e) {
+            log.warn("Failed to record the failure of course clone job {}", jobId, e);
+        }
+    }
+
+    private void finish(CourseCloneJobEntity job, CourseCloneJobStatus status) {
+        job.setStatus(status);
+        job.setFinishedAt(OffsetDateTime.now());
+        courseCloneJobRepository.save(job);
+        delayedTaskRepository.cancel(type(), job.getId());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -1,63 +1,205 @@
 package com.mishchuk.onlineschool.scheduler;
 
 import com.mishchuk.onlineschool.repository.EnrollmentRepository;
-import com.mishchuk.onlineschool.repository.entity.EnrollmentEntity;
+import com.mishchuk.onlineschool.repository.EnrollmentRepositoryCustom.DueReminder;
+import com.mishchuk.onlineschool.repository.SchedulerRunRepository;
+import com.mishchuk.onlineschool.repository.entity.NotificationType;
 import com.mishchuk.onlineschool.service.EmailService;
-import lombok.RequiredArgsConstructor;
+import com.mishchuk.onlineschool.service.NotificationService;
+import com.mishchuk.onlineschool.service.NotificationService.NewNotification;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
 
-@Component
+/**
+ * Reminds students, in-app and by email, that their access to a course ends in {@link #LEAD_DAYS} days.
+ * Each run covers expiries from where the last run stopped up to the end of the day {@link #LEAD_DAYS} ahead,
+ * so days missed by a downtime are picked up again. Due enrollments come from a range scan over the partial
+ * index on ACTIVE {@code expires_at}; a reminder is recorded in {@code enrollment_expiry_reminders}, together
+ * with its in-app notification, once its email was sent, and recorded reminders are skipped. A failed email
+ * is recorded as an attempt and retried by the following runs, up to {@link #MAX_ATTEMPTS} times, without
+ * holding back the window. Emails go out on a small bounded pool that pushes back on the job instead of
+ * queueing without limit.
+ */
 @Slf4j
-@RequiredArgsConstructor
+@Component
 public class CourseExpirationReminderScheduler {
 
+    static final String JOB_NAME = "expiration-reminders";
+    static final int LEAD_DAYS = 30;
+    static final int BATCH_SIZE = 200;
+    static final int MAX_ATTEMPTS = 5;
+    private static final int EMAIL_THREADS = 2;
+    private static final int EMAIL_QUEUE_CAPACITY = 100;
+    private static final UUID FIRST_ID = new UUID(0, 0);
+
     private final EnrollmentRepository enrollmentRepository;
+    private final SchedulerRunRepository schedulerRunRepository;
+    private final NotificationService notificationService;
     private final EmailService emailService;
+    private final SchedulerLock schedulerLock;
+    private final TransactionTemplate writeTransaction;
+    private final ThreadPoolExecutor emailExecutor;
 
-    @Scheduled(cron = "0 0 9 * * *") // Run every day at 9:00 AM
-    @Transactional
+    public CourseExpirationReminderScheduler(EnrollmentRepository enrollmentRepository,
+                                             SchedulerRunRepository schedulerRunRepository,
+                                             NotificationService notificationService,
+                                             EmailService emailService,
+                                             SchedulerLock schedulerLock,
+                                             PlatformTransactionManager transactionManager) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.schedulerRunRepository = schedulerRunRepository;
+        this.notificationService = notificationService;
+        this.emailService = emailService;
+        this.schedulerLock = schedulerLock;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        AtomicInteger threads = new AtomicInteger();
+        // a full queue makes the job thread send the email itself, which throttles claiming
+        this.emailExecutor = new ThreadPoolExecutor(EMAIL_THREADS, EMAIL_THREADS, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(EMAIL_QUEUE_CAPACITY), runnable -> {
+                    Thread thread = new Thread(runnable, "expiration-reminder-" + threads.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Scheduled(cron = "0 0 10 * * *") // Every day at 10 AM
     public void sendExpirationReminders() {
-        log.info("Starting course expiration reminder check...");
+        // reminders are recorded only after sending, so the lock is what keeps two instances from sending both
+        schedulerLock.runExclusively(JOB_NAME, Duration.ofHours(1), Duration.ofMinutes(1),
+                this::sendDueReminders);
+    }
 
-        List<EnrollmentEntity> activeEnrollments = enrollmentRepository.findByStatus("ACTIVE");
-        int remindersSent = 0;
+    void sendDueReminders() {
+        ZoneId zone = ZoneId.systemDefault();
+        LocalDate day = LocalDate.now().plusDays(LEAD_DAYS);
+        OffsetDateTime to = day.plusDays(1).atStartOfDay(zone).toOffsetDateTime();
+        OffsetDateTime now = OffsetDateTime.now();
+        // after a long downtime, expiries that have already passed get no reminder
+        OffsetDateTime from = schedulerRunRepository.findCoveredUntil(JOB_NAME)
+                .map(coveredUntil -> coveredUntil.isAfter(now) ? coveredUntil : now)
+                .orElseGet(() -> day.atStartOfDay(zone).toOffsetDateTime());
+        log.info("Sending reminders for enrollments expiring from {} to {}...", from, to);
 
-        LocalDate today = LocalDate.now();
+        // reminders that failed on earlier runs go first, so a reminder failing in this run is not tried twice
+        Outcome retried = sendAll(now, (afterExpiresAt, afterId) -> enrollmentRepository
+                .findRetriableExpirationReminders(afterExpiresAt, afterId, MAX_ATTEMPTS, BATCH_SIZE));
+        Outcome due = sendAll(from, (afterExpiresAt, afterId) -> enrollmentRepository
+                .findDueExpirationReminders(afterExpiresAt, afterId, to, BATCH_SIZE));
+        writeTransaction.executeWithoutResult(status -> schedulerRunRepository.recordSuccess(JOB_NAME, to));
 
-        for (EnrollmentEntity enrollment : activeEnrollments) {
-            if (enrollment.getCourse().getAccessDuration() == null) {
-                continue;
+        int sent = retried.sent() + due.sent();
+        int failed = retried.failed() + due.failed();
+        if (failed == 0) {
+            log.info("Expiration reminder check completed. Sent {} reminders.", sent);
+        } else {
+            log.warn("Expiration reminder check completed. Sent {} reminders, {} failed.", sent, failed);
+        }
+    }
+
+    /**
+     * Pages through the reminders from {@code from} in {@code (expires_at, id)} order, sending and recording each page.
+     */
+    private Outcome sendAll(OffsetDateTime from, BiFunction<OffsetDateTime, UUID, List<DueReminder>> page) {
+        int sent = 0;
+        int failed = 0;
+        OffsetDateTime afterExpiresAt = from;
+        UUID afterId = FIRST_ID;
+        List<DueReminder> batch;
+        do {
+            batch = page.apply(afterExpiresAt, afterId);
+            if (batch.isEmpty()) {
+                break;
             }
+            List<DueReminder> delivered = sendEmails(batch);
+            List<DueReminder> undelivered = batch.stream().filter(reminder -> !delivered.contains(reminder)).toList();
+            writeTransaction.executeWithoutResult(status -> record(delivered, undelivered));
+            sent += delivered.size();
+            failed += undelivered.size();
 
-            // Calculate expiration date
-            // created_at + access_duration (days) = expiration_date
-            OffsetDateTime createdAt = enrollment.getCreatedAt();
-            int accessDuration = enrollment.getCourse().getAccessDuration();
-            LocalDate expirationDate = createdAt.plusDays(accessDuration).toLocalDate();
-
-            // Check if expiration is exactly 30 days from now
-            // expiration_date - 30 days = today
-            if (expirationDate.minusDays(30).isEqual(today)) {
-                try {
-                    emailService.sendCourseExpirationReminderEmail(
-                            enrollment.getStudent().getEmail(),
-                            enrollment.getStudent().getFirstName() + " " + enrollment.getStudent().getLastName(),
-                            enrollment.getCourse().getName(),
-                            expirationDate);
-                    remindersSent++;
-                } catch (Exception e) {
-                    log.error("Failed to send expiration reminder for enrollment {}", enrollment.getId(), e);
-                }
+            DueReminder last = batch.get(batch.size() - 1);
+            afterExpiresAt = last.expiresAt();
+            afterId = last.enrollmentId();
+        } while (batch.size() == BATCH_SIZE);
+        return new Outcome(sent, failed);
+    }
+
+    /**
+     * Sends the batch on the email pool and returns the reminders whose email went out.
+     */
+    private List<DueReminder> sendEmails(List<DueReminder> batch) {
+        List<CompletableFuture<Boolean>> results = batch.stream()
+                .map(reminder -> CompletableFuture.supplyAsync(() -> sendEmail(reminder), emailExecutor))
+                .toList();
+        List<DueReminder> delivered = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (results.get(i).join()) {
+                delivered.add(batch.get(i));
             }
         }
+        return delivered;
+    }
+
+    private void record(List<DueReminder> delivered, List<DueReminder> undelivered) {
+        for (DueReminder reminder : undelivered) {
+            int attempts = enrollmentRepository.recordFailedExpirationReminder(
+                    reminder.enrollmentId(), reminder.expiresAt());
+            if (attempts >= MAX_ATTEMPTS) {
+                log.error("Giving up on the expiration reminder for enrollment {} after {} attempts",
+                        reminder.enrollmentId(), attempts);
+            }
+        }
+        notificationService.createNotifications(delivered.stream()
+                .filter(reminder -> enrollmentRepository.recordExpirationReminder(
+                        reminder.enrollmentId(), reminder.expiresAt()))
+                .map(CourseExpirationReminderScheduler::toNotification)
+                .toList());
+    }
+
+    private static NewNotification toNotification(DueReminder reminder) {
+        // a reminder retried or caught up after a downtime is sent less than a month ahead, so only the date is given
+        String message = "Доступ до курсу " + reminder.courseName() + " завершується "
+                + reminder.expiresAt().toLocalDate() + ".";
+        return new NewNotification(reminder.studentId(), "Завершення доступу до курсу", message,
+                NotificationType.COURSE_EXPIRING);
+    }
+
+    private boolean sendEmail(DueReminder reminder) {
+        try {
+            emailService.sendCourseExpirationReminderEmail(
+                    reminder.email(),
+                    reminder.firstName(),
+                    reminder.courseName(),
+                    reminder.expiresAt().toLocalDate());
+            return true;
+        } catch (Exception e) {
+            log.error("Failed to send expiration reminder for enrollment {}", reminder.enrollmentId(), e);
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        emailExecutor.shutdown();
+    }
 
-        log.info("Course expiration reminder check completed. Sent {} reminders.", remindersSent);
+    private record Outcome(int sent, int failed) {
     }
 }
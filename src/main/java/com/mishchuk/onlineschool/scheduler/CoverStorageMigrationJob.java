@@ -0,0 +1,107 @@
+package com.mishchuk.onlineschool.scheduler;
+
+import com.mishchuk.onlineschool.repository.CourseCoverRepository;
+import com.mishchuk.onlineschool.service.CoverContentStore;
+import com.mishchuk.onlineschool.service.CoverObjectStorage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Moves cover originals still stored as {@code bytea} into the configured object storage.
+ * Walks the table in id order in small chunks and holds a single blob in memory at a time;
+ * a row is only switched over if its content did not change while the object was being uploaded.
+ */
+@Slf4j
+@Component
+public class CoverStorageMigrationJob {
+
+    private static final UUID FIRST_ID = new UUID(Long.MIN_VALUE, Long.MIN_VALUE);
+    static final int BATCH_SIZE = 50;
+
+    private final CourseCoverRepository courseCoverRepository;
+    private final CoverContentStore coverContentStore;
+    private final Optional<CoverObjectStorage> objectStorage;
+    private final TransactionTemplate readTransaction;
+    private final TransactionTemplate writeTransaction;
+
+    public CoverStorageMigrationJob(CourseCoverRepository courseCoverRepository,
+                                    CoverContentStore coverContentStore,
+                                    Optional<CoverObjectStorage> objectStorage,
+                                    PlatformTransactionManager transactionManager) {
+        this.courseCoverRepository = courseCoverRepository;
+        this.coverContentStore = coverContentStore;
+        this.objectStorage = objectStorage;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+    }
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void migrate() {
+        if (objectStorage.isEmpty()) {
+            return;
+        }
+        int moved = 0;
+        UUID after = FIRST_ID;
+        List<UUID> batch;
+        do {
+            UUID from = after;
+            batch = readTransaction.execute(status ->
+                    courseCoverRepository.findIdsStoredInDatabase(from, PageRequest.of(0, BATCH_SIZE)));
+            for (UUID courseId : batch) {
+                if (migrateOne(courseId)) {
+                    moved++;
+                }
+                after = courseId;
+            }
+        } while (batch.size() == BATCH_SIZE);
+
+        if (moved > 0) {
+            log.info("Moved {} course cover(s) from the database to object storage", moved);
+        }
+    }
+
+    boolean migrateOne(UUID courseId) {
+        Optional<Source> source = readTransaction.execute(status -> courseCoverRepository.findMetadataByCourseId(courseId)
+                .filter(metadata -> metadata.getStorageKey() == null)
+                .flatMap(metadata -> courseCoverRepository.findImageDataByCourseId(courseId)
+                        .map(data -> new Source(data, metadata.getContentType()))));
+        if (source.isEmpty()) {
+            return false;
+        }
+
+        byte[] data = source.get().data();
+        String hash = CoverContentStore.sha256Hex(data);
+        String key = CoverContentStore.keyFor(hash);
+        try {
+            objectStorage.get().put(key, data, source.get().contentType());
+        } catch (IOException e) {
+            log.warn("Failed to move cover of course {} to object storage, leaving it in the database", courseId, e);
+            return false;
+        }
+
+        Integer updated = writeTransaction.execute(status ->
+                courseCoverRepository.moveToStorage(courseId, hash, key, data.length));
+        if (updated == null || updated == 0) {
+            // replaced meanwhile; drop the object unless something else already points at it
+            coverContentStore.releaseAfterCommit(key);
+            return false;
+        }
+        return true;
+    }
+
+    private record Source(byte[] data, String contentType) {
+    }
+}
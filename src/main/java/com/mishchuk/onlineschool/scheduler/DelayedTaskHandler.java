@@ -0,0 +1,18 @@
+package com.mishchuk.onlineschool.scheduler;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Executes due tasks of one type from the {@link DelayedTaskQueue}.
+ */
+public interface DelayedTaskHandler {
+
+    String type();
+
+    /**
+     * Runs inside the transaction that removes the tasks from the queue; throwing leaves them
+     * to be retried once their lease ends. Must tolerate subjects that no longer exist.
+     */
+    void handle(List<UUID> subjectIds);
+}
@@ -0,0 +1,191 @@
+package com.mishchuk.onlineschool.scheduler;
+
+import com.mishchuk.onlineschool.repository.DelayedTaskRepository;
+import com.mishchuk.onlineschool.repository.DelayedTaskRepository.ClaimedTask;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs tasks at an exact point in time, surviving restarts.
+ * Tasks live in {@code delayed_tasks}; the database is polled once per window for the next due time,
+ * and a single in-memory timer fires at that moment (or when a task is scheduled for earlier),
+ * so tasks run within milliseconds of their due time without polling more often.
+ */
+@Slf4j
+@Component
+public class DelayedTaskQueue {
+
+    static final int BATCH_SIZE = 200;
+    static final int MAX_ATTEMPTS = 5;
+    /**
+     * How long a claimed task is reserved for its worker; a failed task is retried after it.
+     */
+    static final Duration LEASE = Duration.ofMinutes(5);
+
+    private final DelayedTaskRepository delayedTaskRepository;
+    private final Map<String, DelayedTaskHandler> handlers = new HashMap<>();
+    private final TransactionTemplate writeTransaction;
+    private final long windowMillis;
+    private final ScheduledExecutorService timer;
+
+    private ScheduledFuture<?> nextWake;
+    private Instant nextWakeAt;
+
+    public DelayedTaskQueue(DelayedTaskRepository delayedTaskRepository,
+                            List<DelayedTaskHandler> handlers,
+                            PlatformTransactionManager transactionManager,
+                            @Value("${application.delayed-tasks.window:60000}") long windowMillis) {
+        this.delayedTaskRepository = delayedTaskRepository;
+        for (DelayedTaskHandler handler : handlers) {
+            this.handlers.put(handler.type(), handler);
+        }
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.windowMillis = windowMillis;
+        this.timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "delayed-tasks");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Schedules the task, or moves the pending one of the same type and subject, as part of the current transaction.
+     */
+    public void schedule(String type, UUID subjectId, OffsetDateTime dueAt) {
+        delayedTaskRepository.schedule(type, subjectId, dueAt);
+        Instant at = dueAt.toInstant();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    wakeAt(at);
+                }
+            });
+        } else {
+            wakeAt(at);
+        }
+    }
+
+    public void cancel(String type, UUID subjectId) {
+        delayedTaskRepository.cancel(type, subjectId);
+    }
+
+    /**
+     * Picks up tasks scheduled by other instances and tasks whose lease ended.
+     */
+    @Scheduled(fixedDelayString = "${application.delayed-tasks.window:60000}")
+    public void poll() {
+        delayedTaskRepository.findNextDueAt().ifPresent(next -> wakeAt(next.toInstant()));
+    }
+
+    /**
+     * Arms the timer for {@code at} unless it is beyond the current window or already armed for earlier.
+     */
+    synchronized void wakeAt(Instant at) {
+        Instant now = Instant.now();
+        if (at.isAfter(now.plusMillis(windowMillis))) {
+            return;
+        }
+        if (nextWake != null && !nextWake.isDone() && !at.isBefore(nextWakeAt)) {
+            return;
+        }
+        if (nextWake != null) {
+            nextWake.cancel(false);
+        }
+        long delay = Math.max(0, Duration.between(now, at).toMillis());
+        nextWakeAt = at;
+        nextWake = timer.schedule(this::drain, delay, TimeUnit.MILLISECONDS);
+    }
+
+    void drain() {
+        synchronized (this) {
+            nextWake = null;
+            nextWakeAt = null;
+        }
+        try {
+            List<ClaimedTask> claimed;
+            do {
+                OffsetDateTime now = OffsetDateTime.now();
+                // millisecond precision survives the round trip through timestamptz, so complete() can match the lease
+                OffsetDateTime leaseUntil = now.plus(LEASE).truncatedTo(ChronoUnit.MILLIS);
+                claimed = writeTransaction.execute(status -> delayedTaskRepository.claimDue(now, leaseUntil, BATCH_SIZE));
+                run(claimed, leaseUntil);
+            } while (claimed.size() == BATCH_SIZE);
+
+            delayedTaskRepository.findNextDueAt().ifPresent(next -> wakeAt(next.toInstant()));
+        } catch (RuntimeException e) {
+            log.error("Failed to drain delayed tasks", e);
+        }
+    }
+
+    private void run(List<ClaimedTask> claimed, OffsetDateTime leaseUntil) {
+        Map<String, List<ClaimedTask>> byType = new LinkedHashMap<>();
+        List<UUID> dropped = new ArrayList<>();
+        for (ClaimedTask task : claimed) {
+            if (task.attempts() > MAX_ATTEMPTS || !handlers.containsKey(task.type())) {
+                log.error("Dropping delayed task {} ({} for {}) after {} attempt(s)",
+                        task.id(), task.type(), task.subjectId(), task.attempts() - 1);
+                dropped.add(task.id());
+            } else {
+                byType.computeIfAbsent(task.type(), type -> new ArrayList<>()).add(task);
+            }
+        }
+        if (!dropped.isEmpty()) {
+            writeTransaction.executeWithoutResult(status -> delayedTaskRepository.complete(dropped, leaseUntil));
+        }
+
+        byType.forEach((type, tasks) -> {
+            if (!handle(type, tasks, leaseUntil) && tasks.size() > 1) {
+                // one bad subject must not hold back or use up the attempts of the rest of the batch
+                log.warn("Batch of {} delayed task(s) of type {} failed, handling them one by one", tasks.size(), type);
+                tasks.forEach(task -> handle(type, List.of(task), leaseUntil));
+            }
+        });
+    }
+
+    /**
+     * Handles the tasks and completes them in one transaction; false when it rolled back,
+     * leaving the tasks to be retried after the lease.
+     */
+    private boolean handle(String type, List<ClaimedTask> tasks, OffsetDateTime leaseUntil) {
+        List<UUID> ids = tasks.stream().map(ClaimedTask::id).toList();
+        List<UUID> subjectIds = tasks.stream().map(ClaimedTask::subjectId).toList();
+        try {
+            writeTransaction.executeWithoutResult(status -> {
+                handlers.get(type).handle(subjectIds);
+                delayedTaskRepository.complete(ids, leaseUntil);
+            });
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("{} delayed task(s) of type {} failed, retrying after {}", tasks.size(), type, leaseUntil, e);
+            return false;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+    }
+}
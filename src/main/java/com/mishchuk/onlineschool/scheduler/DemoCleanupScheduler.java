@@ -1,32 +1,44 @@
 package com.mishchuk.onlineschool.scheduler;
 
-import com.mishchuk.onlineschool.repository.CourseRepository;
-import com.mishchuk.onlineschool.repository.LessonRepository;
-import com.mishchuk.onlineschool.repository.ModuleRepository;
+import com.mishchuk.onlineschool.repository.DemoDataRepository;
+import com.mishchuk.onlineschool.repository.DemoDataRepository.LessonParents;
 import com.mishchuk.onlineschool.repository.PersonRepository;
-import com.mishchuk.onlineschool.repository.entity.CourseEntity;
-import com.mishchuk.onlineschool.repository.entity.PersonEntity;
 import com.mishchuk.onlineschool.repository.entity.PersonRole;
+import com.mishchuk.onlineschool.service.CourseCatalog;
+import com.mishchuk.onlineschool.service.CourseCounters;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Duration;
 import java.time.OffsetDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.UUID;
-import java.util.stream.Collectors;
 
+/**
+ * Removes data created by FAKE_ADMIN and FAKE_USER accounts: hourly for everything older than a day,
+ * and right after a demo user logs out, through the {@link DelayedTaskQueue} so logout does not wait for it.
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
-public class DemoCleanupScheduler {
+public class DemoCleanupScheduler implements DelayedTaskHandler {
+
+    public static final String TASK_TYPE = "DEMO_CLEANUP";
+    /**
+     * Creators per set of DELETE statements, which keeps the IN lists well below the bind parameter limit.
+     */
+    static final int CREATOR_CHUNK = 500;
 
     private final PersonRepository personRepository;
-    private final CourseRepository courseRepository;
-    private final ModuleRepository moduleRepository;
-    private final LessonRepository lessonRepository;
+    private final DemoDataRepository demoDataRepository;
+    private final CourseCounters courseCounters;
+    private final CourseCatalog courseCatalog;
+    private final SchedulerLock schedulerLock;
 
     /**
      * Executes every hour to clean up data created by FAKE_ADMIN or FAKE_USER
@@ -35,87 +47,62 @@ public class DemoCleanupScheduler {
     @Scheduled(cron = "0 0 * * * *")
     @Transactional
     public void cleanupOldDemoData() {
-        log.info("Starting scheduled cleanup of old demo data...");
-        OffsetDateTime threshold = OffsetDateTime.now().minusHours(24);
-        cleanupDemoDataCreatedBefore(threshold, null);
-        log.info("Finished scheduled cleanup of old demo data.");
+        schedulerLock.runExclusively("demo-cleanup", Duration.ofMinutes(30), Duration.ofMinutes(1), () -> {
+            log.info("Starting scheduled cleanup of old demo data...");
+            List<UUID> demoUsers = personRepository.findIdsByRoleIn(List.of(PersonRole.FAKE_ADMIN, PersonRole.FAKE_USER));
+            cleanupCreatedBefore(demoUsers, OffsetDateTime.now().minusHours(24));
+            log.info("Finished scheduled cleanup of old demo data.");
+        });
+    }
+
+    @Override
+    public String type() {
+        return TASK_TYPE;
     }
 
     /**
-     * Instantly cleans up all data created by a specific user.
-     * Used mainly for the logout hook.
-     * 
-     * @param userId The ID of the fake user
+     * Cleans up everything the given demo users have created so far; queued by the logout hook.
      */
-    @Transactional
-    public void cleanupDataForUser(UUID userId) {
-        log.info("Starting instant cleanup for demo user: {}", userId);
-        cleanupDemoDataCreatedBefore(OffsetDateTime.now().plusDays(1), userId); // Clean everything up to now
-        log.info("Finished instant cleanup for demo user: {}", userId);
+    @Override
+    public void handle(List<UUID> userIds) {
+        cleanupCreatedBefore(userIds, OffsetDateTime.now());
     }
 
-    private void cleanupDemoDataCreatedBefore(OffsetDateTime threshold, UUID specificUserId) {
-        List<PersonEntity> fakeUsers;
-
-        if (specificUserId != null) {
-            fakeUsers = personRepository.findById(specificUserId).stream().toList();
-        } else {
-            // Find all demo users
-            List<PersonEntity> fakeAdmins = personRepository.findAllByRole(PersonRole.FAKE_ADMIN);
-            List<PersonEntity> fakeStandardUsers = personRepository.findAllByRole(PersonRole.FAKE_USER);
-
-            fakeUsers = new java.util.ArrayList<>();
-            fakeUsers.addAll(fakeAdmins);
-            fakeUsers.addAll(fakeStandardUsers);
+    private void cleanupCreatedBefore(List<UUID> creatorIds, OffsetDateTime threshold) {
+        int deletedCourses = 0;
+        int deletedModules = 0;
+        int deletedLessons = 0;
+        int deletedPromoCodes = 0;
+        int deletedPersons = 0;
+        Set<UUID> touchedModules = new HashSet<>();
+        Set<UUID> touchedCourses = new HashSet<>();
+
+        for (int from = 0; from < creatorIds.size(); from += CREATOR_CHUNK) {
+            List<UUID> chunk = creatorIds.subList(from, Math.min(from + CREATOR_CHUNK, creatorIds.size()));
+
+            // children first: module and lesson foreign keys do not cascade
+            LessonParents lessonParents = demoDataRepository.deleteLessons(chunk, threshold);
+            deletedLessons += lessonParents.deleted();
+            touchedModules.addAll(lessonParents.moduleIds());
+            touchedCourses.addAll(lessonParents.courseIds());
+
+            List<UUID> moduleCourses = demoDataRepository.deleteModules(chunk, threshold);
+            deletedModules += moduleCourses.size();
+            touchedCourses.addAll(moduleCourses);
+
+            demoDataRepository.deleteReviewRequests(chunk, threshold);
+            deletedCourses += demoDataRepository.deleteCourses(chunk, threshold);
+            deletedPromoCodes += demoDataRepository.deletePromoCodes(chunk, threshold);
+            deletedPersons += demoDataRepository.deletePersons(chunk, threshold);
         }
 
-        int deletedCoursesCount = 0;
-        int deletedModulesCount = 0;
-        int deletedLessonsCount = 0;
-
-        for (PersonEntity fakeUser : fakeUsers) {
-            // 1. Clean up old Courses (Cascade will drop related modules/lessons if set up,
-            // but let's be explicit if not)
-            List<CourseEntity> oldCourses = courseRepository.findAll().stream()
-                    .filter(c -> c.getCreatedBy() != null &&
-                            c.getCreatedBy().getId().equals(fakeUser.getId()) &&
-                            c.getCreatedAt().isBefore(threshold))
-                    .collect(Collectors.toList());
-
-            if (!oldCourses.isEmpty()) {
-                courseRepository.deleteAll(oldCourses);
-                deletedCoursesCount += oldCourses.size();
-            }
-
-            // Note: If orphans exist for modules/lessons (e.g., added to a real course by a
-            // fake admin),
-            // this is where we would sweep them.
-            // For now, depending on cascade, deleting the course deletes its modules and
-            // lessons.
-            // If they can create standalone modules/lessons, we delete them here.
-
-            var oldModules = moduleRepository.findAll().stream()
-                    .filter(m -> m.getCreatedBy() != null &&
-                            m.getCreatedBy().getId().equals(fakeUser.getId()) &&
-                            m.getCreatedAt().isBefore(threshold))
-                    .collect(Collectors.toList());
-            if (!oldModules.isEmpty()) {
-                moduleRepository.deleteAll(oldModules);
-                deletedModulesCount += oldModules.size();
-            }
-
-            var oldLessons = lessonRepository.findAll().stream()
-                    .filter(l -> l.getCreatedBy() != null &&
-                            l.getCreatedBy().getId().equals(fakeUser.getId()) &&
-                            l.getCreatedAt().isBefore(threshold))
-                    .collect(Collectors.toList());
-            if (!oldLessons.isEmpty()) {
-                lessonRepository.deleteAll(oldLessons);
-                deletedLessonsCount += oldLessons.size();
-            }
+        if (deletedCourses + deletedModules + deletedLessons > 0) {
+            // rows of deleted modules and courses are simply no longer there to update
+            courseCounters.refresh(touchedModules, touchedCourses);
+            courseCatalog.catalogChanged();
         }
 
-        log.info("Cleanup summary: Deleted {} courses, {} modules, {} lessons.",
-                deletedCoursesCount, deletedModulesCount, deletedLessonsCount);
+        log.info("Cleanup summary: Deleted {} courses, {} modules, {} lessons, {} promo codes, {} users.",
+                deletedCourses, deletedModules, deletedLessons, deletedPromoCodes, deletedPersons);
     }
 }
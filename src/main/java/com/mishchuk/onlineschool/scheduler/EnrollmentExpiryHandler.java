@@ -0,0 +1,52 @@
+package com.mishchuk.onlineschool.scheduler;
+
+import com.mishchuk.onlineschool.repository.EnrollmentRepository;
+import com.mishchuk.onlineschool.repository.EnrollmentRepositoryCustom.ExpiredEnrollment;
+import com.mishchuk.onlineschool.service.EnrollmentExpiry;
+import com.mishchuk.onlineschool.service.EntitlementService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Blocks enrollments at the moment their access ends, as scheduled by {@link EnrollmentExpiry}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class EnrollmentExpiryHandler implements DelayedTaskHandler {
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final EntitlementService entitlementService;
+
+    @Override
+    public String type() {
+        return EnrollmentExpiry.TASK_TYPE;
+    }
+
+    @Override
+    public void handle(List<UUID> enrollmentIds) {
+        List<ExpiredEnrollment> expired = enrollmentRepository.blockExpired(enrollmentIds, OffsetDateTime.now());
+
+        Map<UUID, Set<UUID>> courseIdsByStudent = new HashMap<>();
+        for (ExpiredEnrollment enrollment : expired) {
+            if (enrollment.studentId() != null) {
+                courseIdsByStudent.computeIfAbsent(enrollment.studentId(), id -> new HashSet<>())
+                        .add(enrollment.courseId());
+            }
+        }
+        entitlementService.evictAll(courseIdsByStudent);
+
+        if (!expired.isEmpty()) {
+            log.info("Blocked {} expired enrollment(s)", expired.size());
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.mishchuk.onlineschool.scheduler;
+
+import com.mishchuk.onlineschool.service.UnreadCounters;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Recounts unread notifications from the rows themselves once an hour and fixes the counters that drifted,
+ * e.g. through a write that raced the previous repair or notifications removed outside the service.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationCounterRepairScheduler {
+
+    private final UnreadCounters unreadCounters;
+    private final SchedulerLock schedulerLock;
+
+    @Scheduled(cron = "0 30 * * * *")
+    public void repairCounters() {
+        schedulerLock.runExclusively("notification-counter-repair", Duration.ofMinutes(30), Duration.ofMinutes(1),
+                () -> {
+                    int fixed = unreadCounters.repair();
+                    log.info("Unread notification counter check completed. Fixed {} counters.", fixed);
+                });
+    }
+}
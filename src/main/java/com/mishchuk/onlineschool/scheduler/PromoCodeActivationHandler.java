@@ -0,0 +1,35 @@
+package com.mishchuk.onlineschool.scheduler;
+
+import com.mishchuk.onlineschool.repository.PromoCodeRepository;
+import com.mishchuk.onlineschool.service.PromoCodeSchedule;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Activates promo codes at their {@code validFrom}, as scheduled by {@link PromoCodeSchedule}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PromoCodeActivationHandler implements DelayedTaskHandler {
+
+    private final PromoCodeRepository promoCodeRepository;
+
+    @Override
+    public String type() {
+        return PromoCodeSchedule.ACTIVATION_TASK_TYPE;
+    }
+
+    @Override
+    public void handle(List<UUID> promoCodeIds) {
+        int activated = promoCodeRepository.activateDue(promoCodeIds, LocalDateTime.now());
+        if (activated > 0) {
+            log.info("Automatically activated {} promo code(s)", activated);
+        }
+    }
+}
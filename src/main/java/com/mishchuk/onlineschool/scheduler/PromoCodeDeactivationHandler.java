@@ -0,0 +1,35 @@
+package com.mishchuk.onlineschool.scheduler;
+
+import com.mishchuk.onlineschool.repository.PromoCodeRepository;
+import com.mishchuk.onlineschool.service.PromoCodeSchedule;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Deactivates promo codes once their {@code validUntil} has passed, as scheduled by {@link PromoCodeSchedule}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PromoCodeDeactivationHandler implements DelayedTaskHandler {
+
+    private final PromoCodeRepository promoCodeRepository;
+
+    @Override
+    public String type() {
+        return PromoCodeSchedule.DEACTIVATION_TASK_TYPE;
+    }
+
+    @Override
+    public void handle(List<UUID> promoCodeIds) {
+        int deactivated = promoCodeRepository.deactivateExpired(promoCodeIds, LocalDateTime.now());
+        if (deactivated > 0) {
+            log.info("Automatically deactivated {} expired promo code(s)", deactivated);
+        }
+    }
+}
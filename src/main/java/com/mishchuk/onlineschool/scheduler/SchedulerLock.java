@@ -0,0 +1,116 @@
+package com.mishchuk.onlineschool.scheduler;
+
+import com.mishchuk.onlineschool.repository.SchedulerLockRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lets a scheduled job run on one instance at a time, so running several replicas does not multiply its cost.
+ * Locks are leases in {@code scheduler_locks}: a holder that dies without releasing only blocks the job
+ * until {@code lockAtMostFor} has passed. Work that is already shared out row by row
+ * ({@link DelayedTaskQueue}) does not need a lock.
+ */
+@Slf4j
+@Component
+public class SchedulerLock {
+
+    private final SchedulerLockRepository schedulerLockRepository;
+    private final TransactionTemplate lockTransaction;
+    private final String owner;
+    private final Map<String, Stats> stats = new ConcurrentHashMap<>();
+
+    public SchedulerLock(SchedulerLockRepository schedulerLockRepository,
+                         PlatformTransactionManager transactionManager) {
+        this.schedulerLockRepository = schedulerLockRepository;
+        // lock bookkeeping commits on its own, also when the job runs inside a transaction
+        this.lockTransaction = new TransactionTemplate(transactionManager);
+        this.lockTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.owner = Optional.ofNullable(System.getenv("HOSTNAME")).orElse("instance") + "/" + UUID.randomUUID();
+    }
+
+    /**
+     * Runs {@code job} if no other instance holds the lock {@code name}; returns false when it was skipped.
+     * Called inside a transaction, the lock is released only after that transaction has completed.
+     */
+    public boolean runExclusively(String name, Duration lockAtMostFor, Duration lockAtLeastFor, Runnable job) {
+        Stats jobStats = stats.computeIfAbsent(name, key -> new Stats());
+        if (!Boolean.TRUE.equals(lockTransaction.execute(status ->
+                schedulerLockRepository.tryAcquire(name, owner, lockAtMostFor)))) {
+            jobStats.skipped.incrementAndGet();
+            log.debug("Skipping {}: locked by another instance", name);
+            return false;
+        }
+        jobStats.acquired.incrementAndGet();
+        long started = System.nanoTime();
+        try {
+            job.run();
+        } finally {
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        release(name, lockAtMostFor, lockAtLeastFor, started, jobStats);
+                    }
+                });
+            } else {
+                release(name, lockAtMostFor, lockAtLeastFor, started, jobStats);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * How often this instance ran or skipped the job, and how long it held the lock.
+     */
+    public Optional<LockMetrics> metrics(String name) {
+        return Optional.ofNullable(stats.get(name)).map(Stats::snapshot);
+    }
+
+    private void release(String name, Duration lockAtMostFor, Duration lockAtLeastFor, long started, Stats jobStats) {
+        long heldMillis = Duration.ofNanos(System.nanoTime() - started).toMillis();
+        jobStats.held(heldMillis);
+        if (heldMillis > lockAtMostFor.toMillis()) {
+            log.warn("{} held its lock for {} ms, longer than its {} lease; another instance may have run it too",
+                    name, heldMillis, lockAtMostFor);
+        } else {
+            log.debug("{} held its lock for {} ms", name, heldMillis);
+        }
+        try {
+            lockTransaction.executeWithoutResult(status ->
+                    schedulerLockRepository.release(name, owner, lockAtLeastFor));
+        } catch (RuntimeException e) {
+            log.warn("Failed to release lock {}, it frees up when its lease ends", name, e);
+        }
+    }
+
+    public record LockMetrics(long acquired, long skipped, long lastHeldMillis, long maxHeldMillis) {
+    }
+
+    private static final class Stats {
+        private final AtomicLong acquired = new AtomicLong();
+        private final AtomicLong skipped = new AtomicLong();
+        private final AtomicLong lastHeldMillis = new AtomicLong();
+        private final AtomicLong maxHeldMillis = new AtomicLong();
+
+        void held(long millis) {
+            lastHeldMillis.set(millis);
+            maxHeldMillis.accumulateAndGet(millis, Math::max);
+        }
+
+        LockMetrics snapshot() {
+            return new LockMetrics(acquired.get(), skipped.get(), lastHeldMillis.get(), maxHeldMillis.get());
+        }
+    }
+}
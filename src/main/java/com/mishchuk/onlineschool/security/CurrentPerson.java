@@ -0,0 +1,98 @@
+package com.mishchuk.onlineschool.security;
+
+import com.mishchuk.onlineschool.repository.PersonRepository;
+import com.mishchuk.onlineschool.repository.entity.PersonEntity;
+import com.mishchuk.onlineschool.repository.entity.PersonRole;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Resolves the person behind the current authentication.
+ * Inside an HTTP request the person is loaded at most once and kept in the request attributes,
+ * so services and controllers asking for it several times share a single query.
+ * Outside a request (schedulers, async tasks) every call loads the person directly.
+ */
+@Component
+@RequiredArgsConstructor
+public class CurrentPerson {
+
+    private static final String ATTRIBUTE = CurrentPerson.class.getName();
+
+    private final PersonRepository personRepository;
+
+    /**
+     * Returns the authenticated person, or empty for anonymous requests.
+     */
+    public Optional<PersonEntity> get() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken
+                || "anonymousUser".equals(auth.getPrincipal())) {
+            return Optional.empty();
+        }
+
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return load(auth);
+        }
+
+        if (attributes.getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) instanceof Resolved resolved
+                && resolved.email().equals(auth.getName())) {
+            return resolved.person();
+        }
+        Optional<PersonEntity> person = load(auth);
+        attributes.setAttribute(ATTRIBUTE, new Resolved(auth.getName(), person), RequestAttributes.SCOPE_REQUEST);
+        return person;
+    }
+
+    /**
+     * Returns the id of the authenticated person without touching the database
+     * when the principal was built from access token claims.
+     */
+    public Optional<UUID> getId() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof PersonPrincipal principal) {
+            return Optional.of(principal.getId());
+        }
+        return get().map(PersonEntity::getId);
+    }
+
+    /**
+     * Returns the role of the authenticated person, likewise from the token claims when available;
+     * a role change revokes the person's tokens, so the claim is never stale.
+     */
+    public Optional<PersonRole> getRole() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth != null && auth.getPrincipal() instanceof PersonPrincipal principal) {
+            return Optional.of(principal.getRole());
+        }
+        return get().map(PersonEntity::getRole);
+    }
+
+    /**
+     * Drops the memoised person, e.g. after the authenticated person was deleted.
+     */
+    public void clear() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.removeAttribute(ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    private Optional<PersonEntity> load(Authentication auth) {
+        if (auth.getPrincipal() instanceof PersonPrincipal principal) {
+            return personRepository.findById(principal.getId());
+        }
+        return personRepository.findByEmail(auth.getName());
+    }
+
+    private record Resolved(String email, Optional<PersonEntity> person) {
+    }
+}
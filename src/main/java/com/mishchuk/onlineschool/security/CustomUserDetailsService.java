@@ -8,24 +8,40 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
+
 @Service
 @RequiredArgsConstructor
 public class CustomUserDetailsService implements UserDetailsService {
 
     private final PersonRepository personRepository;
+    private final TokenVersionCache tokenVersionCache;
+    private final CurrentPerson currentPerson;
 
     @Override
     public UserDetails loadUserByUsername(String email) throws UsernameNotFoundException {
         PersonEntity person = personRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
-        return org.springframework.security.core.userdetails.User
-                .withUsername(person.getEmail())
-                .password(person.getPassword())
-                .roles(person.getRole() != null ? person.getRole().name() : "USER")
-                .build();
+        return PersonPrincipal.from(person);
+    }
+
+    /**
+     * Checks that a principal built from token claims has not been revoked by a later
+     * status or role change. Served from memory, without a query per request.
+     */
+    public boolean isTokenCurrent(PersonPrincipal principal) {
+        return tokenVersionCache.isCurrent(principal.getId(), principal.getTokenVersion());
     }
 
+    /**
+     * Loads a person by email. Lookups of the authenticated person reuse the instance
+     * already resolved for the current request.
+     */
     public PersonEntity getPerson(String email) {
+        Optional<PersonEntity> current = currentPerson.get();
+        if (current.isPresent() && current.get().getEmail().equals(email)) {
+            return current.get();
+        }
         return personRepository.findByEmail(email)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
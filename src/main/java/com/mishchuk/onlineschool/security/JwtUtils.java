@@ -1,5 +1,7 @@
 package com.mishchuk.onlineschool.security;
 
+import com.mishchuk.onlineschool.repository.entity.PersonRole;
+import com.mishchuk.onlineschool.repository.entity.PersonStatus;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
@@ -19,6 +21,11 @@ import java.util.function.Function;
 @Component
 public class JwtUtils {
 
+    private static final String CLAIM_PERSON_ID = "personId";
+    private static final String CLAIM_ROLE = "role";
+    private static final String CLAIM_STATUS = "status";
+    private static final String CLAIM_TOKEN_VERSION = "ver";
+
     @Value("${application.security.jwt.secret-key}")
     private String secretKey;
 
@@ -42,7 +49,36 @@ public class JwtUtils {
     }
 
     public String generateToken(Map<String, Object> extraClaims, UserDetails userDetails) {
-        return buildToken(extraClaims, userDetails, jwtExpiration);
+        Map<String, Object> claims = new HashMap<>(extraClaims);
+        if (userDetails instanceof PersonPrincipal principal) {
+            claims.put(CLAIM_PERSON_ID, principal.getId().toString());
+            claims.put(CLAIM_ROLE, principal.getRole().name());
+            claims.put(CLAIM_STATUS, principal.getStatus().name());
+            claims.put(CLAIM_TOKEN_VERSION, principal.getTokenVersion());
+        }
+        return buildToken(claims, userDetails, jwtExpiration);
+    }
+
+    /**
+     * Builds the principal from the claims of a verified access token.
+     * Returns null for tokens issued without person claims (legacy, refresh or magic link tokens).
+     */
+    public PersonPrincipal extractPrincipal(String token) {
+        Claims claims = extractAllClaims(token);
+        String personId = claims.get(CLAIM_PERSON_ID, String.class);
+        String role = claims.get(CLAIM_ROLE, String.class);
+        Integer tokenVersion = claims.get(CLAIM_TOKEN_VERSION, Integer.class);
+        if (personId == null || role == null || tokenVersion == null || claims.get("type") != null) {
+            return null;
+        }
+        String status = claims.get(CLAIM_STATUS, String.class);
+        return new PersonPrincipal(
+                UUID.fromString(personId),
+                claims.getSubject(),
+                null,
+                PersonRole.valueOf(role),
+                status != null ? PersonStatus.valueOf(status) : null,
+                tokenVersion);
     }
 
     public String generateRefreshToken(UUID personId) {
@@ -0,0 +1,83 @@
+package com.mishchuk.onlineschool.security;
+
+import com.mishchuk.onlineschool.repository.entity.PersonEntity;
+import com.mishchuk.onlineschool.repository.entity.PersonRole;
+import com.mishchuk.onlineschool.repository.entity.PersonStatus;
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Authenticated person as seen by the security layer.
+ * Built either from the database (login, refresh) or from verified access token claims,
+ * so that regular API requests do not need to load the person entity.
+ */
+@Getter
+public class PersonPrincipal implements UserDetails {
+
+    private final UUID id;
+    private final String email;
+    private final String password;
+    private final PersonRole role;
+    private final PersonStatus status;
+    private final int tokenVersion;
+
+    public PersonPrincipal(UUID id, String email, String password, PersonRole role, PersonStatus status,
+            int tokenVersion) {
+        this.id = id;
+        this.email = email;
+        this.password = password;
+        this.role = role != null ? role : PersonRole.USER;
+        this.status = status != null ? status : PersonStatus.ACTIVE;
+        this.tokenVersion = tokenVersion;
+    }
+
+    public static PersonPrincipal from(PersonEntity person) {
+        return new PersonPrincipal(
+                person.getId(),
+                person.getEmail(),
+                person.getPassword(),
+                person.getRole(),
+                person.getStatus(),
+                person.getTokenVersion() != null ? person.getTokenVersion() : 0);
+    }
+
+    public boolean isBlocked() {
+        return status == PersonStatus.BLOCKED;
+    }
+
+    @Override
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return List.of(new SimpleGrantedAuthority("ROLE_" + role.name()));
+    }
+
+    @Override
+    public String getUsername() {
+        return email;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+}
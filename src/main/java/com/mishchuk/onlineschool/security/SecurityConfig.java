@@ -1,5 +1,6 @@
 package com.mishchuk.onlineschool.security;
 
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -59,6 +60,8 @@ public class SecurityConfig {
                 .csrf(AbstractHttpConfigurer::disable)
                 .cors(Customizer.withDefaults())
                 .authorizeHttpRequests(auth -> auth
+                        // the request was authorized when it started; re-dispatches of a stream have no token
+                        .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                         .requestMatchers("/auth/change-password").authenticated()
                         .requestMatchers("/auth/**").permitAll()
                         .requestMatchers(HttpMethod.POST, "/appeals/public").permitAll()
@@ -68,6 +71,7 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.PUT, "/lessons/**").authenticated()
                         .requestMatchers(HttpMethod.DELETE, "/lessons/**").authenticated()
                         .requestMatchers(HttpMethod.GET, "/modules", "/modules/**").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/search").permitAll()
                         .requestMatchers("/files/my-files").authenticated()
                         .requestMatchers("/uploads/**").authenticated()
                         .requestMatchers(HttpMethod.DELETE, "/files/**").authenticated()
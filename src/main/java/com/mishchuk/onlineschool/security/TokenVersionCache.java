@@ -0,0 +1,95 @@
+package com.mishchuk.onlineschool.security;
+
+import com.mishchuk.onlineschool.repository.PersonRepository;
+import com.mishchuk.onlineschool.repository.entity.PersonEntity;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the current token version of recently active persons in memory.
+ * Access tokens carry the version they were issued with; bumping the version
+ * (status or role change) revokes every token issued before it.
+ * A person's version is re-read from the database at most once per TTL.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TokenVersionCache {
+
+    private static final int MAX_ENTRIES = 10_000;
+
+    private final PersonRepository personRepository;
+
+    @Value("${application.security.jwt.token-version-ttl:60000}")
+    private long ttlMillis;
+
+    private final Map<UUID, CachedVersion> versions = new ConcurrentHashMap<>();
+
+    public boolean isCurrent(UUID personId, int tokenVersion) {
+        Integer current = currentVersion(personId);
+        return current != null && current == tokenVersion;
+    }
+
+    /**
+     * Increments the person's token version. The caller is expected to save the entity;
+     * the cached value is replaced once the surrounding transaction commits.
+     */
+    public void revoke(PersonEntity person) {
+        int next = (person.getTokenVersion() != null ? person.getTokenVersion() : 0) + 1;
+        person.setTokenVersion(next);
+        UUID personId = person.getId();
+        log.info("Revoking access tokens for person {} (token version {})", personId, next);
+        afterCommit(() -> versions.put(personId, new CachedVersion(next, System.currentTimeMillis())));
+    }
+
+    public void evict(UUID personId) {
+        afterCommit(() -> versions.remove(personId));
+    }
+
+    private Integer currentVersion(UUID personId) {
+        long now = System.currentTimeMillis();
+        CachedVersion cached = versions.get(personId);
+        if (cached != null && now - cached.loadedAt() < ttlMillis) {
+            return cached.version();
+        }
+
+        Integer version = personRepository.findTokenVersionById(personId).orElse(null);
+        if (version == null) {
+            versions.remove(personId);
+            return null;
+        }
+
+        if (versions.size() >= MAX_ENTRIES) {
+            versions.entrySet().removeIf(e -> now - e.getValue().loadedAt() >= ttlMillis);
+            if (versions.size() >= MAX_ENTRIES) {
+                versions.clear();
+            }
+        }
+        versions.put(personId, new CachedVersion(version, now));
+        return version;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record CachedVersion(int version, long loadedAt) {
+    }
+}
@@ -5,6 +5,7 @@ import com.mishchuk.onlineschool.repository.entity.PersonEntity;
 import com.mishchuk.onlineschool.repository.entity.RefreshTokenEntity;
 import com.mishchuk.onlineschool.security.CustomUserDetailsService;
 import com.mishchuk.onlineschool.security.JwtUtils;
+import com.mishchuk.onlineschool.scheduler.DelayedTaskQueue;
 import com.mishchuk.onlineschool.scheduler.DemoCleanupScheduler;
 import com.mishchuk.onlineschool.repository.entity.NotificationType;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +15,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Slf4j
@@ -28,7 +30,7 @@ public class AuthServiceImpl implements AuthService {
     private final RefreshTokenService refreshTokenService;
     private final EmailService emailService;
     private final NotificationService notificationService;
-    private final DemoCleanupScheduler demoCleanupScheduler;
+    private final DelayedTaskQueue delayedTaskQueue;
 
     @Override
     @Transactional
@@ -169,7 +171,8 @@ public class AuthServiceImpl implements AuthService {
             PersonDto person = personService
                     .getPerson(tokenEntity.getPersonId()).orElse(null);
             if (person != null && ("FAKE_ADMIN".equals(person.role()) || "FAKE_USER".equals(person.role()))) {
-                demoCleanupScheduler.cleanupDataForUser(person.id());
+                // runs after the response on the task queue; a retry picks it up if this instance goes down
+                delayedTaskQueue.schedule(DemoCleanupScheduler.TASK_TYPE, person.id(), OffsetDateTime.now());
             }
 
             refreshTokenService.deleteByPersonId(tokenEntity.getPersonId());
@@ -0,0 +1,173 @@
+package com.mishchuk.onlineschool.service;
+
+import com.mishchuk.onlineschool.controller.dto.CourseDto;
+import com.mishchuk.onlineschool.mapper.CourseMapper;
+import com.mishchuk.onlineschool.repository.CourseRepository;
+import com.mishchuk.onlineschool.repository.entity.CourseEntity;
+import com.mishchuk.onlineschool.repository.entity.CourseStatus;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory read model of the public course catalog (PUBLISHED courses with their aggregated
+ * module/lesson counts, duration and cover colour).
+ * Readers get an immutable snapshot and never touch the database; writers report the courses
+ * they changed and the affected entries are reloaded once their transaction has committed.
+ * Other instances hear about the change over the {@value #CHANNEL} database channel and reload the same entries.
+ */
+@Slf4j
+@Component
+public class CourseCatalog {
+
+    static final String CHANNEL = "course_catalog";
+    private static final String ALL = "*";
+    private static final int IDS_PER_MESSAGE = 100;
+
+    private final CourseRepository courseRepository;
+    private final CourseMapper courseMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DatabaseEvents databaseEvents;
+    /**
+     * Tags this instance's messages; it has already refreshed itself through the local event.
+     */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private volatile Snapshot snapshot;
+
+    public CourseCatalog(CourseRepository courseRepository,
+                         CourseMapper courseMapper,
+                         ApplicationEventPublisher eventPublisher,
+                         DatabaseEvents databaseEvents) {
+        this.courseRepository = courseRepository;
+        this.courseMapper = courseMapper;
+        this.eventPublisher = eventPublisher;
+        this.databaseEvents = databaseEvents;
+        // changes made while the listener was down are unknown
+        databaseEvents.subscribe(CHANNEL, this::onRemoteChange,
+                () -> eventPublisher.publishEvent(new CatalogChanged(Set.of(), true)));
+    }
+
+    public List<CourseDto> getPublishedCourses() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            current = rebuild();
+        }
+        return current.courses();
+    }
+
+    /**
+     * Marks courses whose catalog entry is out of date. Null ids (e.g. a module without a course) are ignored.
+     */
+    public void courseChanged(UUID... courseIds) {
+        Set<UUID> ids = Arrays.stream(courseIds)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toUnmodifiableSet());
+        if (!ids.isEmpty()) {
+            eventPublisher.publishEvent(new CatalogChanged(ids, false));
+            // past this many ids the message would outgrow Postgres' payload limit
+            databaseEvents.publish(CHANNEL, instanceId + " " + (ids.size() > IDS_PER_MESSAGE
+                    ? ALL
+                    : ids.stream().map(UUID::toString).collect(Collectors.joining(","))));
+        }
+    }
+
+    /**
+     * Marks the whole catalog as out of date, for bulk writes that do not track single courses.
+     */
+    public void catalogChanged() {
+        eventPublisher.publishEvent(new CatalogChanged(Set.of(), true));
+        databaseEvents.publish(CHANNEL, instanceId + " " + ALL);
+    }
+
+    /**
+     * Replays another instance's change as a local event, so the reload runs like one made here.
+     */
+    void onRemoteChange(String payload) {
+        String[] parts = payload.split(" ", 2);
+        if (parts.length < 2 || parts[0].equals(instanceId)) {
+            return;
+        }
+        if (parts[1].equals(ALL)) {
+            eventPublisher.publishEvent(new CatalogChanged(Set.of(), true));
+        } else {
+            eventPublisher.publishEvent(new CatalogChanged(Arrays.stream(parts[1].split(","))
+                    .map(UUID::fromString)
+                    .collect(Collectors.toUnmodifiableSet()), false));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        rebuild();
+    }
+
+    @Async
+    @TransactionalEventListener(fallbackExecution = true)
+    @Transactional(propagation = Propagation.REQUIRES_NEW, readOnly = true)
+    public synchronized void onCatalogChanged(CatalogChanged event) {
+        Snapshot current = snapshot;
+        if (event.all() || current == null) {
+            rebuild();
+            return;
+        }
+
+        Set<UUID> ids = new HashSet<>(event.courseIds());
+        // courses pointing at a changed course show its name as nextCourseName
+        current.courses().stream()
+                .filter(c -> c.nextCourseId() != null && event.courseIds().contains(c.nextCourseId()))
+                .map(CourseDto::id)
+                .forEach(ids::add);
+
+        Map<UUID, CourseDto> next = new LinkedHashMap<>(current.byId());
+        for (UUID id : ids) {
+            courseRepository.findById(id)
+                    .filter(course -> course.getStatus() == CourseStatus.PUBLISHED)
+                    .map(courseMapper::toDto)
+                    .ifPresentOrElse(dto -> next.put(id, dto), () -> next.remove(id));
+        }
+        snapshot = new Snapshot(next);
+        log.debug("Course catalog refreshed for {} course(s)", ids.size());
+    }
+
+    private synchronized Snapshot rebuild() {
+        Map<UUID, CourseDto> byId = new LinkedHashMap<>();
+        for (CourseEntity course : courseRepository.findAll()) {
+            if (course.getStatus() == CourseStatus.PUBLISHED) {
+                byId.put(course.getId(), courseMapper.toDto(course));
+            }
+        }
+        Snapshot rebuilt = new Snapshot(byId);
+        snapshot = rebuilt;
+        log.info("Course catalog rebuilt with {} published course(s)", byId.size());
+        return rebuilt;
+    }
+
+    public record CatalogChanged(Set<UUID> courseIds, boolean all) {
+    }
+
+    private record Snapshot(Map<UUID, CourseDto> byId, List<CourseDto> courses) {
+
+        Snapshot(Map<UUID, CourseDto> byId) {
+            this(Collections.unmodifiableMap(byId), List.copyOf(byId.values()));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.mishchuk.onlineschool.service;
+
+import com.mishchuk.onlineschool.exception.BadRequestException;
+import com.mishchuk.onlineschool.repository.CourseCatalogQuery;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Opaque catalog cursor: the sort it was issued for plus the sort key and id of the last row returned.
+ */
+record CourseCatalogCursor(CourseCatalogQuery.Sort sort, boolean descending, String key, UUID id) {
+
+    String encode() {
+        String raw = sort.name() + "|" + (descending ? "desc" : "asc") + "|" + id + "|" + key;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static CourseCatalogCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            // the key goes last since names may contain the separator
+            String[] parts = raw.split("\\|", 4);
+            if (parts.length != 4) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new CourseCatalogCursor(CourseCatalogQuery.Sort.valueOf(parts[0]), "desc".equals(parts[1]),
+                    parts[3], UUID.fromString(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Invalid catalog cursor");
+        }
+    }
+}
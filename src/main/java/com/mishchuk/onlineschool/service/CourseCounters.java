@@ -0,0 +1,56 @@
+package com.mishchuk.onlineschool.service;
+
+import com.mishchuk.onlineschool.repository.CourseRepository;
+import com.mishchuk.onlineschool.repository.ModuleRepository;
+import com.mishchuk.onlineschool.repository.entity.ModuleEntity;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Keeps the denormalized lesson/duration counters on modules and courses in step with the lessons table.
+ * Must be called inside the writing transaction, after the lesson/module changes have been made.
+ */
+@Component
+@RequiredArgsConstructor
+public class CourseCounters {
+
+    private final ModuleRepository moduleRepository;
+    private final CourseRepository courseRepository;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refresh(Collection<UUID> moduleIds, Collection<UUID> courseIds) {
+        Set<UUID> modules = nonNull(moduleIds);
+        if (!modules.isEmpty()) {
+            moduleRepository.refreshCounters(modules);
+        }
+        Set<UUID> courses = nonNull(courseIds);
+        if (!courses.isEmpty()) {
+            courseRepository.refreshCounters(courses);
+        }
+    }
+
+    /**
+     * Refreshes a single module and the course it belongs to; a null module (unassigned lesson) is a no-op.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void refresh(ModuleEntity module) {
+        if (module == null) {
+            return;
+        }
+        refresh(Collections.singleton(module.getId()),
+                Collections.singleton(module.getCourse() != null ? module.getCourse().getId() : null));
+    }
+
+    private static Set<UUID> nonNull(Collection<UUID> ids) {
+        return ids.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+    }
+}
@@ -1,7 +1,11 @@
 package com.mishchuk.onlineschool.service;
 
+import com.mishchuk.onlineschool.controller.dto.CourseCloneJobDto;
 import com.mishchuk.onlineschool.controller.dto.CourseCreateDto;
 import com.mishchuk.onlineschool.controller.dto.CourseDto;
+import com.mishchuk.onlineschool.controller.dto.CoursePageDto;
+import com.mishchuk.onlineschool.controller.dto.CoursePageRequest;
+import com.mishchuk.onlineschool.controller.dto.CourseTreeDto;
 import com.mishchuk.onlineschool.controller.dto.CourseUpdateDto;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -14,10 +18,27 @@ public interface CourseService {
 
     Optional<CourseDto> getCourse(java.util.UUID id);
 
+    /**
+     * The course with its modules, lessons and file metadata in one response; empty if the course does not exist.
+     */
+    Optional<CourseTreeDto> getCourseTree(UUID id);
+
     Optional<byte[]> getCourseCoverImage(java.util.UUID id);
 
+    Optional<CoverMetadata> getCourseCoverMetadata(UUID id);
+
+    /**
+     * A pre-rendered cover of the given width, only if it was rendered from the cover with {@code contentHash}.
+     */
+    Optional<byte[]> getCourseCoverDerivative(UUID id, int width, String contentHash);
+
     List<CourseDto> getAllCourses();
 
+    /**
+     * One page of the catalog, filtered and keyset-paginated in the database. Visitors only see published courses.
+     */
+    CoursePageDto getCoursePage(CoursePageRequest request);
+
     List<CourseDto> getAllCoursesWithEnrollment(java.util.UUID userId);
 
     void updateCourse(UUID id, CourseUpdateDto dto, MultipartFile coverImage);
@@ -26,7 +47,14 @@ public interface CourseService {
 
     void extendAccessForReview(UUID userId, UUID courseId, String videoUrl, String originalFilename);
 
-    void cloneCourse(UUID id);
+    /**
+     * Creates the course copy and schedules its content to be copied in the background.
+     */
+    CourseCloneJobDto cloneCourse(UUID id);
+
+    Optional<CourseCloneJobDto> getCloneJob(UUID jobId);
 
     void updateCourseStatus(UUID id, com.mishchuk.onlineschool.repository.entity.CourseStatus status);
+
+    record CoverMetadata(String contentHash, String contentType) {}
 }
@@ -1,32 +1,45 @@
 package com.mishchuk.onlineschool.service;
 
+import com.mishchuk.onlineschool.controller.dto.CourseCloneJobDto;
 import com.mishchuk.onlineschool.controller.dto.CourseCreateDto;
 import com.mishchuk.onlineschool.controller.dto.CourseDto;
+import com.mishchuk.onlineschool.controller.dto.CoursePageDto;
+import com.mishchuk.onlineschool.controller.dto.CoursePageRequest;
+import com.mishchuk.onlineschool.controller.dto.CourseTreeDto;
 import com.mishchuk.onlineschool.controller.dto.CourseUpdateDto;
+import com.mishchuk.onlineschool.controller.dto.CreatedByDto;
+import com.mishchuk.onlineschool.controller.dto.FileDto;
+import com.mishchuk.onlineschool.controller.dto.LessonDto;
 import com.mishchuk.onlineschool.exception.BadRequestException;
 import com.mishchuk.onlineschool.exception.ResourceNotFoundException;
 import com.mishchuk.onlineschool.mapper.CourseMapper;
+import com.mishchuk.onlineschool.mapper.FileMapper;
+import com.mishchuk.onlineschool.mapper.ModuleMapper;
+import com.mishchuk.onlineschool.repository.CourseCatalogQuery;
+import com.mishchuk.onlineschool.repository.CourseCoverDerivativeRepository;
+import com.mishchuk.onlineschool.repository.CourseCoverRepository;
 import com.mishchuk.onlineschool.repository.CourseRepository;
+import com.mishchuk.onlineschool.repository.CourseRepositoryCustom.CatalogRow;
 import com.mishchuk.onlineschool.repository.CourseReviewRequestRepository;
 import com.mishchuk.onlineschool.repository.EnrollmentRepository;
+import com.mishchuk.onlineschool.repository.FileRepository;
+import com.mishchuk.onlineschool.repository.LessonRepository;
+import com.mishchuk.onlineschool.repository.ModuleRepository;
 import com.mishchuk.onlineschool.repository.entity.*;
-import com.mishchuk.onlineschool.repository.PersonRepository;
+import com.mishchuk.onlineschool.security.CurrentPerson;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
-import org.springframework.security.core.context.SecurityContextHolder;
 
-import javax.imageio.ImageIO;
-import java.awt.image.BufferedImage;
-import java.io.ByteArrayInputStream;
 import java.time.LocalDate;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -36,13 +49,30 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class CourseServiceImpl implements CourseService {
 
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
     private final CourseRepository courseRepository;
+    private final CourseCoverRepository courseCoverRepository;
+    private final CourseCoverDerivativeRepository courseCoverDerivativeRepository;
     private final EnrollmentRepository enrollmentRepository;
+    private final ModuleRepository moduleRepository;
+    private final LessonRepository lessonRepository;
+    private final FileRepository fileRepository;
     private final CourseMapper courseMapper;
+    private final ModuleMapper moduleMapper;
+    private final FileMapper fileMapper;
     private final NotificationService notificationService;
     private final CourseReviewRequestRepository courseReviewRequestRepository;
     private final EmailService emailService;
-    private final PersonRepository personRepository;
+    private final EntitlementService entitlementService;
+    private final EnrollmentExpiry enrollmentExpiry;
+    private final CourseCatalog courseCatalog;
+    private final CourseCounters courseCounters;
+    private final CoverImagePipeline coverImagePipeline;
+    private final CoverContentStore coverContentStore;
+    private final CourseTreeCloner courseTreeCloner;
+    private final CurrentPerson currentPerson;
 
     @Override
     @Transactional
@@ -61,18 +91,13 @@ public class CourseServiceImpl implements CourseService {
             entity.setPromotionalDiscountPercentage(null);
         }
 
-        String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        personRepository.findByEmail(userEmail).ifPresent(entity::setCreatedBy);
+        currentPerson.get().ifPresent(entity::setCreatedBy);
 
         if (coverImage != null && !coverImage.isEmpty()) {
             try {
-                byte[] imageData = coverImage.getBytes();
-                String averageColor = calculateAverageColor(imageData);
-
                 CourseCoverEntity coverEntity = new CourseCoverEntity();
                 coverEntity.setCourse(entity);
-                coverEntity.setImageData(imageData);
-                coverEntity.setAverageColor(averageColor);
+                applyCoverImage(coverEntity, coverImage);
 
                 entity.setCoverImage(coverEntity);
             } catch (java.io.IOException e) {
@@ -81,6 +106,9 @@ public class CourseServiceImpl implements CourseService {
         }
 
         courseRepository.save(entity);
+        if (entity.getCoverImage() != null) {
+            coverImagePipeline.coverChanged(entity.getId());
+        }
         log.info("Successfully created course with ID: {}", entity.getId());
     }
 
@@ -91,100 +119,192 @@ public class CourseServiceImpl implements CourseService {
                 .map(courseMapper::toDto);
     }
 
+    /**
+     * Four queries whatever the course size: course, modules, lessons and, with access, files.
+     * Access is checked once for the whole tree.
+     */
     @Override
     @Transactional(readOnly = true)
+    public Optional<CourseTreeDto> getCourseTree(UUID id) {
+        List<CourseEntity> found = courseRepository.findForListingByIdIn(List.of(id));
+        if (found.isEmpty()) {
+            return Optional.empty();
+        }
+        CourseEntity course = found.get(0);
+        boolean locked = !canViewContent(course);
+
+        List<ModuleEntity> modules = moduleRepository.findTreeByCourseId(id);
+        Map<UUID, List<LessonEntity>> lessonsByModule = lessonRepository.findTreeByCourseId(id).stream()
+                .collect(Collectors.groupingBy(lesson -> lesson.getModule().getId()));
+        Map<UUID, List<FileDto>> filesByLesson = locked ? Map.of() : fileRepository.findTreeByCourseId(id).stream()
+                .collect(Collectors.groupingBy(file -> file.getLesson().getId(),
+                        Collectors.mapping(fileMapper::toDto, Collectors.toList())));
+
+        List<CourseTreeDto.ModuleNode> moduleNodes = new ArrayList<>(modules.size());
+        for (ModuleEntity module : modules) {
+            List<CourseTreeDto.LessonNode> lessonNodes = new ArrayList<>();
+            for (LessonEntity lesson : lessonsByModule.getOrDefault(module.getId(), List.of())) {
+                List<FileDto> files = filesByLesson.getOrDefault(lesson.getId(), List.of());
+                lessonNodes.add(new CourseTreeDto.LessonNode(treeLesson(lesson, module, course, files.size(), locked), files));
+            }
+            moduleNodes.add(new CourseTreeDto.ModuleNode(moduleMapper.toDto(module), lessonNodes));
+        }
+        return Optional.of(new CourseTreeDto(courseMapper.toDto(course), locked, moduleNodes));
+    }
+
+    private boolean canViewContent(CourseEntity course) {
+        return currentPerson.get()
+                .map(person -> person.getRole() == PersonRole.ADMIN || person.getRole() == PersonRole.FAKE_ADMIN
+                        || entitlementService.hasCourseAccess(person.getId(), course))
+                .orElse(false);
+    }
+
+    /**
+     * Built by hand rather than with LessonMapper, which would load each lesson's files collection separately.
+     * A locked lesson is scrubbed like in ModuleServiceImpl.getModuleLessons.
+     */
+    private static LessonDto treeLesson(LessonEntity lesson, ModuleEntity module, CourseEntity course,
+                                        int filesCount, boolean locked) {
+        PersonEntity author = lesson.getCreatedBy();
+        return new LessonDto(
+                lesson.getId(),
+                module.getId(),
+                lesson.getName(),
+                lesson.getDescription(),
+                locked ? null : lesson.getVideoUrl(),
+                lesson.getDurationMinutes(),
+                module.getName(),
+                course.getName(),
+                locked ? 0 : filesCount,
+                lesson.getCreatedAt(),
+                lesson.getUpdatedAt(),
+                locked || author == null ? null
+                        : new CreatedByDto(author.getId(), author.getFirstName(), author.getLastName(), author.getEmail()));
+    }
+
+    /**
+     * Not transactional: with object storage the bytes are fetched without holding a connection.
+     */
+    @Override
     public Optional<byte[]> getCourseCoverImage(UUID id) {
-        return courseRepository.findById(id)
-                .map(CourseEntity::getCoverImage)
-                .map(CourseCoverEntity::getImageData);
+        return coverContentStore.read(id);
     }
 
     @Override
     @Transactional(readOnly = true)
+    public Optional<byte[]> getCourseCoverDerivative(UUID id, int width, String contentHash) {
+        return courseCoverDerivativeRepository.findImageData(id, width, contentHash);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Optional<CoverMetadata> getCourseCoverMetadata(UUID id) {
+        return courseCoverRepository.findMetadataByCourseId(id)
+                .map(cover -> new CoverMetadata(cover.getContentHash(), cover.getContentType()));
+    }
+
+    /**
+     * Not transactional on purpose: visitors are served from the in-memory catalog
+     * without opening a database connection.
+     */
+    @Override
     public List<CourseDto> getAllCourses() {
-        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
-        boolean isAdmin = false;
-
-        if (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getPrincipal())) {
-            String userEmail = auth.getName();
-            Optional<PersonEntity> currentUserOpt = personRepository.findByEmail(userEmail);
-            if (currentUserOpt.isPresent()) {
-                PersonEntity currentUser = currentUserOpt.get();
-                if (currentUser.getRole() == PersonRole.ADMIN ||
-                        currentUser.getRole() == PersonRole.FAKE_ADMIN) {
-                    isAdmin = true;
-                }
+        if (!currentUserIsAdmin()) {
+            return courseCatalog.getPublishedCourses();
+        }
+
+        return courseRepository.findAll().stream()
+                .map(courseMapper::toDto)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CoursePageDto getCoursePage(CoursePageRequest request) {
+        CourseCatalogQuery.Sort sort = parseSort(request.sort());
+        boolean descending = request.direction() != null
+                ? "desc".equalsIgnoreCase(request.direction())
+                : sort == CourseCatalogQuery.Sort.CREATED; // newest first by default
+        int size = request.size() != null ? Math.max(1, Math.min(request.size(), MAX_PAGE_SIZE)) : DEFAULT_PAGE_SIZE;
+
+        CourseCatalogCursor after = request.cursor() != null && !request.cursor().isBlank()
+                ? CourseCatalogCursor.decode(request.cursor())
+                : null;
+        if (after != null && (after.sort() != sort || after.descending() != descending)) {
+            throw new BadRequestException("Catalog cursor was issued for a different sort order");
+        }
+
+        CourseStatus status = currentUserIsAdmin() ? request.status() : CourseStatus.PUBLISHED;
+        // one extra row tells whether there is a next page without a COUNT
+        List<CatalogRow> rows = courseRepository.findCatalogKeys(new CourseCatalogQuery(
+                status, request.minPrice(), request.maxPrice(), request.createdBy(), request.q(),
+                sort, descending,
+                after != null ? after.key() : null,
+                after != null ? after.id() : null,
+                size + 1));
+        boolean hasMore = rows.size() > size;
+        List<CatalogRow> page = hasMore ? rows.subList(0, size) : rows;
+        if (page.isEmpty()) {
+            return new CoursePageDto(List.of(), null);
+        }
+
+        Map<UUID, CourseEntity> coursesById = new HashMap<>();
+        for (CourseEntity course : courseRepository.findForListingByIdIn(
+                page.stream().map(CatalogRow::id).toList())) {
+            coursesById.put(course.getId(), course);
+        }
+        List<CourseDto> items = new ArrayList<>(page.size());
+        for (CatalogRow row : page) {
+            CourseEntity course = coursesById.get(row.id());
+            if (course != null) {
+                items.add(courseMapper.toDto(course));
             }
         }
 
-        List<CourseEntity> allCourses = courseRepository.findAll();
+        CatalogRow last = page.get(page.size() - 1);
+        String nextCursor = hasMore
+                ? new CourseCatalogCursor(sort, descending, last.sortKey(), last.id()).encode()
+                : null;
+        return new CoursePageDto(items, nextCursor);
+    }
 
-        if (!isAdmin) {
-            allCourses = allCourses.stream()
-                    .filter(c -> c.getStatus() == CourseStatus.PUBLISHED)
-                    .toList();
+    private static CourseCatalogQuery.Sort parseSort(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return CourseCatalogQuery.Sort.CREATED;
+        }
+        try {
+            return CourseCatalogQuery.Sort.valueOf(sort.trim().toUpperCase(java.util.Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestException("Unsupported sort: " + sort + ". Use created, price or name");
         }
+    }
 
-        return allCourses.stream()
-                .map(courseMapper::toDto)
-                .collect(Collectors.toList());
+    private boolean currentUserIsAdmin() {
+        return currentPerson.getRole()
+                .map(role -> role == PersonRole.ADMIN || role == PersonRole.FAKE_ADMIN)
+                .orElse(false);
     }
 
     @Override
     @Transactional(readOnly = true)
     public List<CourseDto> getAllCoursesWithEnrollment(UUID userId) {
-        List<CourseEntity> allCourses = courseRepository.findAll();
-        List<EnrollmentEntity> userEnrollments = enrollmentRepository.findByStudentId(userId);
-
-        return allCourses.stream().map(course -> {
-            CourseDto baseDto = courseMapper.toDto(course);
-
-            // Find enrollment for this course
-            Optional<EnrollmentEntity> enrollment = userEnrollments.stream()
-                    .filter(e -> e.getCourse().getId().equals(course.getId()))
-                    .findFirst();
-
-            if (enrollment.isPresent()) {
-                log.info("Found enrollment for course {}: ID={}, Status={}, ExpiresAt={}",
-                        course.getId(), enrollment.get().getId(), enrollment.get().getStatus(),
-                        enrollment.get().getExpiresAt());
-
-                // Create new DTO with enrollment data
-                return new CourseDto(
-                        baseDto.id(),
-                        baseDto.name(),
-                        baseDto.description(),
-                        baseDto.modulesNumber(),
-                        baseDto.lessonsCount(),
-                        baseDto.durationMinutes(),
-                        baseDto.status(),
-                        baseDto.version(),
-                        baseDto.price(),
-                        baseDto.discountAmount(),
-                        baseDto.discountPercentage(),
-                        baseDto.accessDuration(),
-                        baseDto.promotionalDiscountPercentage(),
-                        baseDto.promotionalDiscountAmount(),
-                        baseDto.renewalDiscountPercentage(),
-                        baseDto.renewalDiscountAmount(),
-                        baseDto.extendForReviewEnabled(),
-                        baseDto.renewalEnabled(),
-                        baseDto.nextCourseDiscountEnabled(),
-                        baseDto.nextCourseId(),
-                        baseDto.nextCourseName(),
-                        baseDto.createdAt(),
-                        baseDto.updatedAt(),
-                        true, // isEnrolled
-                        enrollment.get().getCreatedAt(),
-                        enrollment.get().getStatus(),
-                        baseDto.coverImageUrl(),
-                        enrollment.get().getExpiresAt(),
-                        baseDto.averageColor(),
-                        baseDto.createdBy());
-            }
+        Map<UUID, EnrollmentEntity> enrollmentsByCourseId = new HashMap<>();
+        for (EnrollmentEntity enrollment : enrollmentRepository.findByStudentId(userId)) {
+            enrollmentsByCourseId.put(enrollment.getCourse().getId(), enrollment);
+        }
 
-            return baseDto;
-        }).collect(Collectors.toList());
+        // published courses come from the catalog, only drafts and archived ones are read here
+        List<CourseDto> courses = new ArrayList<>(courseCatalog.getPublishedCourses());
+        for (CourseEntity course : courseRepository.findByStatusNot(CourseStatus.PUBLISHED)) {
+            courses.add(courseMapper.toDto(course));
+        }
+
+        List<CourseDto> result = new ArrayList<>(courses.size());
+        for (CourseDto course : courses) {
+            EnrollmentEntity enrollment = enrollmentsByCourseId.get(course.id());
+            result.add(enrollment != null ? courseMapper.withEnrollment(course, enrollment) : course);
+        }
+        return result;
     }
 
     @Override
@@ -198,8 +318,7 @@ public class CourseServiceImpl implements CourseService {
         CourseEntity entity = courseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
 
-        String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        PersonEntity currentUser = personRepository.findByEmail(userEmail)
+        PersonEntity currentUser = currentPerson.get()
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (currentUser.getRole() == PersonRole.FAKE_ADMIN) {
@@ -234,26 +353,29 @@ public class CourseServiceImpl implements CourseService {
         }
 
         if (Boolean.TRUE.equals(dto.deleteCoverImage())) {
+            if (entity.getCoverImage() != null) {
+                coverContentStore.releaseAfterCommit(entity.getCoverImage().getStorageKey());
+            }
             entity.setCoverImage(null);
         } else if (coverImage != null && !coverImage.isEmpty()) {
             try {
-                byte[] imageData = coverImage.getBytes();
-                String averageColor = calculateAverageColor(imageData);
-
                 CourseCoverEntity coverEntity = entity.getCoverImage();
                 if (coverEntity == null) {
                     coverEntity = new CourseCoverEntity();
                     coverEntity.setCourse(entity);
                     entity.setCoverImage(coverEntity);
                 }
-                coverEntity.setImageData(imageData);
-                coverEntity.setAverageColor(averageColor);
+                applyCoverImage(coverEntity, coverImage);
+                coverImagePipeline.coverChanged(id);
             } catch (java.io.IOException e) {
                 throw new RuntimeException("Failed to read cover image", e);
             }
         }
 
         courseRepository.save(entity);
+        // access ends at each enrollment's expires_at, fixed when access was granted; a new accessDuration
+        // only applies to later enrollments, so cached entitlements stay valid
+        courseCatalog.courseChanged(id);
         log.info("Successfully updated course with ID: {}", id);
     }
 
@@ -264,8 +386,7 @@ public class CourseServiceImpl implements CourseService {
         CourseEntity entity = courseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
 
-        String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        PersonEntity currentUser = personRepository.findByEmail(userEmail)
+        PersonEntity currentUser = currentPerson.get()
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (currentUser.getRole() == PersonRole.FAKE_ADMIN) {
@@ -275,7 +396,12 @@ public class CourseServiceImpl implements CourseService {
             }
         }
 
+        if (entity.getCoverImage() != null) {
+            coverContentStore.releaseAfterCommit(entity.getCoverImage().getStorageKey());
+        }
         courseRepository.delete(entity);
+        entitlementService.evictCourse(id);
+        courseCatalog.courseChanged(id);
         log.info("Successfully deleted course with ID: {}", id);
     }
 
@@ -292,6 +418,8 @@ public class CourseServiceImpl implements CourseService {
         enrollment.setExpiresAt(OffsetDateTime.now().plusDays(31));
         enrollment.setStatus("ACTIVE");
         enrollmentRepository.save(enrollment);
+        enrollmentExpiry.scheduleFor(enrollment);
+        entitlementService.evict(userId, courseId);
 
         log.info("Access extended by 31 days for user {} on course {}", userId, courseId);
         log.info("Review video stored at: {}", videoUrl);
@@ -334,13 +462,12 @@ public class CourseServiceImpl implements CourseService {
 
     @Override
     @Transactional
-    public void cloneCourse(UUID id) {
+    public CourseCloneJobDto cloneCourse(UUID id) {
         log.info("Cloning course with ID: {}", id);
         CourseEntity originalCourse = courseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
 
-        String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        PersonEntity currentUser = personRepository.findByEmail(userEmail)
+        PersonEntity currentUser = currentPerson.get()
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         CourseEntity clonedCourse = new CourseEntity();
@@ -352,7 +479,6 @@ public class CourseServiceImpl implements CourseService {
         clonedCourse.setDiscountPercentage(originalCourse.getDiscountPercentage());
         clonedCourse.setPromotionalDiscountAmount(originalCourse.getPromotionalDiscountAmount());
         clonedCourse.setPromotionalDiscountPercentage(originalCourse.getPromotionalDiscountPercentage());
-        clonedCourse.setModulesNumber(originalCourse.getModulesNumber());
         clonedCourse.setStatus(CourseStatus.DRAFT);
 
         String originalVersion = originalCourse.getVersion() != null ? originalCourse.getVersion() : "1.0";
@@ -374,65 +500,29 @@ public class CourseServiceImpl implements CourseService {
 
         if (originalCourse.getCoverImage() != null) {
             CourseCoverEntity clonedCover = new CourseCoverEntity();
+            // the object is shared by reference; it is only deleted once no cover points at it
+            clonedCover.setStorageKey(originalCourse.getCoverImage().getStorageKey());
             clonedCover.setImageData(originalCourse.getCoverImage().getImageData());
+            clonedCover.setSizeBytes(originalCourse.getCoverImage().getSizeBytes());
             clonedCover.setAverageColor(originalCourse.getCoverImage().getAverageColor());
+            clonedCover.setContentHash(originalCourse.getCoverImage().getContentHash());
+            clonedCover.setContentType(originalCourse.getCoverImage().getContentType());
             clonedCover.setCourse(clonedCourse);
             clonedCourse.setCoverImage(clonedCover);
         }
 
-        if (originalCourse.getModules() != null) {
-            List<ModuleEntity> clonedModules = new ArrayList<>();
-            for (ModuleEntity originalModule : originalCourse.getModules()) {
-                ModuleEntity clonedModule = new ModuleEntity();
-                clonedModule.setCourse(clonedCourse);
-                clonedModule.setName(originalModule.getName());
-                clonedModule.setDescription(originalModule.getDescription());
-                clonedModule.setLessonsNumber(originalModule.getLessonsNumber());
-                clonedModule.setCreatedBy(currentUser);
-
-                if (originalModule.getLessons() != null) {
-                    List<LessonEntity> clonedLessons = new ArrayList<>();
-                    for (LessonEntity originalLesson : originalModule.getLessons()) {
-                        LessonEntity clonedLesson = new LessonEntity();
-                        clonedLesson.setModule(clonedModule);
-                        clonedLesson.setName(originalLesson.getName());
-                        clonedLesson.setDescription(originalLesson.getDescription());
-                        clonedLesson.setVideoUrl(originalLesson.getVideoUrl());
-                        clonedLesson.setDurationMinutes(originalLesson.getDurationMinutes());
-                        clonedLesson.setCreatedBy(currentUser);
-
-                        if (originalLesson.getFiles() != null) {
-                            List<FileEntity> clonedFiles = new java.util.ArrayList<>();
-                            for (FileEntity originalFile : originalLesson
-                                    .getFiles()) {
-                                FileEntity clonedFile = new FileEntity();
-                                clonedFile.setLesson(clonedLesson);
-                                clonedFile.setFileName(originalFile.getFileName());
-                                clonedFile.setOriginalName(originalFile.getOriginalName());
-                                clonedFile.setContentType(originalFile.getContentType());
-                                clonedFile.setFileSize(originalFile.getFileSize());
-                                clonedFile.setMinioObjectName(originalFile.getMinioObjectName());
-                                clonedFile.setBucketName(originalFile.getBucketName());
-                                clonedFile.setUploadedBy(currentUser);
-                                clonedFile.setRelatedEntityType(originalFile.getRelatedEntityType());
-                                clonedFile.setRelatedEntityId(originalFile.getRelatedEntityId());
-                                clonedFiles.add(clonedFile);
-                            }
-                            clonedLesson.setFiles(clonedFiles);
-                        }
-
-                        clonedLessons.add(clonedLesson);
-                    }
-                    clonedModule.setLessons(clonedLessons);
-                }
-
-                clonedModules.add(clonedModule);
-            }
-            clonedCourse.setModules(clonedModules);
+        courseRepository.save(clonedCourse);
+        if (clonedCourse.getCoverImage() != null) {
+            coverImagePipeline.coverChanged(clonedCourse.getId());
         }
+        log.info("Cloned course {} to new ID {}, copying its content in the background", id, clonedCourse.getId());
+        // modules, lessons and files are copied once this transaction commits
+        return courseTreeCloner.schedule(id, clonedCourse.getId(), currentUser.getId());
+    }
 
-        courseRepository.save(clonedCourse);
-        log.info("Successfully cloned course to new ID: {}", clonedCourse.getId());
+    @Override
+    public Optional<CourseCloneJobDto> getCloneJob(UUID jobId) {
+        return courseTreeCloner.find(jobId);
     }
 
     @Override
@@ -442,8 +532,7 @@ public class CourseServiceImpl implements CourseService {
         CourseEntity entity = courseRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + id));
 
-        String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        PersonEntity currentUser = personRepository.findByEmail(userEmail)
+        PersonEntity currentUser = currentPerson.get()
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (currentUser.getRole() == PersonRole.FAKE_ADMIN) {
@@ -455,37 +544,18 @@ public class CourseServiceImpl implements CourseService {
 
         entity.setStatus(status);
         courseRepository.save(entity);
+        courseCatalog.courseChanged(id);
         log.info("Successfully updated status for course {}", id);
     }
 
-    private String calculateAverageColor(byte[] imageData) {
-        try (ByteArrayInputStream bis = new ByteArrayInputStream(imageData)) {
-            BufferedImage image = ImageIO.read(bis);
-            if (image == null)
-                return null;
-
-            long sumR = 0, sumG = 0, sumB = 0;
-            int width = image.getWidth();
-            int height = image.getHeight();
-            long totalPixels = width * height;
-
-            for (int y = 0; y < height; y++) {
-                for (int x = 0; x < width; x++) {
-                    int pixel = image.getRGB(x, y);
-                    sumR += (pixel >> 16) & 0xFF;
-                    sumG += (pixel >> 8) & 0xFF;
-                    sumB += pixel & 0xFF;
-                }
-            }
+    private void applyCoverImage(CourseCoverEntity coverEntity, MultipartFile coverImage) throws java.io.IOException {
+        byte[] imageData = coverImage.getBytes();
+        String contentType = coverImage.getContentType();
 
-            int avgR = (int) (sumR / totalPixels);
-            int avgG = (int) (sumG / totalPixels);
-            int avgB = (int) (sumB / totalPixels);
-
-            return String.format("#%02x%02x%02x", avgR, avgG, avgB);
-        } catch (Exception e) {
-            log.warn("Failed to calculate average color", e);
-            return null;
-        }
+        coverEntity.setContentHash(CoverContentStore.sha256Hex(imageData));
+        coverEntity.setContentType(contentType != null && contentType.startsWith("image/") ? contentType : "image/jpeg");
+        coverContentStore.write(coverEntity, imageData);
+        // derived from the smallest rendered derivative by CoverImagePipeline
+        coverEntity.setAverageColor(null);
     }
 }
@@ -0,0 +1,61 @@
+package com.mishchuk.onlineschool.service;
+
+import com.mishchuk.onlineschool.controller.dto.CourseCloneJobDto;
+import com.mishchuk.onlineschool.repository.CourseCloneJobRepository;
+import com.mishchuk.onlineschool.repository.entity.CourseCloneJobEntity;
+import com.mishchuk.onlineschool.scheduler.CourseCloneHandler;
+import com.mishchuk.onlineschool.scheduler.DelayedTaskQueue;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Tracks copies of a course's modules, lessons and files into an already created copy of the course row.
+ * A job is a {@code course_clone_jobs} row plus a {@link DelayedTaskQueue} task, both written in the admin's
+ * transaction, so the copy starts once that commits, survives a restart, and its progress can be read from
+ * any instance through {@link #find(UUID)}. The copy itself is done by {@link CourseCloneHandler}.
+ */
+@Component
+@RequiredArgsConstructor
+public class CourseTreeCloner {
+
+    public static final String TASK_TYPE = "COURSE_CLONE";
+    /**
+     * How long finished jobs stay visible to the status endpoint.
+     */
+    static final Duration RETENTION = Duration.ofHours(1);
+
+    private final CourseCloneJobRepository courseCloneJobRepository;
+    private final DelayedTaskQueue delayedTaskQueue;
+
+    /**
+     * Registers a copy job as part of the transaction that created the target course.
+     */
+    public CourseCloneJobDto schedule(UUID sourceCourseId, UUID targetCourseId, UUID createdById) {
+        courseCloneJobRepository.deleteFinishedBefore(OffsetDateTime.now().minus(RETENTION));
+
+        CourseCloneJobEntity job = new CourseCloneJobEntity();
+        job.setSourceCourseId(sourceCourseId);
+        job.setCourseId(targetCourseId);
+        job.setCreatedById(createdById);
+        job = courseCloneJobRepository.save(job);
+
+        delayedTaskQueue.schedule(TASK_TYPE, job.getId(), OffsetDateTime.now());
+        return toDto(job);
+    }
+
+    public Optional<CourseCloneJobDto> find(UUID jobId) {
+        return courseCloneJobRepository.findById(jobId).map(CourseTreeCloner::toDto);
+    }
+
+    static CourseCloneJobDto toDto(CourseCloneJobEntity job) {
+        return new CourseCloneJobDto(job.getId(), job.getSourceCourseId(), job.getCourseId(),
+                CourseCloneJobDto.Status.valueOf(job.getStatus().name()),
+                job.getModulesCopied(), job.getLessonsCopied(), job.getFilesCopied(),
+                job.getError(), job.getStartedAt(), job.getFinishedAt());
+    }
+}
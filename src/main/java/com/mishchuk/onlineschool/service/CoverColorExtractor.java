@@ -0,0 +1,146 @@
+package com.mishchuk.onlineschool.service;
+
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.image.BufferedImage;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.DataBufferInt;
+import java.awt.image.SinglePixelPackedSampleModel;
+import java.awt.image.WritableRaster;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Optional;
+
+/**
+ * Computes the average colour of a cover and decodes covers at reduced resolution.
+ * Pixels are summed straight from the raster's backing array for the common image types instead of
+ * going through {@link BufferedImage#getRGB(int, int)}, which converts colour models pixel by pixel.
+ * Callers are expected to run this outside of any database transaction.
+ */
+@Component
+public class CoverColorExtractor {
+
+    /**
+     * Width a subsampled decode aims for when only the colour is needed.
+     */
+    static final int COLOR_SAMPLE_WIDTH = 256;
+
+    public Optional<String> averageColor(byte[] encoded) throws IOException {
+        BufferedImage image = decodeSubsampled(encoded, COLOR_SAMPLE_WIDTH);
+        return image != null ? Optional.of(averageColor(image)) : Optional.empty();
+    }
+
+    public String averageColor(BufferedImage image) {
+        long[] sums = sumChannels(image);
+        long pixels = (long) image.getWidth() * image.getHeight();
+        return String.format("#%02x%02x%02x", sums[0] / pixels, sums[1] / pixels, sums[2] / pixels);
+    }
+
+    /**
+     * Decodes an image, skipping source pixels so the result is no narrower than {@code minWidth}
+     * (or the original, if that is already narrower). Returns null for unsupported formats.
+     */
+    public BufferedImage decodeSubsampled(byte[] encoded, int minWidth) throws IOException {
+        try (ImageInputStream input = ImageIO.createImageInputStream(new ByteArrayInputStream(encoded))) {
+            if (input == null) {
+                return null;
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(input);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(input, true, true);
+                int step = Math.max(1, reader.getWidth(0) / Math.max(1, minWidth));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static long[] sumChannels(BufferedImage image) {
+        WritableRaster raster = image.getRaster();
+        int width = image.getWidth();
+        long r = 0, g = 0, b = 0;
+
+        switch (image.getType()) {
+            case BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_INT_BGR -> {
+                if (!isPacked(raster, width, 1)) {
+                    return sumViaRgbRows(image);
+                }
+                boolean bgr = image.getType() == BufferedImage.TYPE_INT_BGR;
+                for (int pixel : ((DataBufferInt) raster.getDataBuffer()).getData()) {
+                    int hi = (pixel >> 16) & 0xFF;
+                    int lo = pixel & 0xFF;
+                    r += bgr ? lo : hi;
+                    g += (pixel >> 8) & 0xFF;
+                    b += bgr ? hi : lo;
+                }
+            }
+            case BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR -> {
+                int stride = image.getType() == BufferedImage.TYPE_3BYTE_BGR ? 3 : 4;
+                if (!isPacked(raster, width, stride)) {
+                    return sumViaRgbRows(image);
+                }
+                byte[] data = ((DataBufferByte) raster.getDataBuffer()).getData();
+                int first = stride - 3; // skip alpha in ABGR
+                for (int i = first; i < data.length; i += stride) {
+                    b += data[i] & 0xFF;
+                    g += data[i + 1] & 0xFF;
+                    r += data[i + 2] & 0xFF;
+                }
+            }
+            default -> {
+                return sumViaRgbRows(image);
+            }
+        }
+        return new long[]{r, g, b};
+    }
+
+    /**
+     * Fallback for other colour models (grey, indexed, 16-bit...): converts a whole row per call.
+     */
+    private static long[] sumViaRgbRows(BufferedImage image) {
+        int width = image.getWidth();
+        int[] row = new int[width];
+        long r = 0, g = 0, b = 0;
+        for (int y = 0; y < image.getHeight(); y++) {
+            image.getRGB(0, y, width, 1, row, 0, width);
+            for (int pixel : row) {
+                r += (pixel >> 16) & 0xFF;
+                g += (pixel >> 8) & 0xFF;
+                b += pixel & 0xFF;
+            }
+        }
+        return new long[]{r, g, b};
+    }
+
+    /**
+     * True when the backing array holds exactly this image's pixels, row after row, with no padding or offset.
+     */
+    private static boolean isPacked(WritableRaster raster, int width, int elementsPerPixel) {
+        if (raster.getParent() != null || raster.getDataBuffer().getNumBanks() != 1
+                || raster.getDataBuffer().getOffset() != 0
+                || raster.getDataBuffer().getSize() != width * raster.getHeight() * elementsPerPixel) {
+            return false;
+        }
+        if (raster.getSampleModel() instanceof SinglePixelPackedSampleModel packed) {
+            return packed.getScanlineStride() == width;
+        }
+        if (raster.getSampleModel() instanceof ComponentSampleModel component) {
+            return component.getPixelStride() == elementsPerPixel
+                    && component.getScanlineStride() == width * elementsPerPixel;
+        }
+        return false;
+    }
+}
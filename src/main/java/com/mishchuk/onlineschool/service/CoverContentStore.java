@@ -0,0 +1,127 @@
+package com.mishchuk.onlineschool.service;
+
+import com.mishchuk.onlineschool.repository.CourseCoverRepository;
+import com.mishchuk.onlineschool.repository.entity.CourseCoverEntity;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Reads and writes the bytes of course cover originals.
+ * With an object storage configured the row only keeps the object key, hash and size; otherwise,
+ * and for rows not yet migrated by {@link com.mishchuk.onlineschool.scheduler.CoverStorageMigrationJob},
+ * the bytes stay in {@code course_covers.image_data}.
+ */
+@Slf4j
+@Component
+public class CoverContentStore {
+
+    static final String KEY_PREFIX = "covers/";
+
+    private final CourseCoverRepository courseCoverRepository;
+    private final Optional<CoverObjectStorage> objectStorage;
+
+    public CoverContentStore(CourseCoverRepository courseCoverRepository,
+                             Optional<CoverObjectStorage> objectStorage) {
+        this.courseCoverRepository = courseCoverRepository;
+        this.objectStorage = objectStorage;
+    }
+
+    public boolean usesObjectStorage() {
+        return objectStorage.isPresent();
+    }
+
+    public static String keyFor(String contentHash) {
+        return KEY_PREFIX + contentHash;
+    }
+
+    public static String sha256Hex(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Stores the bytes for a cover whose content hash has already been set.
+     * Objects are content-addressed, so uploading a cover another course already uses is a no-op overwrite.
+     */
+    public void write(CourseCoverEntity cover, byte[] data) throws IOException {
+        String previousKey = cover.getStorageKey();
+        if (objectStorage.isPresent()) {
+            String key = keyFor(cover.getContentHash());
+            objectStorage.get().put(key, data, cover.getContentType());
+            cover.setStorageKey(key);
+            cover.setImageData(null);
+        } else {
+            cover.setStorageKey(null);
+            cover.setImageData(data);
+        }
+        cover.setSizeBytes((long) data.length);
+        if (previousKey != null && !previousKey.equals(cover.getStorageKey())) {
+            releaseAfterCommit(previousKey);
+        }
+    }
+
+    public Optional<byte[]> read(UUID courseId) {
+        return courseCoverRepository.findMetadataByCourseId(courseId)
+                .flatMap(metadata -> read(courseId, metadata));
+    }
+
+    public Optional<byte[]> read(UUID courseId, CourseCoverRepository.CoverMetadata metadata) {
+        if (metadata.getStorageKey() == null) {
+            return courseCoverRepository.findImageDataByCourseId(courseId);
+        }
+        if (objectStorage.isEmpty()) {
+            log.warn("Cover of course {} is in object storage, but no storage is configured", courseId);
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectStorage.get().get(metadata.getStorageKey()));
+        } catch (IOException e) {
+            log.error("Failed to read cover object {} of course {}", metadata.getStorageKey(), courseId, e);
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Deletes the object once the current transaction commits, unless some cover still references it
+     * (a clone, or another course with an identical upload).
+     */
+    public void releaseAfterCommit(String storageKey) {
+        if (storageKey == null || objectStorage.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    deleteIfUnreferenced(storageKey);
+                }
+            });
+        } else {
+            deleteIfUnreferenced(storageKey);
+        }
+    }
+
+    void deleteIfUnreferenced(String storageKey) {
+        if (courseCoverRepository.existsByStorageKey(storageKey)) {
+            return;
+        }
+        try {
+            objectStorage.get().delete(storageKey);
+            log.info("Deleted unreferenced cover object {}", storageKey);
+        } catch (IOException e) {
+            log.warn("Failed to delete cover object {}", storageKey, e);
+        }
+    }
+}
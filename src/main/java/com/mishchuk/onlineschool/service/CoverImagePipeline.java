@@ -0,0 +1,241 @@
+package com.mishchuk.onlineschool.service;
+
+import com.mishchuk.onlineschool.repository.CourseCoverDerivativeRepository;
+import com.mishchuk.onlineschool.repository.CourseCoverRepository;
+import com.mishchuk.onlineschool.repository.entity.CourseCoverDerivativeEntity;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Renders resized, recompressed JPEG derivatives of course covers after the upload has committed,
+ * and derives the cover's average colour from the smallest one.
+ * Work runs on a small dedicated pool so image processing never competes with request threads
+ * or with the shared {@code @Async} executor.
+ */
+@Slf4j
+@Component
+public class CoverImagePipeline {
+
+    /**
+     * Rendered widths in ascending order; {@code /courses/{id}/cover?w=} snaps to the smallest one that fits.
+     */
+    public static final List<Integer> WIDTHS = List.of(320, 640, 1280);
+
+    static final String DERIVATIVE_CONTENT_TYPE = "image/jpeg";
+    private static final float JPEG_QUALITY = 0.8f;
+
+    private final CourseCoverRepository courseCoverRepository;
+    private final CourseCoverDerivativeRepository derivativeRepository;
+    private final CourseCatalog courseCatalog;
+    private final CoverColorExtractor colorExtractor;
+    private final CoverContentStore coverContentStore;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate writeTransaction;
+    private final ExecutorService executor;
+
+    public CoverImagePipeline(CourseCoverRepository courseCoverRepository,
+                              CourseCoverDerivativeRepository derivativeRepository,
+                              CourseCatalog courseCatalog,
+                              CoverColorExtractor colorExtractor,
+                              CoverContentStore coverContentStore,
+                              ApplicationEventPublisher eventPublisher,
+                              PlatformTransactionManager transactionManager) {
+        this.courseCoverRepository = courseCoverRepository;
+        this.derivativeRepository = derivativeRepository;
+        this.courseCatalog = courseCatalog;
+        this.colorExtractor = colorExtractor;
+        this.coverContentStore = coverContentStore;
+        this.eventPublisher = eventPublisher;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "cover-image-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Smallest rendered width that is at least {@code requested}; empty when only the original is large enough.
+     */
+    public static Optional<Integer> derivativeWidthFor(int requested) {
+        return WIDTHS.stream().filter(width -> width >= requested).findFirst();
+    }
+
+    /**
+     * Schedules derivative rendering for the course's current cover once the calling transaction commits.
+     */
+    public void coverChanged(UUID courseId) {
+        eventPublisher.publishEvent(new CoverChanged(courseId));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCoverChanged(CoverChanged event) {
+        executor.execute(() -> {
+            try {
+                process(event.courseId());
+            } catch (RuntimeException e) {
+                log.error("Failed to render cover derivatives for course {}", event.courseId(), e);
+            }
+        });
+    }
+
+    void process(UUID courseId) {
+        // a stale read is harmless: the hash guard below discards renders of a replaced cover
+        Source source = courseCoverRepository.findMetadataByCourseId(courseId)
+                .filter(metadata -> metadata.getContentHash() != null)
+                .flatMap(metadata -> coverContentStore.read(courseId, metadata)
+                        .map(data -> new Source(metadata.getContentHash(), data)))
+                .orElse(null);
+        if (source == null) {
+            return;
+        }
+
+        List<Rendered> rendered;
+        try {
+            rendered = render(source.data());
+        } catch (IOException e) {
+            log.warn("Cover of course {} could not be decoded, serving the original only", courseId, e);
+            return;
+        }
+        if (rendered.isEmpty()) {
+            return;
+        }
+        String averageColor = colorExtractor.averageColor(rendered.get(0).image());
+
+        writeTransaction.executeWithoutResult(status -> {
+            // the cover was replaced while we were rendering; the newer upload schedules its own run
+            if (courseCoverRepository.updateAverageColor(courseId, source.hash(), averageColor) == 0) {
+                return;
+            }
+            derivativeRepository.deleteByCourseId(courseId);
+            for (Rendered derivative : rendered) {
+                CourseCoverDerivativeEntity entity = new CourseCoverDerivativeEntity();
+                entity.setCourseId(courseId);
+                entity.setWidth(derivative.width());
+                entity.setSourceHash(source.hash());
+                entity.setContentType(DERIVATIVE_CONTENT_TYPE);
+                entity.setImageData(derivative.data());
+                derivativeRepository.save(entity);
+            }
+            courseCatalog.courseChanged(courseId);
+        });
+        log.info("Rendered {} cover derivative(s) for course {}", rendered.size(), courseId);
+    }
+
+    /**
+     * Renders every configured width narrower than the original, plus the smallest width in any case
+     * so that small originals still get a recompressed copy and an average colour.
+     */
+    private List<Rendered> render(byte[] original) throws IOException {
+        // twice the widest derivative is plenty for the halving downscaler, and keeps 48 MP uploads cheap to decode
+        BufferedImage image = colorExtractor.decodeSubsampled(original, 2 * WIDTHS.get(WIDTHS.size() - 1));
+        if (image == null) {
+            throw new IOException("Unsupported image format");
+        }
+
+        List<Rendered> rendered = new ArrayList<>();
+        BufferedImage current = toRgb(image);
+        for (int width : WIDTHS) {
+            if (width >= image.getWidth() && !rendered.isEmpty()) {
+                break;
+            }
+            int targetWidth = Math.min(width, image.getWidth());
+            BufferedImage scaled = scale(current, targetWidth);
+            rendered.add(new Rendered(width, scaled, encodeJpeg(scaled)));
+        }
+        return rendered;
+    }
+
+    private static BufferedImage toRgb(BufferedImage image) {
+        BufferedImage rgb = new BufferedImage(image.getWidth(), image.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = rgb.createGraphics();
+        try {
+            // flatten transparency onto white instead of JPEG's black
+            g.setColor(Color.WHITE);
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            g.drawImage(image, 0, 0, null);
+        } finally {
+            g.dispose();
+        }
+        return rgb;
+    }
+
+    /**
+     * Downscales in halving steps before the final resize, which keeps bilinear filtering from aliasing.
+     */
+    private static BufferedImage scale(BufferedImage image, int targetWidth) {
+        BufferedImage current = image;
+        while (current.getWidth() / 2 >= targetWidth) {
+            current = resize(current, current.getWidth() / 2);
+        }
+        return current.getWidth() == targetWidth ? current : resize(current, targetWidth);
+    }
+
+    private static BufferedImage resize(BufferedImage image, int width) {
+        int height = Math.max(1, (int) Math.round((double) image.getHeight() * width / image.getWidth()));
+        BufferedImage resized = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = resized.createGraphics();
+        try {
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return resized;
+    }
+
+    private static byte[] encodeJpeg(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+            param.setCompressionQuality(JPEG_QUALITY);
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdown();
+    }
+
+    public record CoverChanged(UUID courseId) {
+    }
+
+    private record Source(String hash, byte[] data) {
+    }
+
+    private record Rendered(int width, BufferedImage image, byte[] data) {
+    }
+}
@@ -0,0 +1,16 @@
+package com.mishchuk.onlineschool.service;
+
+import java.io.IOException;
+
+/**
+ * Object store holding course cover originals, selected by {@code application.covers.storage}.
+ * Keys are content-addressed, so the same object may be referenced by several covers.
+ */
+public interface CoverObjectStorage {
+
+    void put(String key, byte[] data, String contentType) throws IOException;
+
+    byte[] get(String key) throws IOException;
+
+    void delete(String key) throws IOException;
+}
@@ -0,0 +1,131 @@
+package com.mishchuk.onlineschool.service;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Postgres {@code LISTEN/NOTIFY} channels that keep the in-memory state of all instances in step.
+ * {@link #publish} runs in the caller's transaction, so a message is delivered exactly when, and only if, the
+ * change commits. One pooled connection per instance listens on every subscribed channel; subscriptions are
+ * made during startup and the listener starts once the application is ready.
+ */
+@Slf4j
+@Component
+public class DatabaseEvents {
+
+    private static final int POLL_MILLIS = 10_000;
+    private static final long RETRY_MILLIS = 5_000;
+
+    private final DataSource dataSource;
+    private final Map<String, Subscription> subscriptions = new ConcurrentHashMap<>();
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private volatile boolean running;
+    private Thread listener;
+
+    public DatabaseEvents(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    /**
+     * Calls {@code onMessage} with every payload sent to the channel, including those sent by this instance.
+     * {@code onReconnect} runs after the listening connection was lost and restored, when messages may have
+     * been missed.
+     */
+    public void subscribe(String channel, Consumer<String> onMessage, Runnable onReconnect) {
+        subscriptions.put(channel, new Subscription(onMessage, onReconnect));
+    }
+
+    public void publish(String channel, String payload) {
+        em.createNativeQuery("SELECT pg_notify(:channel, :payload) IS NULL")
+                .setParameter("channel", channel)
+                .setParameter("payload", payload)
+                .getSingleResult();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startListening() {
+        running = true;
+        listener = new Thread(this::listen, "database-events");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stopListening() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    private void listen() {
+        boolean reconnect = false;
+        while (running) {
+            try (Connection connection = dataSource.getConnection()) {
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                try (Statement statement = connection.createStatement()) {
+                    for (String channel : subscriptions.keySet()) {
+                        statement.execute("LISTEN " + channel);
+                    }
+                }
+                log.info("Listening for database events on {}", subscriptions.keySet());
+                if (reconnect) {
+                    subscriptions.values().forEach(subscription -> run(subscription.onReconnect()));
+                }
+                reconnect = true;
+
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            Subscription subscription = subscriptions.get(notification.getName());
+                            if (subscription != null) {
+                                run(() -> subscription.onMessage().accept(notification.getParameter()));
+                            }
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (!running) {
+                    return;
+                }
+                log.warn("Database event listener failed, reconnecting in {} ms: {}", RETRY_MILLIS, e.getMessage());
+                try {
+                    Thread.sleep(RETRY_MILLIS);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void run(Runnable handler) {
+        try {
+            handler.run();
+        } catch (RuntimeException e) {
+            log.error("Database event handler failed", e);
+        }
+    }
+
+    private record Subscription(Consumer<String> onMessage, Runnable onReconnect) {
+    }
+}
@@ -7,6 +7,10 @@ public interface EmailService {
 
     void sendCourseAccessGrantedEmail(String to, String userName, String courseName);
 
+    /**
+     * Sends on the calling thread and throws {@link org.springframework.mail.MailException} when the message
+     * could not be sent, so the caller can try again later.
+     */
     void sendCourseExpirationReminderEmail(String to, String userName, String courseName, LocalDate expirationDate);
 
     void sendPasswordResetEmail(String to, String userName, String resetLink);
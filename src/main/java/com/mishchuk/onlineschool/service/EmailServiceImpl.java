@@ -1,10 +1,12 @@
 package com.mishchuk.onlineschool.service;
 
 import com.mishchuk.onlineschool.security.JwtUtils;
+import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailPreparationException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.scheduling.annotation.Async;
@@ -77,7 +79,11 @@ public class EmailServiceImpl implements EmailService {
         context.setVariable("userName", userName);
         context.setVariable("courseName", courseName);
         context.setVariable("expirationDate", expirationDate);
-        sendHtmlEmail(to, "Нагадування: закінчується термін доступу до курсу", "email/course-expiration", context);
+        try {
+            deliverHtmlEmail(to, "Нагадування: закінчується термін доступу до курсу", "email/course-expiration", context);
+        } catch (MessagingException e) {
+            throw new MailPreparationException(e);
+        }
     }
 
     @Override
@@ -134,21 +140,26 @@ public class EmailServiceImpl implements EmailService {
 
     private void sendHtmlEmail(String to, String subject, String templateName, Context context) {
         try {
-            MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "UTF-8");
-
-            String htmlContent = templateEngine.process(templateName, context);
-
-            helper.setTo(to);
-            helper.setSubject(subject);
-            helper.setText(htmlContent, true);
-            helper.setFrom("noreply@onlineschool.com");
-
-            javaMailSender.send(mimeMessage);
-            log.info("Email sent successfully to {}", to);
+            deliverHtmlEmail(to, subject, templateName, context);
         } catch (Exception e) {
             log.error("Failed to send email to {}: {}", to, e.getMessage());
             // In a real app, might want to retry or store failed emails
         }
     }
+
+    private void deliverHtmlEmail(String to, String subject, String templateName, Context context)
+            throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, "UTF-8");
+
+        String htmlContent = templateEngine.process(templateName, context);
+
+        helper.setTo(to);
+        helper.setSubject(subject);
+        helper.setText(htmlContent, true);
+        helper.setFrom("noreply@onlineschool.com");
+
+        javaMailSender.send(mimeMessage);
+        log.info("Email sent successfully to {}", to);
+    }
 }
@@ -0,0 +1,42 @@
+package com.mishchuk.onlineschool.service;
+
+import com.mishchuk.onlineschool.repository.entity.CourseEntity;
+import com.mishchuk.onlineschool.repository.entity.EnrollmentEntity;
+import com.mishchuk.onlineschool.scheduler.DelayedTaskQueue;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.OffsetDateTime;
+
+/**
+ * Owns the end of an enrollment's access: {@code expires_at} is the only source of truth, set when access
+ * is granted, extended or renewed, and each change schedules the exact moment the enrollment gets blocked.
+ */
+@Component
+@RequiredArgsConstructor
+public class EnrollmentExpiry {
+
+    public static final String TASK_TYPE = "ENROLLMENT_EXPIRY";
+
+    private final DelayedTaskQueue delayedTaskQueue;
+
+    /**
+     * When access granted at {@code from} ends for this course, or null for unlimited courses.
+     */
+    public static OffsetDateTime accessEnd(CourseEntity course, OffsetDateTime from) {
+        Integer days = course.getAccessDuration();
+        return days != null && days > 0 ? from.plusDays(days) : null;
+    }
+
+    /**
+     * Schedules blocking at the enrollment's {@code expires_at}, replacing any earlier schedule.
+     * Call after the enrollment is saved, inside the same transaction.
+     */
+    public void scheduleFor(EnrollmentEntity enrollment) {
+        if (enrollment.getExpiresAt() != null) {
+            delayedTaskQueue.schedule(TASK_TYPE, enrollment.getId(), enrollment.getExpiresAt());
+        } else {
+            delayedTaskQueue.cancel(TASK_TYPE, enrollment.getId());
+        }
+    }
+}
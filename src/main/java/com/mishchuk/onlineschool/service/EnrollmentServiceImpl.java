@@ -10,6 +10,7 @@ import com.mishchuk.onlineschool.repository.entity.CourseEntity;
 import com.mishchuk.onlineschool.repository.entity.EnrollmentEntity;
 import com.mishchuk.onlineschool.repository.entity.NotificationType;
 import com.mishchuk.onlineschool.repository.entity.PersonEntity;
+import com.mishchuk.onlineschool.security.CurrentPerson;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -30,6 +31,9 @@ public class EnrollmentServiceImpl implements EnrollmentService {
         private final EnrollmentMapper enrollmentMapper;
         private final EmailService emailService;
         private final NotificationService notificationService;
+        private final EntitlementService entitlementService;
+        private final EnrollmentExpiry enrollmentExpiry;
+        private final CurrentPerson currentPerson;
 
         @Override
         @Transactional
@@ -39,9 +43,9 @@ public class EnrollmentServiceImpl implements EnrollmentService {
                                 .anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN") || a.getAuthority().equals("ROLE_FAKE_ADMIN"));
 
                 if (auth != null && !isAdmin) {
-                        PersonEntity currentPerson = personRepository.findByEmail(auth.getName())
+                        UUID currentPersonId = currentPerson.getId()
                                         .orElseThrow(() -> new RuntimeException("Current user not found"));
-                        if (!currentPerson.getId().equals(dto.studentId())) {
+                        if (!currentPersonId.equals(dto.studentId())) {
                                 throw new RuntimeException("Access denied: You can only enroll yourself");
                         }
                 }
@@ -53,12 +57,10 @@ public class EnrollmentServiceImpl implements EnrollmentService {
                                 CourseEntity course = courseRepository.findById(dto.courseId())
                                                 .orElseThrow(() -> new RuntimeException("Course not found"));
                                 existing.setStatus("ACTIVE");
-                                if (course.getAccessDuration() != null && course.getAccessDuration() > 0) {
-                                        existing.setExpiresAt(OffsetDateTime.now().plusDays(course.getAccessDuration()));
-                                } else {
-                                        existing.setExpiresAt(null);
-                                }
+                                existing.setExpiresAt(EnrollmentExpiry.accessEnd(course, OffsetDateTime.now()));
                                 enrollmentRepository.save(existing);
+                                enrollmentExpiry.scheduleFor(existing);
+                                entitlementService.evict(dto.studentId(), dto.courseId());
                                 return; // Re-activated, no need to create new
                         } else {
                                 throw new RuntimeException("Enrollment already exists and is active/pending");
@@ -74,11 +76,11 @@ public class EnrollmentServiceImpl implements EnrollmentService {
                 entity.setStudent(student);
                 entity.setCourse(course);
 
-                if (course.getAccessDuration() != null && course.getAccessDuration() > 0) {
-                        entity.setExpiresAt(OffsetDateTime.now().plusDays(course.getAccessDuration()));
-                }
+                entity.setExpiresAt(EnrollmentExpiry.accessEnd(course, OffsetDateTime.now()));
 
                 enrollmentRepository.save(entity);
+                enrollmentExpiry.scheduleFor(entity);
+                entitlementService.evict(dto.studentId(), dto.courseId());
 
                 // Send access granted email
                 emailService.sendCourseAccessGrantedEmail(student.getEmail(),
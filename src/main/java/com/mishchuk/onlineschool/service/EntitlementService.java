@@ -0,0 +1,27 @@
+package com.mishchuk.onlineschool.service;
+
+import com.mishchuk.onlineschool.repository.entity.CourseEntity;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+
+public interface EntitlementService {
+
+    /**
+     * Whether the person holds a valid (not blocked, not expired) enrollment for the course.
+     * Role based access (admins) is decided by the caller.
+     */
+    boolean hasCourseAccess(UUID personId, CourseEntity course);
+
+    void evict(UUID personId, UUID courseId);
+
+    /**
+     * Evicts many (person, course) entries in one pass over the cache.
+     */
+    void evictAll(Map<UUID, ? extends Collection<UUID>> courseIdsByPerson);
+
+    void evictPerson(UUID personId);
+
+    void evictCourse(UUID courseId);
+}
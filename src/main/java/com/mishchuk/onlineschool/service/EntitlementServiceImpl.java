@@ -0,0 +1,194 @@
+package com.mishchuk.onlineschool.service;
+
+import com.mishchuk.onlineschool.repository.EnrollmentRepository;
+import com.mishchuk.onlineschool.repository.entity.CourseEntity;
+import com.mishchuk.onlineschool.repository.entity.EnrollmentEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * Answers "may this person see this course's content" from memory.
+ * The enrollment is read once per (person, course) and TTL; what is cached is the access window
+ * (blocked flag and the moment access ends), so expiry is still evaluated against the current time.
+ * Every write that changes an enrollment evicts the entry explicitly; other instances hear about the eviction
+ * over the {@value #CHANNEL} database channel once the write commits and evict the same entries.
+ */
+@Service
+public class EntitlementServiceImpl implements EntitlementService {
+
+    static final String CHANNEL = "entitlement_evictions";
+    private static final int MAX_ENTRIES = 50_000;
+    private static final String KEYS = "keys";
+    private static final String PERSON = "person";
+    private static final String COURSE = "course";
+    private static final String ALL = "all";
+    private static final int KEYS_PER_MESSAGE = 100;
+
+    private final EnrollmentRepository enrollmentRepository;
+    private final DatabaseEvents databaseEvents;
+    /**
+     * Tags this instance's messages; it has already evicted its own entries.
+     */
+    private final String instanceId = UUID.randomUUID().toString();
+
+    @Value("${application.entitlements.ttl:300000}")
+    private long ttlMillis;
+
+    private final Map<Key, Entitlement> entitlements = new ConcurrentHashMap<>();
+
+    public EntitlementServiceImpl(EnrollmentRepository enrollmentRepository, DatabaseEvents databaseEvents) {
+        this.enrollmentRepository = enrollmentRepository;
+        this.databaseEvents = databaseEvents;
+        // evictions made while the listener was down are unknown
+        databaseEvents.subscribe(CHANNEL, this::onRemoteEviction, entitlements::clear);
+    }
+
+    @Override
+    public boolean hasCourseAccess(UUID personId, CourseEntity course) {
+        if (personId == null || course == null || course.getId() == null) {
+            return false;
+        }
+
+        Key key = new Key(personId, course.getId());
+        long now = System.currentTimeMillis();
+        Entitlement entitlement = entitlements.get(key);
+        if (entitlement == null || now - entitlement.loadedAt() >= ttlMillis) {
+            entitlement = load(personId, course, now);
+            store(key, entitlement, now);
+        }
+        return entitlement.allows(OffsetDateTime.now());
+    }
+
+    @Override
+    public void evict(UUID personId, UUID courseId) {
+        Key key = new Key(personId, courseId);
+        entitlements.remove(key);
+        afterCommit(() -> entitlements.remove(key));
+        publish(KEYS, key.toString());
+    }
+
+    @Override
+    public void evictAll(Map<UUID, ? extends Collection<UUID>> courseIdsByPerson) {
+        if (courseIdsByPerson.isEmpty()) {
+            return;
+        }
+        evictWhere(k -> {
+            Collection<UUID> courseIds = courseIdsByPerson.get(k.personId());
+            return courseIds != null && courseIds.contains(k.courseId());
+        });
+        List<String> keys = courseIdsByPerson.entrySet().stream()
+                .flatMap(e -> e.getValue().stream().map(courseId -> new Key(e.getKey(), courseId).toString()))
+                .toList();
+        // past this many keys the message would outgrow Postgres' payload limit
+        publish(keys.size() > KEYS_PER_MESSAGE ? ALL : KEYS, String.join(",", keys));
+    }
+
+    @Override
+    public void evictPerson(UUID personId) {
+        evictWhere(k -> k.personId().equals(personId));
+        publish(PERSON, personId.toString());
+    }
+
+    @Override
+    public void evictCourse(UUID courseId) {
+        evictWhere(k -> k.courseId().equals(courseId));
+        publish(COURSE, courseId.toString());
+    }
+
+    /**
+     * Replays another instance's eviction on this instance's entries.
+     */
+    void onRemoteEviction(String payload) {
+        String[] parts = payload.split(" ", 3);
+        if (parts.length < 2 || parts[0].equals(instanceId)) {
+            return;
+        }
+        String ids = parts.length > 2 ? parts[2] : "";
+        switch (parts[1]) {
+            case KEYS -> Arrays.stream(ids.split(",")).map(Key::parse).forEach(entitlements::remove);
+            case PERSON -> entitlements.keySet().removeIf(k -> k.personId().equals(UUID.fromString(ids)));
+            case COURSE -> entitlements.keySet().removeIf(k -> k.courseId().equals(UUID.fromString(ids)));
+            case ALL -> entitlements.clear();
+            default -> { }
+        }
+    }
+
+    private void publish(String scope, String ids) {
+        databaseEvents.publish(CHANNEL, instanceId + " " + scope + (scope.equals(ALL) ? "" : " " + ids));
+    }
+
+    private Entitlement load(UUID personId, CourseEntity course, long now) {
+        return enrollmentRepository.findByStudentIdAndCourseId(personId, course.getId())
+                .map(enrollment -> Entitlement.of(enrollment, now))
+                .orElseGet(() -> Entitlement.none(now));
+    }
+
+    private void store(Key key, Entitlement entitlement, long now) {
+        if (entitlements.size() >= MAX_ENTRIES) {
+            entitlements.entrySet().removeIf(e -> now - e.getValue().loadedAt() >= ttlMillis);
+            if (entitlements.size() >= MAX_ENTRIES) {
+                entitlements.clear();
+            }
+        }
+        entitlements.put(key, entitlement);
+    }
+
+    private void evictWhere(Predicate<Key> predicate) {
+        entitlements.keySet().removeIf(predicate);
+        afterCommit(() -> entitlements.keySet().removeIf(predicate));
+    }
+
+    /**
+     * Evictions run right away and once more after commit, so that a concurrent reader cannot
+     * re-populate the entry with the enrollment state from before the write.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        }
+    }
+
+    private record Key(UUID personId, UUID courseId) {
+
+        static Key parse(String value) {
+            String[] ids = value.split(":", 2);
+            return new Key(UUID.fromString(ids[0]), UUID.fromString(ids[1]));
+        }
+
+        @Override
+        public String toString() {
+            return personId + ":" + courseId;
+        }
+    }
+
+    private record Entitlement(boolean enrolled, boolean blocked, OffsetDateTime accessUntil, long loadedAt) {
+
+        static Entitlement of(EnrollmentEntity enrollment, long now) {
+            return new Entitlement(true, "BLOCKED".equals(enrollment.getStatus()), enrollment.getExpiresAt(), now);
+        }
+
+        static Entitlement none(long now) {
+            return new Entitlement(false, false, null, now);
+        }
+
+        boolean allows(OffsetDateTime at) {
+            return enrolled && !blocked && (accessUntil == null || !at.isAfter(accessUntil));
+        }
+    }
+}
@@ -22,12 +22,8 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
-import org.springframework.security.core.context.SecurityContextHolder;
-import com.mishchuk.onlineschool.repository.PersonRepository;
-import com.mishchuk.onlineschool.repository.EnrollmentRepository;
 import com.mishchuk.onlineschool.repository.entity.PersonRole;
-import com.mishchuk.onlineschool.repository.entity.EnrollmentEntity;
-import java.time.OffsetDateTime;
+import com.mishchuk.onlineschool.security.CurrentPerson;
 
 @Service
 @RequiredArgsConstructor
@@ -47,8 +43,8 @@ public class FileStorageServiceImpl implements FileStorageService {
     private final LessonRepository lessonRepository;
     private final MinioConfig minioConfig;
     private final FileMapper fileMapper;
-    private final PersonRepository personRepository;
-    private final EnrollmentRepository enrollmentRepository;
+    private final EntitlementService entitlementService;
+    private final CurrentPerson currentPerson;
 
     @Transactional
     public FileDto uploadFile(
@@ -181,8 +177,7 @@ public class FileStorageServiceImpl implements FileStorageService {
     }
 
     private boolean hasAccessToLessonFiles(UUID lessonId) {
-        String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        Optional<PersonEntity> userOpt = personRepository.findByEmail(userEmail);
+        Optional<PersonEntity> userOpt = currentPerson.get();
 
         if (userOpt.isPresent()) {
             PersonEntity user = userOpt.get();
@@ -191,30 +186,8 @@ public class FileStorageServiceImpl implements FileStorageService {
             }
 
             LessonEntity lesson = lessonRepository.findById(lessonId).orElse(null);
-            if (lesson != null && lesson.getModule() != null && lesson.getModule().getCourse() != null) {
-                Optional<EnrollmentEntity> enrollmentOpt = enrollmentRepository
-                        .findByStudentIdAndCourseId(user.getId(), lesson.getModule().getCourse().getId());
-
-                if (enrollmentOpt.isPresent()) {
-                    EnrollmentEntity enrollment = enrollmentOpt.get();
-
-                    if ("BLOCKED".equals(enrollment.getStatus())) {
-                        return false;
-                    }
-
-                    if (enrollment.getExpiresAt() != null) {
-                        if (OffsetDateTime.now().isAfter(enrollment.getExpiresAt())) {
-                            return false;
-                        }
-                    } else if (lesson.getModule().getCourse().getAccessDuration() != null) {
-                        OffsetDateTime expirationDate = enrollment.getCreatedAt()
-                                .plusDays(lesson.getModule().getCourse().getAccessDuration());
-                        if (OffsetDateTime.now().isAfter(expirationDate)) {
-                            return false;
-                        }
-                    }
-                    return true;
-                }
+            if (lesson != null && lesson.getModule() != null) {
+                return entitlementService.hasCourseAccess(user.getId(), lesson.getModule().getCourse());
             }
         }
         return false;
@@ -15,13 +15,9 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import org.springframework.security.core.context.SecurityContextHolder;
-import com.mishchuk.onlineschool.repository.PersonRepository;
-import com.mishchuk.onlineschool.repository.EnrollmentRepository;
 import com.mishchuk.onlineschool.repository.entity.PersonEntity;
 import com.mishchuk.onlineschool.repository.entity.PersonRole;
-import com.mishchuk.onlineschool.repository.entity.EnrollmentEntity;
-import java.time.OffsetDateTime;
+import com.mishchuk.onlineschool.security.CurrentPerson;
 
 @Service
 @RequiredArgsConstructor
@@ -30,8 +26,10 @@ public class LessonServiceImpl implements LessonService {
     private final LessonRepository lessonRepository;
     private final ModuleRepository moduleRepository;
     private final LessonMapper lessonMapper;
-    private final PersonRepository personRepository;
-    private final EnrollmentRepository enrollmentRepository;
+    private final EntitlementService entitlementService;
+    private final CurrentPerson currentPerson;
+    private final CourseCatalog courseCatalog;
+    private final CourseCounters courseCounters;
 
     @Override
     @Transactional
@@ -45,10 +43,11 @@ public class LessonServiceImpl implements LessonService {
             entity.setModule(module);
         }
 
-        String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        personRepository.findByEmail(userEmail).ifPresent(entity::setCreatedBy);
+        currentPerson.get().ifPresent(entity::setCreatedBy);
 
         LessonEntity savedLesson = lessonRepository.save(entity);
+        courseCounters.refresh(savedLesson.getModule());
+        courseCatalog.courseChanged(courseIdOf(savedLesson));
         return lessonMapper.toDto(savedLesson);
     }
 
@@ -79,8 +78,7 @@ public class LessonServiceImpl implements LessonService {
     }
 
     private boolean hasAccessToLessonContent(LessonEntity lesson) {
-        String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        Optional<PersonEntity> userOpt = personRepository.findByEmail(userEmail);
+        Optional<PersonEntity> userOpt = currentPerson.get();
 
         if (userOpt.isPresent()) {
             PersonEntity user = userOpt.get();
@@ -88,30 +86,8 @@ public class LessonServiceImpl implements LessonService {
                 return true;
             }
 
-            if (lesson != null && lesson.getModule() != null && lesson.getModule().getCourse() != null) {
-                Optional<EnrollmentEntity> enrollmentOpt = enrollmentRepository
-                        .findByStudentIdAndCourseId(user.getId(), lesson.getModule().getCourse().getId());
-
-                if (enrollmentOpt.isPresent()) {
-                    EnrollmentEntity enrollment = enrollmentOpt.get();
-
-                    if ("BLOCKED".equals(enrollment.getStatus())) {
-                        return false;
-                    }
-
-                    if (enrollment.getExpiresAt() != null) {
-                        if (OffsetDateTime.now().isAfter(enrollment.getExpiresAt())) {
-                            return false;
-                        }
-                    } else if (lesson.getModule().getCourse().getAccessDuration() != null) {
-                        OffsetDateTime expirationDate = enrollment.getCreatedAt()
-                                .plusDays(lesson.getModule().getCourse().getAccessDuration());
-                        if (OffsetDateTime.now().isAfter(expirationDate)) {
-                            return false;
-                        }
-                    }
-                    return true;
-                }
+            if (lesson != null && lesson.getModule() != null) {
+                return entitlementService.hasCourseAccess(user.getId(), lesson.getModule().getCourse());
             }
         }
         return false;
@@ -147,8 +123,7 @@ public class LessonServiceImpl implements LessonService {
         LessonEntity entity = lessonRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Lesson not found"));
 
-        String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        PersonEntity currentUser = personRepository.findByEmail(userEmail)
+        PersonEntity currentUser = currentPerson.get()
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         if (currentUser.getRole() == PersonRole.FAKE_ADMIN) {
@@ -160,6 +135,8 @@ public class LessonServiceImpl implements LessonService {
 
         lessonMapper.updateEntity(entity, dto);
         lessonRepository.save(entity);
+        courseCounters.refresh(entity.getModule());
+        courseCatalog.courseChanged(courseIdOf(entity));
     }
 
     @Override
@@ -168,8 +145,7 @@ public class LessonServiceImpl implements LessonService {
         LessonEntity entity = lessonRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Lesson not found"));
 
-        String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        PersonEntity currentUser = personRepository.findByEmail(userEmail)
+        PersonEntity currentUser = currentPerson.get()
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         if (currentUser.getRole() == PersonRole.FAKE_ADMIN) {
@@ -180,5 +156,13 @@ public class LessonServiceImpl implements LessonService {
         }
 
         lessonRepository.deleteById(id);
+        courseCounters.refresh(entity.getModule());
+        courseCatalog.courseChanged(courseIdOf(entity));
+    }
+
+    private static UUID courseIdOf(LessonEntity lesson) {
+        return lesson.getModule() != null && lesson.getModule().getCourse() != null
+                ? lesson.getModule().getCourse().getId()
+                : null;
     }
 }
@@ -0,0 +1,48 @@
+package com.mishchuk.onlineschool.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "application.covers.storage", havingValue = "minio")
+public class MinioCoverObjectStorage implements CoverObjectStorage {
+
+    private final MinioService minioService;
+
+    @Override
+    public void put(String key, byte[] data, String contentType) throws IOException {
+        try {
+            minioService.uploadObject(key, new ByteArrayInputStream(data), data.length, contentType);
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Failed to upload cover object " + key, e);
+        }
+    }
+
+    @Override
+    public byte[] get(String key) throws IOException {
+        try (InputStream stream = minioService.downloadFile(key)) {
+            return stream.readAllBytes();
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Failed to download cover object " + key, e);
+        }
+    }
+
+    @Override
+    public void delete(String key) throws IOException {
+        try {
+            minioService.deleteFile(key);
+        } catch (Exception e) {
+            throw new IOException("Failed to delete cover object " + key, e);
+        }
+    }
+}
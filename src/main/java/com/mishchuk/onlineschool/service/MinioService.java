@@ -7,6 +7,7 @@ import java.io.InputStream;
 
 public interface MinioService {
     String uploadFile(MultipartFile file, String folder) throws Exception;
+    void uploadObject(String objectName, InputStream stream, long size, String contentType) throws Exception;
     InputStream downloadFile(String objectName) throws Exception;
     void deleteFile(String objectName) throws Exception;
     StatObjectResponse getFileMetadata(String objectName) throws Exception;
@@ -62,6 +62,18 @@ public class MinioServiceImpl implements MinioService {
         return objectName;
     }
 
+    public void uploadObject(String objectName, InputStream stream, long size, String contentType) throws Exception {
+        minioClient.putObject(
+                PutObjectArgs.builder()
+                        .bucket(minioConfig.getBucketName())
+                        .object(objectName)
+                        .stream(stream, size, -1)
+                        .contentType(contentType)
+                        .build());
+
+        log.info("Uploaded object to MinIO: {}", objectName);
+    }
+
     public InputStream downloadFile(String objectName) throws Exception {
         return minioClient.getObject(
                 GetObjectArgs.builder()
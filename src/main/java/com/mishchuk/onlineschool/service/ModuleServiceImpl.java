@@ -8,24 +8,23 @@ import com.mishchuk.onlineschool.mapper.ModuleMapper;
 import com.mishchuk.onlineschool.repository.CourseRepository;
 import com.mishchuk.onlineschool.repository.LessonRepository;
 import com.mishchuk.onlineschool.repository.ModuleRepository;
-import com.mishchuk.onlineschool.repository.PersonRepository;
-import com.mishchuk.onlineschool.repository.EnrollmentRepository;
 import com.mishchuk.onlineschool.repository.entity.CourseEntity;
 import com.mishchuk.onlineschool.repository.entity.LessonEntity;
 import com.mishchuk.onlineschool.repository.entity.ModuleEntity;
 import com.mishchuk.onlineschool.repository.entity.PersonEntity;
-import com.mishchuk.onlineschool.repository.entity.EnrollmentEntity;
 import com.mishchuk.onlineschool.repository.entity.PersonRole;
+import com.mishchuk.onlineschool.security.CurrentPerson;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.OffsetDateTime;
 
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 @Service
@@ -37,8 +36,10 @@ public class ModuleServiceImpl implements ModuleService {
     private final ModuleMapper moduleMapper;
     private final LessonService lessonService;
     private final LessonRepository lessonRepository;
-    private final PersonRepository personRepository;
-    private final EnrollmentRepository enrollmentRepository;
+    private final EntitlementService entitlementService;
+    private final CurrentPerson currentPerson;
+    private final CourseCatalog courseCatalog;
+    private final CourseCounters courseCounters;
 
     @Override
     @Transactional
@@ -53,20 +54,27 @@ public class ModuleServiceImpl implements ModuleService {
         ModuleEntity entity = moduleMapper.toEntity(dto);
         entity.setCourse(course);
 
-        String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        personRepository.findByEmail(userEmail).ifPresent(entity::setCreatedBy);
+        currentPerson.get().ifPresent(entity::setCreatedBy);
 
         ModuleEntity savedModule = moduleRepository.save(entity);
+        Set<UUID> affectedModuleIds = new HashSet<>();
+        affectedModuleIds.add(savedModule.getId());
+        Set<UUID> affectedCourseIds = new HashSet<>();
+        affectedCourseIds.add(courseIdOf(savedModule));
 
         // Assign lessons to this module if provided
         if (dto.lessonIds() != null && !dto.lessonIds().isEmpty()) {
             for (UUID lessonId : dto.lessonIds()) {
                 LessonEntity lesson = lessonRepository.findById(lessonId)
                         .orElseThrow(() -> new RuntimeException("Lesson not found: " + lessonId));
+                affectedModuleIds.add(moduleIdOf(lesson.getModule()));
+                affectedCourseIds.add(courseIdOf(lesson.getModule()));
                 lesson.setModule(savedModule);
                 lessonRepository.save(lesson);
             }
         }
+        courseCounters.refresh(affectedModuleIds, affectedCourseIds);
+        courseCatalog.courseChanged(affectedCourseIds.toArray(UUID[]::new));
     }
 
     @Override
@@ -100,8 +108,7 @@ public class ModuleServiceImpl implements ModuleService {
     @Transactional(readOnly = true)
     public List<LessonDto> getModuleLessons(java.util.UUID moduleId) {
         // Security Check: Ensure user has access to this module's course
-        String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        Optional<PersonEntity> userOpt = personRepository.findByEmail(userEmail);
+        Optional<PersonEntity> userOpt = currentPerson.get();
 
         boolean isAccessDenied = true;
 
@@ -115,34 +122,7 @@ public class ModuleServiceImpl implements ModuleService {
                 ModuleEntity module = moduleRepository.findById(moduleId)
                         .orElseThrow(() -> new RuntimeException("Module not found"));
 
-                if (module.getCourse() != null) {
-                    Optional<EnrollmentEntity> enrollmentOpt = enrollmentRepository
-                            .findByStudentIdAndCourseId(user.getId(), module.getCourse().getId());
-
-                    if (enrollmentOpt.isPresent()) {
-                        EnrollmentEntity enrollment = enrollmentOpt.get();
-
-                        // Check if blocked
-                        boolean isBlocked = "BLOCKED".equals(enrollment.getStatus());
-                        boolean isExpired = false;
-
-                        if (enrollment.getExpiresAt() != null) {
-                            if (OffsetDateTime.now().isAfter(enrollment.getExpiresAt())) {
-                                isExpired = true;
-                            }
-                        } else if (module.getCourse().getAccessDuration() != null) {
-                            OffsetDateTime expirationDate = enrollment.getCreatedAt()
-                                    .plusDays(module.getCourse().getAccessDuration());
-                            if (OffsetDateTime.now().isAfter(expirationDate)) {
-                                isExpired = true;
-                            }
-                        }
-
-                        if (!isBlocked && !isExpired) {
-                            isAccessDenied = false;
-                        }
-                    }
-                }
+                isAccessDenied = !entitlementService.hasCourseAccess(user.getId(), module.getCourse());
             }
         }
 
@@ -176,8 +156,7 @@ public class ModuleServiceImpl implements ModuleService {
         ModuleEntity entity = moduleRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Module not found"));
 
-        String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        PersonEntity currentUser = personRepository.findByEmail(userEmail)
+        PersonEntity currentUser = currentPerson.get()
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         if (currentUser.getRole() == PersonRole.FAKE_ADMIN) {
@@ -187,8 +166,14 @@ public class ModuleServiceImpl implements ModuleService {
             }
         }
 
+        Set<UUID> affectedModuleIds = new HashSet<>();
+        affectedModuleIds.add(id);
+        Set<UUID> affectedCourseIds = new HashSet<>();
+        affectedCourseIds.add(courseIdOf(entity));
+
         moduleMapper.updateEntity(entity, dto);
         moduleRepository.save(entity);
+        affectedCourseIds.add(courseIdOf(entity));
 
         // Update lesson assignments if provided
         if (dto.lessonIds() != null) {
@@ -203,10 +188,14 @@ public class ModuleServiceImpl implements ModuleService {
             for (UUID lessonId : dto.lessonIds()) {
                 LessonEntity lesson = lessonRepository.findById(lessonId)
                         .orElseThrow(() -> new RuntimeException("Lesson not found: " + lessonId));
+                affectedModuleIds.add(moduleIdOf(lesson.getModule()));
+                affectedCourseIds.add(courseIdOf(lesson.getModule()));
                 lesson.setModule(entity);
                 lessonRepository.save(lesson);
             }
         }
+        courseCounters.refresh(affectedModuleIds, affectedCourseIds);
+        courseCatalog.courseChanged(affectedCourseIds.toArray(UUID[]::new));
     }
 
     @Override
@@ -215,8 +204,7 @@ public class ModuleServiceImpl implements ModuleService {
         ModuleEntity entity = moduleRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Module not found"));
 
-        String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        PersonEntity currentUser = personRepository.findByEmail(userEmail)
+        PersonEntity currentUser = currentPerson.get()
                 .orElseThrow(() -> new RuntimeException("User not found"));
 
         if (currentUser.getRole() == PersonRole.FAKE_ADMIN) {
@@ -227,5 +215,15 @@ public class ModuleServiceImpl implements ModuleService {
         }
 
         moduleRepository.deleteById(id);
+        courseCounters.refresh(Set.of(), Collections.singleton(courseIdOf(entity)));
+        courseCatalog.courseChanged(courseIdOf(entity));
+    }
+
+    private static UUID moduleIdOf(ModuleEntity module) {
+        return module != null ? module.getId() : null;
+    }
+
+    private static UUID courseIdOf(ModuleEntity module) {
+        return module != null && module.getCourse() != null ? module.getCourse().getId() : null;
     }
 }
@@ -0,0 +1,50 @@
+package com.mishchuk.onlineschool.service;
+
+import com.mishchuk.onlineschool.repository.entity.PersonRole;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * A committed change to someone's notifications, as sent between instances over {@code LISTEN/NOTIFY}.
+ * The audience is the listed persons, everyone with a role, an owner with the persons they created,
+ * or everyone when nothing is set.
+ */
+public record NotificationEvent(Kind kind, List<UUID> personIds, PersonRole role, UUID ownerId) {
+
+    public enum Kind {
+        /** Something new arrived; implies the unread count changed. */
+        CREATED,
+        /** Notifications were read, unread or deleted. */
+        UPDATED
+    }
+
+    public static NotificationEvent forPersons(Kind kind, List<UUID> personIds) {
+        return new NotificationEvent(kind, personIds, null, null);
+    }
+
+    public static NotificationEvent forRole(Kind kind, PersonRole role) {
+        return new NotificationEvent(kind, null, role, null);
+    }
+
+    public static NotificationEvent forOwnerAudience(Kind kind, UUID ownerId) {
+        return new NotificationEvent(kind, null, null, ownerId);
+    }
+
+    public static NotificationEvent forEveryone(Kind kind) {
+        return new NotificationEvent(kind, null, null, null);
+    }
+
+    public boolean addressedTo(UUID personId, PersonRole personRole, UUID createdById) {
+        if (personIds != null) {
+            return personIds.contains(personId);
+        }
+        if (role != null) {
+            return role == personRole;
+        }
+        if (ownerId != null) {
+            return ownerId.equals(personId) || ownerId.equals(createdById);
+        }
+        return true;
+    }
+}
@@ -0,0 +1,90 @@
+package com.mishchuk.onlineschool.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mishchuk.onlineschool.service.NotificationEvent.Kind;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Carries committed notification changes to every instance over the {@value #CHANNEL} database channel.
+ * Events are published in the writer's transaction and heard by every instance, this one included, which drops
+ * the affected cached unread counts and hands the event to its {@link NotificationStreams}.
+ */
+@Slf4j
+@Component
+public class NotificationEvents {
+
+    static final String CHANNEL = "notification_events";
+    /**
+     * Persons per NOTIFY; keeps the payload well below Postgres' 8000 byte limit.
+     */
+    static final int PERSONS_PER_EVENT = 100;
+
+    private final DatabaseEvents databaseEvents;
+    private final ObjectMapper objectMapper;
+    private final UnreadCounters unreadCounters;
+    private final NotificationStreams notificationStreams;
+
+    public NotificationEvents(DatabaseEvents databaseEvents,
+                              ObjectMapper objectMapper,
+                              UnreadCounters unreadCounters,
+                              NotificationStreams notificationStreams) {
+        this.databaseEvents = databaseEvents;
+        this.objectMapper = objectMapper;
+        this.unreadCounters = unreadCounters;
+        this.notificationStreams = notificationStreams;
+        // whatever was sent while no one was listening is unknown, so every stream gets a fresh count
+        databaseEvents.subscribe(CHANNEL, this::dispatch,
+                () -> dispatch(NotificationEvent.forEveryone(Kind.UPDATED)));
+    }
+
+    public void created(Collection<UUID> personIds) {
+        publishForPersons(Kind.CREATED, personIds);
+    }
+
+    public void updated(UUID personId) {
+        publish(NotificationEvent.forPersons(Kind.UPDATED, List.of(personId)));
+    }
+
+    public void publishForPersons(Kind kind, Collection<UUID> personIds) {
+        List<UUID> ids = personIds.stream().distinct().toList();
+        for (int from = 0; from < ids.size(); from += PERSONS_PER_EVENT) {
+            publish(NotificationEvent.forPersons(kind,
+                    ids.subList(from, Math.min(from + PERSONS_PER_EVENT, ids.size()))));
+        }
+    }
+
+    public void publish(NotificationEvent event) {
+        try {
+            databaseEvents.publish(CHANNEL, objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize notification event", e);
+        }
+    }
+
+    private void dispatch(String payload) {
+        NotificationEvent event;
+        try {
+            event = objectMapper.readValue(payload, NotificationEvent.class);
+        } catch (JsonProcessingException e) {
+            log.warn("Ignoring malformed notification event: {}", payload);
+            return;
+        }
+        dispatch(event);
+    }
+
+    void dispatch(NotificationEvent event) {
+        if (event.personIds() != null) {
+            unreadCounters.evict(new ArrayList<>(event.personIds()));
+        } else {
+            unreadCounters.evictAll();
+        }
+        notificationStreams.deliver(event);
+    }
+}
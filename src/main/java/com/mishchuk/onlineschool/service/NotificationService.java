@@ -1,10 +1,12 @@
 package com.mishchuk.onlineschool.service;
 
+import com.mishchuk.onlineschool.controller.dto.NotificationDto;
 import com.mishchuk.onlineschool.repository.entity.NotificationEntity;
 import com.mishchuk.onlineschool.repository.entity.NotificationType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.UUID;
 
 public interface NotificationService {
@@ -17,6 +19,11 @@ public interface NotificationService {
         return createNotification(recipientId, title, message, type, null);
     }
 
+    /**
+     * Creates many personal notifications with a single batched insert; recipients are not loaded.
+     */
+    void createNotifications(java.util.List<NewNotification> notifications);
+
     void broadcastToAdmins(String title, String message, NotificationType type, String buttonUrl);
 
     default void broadcastToAdmins(String title, String message, NotificationType type) {
@@ -35,19 +42,31 @@ public interface NotificationService {
         sendToUsers(title, message, userIds, null);
     }
 
-    Page<NotificationEntity> getUserNotifications(UUID userId, Pageable pageable);
+    /**
+     * Personal notifications and the broadcasts addressed to the user, newest first.
+     */
+    Page<NotificationDto> getUserNotifications(UUID userId, Pageable pageable);
+
+    void markAsRead(UUID userId, UUID notificationId);
 
-    void markAsRead(UUID notificationId);
+    void markAsUnread(UUID userId, UUID notificationId);
 
-    void markAsUnread(UUID notificationId);
+    /**
+     * Marks personal notifications and broadcasts read in one pass; ids the user cannot see are ignored.
+     * Returns the number of notifications affected, as do the bulk operations below.
+     */
+    int markAsRead(UUID userId, Collection<UUID> notificationIds);
 
-    void markAllAsRead(UUID userId);
+    int markAllAsRead(UUID userId);
 
-    void markAllAsUnread(UUID userId);
+    int markAllAsUnread(UUID userId);
 
-    void deleteAll(UUID userId);
+    int deleteAll(UUID userId);
 
     long getUnreadCount(UUID userId);
 
-    void deleteNotification(UUID id);
+    void deleteNotification(UUID userId, UUID id);
+
+    record NewNotification(UUID recipientId, String title, String message, NotificationType type) {
+    }
 }
@@ -1,22 +1,29 @@
 package com.mishchuk.onlineschool.service;
 
+import com.mishchuk.onlineschool.controller.dto.NotificationDto;
 import com.mishchuk.onlineschool.exception.ResourceNotFoundException;
+import com.mishchuk.onlineschool.repository.BroadcastRepository;
 import com.mishchuk.onlineschool.repository.NotificationRepository;
+import com.mishchuk.onlineschool.repository.NotificationRepositoryCustom.Broadcast;
+import com.mishchuk.onlineschool.repository.NotificationRepositoryCustom.FeedItem;
 import com.mishchuk.onlineschool.repository.PersonRepository;
+import com.mishchuk.onlineschool.repository.entity.BroadcastEntity;
 import com.mishchuk.onlineschool.repository.entity.NotificationEntity;
 import com.mishchuk.onlineschool.repository.entity.NotificationType;
 import com.mishchuk.onlineschool.repository.entity.PersonEntity;
 import com.mishchuk.onlineschool.repository.entity.PersonRole;
+import com.mishchuk.onlineschool.security.CurrentPerson;
+import com.mishchuk.onlineschool.service.NotificationEvent.Kind;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
@@ -26,7 +33,11 @@ import java.util.stream.Collectors;
 public class NotificationServiceImpl implements NotificationService {
 
     private final NotificationRepository notificationRepository;
+    private final BroadcastRepository broadcastRepository;
     private final PersonRepository personRepository;
+    private final CurrentPerson currentPerson;
+    private final UnreadCounters unreadCounters;
+    private final NotificationEvents notificationEvents;
 
     @Override
     @Transactional
@@ -45,196 +56,236 @@ public class NotificationServiceImpl implements NotificationService {
         notification.setButtonUrl(buttonUrl);
         notification.setRead(false);
 
-        return notificationRepository.save(notification);
+        NotificationEntity saved = notificationRepository.save(notification);
+        unreadCounters.adjust(recipientId, 1);
+        notificationEvents.created(List.of(recipientId));
+        return saved;
     }
 
     @Override
     @Transactional
-    public void broadcastToAdmins(String title, String message, NotificationType type, String buttonUrl) {
-        String userEmail = null;
-        if (SecurityContextHolder.getContext().getAuthentication() != null) {
-            userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        }
-        List<PersonEntity> adminsToNotify = new ArrayList<>();
-
-        if (userEmail != null) {
-            PersonEntity currentUser = personRepository.findByEmail(userEmail).orElse(null);
-            if (currentUser != null
-                    && currentUser.getRole() == PersonRole.FAKE_ADMIN) {
-                log.info("Scoping broadcast to admins for FAKE_ADMIN to only themselves");
-                adminsToNotify.add(currentUser);
-            } else {
-                adminsToNotify.addAll(personRepository
-                        .findAllByRole(PersonRole.ADMIN));
-            }
-        } else {
-            adminsToNotify.addAll(personRepository
-                    .findAllByRole(PersonRole.ADMIN));
+    public void createNotifications(List<NewNotification> notifications) {
+        if (notifications.isEmpty()) {
+            return;
         }
+        log.info("Creating {} notifications", notifications.size());
 
-        log.info("Broadcasting notification to {} admins: {}", adminsToNotify.size(), title);
-
-        List<NotificationEntity> notifications = adminsToNotify.stream()
-                .map(admin -> {
+        List<NotificationEntity> entities = notifications.stream()
+                .map(draft -> {
                     NotificationEntity n = new NotificationEntity();
-                    n.setRecipient(admin);
-                    n.setTitle(title);
-                    n.setMessage(message);
-                    n.setType(type);
-                    n.setButtonUrl(buttonUrl);
+                    n.setRecipient(personRepository.getReferenceById(draft.recipientId()));
+                    n.setTitle(draft.title());
+                    n.setMessage(draft.message());
+                    n.setType(draft.type());
                     n.setRead(false);
                     return n;
                 })
                 .collect(Collectors.toList());
 
-        notificationRepository.saveAll(notifications);
+        notificationRepository.saveAll(entities);
+        notifications.stream()
+                .collect(Collectors.groupingBy(NewNotification::recipientId, Collectors.summingInt(draft -> 1)))
+                .forEach(unreadCounters::adjust);
+        notificationEvents.created(notifications.stream().map(NewNotification::recipientId).toList());
     }
 
     @Override
     @Transactional
-    public void sendToAllUsers(String title, String message, String buttonUrl) {
-        String userEmail = null;
-        if (SecurityContextHolder.getContext().getAuthentication() != null) {
-            userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        }
-        List<PersonEntity> usersToNotify = new ArrayList<>();
-
-        if (userEmail != null) {
-            PersonEntity currentUser = personRepository.findByEmail(userEmail).orElse(null);
-            if (currentUser != null
-                    && currentUser.getRole() == PersonRole.FAKE_ADMIN) {
-                log.info("Scoping broadcast to all users for FAKE_ADMIN to only themselves and users they created");
-                usersToNotify.add(currentUser);
-                usersToNotify.addAll(personRepository.findAllByCreatedById(currentUser.getId()));
-            } else {
-                usersToNotify.addAll(personRepository.findAll());
-            }
+    public void broadcastToAdmins(String title, String message, NotificationType type, String buttonUrl) {
+        Broadcast broadcast = new Broadcast(title, message, type, buttonUrl);
+        UUID ownerId = fakeAdminScope();
+
+        int sent;
+        if (ownerId != null) {
+            log.info("Scoping broadcast to admins for FAKE_ADMIN to only themselves");
+            sent = notificationRepository.insertForPersons(broadcast, List.of(ownerId), null);
+            unreadCounters.evict(ownerId);
+            notificationEvents.created(List.of(ownerId));
         } else {
-            usersToNotify.addAll(personRepository.findAll());
+            sent = notificationRepository.insertForRole(broadcast, PersonRole.ADMIN);
+            unreadCounters.evictAll();
+            notificationEvents.publish(NotificationEvent.forRole(Kind.CREATED, PersonRole.ADMIN));
         }
 
-        log.info("Broadcasting notification to {} users: {}", usersToNotify.size(), title);
+        log.info("Broadcast notification to {} admins: {}", sent, title);
+    }
 
-        List<NotificationEntity> notifications = usersToNotify.stream()
-                .map(user -> {
-                    NotificationEntity n = new NotificationEntity();
-                    n.setRecipient(user);
-                    n.setTitle(title);
-                    n.setMessage(message);
-                    n.setType(NotificationType.ADMIN_ANNOUNCEMENT);
-                    n.setButtonUrl(buttonUrl);
-                    n.setRead(false);
-                    return n;
-                })
-                .collect(Collectors.toList());
+    @Override
+    @Transactional
+    public void sendToAllUsers(String title, String message, String buttonUrl) {
+        UUID ownerId = fakeAdminScope();
+        if (ownerId != null) {
+            log.info("Scoping broadcast to all users for FAKE_ADMIN to only themselves and users they created");
+        }
 
-        notificationRepository.saveAll(notifications);
+        // stored once; recipients see it through getUserNotifications
+        BroadcastEntity broadcast = new BroadcastEntity();
+        broadcast.setOwner(ownerId != null ? personRepository.getReferenceById(ownerId) : null);
+        broadcast.setTitle(title);
+        broadcast.setMessage(message);
+        broadcast.setType(NotificationType.ADMIN_ANNOUNCEMENT);
+        broadcast.setButtonUrl(buttonUrl);
+        broadcastRepository.save(broadcast);
+        unreadCounters.evictAll();
+        notificationEvents.publish(ownerId != null
+                ? NotificationEvent.forOwnerAudience(Kind.CREATED, ownerId)
+                : NotificationEvent.forEveryone(Kind.CREATED));
+
+        log.info("Broadcast announcement to all users: {}", title);
     }
 
     @Override
     @Transactional
     public void sendToUsers(String title, String message, List<UUID> userIds, String buttonUrl) {
-        String userEmail = null;
-        if (SecurityContextHolder.getContext().getAuthentication() != null) {
-            userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        }
-        List<PersonEntity> recipients = personRepository.findAllById(userIds);
-
-        if (userEmail != null) {
-            PersonEntity currentUser = personRepository.findByEmail(userEmail).orElse(null);
-            if (currentUser != null
-                    && currentUser.getRole() == PersonRole.FAKE_ADMIN) {
-                log.info("Scoping targeted broadcast for FAKE_ADMIN");
-                recipients = recipients.stream()
-                        .filter(user -> user.getId().equals(currentUser.getId()) ||
-                                (user.getCreatedBy() != null
-                                        && user.getCreatedBy().getId().equals(currentUser.getId())))
-                        .toList();
-            }
+        UUID ownerId = fakeAdminScope();
+        if (ownerId != null) {
+            log.info("Scoping targeted broadcast for FAKE_ADMIN");
         }
 
-        log.info("Sending notification to {} specific permitted users", recipients.size());
+        int sent = notificationRepository.insertForPersons(
+                new Broadcast(title, message, NotificationType.ADMIN_ANNOUNCEMENT, buttonUrl), userIds, ownerId);
+        unreadCounters.evict(userIds);
+        if (sent > 0) {
+            notificationEvents.created(userIds);
+        }
 
-        java.util.List<NotificationEntity> notifications = recipients.stream()
-                .map(user -> {
-                    NotificationEntity n = new NotificationEntity();
-                    n.setRecipient(user);
-                    n.setTitle(title);
-                    n.setMessage(message);
-                    n.setType(NotificationType.ADMIN_ANNOUNCEMENT);
-                    n.setButtonUrl(buttonUrl);
-                    n.setRead(false);
-                    return n;
-                })
-                .collect(Collectors.toList());
+        log.info("Sent notification to {} specific permitted users", sent);
+    }
 
-        notificationRepository.saveAll(notifications);
+    /**
+     * A FAKE_ADMIN may only reach themselves and the persons they created; null when unrestricted.
+     */
+    private UUID fakeAdminScope() {
+        return currentPerson.get()
+                .filter(user -> user.getRole() == PersonRole.FAKE_ADMIN)
+                .map(PersonEntity::getId)
+                .orElse(null);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public Page<NotificationEntity> getUserNotifications(UUID userId, Pageable pageable) {
-        return notificationRepository.findByRecipientIdOrderByCreatedAtDesc(userId, pageable);
+    public Page<NotificationDto> getUserNotifications(UUID userId, Pageable pageable) {
+        return notificationRepository.findFeed(userId, pageable).map(NotificationServiceImpl::toDto);
     }
 
     @Override
     @Transactional
-    public void markAsRead(UUID notificationId) {
-        NotificationEntity notification = notificationRepository.findById(notificationId)
-                .orElseThrow(() -> new ResourceNotFoundException("Notification not found: " + notificationId));
-
-        notification.setRead(true);
-        notificationRepository.save(notification);
+    public void markAsRead(UUID userId, UUID notificationId) {
+        setRead(userId, notificationId, true);
     }
 
     @Override
     @Transactional
-    public void markAsUnread(UUID notificationId) {
-        NotificationEntity notification = notificationRepository.findById(notificationId)
-                .orElseThrow(() -> new ResourceNotFoundException("Notification not found: " + notificationId));
+    public void markAsUnread(UUID userId, UUID notificationId) {
+        setRead(userId, notificationId, false);
+    }
 
-        notification.setRead(false);
-        notificationRepository.save(notification);
+    private void setRead(UUID userId, UUID notificationId, boolean read) {
+        Optional<NotificationEntity> notification =
+                notificationRepository.findByIdAndRecipientId(notificationId, userId);
+        if (notification.isPresent()) {
+            NotificationEntity n = notification.get();
+            if (n.isRead() != read) {
+                n.setRead(read);
+                notificationRepository.save(n);
+                unreadCounters.adjust(userId, read ? -1 : 1);
+                notificationEvents.updated(userId);
+            }
+        } else if (broadcastRepository.markRead(notificationId, userId, read) > 0) {
+            unreadCounters.evict(userId);
+            notificationEvents.updated(userId);
+        } else {
+            throw new ResourceNotFoundException("Notification not found: " + notificationId);
+        }
+    }
+
+    @Override
+    @Transactional
+    public int markAsRead(UUID userId, Collection<UUID> notificationIds) {
+        if (notificationIds.isEmpty()) {
+            return 0;
+        }
+        int personal = notificationRepository.markReadByRecipientIdAndIdIn(userId, notificationIds);
+        unreadCounters.adjust(userId, -personal);
+        int broadcasts = broadcastRepository.markRead(notificationIds, userId, true);
+        if (broadcasts > 0) {
+            unreadCounters.evict(userId);
+        }
+        if (personal + broadcasts > 0) {
+            notificationEvents.updated(userId);
+        }
+        return personal + broadcasts;
     }
 
     @Override
     @Transactional
-    public void markAllAsRead(UUID userId) {
-        List<NotificationEntity> notifications = notificationRepository
-                .findByRecipientIdOrderByCreatedAtDesc(userId);
-        notifications.forEach(n -> n.setRead(true));
-        notificationRepository.saveAll(notifications);
+    public int markAllAsRead(UUID userId) {
+        int marked = notificationRepository.updateReadByRecipientId(userId, true)
+                + broadcastRepository.markAllRead(userId);
+        unreadCounters.clear(userId);
+        publishUpdated(userId, marked);
+        return marked;
     }
 
     @Override
     @Transactional
-    public void markAllAsUnread(UUID userId) {
-        List<NotificationEntity> notifications = notificationRepository
-                .findByRecipientIdOrderByCreatedAtDesc(userId);
-        notifications.forEach(n -> n.setRead(false));
-        notificationRepository.saveAll(notifications);
+    public int markAllAsUnread(UUID userId) {
+        int marked = notificationRepository.updateReadByRecipientId(userId, false)
+                + broadcastRepository.markAllUnread(userId);
+        unreadCounters.recount(userId);
+        publishUpdated(userId, marked);
+        return marked;
     }
 
     @Override
     @Transactional
-    public void deleteAll(UUID userId) {
-        List<NotificationEntity> notifications = notificationRepository
-                .findByRecipientIdOrderByCreatedAtDesc(userId);
-        notificationRepository.deleteAll(notifications);
+    public int deleteAll(UUID userId) {
+        int deleted = notificationRepository.deleteByRecipientId(userId)
+                + broadcastRepository.markAllDeleted(userId);
+        unreadCounters.clear(userId);
+        publishUpdated(userId, deleted);
+        return deleted;
     }
 
     @Override
-    @Transactional(readOnly = true)
+    // no transaction: a cached count must not cost a connection
     public long getUnreadCount(UUID userId) {
-        return notificationRepository.countByRecipientIdAndIsReadFalse(userId);
+        return unreadCounters.get(userId);
     }
 
     @Override
     @Transactional
-    public void deleteNotification(UUID id) {
-        if (!notificationRepository.existsById(id)) {
+    public void deleteNotification(UUID userId, UUID id) {
+        Optional<NotificationEntity> notification = notificationRepository.findByIdAndRecipientId(id, userId);
+        if (notification.isPresent()) {
+            NotificationEntity n = notification.get();
+            notificationRepository.delete(n);
+            if (!n.isRead()) {
+                unreadCounters.adjust(userId, -1);
+            }
+            notificationEvents.updated(userId);
+        } else if (broadcastRepository.markDeleted(id, userId) > 0) {
+            unreadCounters.evict(userId);
+            notificationEvents.updated(userId);
+        } else {
             throw new ResourceNotFoundException("Notification not found with id: " + id);
         }
-        notificationRepository.deleteById(id);
+    }
+
+    private void publishUpdated(UUID userId, int changed) {
+        if (changed > 0) {
+            notificationEvents.updated(userId);
+        }
+    }
+
+    private static NotificationDto toDto(FeedItem item) {
+        return new NotificationDto(
+                item.id(),
+                item.title(),
+                item.message(),
+                item.type(),
+                item.read(),
+                item.createdAt(),
+                item.buttonUrl());
     }
 }
@@ -0,0 +1,193 @@
+package com.mishchuk.onlineschool.service;
+
+import com.mishchuk.onlineschool.repository.entity.PersonEntity;
+import com.mishchuk.onlineschool.repository.entity.PersonRole;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Open server-sent event streams of this instance, fed by {@link NotificationEvents}.
+ * A stream holds no queue: pending pushes are flags that repeated events collapse into, so a slow or idle client
+ * costs the same few bytes however much happens meanwhile, and every push sends the current state (a fresh unread
+ * count, a hint to reload the list) rather than a backlog. Writes happen on a small sender pool, never on the
+ * listener or a request thread.
+ */
+@Slf4j
+@Component
+public class NotificationStreams {
+
+    static final int NOTIFICATION = 1;
+    static final int UNREAD_COUNT = 2;
+    static final int HEARTBEAT = 4;
+
+    private final UnreadCounters unreadCounters;
+    private final long timeoutMillis;
+    private final int maxConnections;
+    private final int maxPerPerson;
+    private final ExecutorService sender;
+
+    private final Map<UUID, List<Stream>> streams = new ConcurrentHashMap<>();
+    private final AtomicInteger openCount = new AtomicInteger();
+
+    public NotificationStreams(UnreadCounters unreadCounters,
+                               @Value("${application.notifications.stream-timeout:1800000}") long timeoutMillis,
+                               @Value("${application.notifications.stream-max-connections:5000}") int maxConnections,
+                               @Value("${application.notifications.stream-max-per-person:5}") int maxPerPerson) {
+        this.unreadCounters = unreadCounters;
+        this.timeoutMillis = timeoutMillis;
+        this.maxConnections = maxConnections;
+        this.maxPerPerson = maxPerPerson;
+        AtomicInteger threads = new AtomicInteger();
+        this.sender = Executors.newFixedThreadPool(4, runnable -> {
+            Thread thread = new Thread(runnable, "notification-stream-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Opens a stream for the person, starting with their unread count; empty when this instance is at capacity.
+     * A person over their own limit loses their oldest stream instead.
+     */
+    public Optional<SseEmitter> open(PersonEntity person) {
+        if (openCount.incrementAndGet() > maxConnections) {
+            openCount.decrementAndGet();
+            log.warn("Refusing notification stream for {}: {} streams open", person.getId(), maxConnections);
+            return Optional.empty();
+        }
+
+        UUID createdById = person.getCreatedBy() != null ? person.getCreatedBy().getId() : null;
+        Stream stream = new Stream(person.getId(), person.getRole(), createdById, new SseEmitter(timeoutMillis));
+        stream.emitter.onCompletion(() -> remove(stream));
+        stream.emitter.onTimeout(() -> remove(stream));
+        stream.emitter.onError(e -> remove(stream));
+
+        List<Stream> own = streams.compute(person.getId(), (id, existing) -> {
+            List<Stream> list = existing != null ? existing : new CopyOnWriteArrayList<>();
+            list.add(stream);
+            return list;
+        });
+        while (own.size() > maxPerPerson) {
+            Stream oldest = own.get(0);
+            remove(oldest);
+            oldest.emitter.complete();
+        }
+
+        push(stream, UNREAD_COUNT);
+        return Optional.of(stream.emitter);
+    }
+
+    public void deliver(NotificationEvent event) {
+        int what = event.kind() == NotificationEvent.Kind.CREATED ? NOTIFICATION | UNREAD_COUNT : UNREAD_COUNT;
+        if (event.personIds() != null) {
+            event.personIds().forEach(personId -> pushAll(streams.get(personId), what));
+        } else {
+            streams.values().forEach(own -> own.stream()
+                    .filter(stream -> event.addressedTo(stream.personId, stream.role, stream.createdById))
+                    .forEach(stream -> push(stream, what)));
+        }
+    }
+
+    /**
+     * Keeps idle streams alive through proxies and notices clients that went away without closing.
+     */
+    @Scheduled(fixedDelayString = "${application.notifications.stream-heartbeat:25000}")
+    public void heartbeat() {
+        streams.values().forEach(own -> pushAll(own, HEARTBEAT));
+    }
+
+    int openStreams() {
+        return openCount.get();
+    }
+
+    private void pushAll(List<Stream> own, int what) {
+        if (own != null) {
+            own.forEach(stream -> push(stream, what));
+        }
+    }
+
+    private void push(Stream stream, int what) {
+        stream.pending.getAndUpdate(pending -> pending | what);
+        if (stream.scheduled.compareAndSet(false, true)) {
+            sender.execute(() -> drain(stream));
+        }
+    }
+
+    void drain(Stream stream) {
+        try {
+            int what = stream.pending.getAndSet(0);
+            if ((what & NOTIFICATION) != 0) {
+                stream.emitter.send(SseEmitter.event().name("notification").data("new"));
+            }
+            if ((what & UNREAD_COUNT) != 0) {
+                stream.emitter.send(SseEmitter.event().name("unread-count").data(unreadCounters.get(stream.personId)));
+            }
+            if (what == HEARTBEAT) {
+                stream.emitter.send(SseEmitter.event().comment("heartbeat"));
+            }
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Notification stream of {} closed: {}", stream.personId, e.getMessage());
+            remove(stream);
+            stream.emitter.completeWithError(e);
+            return;
+        } catch (RuntimeException e) {
+            log.warn("Failed to push to notification stream of {}", stream.personId, e);
+        } finally {
+            stream.scheduled.set(false);
+        }
+        if (stream.pending.get() != 0 && !stream.removed.get() && stream.scheduled.compareAndSet(false, true)) {
+            sender.execute(() -> drain(stream));
+        }
+    }
+
+    private void remove(Stream stream) {
+        if (!stream.removed.compareAndSet(false, true)) {
+            return;
+        }
+        openCount.decrementAndGet();
+        streams.computeIfPresent(stream.personId, (id, own) -> {
+            own.remove(stream);
+            return own.isEmpty() ? null : own;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+        streams.values().forEach(own -> own.forEach(stream -> stream.emitter.complete()));
+    }
+
+    static final class Stream {
+
+        private final UUID personId;
+        private final PersonRole role;
+        private final UUID createdById;
+        private final SseEmitter emitter;
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private final AtomicBoolean removed = new AtomicBoolean();
+
+        private Stream(UUID personId, PersonRole role, UUID createdById, SseEmitter emitter) {
+            this.personId = personId;
+            this.role = role;
+            this.createdById = createdById;
+            this.emitter = emitter;
+        }
+    }
+}
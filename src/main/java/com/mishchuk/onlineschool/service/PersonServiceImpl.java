@@ -11,17 +11,18 @@ import com.mishchuk.onlineschool.repository.CourseRepository;
 import com.mishchuk.onlineschool.repository.EnrollmentRepository;
 import com.mishchuk.onlineschool.repository.PersonRepository;
 import com.mishchuk.onlineschool.repository.entity.*;
+import com.mishchuk.onlineschool.security.CurrentPerson;
+import com.mishchuk.onlineschool.security.TokenVersionCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.access.AccessDeniedException;
-import org.springframework.security.core.Authentication;
-import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -38,6 +39,10 @@ public class PersonServiceImpl implements PersonService {
     private final PasswordEncoder passwordEncoder;
     private final EmailService emailService;
     private final NotificationService notificationService;
+    private final TokenVersionCache tokenVersionCache;
+    private final EntitlementService entitlementService;
+    private final EnrollmentExpiry enrollmentExpiry;
+    private final CurrentPerson currentPerson;
 
     @Override
     @Transactional
@@ -52,11 +57,7 @@ public class PersonServiceImpl implements PersonService {
         PersonEntity entity = personMapper.toEntity(dto);
         entity.setPassword(passwordEncoder.encode(entity.getPassword()));
 
-        Authentication auth = SecurityContextHolder
-                .getContext().getAuthentication();
-        if (auth != null && auth.isAuthenticated() && !"anonymousUser".equals(auth.getPrincipal())) {
-            personRepository.findByEmail(auth.getName()).ifPresent(entity::setCreatedBy);
-        }
+        currentPerson.get().ifPresent(entity::setCreatedBy);
 
         personRepository.save(entity);
 
@@ -111,9 +112,7 @@ public class PersonServiceImpl implements PersonService {
         PersonEntity entity = personRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Person not found with id: " + id));
 
-        String userEmail = SecurityContextHolder.getContext()
-                .getAuthentication().getName();
-        PersonEntity currentUser = personRepository.findByEmail(userEmail)
+        PersonEntity currentUser = currentPerson.get()
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (currentUser.getRole() == PersonRole.FAKE_ADMIN) {
@@ -143,7 +142,13 @@ public class PersonServiceImpl implements PersonService {
             );
         }
 
+        PersonRole previousRole = entity.getRole();
+        PersonStatus previousStatus = entity.getStatus();
+
         personMapper.updateEntityFromDto(dto, entity);
+        if (entity.getRole() != previousRole || entity.getStatus() != previousStatus) {
+            tokenVersionCache.revoke(entity);
+        }
         personRepository.save(entity);
     }
 
@@ -153,8 +158,7 @@ public class PersonServiceImpl implements PersonService {
         PersonEntity entity = personRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Person not found with id: " + id));
 
-        String userEmail = SecurityContextHolder.getContext().getAuthentication().getName();
-        PersonEntity currentUser = personRepository.findByEmail(userEmail)
+        PersonEntity currentUser = currentPerson.get()
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (!entity.getId().equals(currentUser.getId()) && currentUser.getRole() != PersonRole.ADMIN && currentUser.getRole() != PersonRole.FAKE_ADMIN) {
@@ -171,9 +175,7 @@ public class PersonServiceImpl implements PersonService {
         PersonEntity entity = personRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Person not found with id: " + id));
 
-        String userEmail = SecurityContextHolder.getContext()
-                .getAuthentication().getName();
-        PersonEntity currentUser = personRepository.findByEmail(userEmail)
+        PersonEntity currentUser = currentPerson.get()
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (currentUser.getRole() == PersonRole.FAKE_ADMIN) {
@@ -185,6 +187,8 @@ public class PersonServiceImpl implements PersonService {
         }
 
         personRepository.deleteById(id);
+        tokenVersionCache.evict(id);
+        entitlementService.evictPerson(id);
     }
 
     @Override
@@ -217,9 +221,7 @@ public class PersonServiceImpl implements PersonService {
         PersonEntity person = personRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Person not found with id: " + id));
 
-        String userEmail = SecurityContextHolder.getContext()
-                .getAuthentication().getName();
-        PersonEntity currentUser = personRepository.findByEmail(userEmail)
+        PersonEntity currentUser = currentPerson.get()
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (currentUser.getRole() == PersonRole.USER) {
@@ -234,7 +236,11 @@ public class PersonServiceImpl implements PersonService {
         }
 
         try {
-            person.setStatus(PersonStatus.valueOf(status));
+            PersonStatus newStatus = PersonStatus.valueOf(status);
+            if (person.getStatus() != newStatus) {
+                tokenVersionCache.revoke(person);
+            }
+            person.setStatus(newStatus);
             personRepository.save(person);
 
             // Notify User
@@ -271,9 +277,7 @@ public class PersonServiceImpl implements PersonService {
         CourseEntity course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new ResourceNotFoundException("Course not found with id: " + courseId));
 
-        String userEmail = SecurityContextHolder.getContext()
-                .getAuthentication().getName();
-        PersonEntity currentUser = personRepository.findByEmail(userEmail)
+        PersonEntity currentUser = currentPerson.get()
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (currentUser.getRole() == PersonRole.USER) {
@@ -296,7 +300,10 @@ public class PersonServiceImpl implements PersonService {
         enrollment.setStudent(person);
         enrollment.setCourse(course);
         enrollment.setStatus("ACTIVE");
+        enrollment.setExpiresAt(EnrollmentExpiry.accessEnd(course, OffsetDateTime.now()));
         enrollmentRepository.save(enrollment);
+        enrollmentExpiry.scheduleFor(enrollment);
+        entitlementService.evict(personId, courseId);
 
         try {
             emailService.sendCourseAccessGrantedEmail(person.getEmail(), person.getFirstName(), course.getName());
@@ -335,9 +342,7 @@ public class PersonServiceImpl implements PersonService {
         PersonEntity student = enrollment.getStudent();
         CourseEntity course = enrollment.getCourse();
 
-        String userEmail = SecurityContextHolder.getContext()
-                .getAuthentication().getName();
-        PersonEntity currentUser = personRepository.findByEmail(userEmail)
+        PersonEntity currentUser = currentPerson.get()
                 .orElseThrow(() -> new ResourceNotFoundException("User not found"));
 
         if (currentUser.getRole() == PersonRole.USER) {
@@ -354,6 +359,7 @@ public class PersonServiceImpl implements PersonService {
         }
 
         enrollmentRepository.delete(enrollment);
+        entitlementService.evict(personId, courseId);
 
         // Send Email
         try {
@@ -0,0 +1,53 @@
+package com.mishchuk.onlineschool.service;
+
+import com.mishchuk.onlineschool.repository.entity.PromoCodeEntity;
+import com.mishchuk.onlineschool.repository.entity.PromoCodeStatus;
+import com.mishchuk.onlineschool.scheduler.DelayedTaskQueue;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+/**
+ * Turns a promo code's validity window into status changes: an INACTIVE code with {@code validFrom} is activated
+ * at that moment, and any code with {@code validUntil} is deactivated when it passes. Nothing is polled;
+ * every create or update re-arms both moments on the {@link DelayedTaskQueue}.
+ */
+@Component
+@RequiredArgsConstructor
+public class PromoCodeSchedule {
+
+    public static final String ACTIVATION_TASK_TYPE = "PROMO_CODE_ACTIVATION";
+    public static final String DEACTIVATION_TASK_TYPE = "PROMO_CODE_DEACTIVATION";
+
+    private final DelayedTaskQueue delayedTaskQueue;
+
+    /**
+     * Replaces any earlier schedule of the code. Call after the code is saved, inside the same transaction.
+     */
+    public void scheduleFor(PromoCodeEntity promoCode) {
+        if (promoCode.getStatus() == PromoCodeStatus.INACTIVE && promoCode.getValidFrom() != null) {
+            delayedTaskQueue.schedule(ACTIVATION_TASK_TYPE, promoCode.getId(), toOffsetDateTime(promoCode.getValidFrom()));
+        } else {
+            delayedTaskQueue.cancel(ACTIVATION_TASK_TYPE, promoCode.getId());
+        }
+        if (promoCode.getValidUntil() != null) {
+            delayedTaskQueue.schedule(DEACTIVATION_TASK_TYPE, promoCode.getId(), toOffsetDateTime(promoCode.getValidUntil()));
+        } else {
+            delayedTaskQueue.cancel(DEACTIVATION_TASK_TYPE, promoCode.getId());
+        }
+    }
+
+    public void cancelFor(UUID promoCodeId) {
+        delayedTaskQueue.cancel(ACTIVATION_TASK_TYPE, promoCodeId);
+        delayedTaskQueue.cancel(DEACTIVATION_TASK_TYPE, promoCodeId);
+    }
+
+    // promo code times are wall-clock times of the server zone
+    private static OffsetDateTime toOffsetDateTime(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toOffsetDateTime();
+    }
+}
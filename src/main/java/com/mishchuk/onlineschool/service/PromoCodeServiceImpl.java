@@ -16,7 +16,6 @@ import java.util.UUID;
 import java.util.stream.Collectors;
 
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
 @Slf4j
 @Service
 @RequiredArgsConstructor
@@ -28,6 +27,7 @@ public class PromoCodeServiceImpl implements PromoCodeService {
     private final CourseRepository courseRepository;
     private final EnrollmentService enrollmentService;
     private final EnrollmentRepository enrollmentRepository;
+    private final PromoCodeSchedule promoCodeSchedule;
 
     @Override
     @Transactional(readOnly = true)
@@ -95,6 +95,7 @@ public class PromoCodeServiceImpl implements PromoCodeService {
         }
 
         PromoCodeEntity saved = promoCodeRepository.save(entity);
+        promoCodeSchedule.scheduleFor(saved);
         return mapToResponseDto(saved);
     }
 
@@ -199,12 +200,8 @@ public class PromoCodeServiceImpl implements PromoCodeService {
         dto.setPromoPrice(promoPrice.setScale(2, java.math.RoundingMode.HALF_UP));
 
         // Module and lesson counts
-        int modulesCount = course.getModules() != null ? course.getModules().size() : 0;
-        int lessonsCount = course.getModules() != null
-                ? course.getModules().stream().mapToInt(m -> m.getLessonsNumber() != null ? m.getLessonsNumber() : 0).sum()
-                : 0;
-        dto.setModulesCount(modulesCount);
-        dto.setLessonsCount(lessonsCount);
+        dto.setModulesCount(course.getModulesNumber() != null ? course.getModulesNumber() : 0);
+        dto.setLessonsCount(course.getLessonsCount() != null ? course.getLessonsCount() : 0);
 
         return dto;
     }
@@ -354,6 +351,7 @@ public class PromoCodeServiceImpl implements PromoCodeService {
         }
 
         PromoCodeEntity saved = promoCodeRepository.save(entity);
+        promoCodeSchedule.scheduleFor(saved);
         return mapToResponseDto(saved);
     }
 
@@ -372,6 +370,7 @@ public class PromoCodeServiceImpl implements PromoCodeService {
         }
                 
         promoCodeRepository.delete(entity);
+        promoCodeSchedule.cancelFor(entity.getId());
     }
 
     private PromoCodeResponseDto mapToResponseDto(PromoCodeEntity entity) {
@@ -446,20 +445,4 @@ public class PromoCodeServiceImpl implements PromoCodeService {
         dto.setDiscountValue(discountEntity.getDiscountValue());
         return dto;
     }
-
-    @Scheduled(cron = "0 * * * * *") // Every minute
-    @Transactional
-    public void activateScheduledPromoCodes() {
-        LocalDateTime now = LocalDateTime.now();
-        List<PromoCodeEntity> inactiveCodes = promoCodeRepository.findByStatusAndValidFromLessThanEqual(PromoCodeStatus.INACTIVE, now);
-
-        for (PromoCodeEntity pc : inactiveCodes) {
-            pc.setStatus(PromoCodeStatus.ACTIVE);
-            pc.setStatusUpdatedAt(now);
-            log.info("Automatically activated promo code: {}", pc.getCode());
-        }
-        if (!inactiveCodes.isEmpty()) {
-            promoCodeRepository.saveAll(inactiveCodes);
-        }
-    }
 }
@@ -0,0 +1,11 @@
+package com.mishchuk.onlineschool.service;
+
+import com.mishchuk.onlineschool.controller.dto.SearchPageDto;
+
+public interface SearchService {
+
+    /**
+     * Ranked full-text search across courses, modules and lessons visible to the current user.
+     */
+    SearchPageDto search(String query, Integer page, Integer size);
+}
@@ -0,0 +1,101 @@
+package com.mishchuk.onlineschool.service;
+
+import com.mishchuk.onlineschool.controller.dto.SearchPageDto;
+import com.mishchuk.onlineschool.controller.dto.SearchResultDto;
+import com.mishchuk.onlineschool.exception.BadRequestException;
+import com.mishchuk.onlineschool.repository.ContentSearchRepository;
+import com.mishchuk.onlineschool.repository.ContentSearchRepository.SearchHit;
+import com.mishchuk.onlineschool.repository.CourseRepository;
+import com.mishchuk.onlineschool.repository.entity.CourseEntity;
+import com.mishchuk.onlineschool.repository.entity.PersonEntity;
+import com.mishchuk.onlineschool.repository.entity.PersonRole;
+import com.mishchuk.onlineschool.security.CurrentPerson;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+@Service
+@RequiredArgsConstructor
+public class SearchServiceImpl implements SearchService {
+
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 50;
+    static final int MAX_QUERY_LENGTH = 200;
+
+    private final ContentSearchRepository contentSearchRepository;
+    private final CourseRepository courseRepository;
+    private final EntitlementService entitlementService;
+    private final CurrentPerson currentPerson;
+
+    @Override
+    @Transactional(readOnly = true)
+    public SearchPageDto search(String query, Integer page, Integer size) {
+        if (query == null || query.isBlank()) {
+            throw new BadRequestException("Search query must not be empty");
+        }
+        String text = query.trim();
+        if (text.length() > MAX_QUERY_LENGTH) {
+            text = text.substring(0, MAX_QUERY_LENGTH);
+        }
+        int pageNumber = page != null ? Math.max(0, page) : 0;
+        int pageSize = size != null ? Math.max(1, Math.min(size, MAX_PAGE_SIZE)) : DEFAULT_PAGE_SIZE;
+
+        Optional<PersonEntity> user = currentPerson.get();
+        boolean isAdmin = user.map(p -> p.getRole() == PersonRole.ADMIN || p.getRole() == PersonRole.FAKE_ADMIN)
+                .orElse(false);
+
+        // one extra hit tells whether there is a next page without counting every match
+        List<SearchHit> hits = contentSearchRepository.search(text, !isAdmin, pageNumber * pageSize, pageSize + 1);
+        boolean hasMore = hits.size() > pageSize;
+        if (hasMore) {
+            hits = hits.subList(0, pageSize);
+        }
+
+        Set<UUID> unlockedCourses = isAdmin ? Set.of() : accessibleCourses(user.orElse(null), hits);
+        List<SearchResultDto> items = new ArrayList<>(hits.size());
+        for (SearchHit hit : hits) {
+            // same rule as ModuleServiceImpl.getModuleLessons: without access the lesson keeps its text, not its content
+            boolean locked = hit.type() == SearchHit.Type.LESSON && !isAdmin && !unlockedCourses.contains(hit.courseId());
+            items.add(new SearchResultDto(
+                    hit.type().name(),
+                    hit.id(),
+                    hit.courseId(),
+                    hit.moduleId(),
+                    hit.title(),
+                    hit.snippet(),
+                    hit.rank(),
+                    locked,
+                    locked ? null : hit.videoUrl()));
+        }
+        return new SearchPageDto(items, pageNumber, pageSize, hasMore);
+    }
+
+    private Set<UUID> accessibleCourses(PersonEntity user, List<SearchHit> hits) {
+        if (user == null) {
+            return Set.of();
+        }
+        Set<UUID> lessonCourseIds = new HashSet<>();
+        for (SearchHit hit : hits) {
+            if (hit.type() == SearchHit.Type.LESSON) {
+                lessonCourseIds.add(hit.courseId());
+            }
+        }
+        if (lessonCourseIds.isEmpty()) {
+            return Set.of();
+        }
+        Set<UUID> accessible = new HashSet<>();
+        for (CourseEntity course : courseRepository.findAllById(lessonCourseIds)) {
+            if (entitlementService.hasCourseAccess(user.getId(), course)) {
+                accessible.add(course.getId());
+            }
+        }
+        return accessible;
+    }
+}
@@ -0,0 +1,134 @@
+package com.mishchuk.onlineschool.service;
+
+import com.mishchuk.onlineschool.repository.BroadcastRepository;
+import com.mishchuk.onlineschool.repository.NotificationCounterRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Unread notification count per person, answered from memory.
+ * The personal part is stored in {@code notification_counters} and adjusted by every notification write in its
+ * own transaction; the broadcast part is counted from the broadcasts on a miss. Cached totals are dropped when
+ * a write commits, here or, through {@link NotificationEvents}, on another instance; the TTL only bounds how
+ * long a missed event can leave one stale.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class UnreadCounters {
+
+    private static final int MAX_ENTRIES = 50_000;
+
+    private final NotificationCounterRepository counterRepository;
+    private final BroadcastRepository broadcastRepository;
+
+    @Value("${application.notifications.unread-count-ttl:30000}")
+    private long ttlMillis;
+
+    private final Map<UUID, CachedCount> counts = new ConcurrentHashMap<>();
+
+    public long get(UUID personId) {
+        long now = System.currentTimeMillis();
+        CachedCount cached = counts.get(personId);
+        if (cached != null && now - cached.loadedAt() < ttlMillis) {
+            return cached.count();
+        }
+
+        long count = counterRepository.findUnread(personId) + broadcastRepository.countUnread(personId);
+        if (counts.size() >= MAX_ENTRIES) {
+            counts.entrySet().removeIf(e -> now - e.getValue().loadedAt() >= ttlMillis);
+            if (counts.size() >= MAX_ENTRIES) {
+                counts.clear();
+            }
+        }
+        counts.put(personId, new CachedCount(count, now));
+        return count;
+    }
+
+    /**
+     * Records that {@code delta} of the person's personal notifications became unread (positive)
+     * or read or deleted (negative).
+     */
+    public void adjust(UUID personId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        counterRepository.adjust(personId, delta);
+        // re-read rather than apply the delta: the committed event may already have reloaded this entry
+        evict(personId);
+    }
+
+    /**
+     * Records that everything addressed to the person, personal or broadcast, is now read or deleted.
+     */
+    public void clear(UUID personId) {
+        counterRepository.reset(personId);
+        afterCommit(() -> counts.put(personId, new CachedCount(0, System.currentTimeMillis())));
+    }
+
+    /**
+     * Recounts the person's personal notifications, for bulk changes whose effect on the count is not known.
+     */
+    public void recount(UUID personId) {
+        counterRepository.recount(personId);
+        evict(personId);
+    }
+
+    /**
+     * Drops the cached total only, for changes already counted in the database (fan-outs) or not stored
+     * as counters at all (broadcast receipts).
+     */
+    public void evict(UUID personId) {
+        afterCommit(() -> counts.remove(personId));
+    }
+
+    public void evict(Collection<UUID> personIds) {
+        afterCommit(() -> personIds.forEach(counts::remove));
+    }
+
+    /**
+     * Drops every cached total, after a broadcast or a fan-out whose recipients are not known here.
+     */
+    public void evictAll() {
+        afterCommit(counts::clear);
+    }
+
+    /**
+     * Reconciles the stored counters with the notifications; returns how many were wrong.
+     */
+    @Transactional
+    public int repair() {
+        int fixed = counterRepository.repair();
+        if (fixed > 0) {
+            log.warn("Repaired {} drifted unread notification counters", fixed);
+            evictAll();
+        }
+        return fixed;
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record CachedCount(long count, long loadedAt) {
+    }
+}
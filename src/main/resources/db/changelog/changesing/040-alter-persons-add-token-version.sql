@@ -0,0 +1,5 @@
+--liquibase formatted sql
+
+--changeset vmishchuk:040-alter-persons-add-token-version
+ALTER TABLE persons
+    ADD COLUMN IF NOT EXISTS token_version INTEGER NOT NULL DEFAULT 0;
@@ -0,0 +1,41 @@
+--liquibase formatted sql
+
+--changeset vmishchuk:041-add-course-and-module-counters
+ALTER TABLE modules
+    ADD COLUMN IF NOT EXISTS lessons_count INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS total_duration_minutes INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE courses
+    ADD COLUMN IF NOT EXISTS lessons_count INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS total_duration_minutes INTEGER NOT NULL DEFAULT 0;
+
+ALTER TABLE courses
+    ALTER COLUMN modules_number SET DEFAULT 0;
+
+-- Counters are recomputed per module/course, so both lookups need an index
+CREATE INDEX IF NOT EXISTS idx_lessons_module_id ON lessons(module_id);
+CREATE INDEX IF NOT EXISTS idx_modules_course_id ON modules(course_id);
+
+UPDATE modules m
+SET lessons_count          = COALESCE(l.lessons_count, 0),
+    total_duration_minutes = COALESCE(l.total_duration_minutes, 0)
+FROM (SELECT mm.id,
+             COUNT(ls.id)                          AS lessons_count,
+             COALESCE(SUM(ls.duration_minutes), 0) AS total_duration_minutes
+      FROM modules mm
+               LEFT JOIN lessons ls ON ls.module_id = mm.id
+      GROUP BY mm.id) l
+WHERE l.id = m.id;
+
+UPDATE courses c
+SET modules_number         = COALESCE(agg.modules_number, 0),
+    lessons_count          = COALESCE(agg.lessons_count, 0),
+    total_duration_minutes = COALESCE(agg.total_duration_minutes, 0)
+FROM (SELECT cc.id,
+             COUNT(m.id)                                AS modules_number,
+             COALESCE(SUM(m.lessons_count), 0)          AS lessons_count,
+             COALESCE(SUM(m.total_duration_minutes), 0) AS total_duration_minutes
+      FROM courses cc
+               LEFT JOIN modules m ON m.course_id = cc.id
+      GROUP BY cc.id) agg
+WHERE agg.id = c.id;
@@ -0,0 +1,10 @@
+--liquibase formatted sql
+
+--changeset vmishchuk:042-add-course-cover-hash-and-content-type
+ALTER TABLE course_covers
+    ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64),
+    ADD COLUMN IF NOT EXISTS content_type VARCHAR(100) NOT NULL DEFAULT 'image/jpeg';
+
+UPDATE course_covers
+SET content_hash = encode(sha256(image_data), 'hex')
+WHERE image_data IS NOT NULL;
@@ -0,0 +1,14 @@
+--liquibase formatted sql
+
+--changeset vmishchuk:043-create-course-cover-derivatives-table
+CREATE TABLE IF NOT EXISTS course_cover_derivatives (
+    id UUID PRIMARY KEY,
+    course_id UUID NOT NULL,
+    width INTEGER NOT NULL,
+    source_hash VARCHAR(64) NOT NULL,
+    content_type VARCHAR(100) NOT NULL,
+    image_data BYTEA NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE DEFAULT NOW(),
+    CONSTRAINT fk_cover_derivative_cover FOREIGN KEY (course_id) REFERENCES course_covers(course_id) ON DELETE CASCADE,
+    CONSTRAINT uq_cover_derivative_width UNIQUE (course_id, width)
+);
@@ -0,0 +1,13 @@
+--liquibase formatted sql
+
+--changeset vmishchuk:044-add-course-cover-storage-key
+ALTER TABLE course_covers
+    ADD COLUMN IF NOT EXISTS storage_key VARCHAR(255),
+    ADD COLUMN IF NOT EXISTS size_bytes BIGINT;
+
+UPDATE course_covers
+SET size_bytes = octet_length(image_data)
+WHERE image_data IS NOT NULL;
+
+-- objects are shared between clones, deleting one checks whether the key is still referenced
+CREATE INDEX IF NOT EXISTS idx_course_covers_storage_key ON course_covers(storage_key);
@@ -0,0 +1,11 @@
+--liquibase formatted sql
+
+--changeset vmishchuk:045-add-course-catalog-indexes
+-- keyset pagination needs a non-null sort key
+UPDATE courses SET created_at = NOW() WHERE created_at IS NULL;
+ALTER TABLE courses ALTER COLUMN created_at SET NOT NULL;
+
+-- one index per catalog sort; the expressions must match CourseCatalogQuery.Sort
+CREATE INDEX IF NOT EXISTS idx_courses_catalog_created ON courses (created_at, id);
+CREATE INDEX IF NOT EXISTS idx_courses_catalog_price ON courses ((COALESCE(price, 0)), id);
+CREATE INDEX IF NOT EXISTS idx_courses_catalog_name ON courses ((lower(COALESCE(name, ''))), id);
@@ -0,0 +1,9 @@
+--liquibase formatted sql
+
+--changeset vmishchuk:047-add-enrollment-expiry-indexes
+-- the expiry job only ever looks at ACTIVE rows; see EnrollmentRepositoryImpl.blockExpired
+CREATE INDEX IF NOT EXISTS idx_enrollments_active_expires_at ON enrollments (expires_at)
+    WHERE status = 'ACTIVE' AND expires_at IS NOT NULL;
+-- enrollments without expires_at expire created_at + courses.access_duration days, looked up per course
+CREATE INDEX IF NOT EXISTS idx_enrollments_active_course_created ON enrollments (course_id, created_at)
+    WHERE status = 'ACTIVE' AND expires_at IS NULL;
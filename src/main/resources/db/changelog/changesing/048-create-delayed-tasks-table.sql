@@ -0,0 +1,35 @@
+--liquibase formatted sql
+
+--changeset vmishchuk:048-create-delayed-tasks-table
+-- one pending task per (type, subject): scheduling again moves the due time
+CREATE TABLE IF NOT EXISTS delayed_tasks (
+    id UUID PRIMARY KEY,
+    task_type VARCHAR(64) NOT NULL,
+    subject_id UUID NOT NULL,
+    due_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    attempts INT NOT NULL DEFAULT 0,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    CONSTRAINT uq_delayed_tasks_type_subject UNIQUE (task_type, subject_id)
+);
+
+CREATE INDEX IF NOT EXISTS idx_delayed_tasks_due_at ON delayed_tasks (due_at);
+
+--changeset vmishchuk:048-schedule-existing-enrollment-expiry
+-- expires_at becomes the only source of truth for the end of access
+UPDATE enrollments e
+SET expires_at = e.created_at + (c.access_duration * INTERVAL '1 day')
+FROM courses c
+WHERE e.course_id = c.id
+  AND e.expires_at IS NULL
+  AND c.access_duration IS NOT NULL
+  AND c.access_duration > 0;
+
+INSERT INTO delayed_tasks (id, task_type, subject_id, due_at)
+SELECT gen_random_uuid(), 'ENROLLMENT_EXPIRY', e.id, e.expires_at
+FROM enrollments e
+WHERE e.status = 'ACTIVE'
+  AND e.expires_at IS NOT NULL
+ON CONFLICT (task_type, subject_id) DO NOTHING;
+
+-- expiry no longer scans by created_at
+DROP INDEX IF EXISTS idx_enrollments_active_course_created;
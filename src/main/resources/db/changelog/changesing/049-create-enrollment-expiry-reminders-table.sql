@@ -0,0 +1,12 @@
+--liquibase formatted sql
+
+--changeset vmishchuk:049-create-enrollment-expiry-reminders-table
+-- one row per reminder sent; keyed by expires_at so that an extended enrollment is reminded again
+CREATE TABLE IF NOT EXISTS enrollment_expiry_reminders (
+    enrollment_id UUID NOT NULL,
+    expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    sent_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    CONSTRAINT pk_enrollment_expiry_reminders PRIMARY KEY (enrollment_id, expires_at),
+    CONSTRAINT fk_enrollment_expiry_reminders_enrollment FOREIGN KEY (enrollment_id)
+        REFERENCES enrollments (id) ON DELETE CASCADE
+);
@@ -0,0 +1,10 @@
+--liquibase formatted sql
+
+--changeset vmishchuk:050-create-scheduler-locks-table
+-- one row per scheduled job; a lock is free once locked_until has passed, so a crashed holder never blocks for long
+CREATE TABLE IF NOT EXISTS scheduler_locks (
+    name VARCHAR(64) PRIMARY KEY,
+    locked_at TIMESTAMP WITH TIME ZONE NOT NULL,
+    locked_until TIMESTAMP WITH TIME ZONE NOT NULL,
+    locked_by VARCHAR(255) NOT NULL
+);
@@ -0,0 +1,12 @@
+--liquibase formatted sql
+
+--changeset vmishchuk:051-add-created-by-indexes
+-- demo cleanup deletes by creator and age; FAKE_ADMIN-scoped listings filter by creator alone
+CREATE INDEX IF NOT EXISTS idx_courses_created_by_created_at ON courses (created_by_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_modules_created_by_created_at ON modules (created_by_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_lessons_created_by_created_at ON lessons (created_by_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_persons_created_by_created_at ON persons (created_by_id, created_at);
+CREATE INDEX IF NOT EXISTS idx_promo_codes_created_by_created_at ON promo_codes (created_by_id, created_at);
+-- course_review_requests has no index on either foreign key, which every course or person delete checks
+CREATE INDEX IF NOT EXISTS idx_course_review_requests_course_id ON course_review_requests (course_id);
+CREATE INDEX IF NOT EXISTS idx_course_review_requests_user_id ON course_review_requests (user_id);
@@ -0,0 +1,19 @@
+--liquibase formatted sql
+
+--changeset vmishchuk:052-schedule-promo-code-transitions
+-- promo codes are now activated and deactivated by delayed tasks instead of a once-a-minute poll;
+-- valid_from / valid_until are wall-clock times of the server zone, as is the session here
+INSERT INTO delayed_tasks (id, task_type, subject_id, due_at)
+SELECT gen_random_uuid(), 'PROMO_CODE_ACTIVATION', pc.id, pc.valid_from
+FROM promo_codes pc
+WHERE pc.status = 'INACTIVE'
+  AND pc.valid_from IS NOT NULL
+  AND (pc.valid_until IS NULL OR pc.valid_until > NOW())
+ON CONFLICT (task_type, subject_id) DO NOTHING;
+
+INSERT INTO delayed_tasks (id, task_type, subject_id, due_at)
+SELECT gen_random_uuid(), 'PROMO_CODE_DEACTIVATION', pc.id, pc.valid_until
+FROM promo_codes pc
+WHERE pc.valid_until IS NOT NULL
+  AND (pc.status = 'ACTIVE' OR pc.valid_until > NOW())
+ON CONFLICT (task_type, subject_id) DO NOTHING;
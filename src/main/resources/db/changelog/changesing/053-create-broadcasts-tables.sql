@@ -0,0 +1,31 @@
+--liquibase formatted sql
+
+--changeset vmishchuk:053-create-broadcasts-tables
+-- an announcement is stored once; its audience is every person that existed when it was sent,
+-- narrowed to owner_id and the persons they created when owner_id is set
+CREATE TABLE IF NOT EXISTS broadcasts (
+    id UUID PRIMARY KEY,
+    owner_id UUID,
+    title VARCHAR(255) NOT NULL,
+    message VARCHAR(1000) NOT NULL,
+    button_url VARCHAR(255),
+    type VARCHAR(50) NOT NULL,
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    CONSTRAINT fk_broadcasts_owner FOREIGN KEY (owner_id) REFERENCES persons (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_broadcasts_created_at ON broadcasts (created_at);
+CREATE INDEX IF NOT EXISTS idx_broadcasts_owner_id ON broadcasts (owner_id) WHERE owner_id IS NOT NULL;
+
+-- sparse per-person state: a row exists only once the person has read, unread or deleted the broadcast
+CREATE TABLE IF NOT EXISTS broadcast_receipts (
+    person_id UUID NOT NULL,
+    broadcast_id UUID NOT NULL,
+    is_read BOOLEAN NOT NULL DEFAULT FALSE,
+    is_deleted BOOLEAN NOT NULL DEFAULT FALSE,
+    CONSTRAINT pk_broadcast_receipts PRIMARY KEY (person_id, broadcast_id),
+    CONSTRAINT fk_broadcast_receipts_person FOREIGN KEY (person_id) REFERENCES persons (id) ON DELETE CASCADE,
+    CONSTRAINT fk_broadcast_receipts_broadcast FOREIGN KEY (broadcast_id) REFERENCES broadcasts (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_broadcast_receipts_broadcast_id ON broadcast_receipts (broadcast_id);
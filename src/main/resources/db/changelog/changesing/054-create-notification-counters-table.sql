@@ -0,0 +1,17 @@
+--liquibase formatted sql
+
+--changeset vmishchuk:054-create-notification-counters-table
+-- unread personal notifications per person, kept in step with every write so the unread badge is a key lookup;
+-- a missing row means zero
+CREATE TABLE IF NOT EXISTS notification_counters (
+    person_id UUID PRIMARY KEY,
+    unread_count INTEGER NOT NULL DEFAULT 0,
+    CONSTRAINT fk_notification_counters_person FOREIGN KEY (person_id) REFERENCES persons (id) ON DELETE CASCADE
+);
+
+INSERT INTO notification_counters (person_id, unread_count)
+SELECT n.recipient_id, COUNT(*)
+FROM notifications n
+WHERE n.is_read = FALSE
+GROUP BY n.recipient_id
+ON CONFLICT (person_id) DO NOTHING;
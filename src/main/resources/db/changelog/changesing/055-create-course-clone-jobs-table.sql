@@ -0,0 +1,21 @@
+--liquibase formatted sql
+
+--changeset vmishchuk:055-create-course-clone-jobs-table
+-- progress of course content copies, readable from every instance; no foreign keys, the job outlives
+-- a failed copy that is removed again
+CREATE TABLE IF NOT EXISTS course_clone_jobs (
+    id UUID PRIMARY KEY,
+    source_course_id UUID NOT NULL,
+    course_id UUID NOT NULL,
+    created_by_id UUID,
+    status VARCHAR(20) NOT NULL,
+    modules_copied INTEGER NOT NULL DEFAULT 0,
+    lessons_copied INTEGER NOT NULL DEFAULT 0,
+    files_copied INTEGER NOT NULL DEFAULT 0,
+    error VARCHAR(255),
+    created_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW(),
+    started_at TIMESTAMP WITH TIME ZONE,
+    finished_at TIMESTAMP WITH TIME ZONE
+);
+
+CREATE INDEX IF NOT EXISTS idx_course_clone_jobs_finished_at ON course_clone_jobs (finished_at);
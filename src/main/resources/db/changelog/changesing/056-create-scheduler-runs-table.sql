@@ -0,0 +1,9 @@
+--liquibase formatted sql
+
+--changeset vmishchuk:056-create-scheduler-runs-table
+-- how far a scheduled job has got without failures, so the next run picks up whatever an earlier one missed
+CREATE TABLE IF NOT EXISTS scheduler_runs (
+    name VARCHAR(64) PRIMARY KEY,
+    covered_until TIMESTAMP WITH TIME ZONE NOT NULL,
+    succeeded_at TIMESTAMP WITH TIME ZONE NOT NULL DEFAULT NOW()
+);
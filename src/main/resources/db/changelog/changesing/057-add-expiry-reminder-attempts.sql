@@ -0,0 +1,9 @@
+--liquibase formatted sql
+
+--changeset vmishchuk:057-add-expiry-reminder-attempts
+-- a reminder whose email failed keeps a row without sent_at and is retried until it runs out of attempts
+ALTER TABLE enrollment_expiry_reminders ADD COLUMN IF NOT EXISTS attempts INT NOT NULL DEFAULT 0;
+ALTER TABLE enrollment_expiry_reminders ALTER COLUMN sent_at DROP DEFAULT;
+ALTER TABLE enrollment_expiry_reminders ALTER COLUMN sent_at DROP NOT NULL;
+CREATE INDEX IF NOT EXISTS idx_enrollment_expiry_reminders_unsent ON enrollment_expiry_reminders (expires_at)
+    WHERE sent_at IS NULL;
@@ -1,14 +1,19 @@
 package com.mishchuk.onlineschool.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mishchuk.onlineschool.controller.dto.CourseCloneJobDto;
 import com.mishchuk.onlineschool.controller.dto.CourseCreateDto;
 import com.mishchuk.onlineschool.controller.dto.CourseDto;
+import com.mishchuk.onlineschool.controller.dto.CoursePageDto;
+import com.mishchuk.onlineschool.controller.dto.CoursePageRequest;
+import com.mishchuk.onlineschool.controller.dto.CourseTreeDto;
 import com.mishchuk.onlineschool.controller.dto.CourseUpdateDto;
 import com.mishchuk.onlineschool.exception.GlobalExceptionHandler;
 import com.mishchuk.onlineschool.repository.PersonRepository;
 import com.mishchuk.onlineschool.repository.entity.CourseStatus;
 import com.mishchuk.onlineschool.repository.entity.PersonEntity;
 import com.mishchuk.onlineschool.repository.entity.PersonRole;
+import com.mishchuk.onlineschool.security.CurrentPerson;
 import com.mishchuk.onlineschool.security.CustomUserDetailsService;
 import com.mishchuk.onlineschool.security.JwtUtils;
 import com.mishchuk.onlineschool.service.CourseService;
@@ -28,6 +33,7 @@ import org.springframework.mock.web.MockMultipartFile;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -40,7 +46,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(CourseController.class)
-@Import({TestSecurityConfig.class, GlobalExceptionHandler.class})
+@Import({TestSecurityConfig.class, GlobalExceptionHandler.class, CurrentPerson.class})
 class CourseControllerTest {
 
     @Autowired
@@ -212,6 +218,57 @@ class CourseControllerTest {
                 .andExpect(jsonPath("$[0].name").value("OwnCourse"));
     }
 
+    // СЕКЦІЯ: GET /courses/catalog
+
+    @Test
+    @DisplayName("GET /courses/catalog — передає фільтри в сервіс і повертає сторінку з курсором")
+    void getCoursePage_passesFiltersAndReturnsPage() throws Exception {
+        UUID id = UUID.randomUUID();
+        UUID creator = UUID.randomUUID();
+        when(courseService.getCoursePage(any())).thenReturn(
+                new CoursePageDto(List.of(courseDto(id, "Course 3")), "next-cursor"));
+
+        mockMvc.perform(get("/courses/catalog")
+                        .param("minPrice", "10")
+                        .param("maxPrice", "99.5")
+                        .param("createdBy", creator.toString())
+                        .param("q", "java")
+                        .param("sort", "price")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(id.toString()))
+                .andExpect(jsonPath("$.nextCursor").value("next-cursor"));
+
+        verify(courseService).getCoursePage(new CoursePageRequest(null, new BigDecimal("10"),
+                new BigDecimal("99.5"), creator, "java", "price", null, null, 5));
+    }
+
+    // СЕКЦІЯ: GET /courses/{id}/tree
+
+    @Test
+    @DisplayName("GET /courses/{id}/tree — повертає курс з модулями одним запитом")
+    void getCourseTree_found_returns200() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(courseService.getCourseTree(id)).thenReturn(Optional.of(
+                new CourseTreeDto(courseDto(id, "Course"), true, List.of())));
+
+        mockMvc.perform(get("/courses/{id}/tree", id))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.course.id").value(id.toString()))
+                .andExpect(jsonPath("$.locked").value(true))
+                .andExpect(jsonPath("$.modules").isArray());
+    }
+
+    @Test
+    @DisplayName("GET /courses/{id}/tree — курс не знайдено → 404 Not Found")
+    void getCourseTree_notFound_returns404() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(courseService.getCourseTree(id)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/courses/{id}/tree", id))
+                .andExpect(status().isNotFound());
+    }
+
     // СЕКЦІЯ: PUT /courses/{id}
 
     @ParameterizedTest
@@ -282,23 +339,88 @@ class CourseControllerTest {
     // СЕКЦІЯ: GET /courses/{id}/cover
 
     @Test
-    @DisplayName("GET /courses/{id}/cover — знайдено → 200 OK")
+    @DisplayName("GET /courses/{id}/cover — знайдено → 200 OK з ETag і реальним Content-Type")
     @WithMockUser // Can be anonymous or authenticated
     void getCourseCover_found_returns200() throws Exception {
         UUID id = UUID.randomUUID();
+        when(courseService.getCourseCoverMetadata(eq(id)))
+                .thenReturn(Optional.of(new CourseService.CoverMetadata("abc123", "image/png")));
         when(courseService.getCourseCoverImage(eq(id))).thenReturn(Optional.of("image_bytes".getBytes()));
 
         mockMvc.perform(get("/courses/{id}/cover", id))
                 .andExpect(status().isOk())
-                .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(header().string("ETag", "\"abc123\""))
+                .andExpect(header().string("Cache-Control", "no-cache, public"))
                 .andExpect(content().bytes("image_bytes".getBytes()));
     }
 
+    @Test
+    @DisplayName("GET /courses/{id}/cover?v=hash — версіонований URL кешується як immutable")
+    void getCourseCover_versionedUrl_immutable() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(courseService.getCourseCoverMetadata(eq(id)))
+                .thenReturn(Optional.of(new CourseService.CoverMetadata("abc123", "image/jpeg")));
+        when(courseService.getCourseCoverImage(eq(id))).thenReturn(Optional.of("image_bytes".getBytes()));
+
+        mockMvc.perform(get("/courses/{id}/cover", id).param("v", "abc123"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"));
+    }
+
+    @Test
+    @DisplayName("GET /courses/{id}/cover — збіг If-None-Match → 304 без читання зображення")
+    void getCourseCover_matchingETag_returns304() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(courseService.getCourseCoverMetadata(eq(id)))
+                .thenReturn(Optional.of(new CourseService.CoverMetadata("abc123", "image/jpeg")));
+
+        mockMvc.perform(get("/courses/{id}/cover", id).header("If-None-Match", "\"abc123\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"abc123\""));
+
+        verify(courseService, never()).getCourseCoverImage(any());
+    }
+
+    @Test
+    @DisplayName("GET /courses/{id}/cover?w=500 — віддає похідне зображення ширини 640")
+    void getCourseCover_width_returnsDerivative() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(courseService.getCourseCoverMetadata(eq(id)))
+                .thenReturn(Optional.of(new CourseService.CoverMetadata("abc123", "image/png")));
+        when(courseService.getCourseCoverDerivative(id, 640, "abc123")).thenReturn(Optional.of("small".getBytes()));
+
+        mockMvc.perform(get("/courses/{id}/cover", id).param("w", "500").param("v", "abc123"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_JPEG))
+                .andExpect(header().string("ETag", "\"abc123-w640\""))
+                .andExpect(header().string("Cache-Control", "max-age=31536000, public, immutable"))
+                .andExpect(content().bytes("small".getBytes()));
+
+        verify(courseService, never()).getCourseCoverImage(any());
+    }
+
+    @Test
+    @DisplayName("GET /courses/{id}/cover?w= — похідне ще не готове → оригінал без довгого кешування")
+    void getCourseCover_derivativeMissing_fallsBackToOriginal() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(courseService.getCourseCoverMetadata(eq(id)))
+                .thenReturn(Optional.of(new CourseService.CoverMetadata("abc123", "image/png")));
+        when(courseService.getCourseCoverDerivative(id, 320, "abc123")).thenReturn(Optional.empty());
+        when(courseService.getCourseCoverImage(eq(id))).thenReturn(Optional.of("image_bytes".getBytes()));
+
+        mockMvc.perform(get("/courses/{id}/cover", id).param("w", "100").param("v", "abc123"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.IMAGE_PNG))
+                .andExpect(header().string("ETag", "\"abc123\""))
+                .andExpect(header().string("Cache-Control", "no-cache, public"));
+    }
+
     @Test
     @DisplayName("GET /courses/{id}/cover — не знайдено → 404 Not Found")
     void getCourseCover_notFound_returns404() throws Exception {
         UUID id = UUID.randomUUID();
-        when(courseService.getCourseCoverImage(eq(id))).thenReturn(Optional.empty());
+        when(courseService.getCourseCoverMetadata(eq(id))).thenReturn(Optional.empty());
 
         mockMvc.perform(get("/courses/{id}/cover", id))
                 .andExpect(status().isNotFound());
@@ -375,13 +497,17 @@ class CourseControllerTest {
 
     @ParameterizedTest
     @ValueSource(strings = {"ADMIN", "FAKE_ADMIN"})
-    @DisplayName("POST /courses/{id}/clone — авторизована роль → 201 Created")
-    void cloneCourse_authorizedRole_returns201(String role) throws Exception {
+    @DisplayName("POST /courses/{id}/clone — авторизована роль → 202 Accepted з посиланням на статус")
+    void cloneCourse_authorizedRole_returns202(String role) throws Exception {
         UUID id = UUID.randomUUID();
-        doNothing().when(courseService).cloneCourse(id);
+        CourseCloneJobDto job = cloneJob(id, CourseCloneJobDto.Status.PENDING);
+        when(courseService.cloneCourse(id)).thenReturn(job);
 
         mockMvc.perform(post("/courses/{id}/clone", id).with(user("u").roles(role)))
-                .andExpect(status().isCreated());
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", "/courses/clone-jobs/" + job.jobId()))
+                .andExpect(jsonPath("$.courseId").value(job.courseId().toString()))
+                .andExpect(jsonPath("$.status").value("PENDING"));
 
         verify(courseService, times(1)).cloneCourse(id);
     }
@@ -404,6 +530,39 @@ class CourseControllerTest {
                 .andExpect(status().isForbidden());
     }
 
+    // СЕКЦІЯ: GET /courses/clone-jobs/{jobId}
+
+    @Test
+    @DisplayName("GET /courses/clone-jobs/{jobId} — повертає прогрес копіювання")
+    void getCloneJob_found_returnsProgress() throws Exception {
+        CourseCloneJobDto job = cloneJob(UUID.randomUUID(), CourseCloneJobDto.Status.COMPLETED);
+        when(courseService.getCloneJob(job.jobId())).thenReturn(Optional.of(job));
+
+        mockMvc.perform(get("/courses/clone-jobs/{jobId}", job.jobId()).with(user("u").roles("ADMIN")))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.lessonsCopied").value(12));
+    }
+
+    @Test
+    @DisplayName("GET /courses/clone-jobs/{jobId} — невідоме завдання → 404")
+    void getCloneJob_unknown_returns404() throws Exception {
+        UUID jobId = UUID.randomUUID();
+        when(courseService.getCloneJob(jobId)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/courses/clone-jobs/{jobId}", jobId).with(user("u").roles("ADMIN")))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @DisplayName("GET /courses/clone-jobs/{jobId} — USER → 403 Forbidden")
+    void getCloneJob_user_returns403() throws Exception {
+        mockMvc.perform(get("/courses/clone-jobs/{jobId}", UUID.randomUUID()).with(user("u").roles("USER")))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(courseService);
+    }
+
     // СЕКЦІЯ: PATCH /courses/{id}/status
 
     @ParameterizedTest
@@ -446,19 +605,19 @@ class CourseControllerTest {
     @NotNull
     @Contract("_, _ -> new")
     private CourseDto courseDto(UUID id, String name) {
-        return new CourseDto(id, name, "desc", null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
+        return new CourseDto(id, name, "desc", null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null, null);
     }
 
     @NotNull
     @Contract(" -> new")
     private CourseCreateDto createDto() {
-        return new CourseCreateDto("Course", "desc", null, null, null, null, null, null, null, null);
+        return new CourseCreateDto("Course", "desc", null, null, null, null, null, null, null, null, null, null, null, null, null);
     }
 
     @NotNull
     @Contract(" -> new")
     private CourseUpdateDto updateDto() {
-        return new CourseUpdateDto("Course Updated", "desc", null, null, null, null, null, null, null, null, null, false);
+        return new CourseUpdateDto("Course Updated", "desc", null, null, null, null, null, null, null, null, null, null, null, null, null, null, false);
     }
 
     @NotNull
@@ -469,4 +628,9 @@ class CourseControllerTest {
         current.setRole(role);
         return current;
     }
-}
\ No newline at end of file
+
+    private static CourseCloneJobDto cloneJob(UUID sourceCourseId, CourseCloneJobDto.Status status) {
+        return new CourseCloneJobDto(UUID.randomUUID(), sourceCourseId, UUID.randomUUID(), status,
+                3, 12, 5, null, null, null);
+    }
+}
@@ -4,6 +4,7 @@ import com.mishchuk.onlineschool.controller.dto.FileDto;
 import com.mishchuk.onlineschool.exception.GlobalExceptionHandler;
 import com.mishchuk.onlineschool.repository.PersonRepository;
 import com.mishchuk.onlineschool.repository.entity.PersonEntity;
+import com.mishchuk.onlineschool.security.CurrentPerson;
 import com.mishchuk.onlineschool.security.CustomUserDetailsService;
 import com.mishchuk.onlineschool.security.JwtUtils;
 import com.mishchuk.onlineschool.service.FileStorageService;
@@ -31,7 +32,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(FileController.class)
-@Import({TestSecurityConfig.class, GlobalExceptionHandler.class})
+@Import({TestSecurityConfig.class, GlobalExceptionHandler.class, CurrentPerson.class})
 class FileControllerTest {
 
     @Autowired
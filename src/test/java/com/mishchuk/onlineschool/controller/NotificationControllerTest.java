@@ -2,15 +2,19 @@ package com.mishchuk.onlineschool.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.mishchuk.onlineschool.controller.dto.BroadcastRequest;
+import com.mishchuk.onlineschool.controller.dto.NotificationDto;
 import com.mishchuk.onlineschool.controller.dto.TargetedNotificationRequest;
 import com.mishchuk.onlineschool.exception.GlobalExceptionHandler;
-import com.mishchuk.onlineschool.repository.entity.NotificationEntity;
+import com.mishchuk.onlineschool.repository.PersonRepository;
 import com.mishchuk.onlineschool.repository.entity.NotificationType;
 import com.mishchuk.onlineschool.repository.entity.PersonEntity;
 import com.mishchuk.onlineschool.repository.entity.PersonRole;
+import com.mishchuk.onlineschool.security.CurrentPerson;
 import com.mishchuk.onlineschool.security.CustomUserDetailsService;
 import com.mishchuk.onlineschool.security.JwtUtils;
+import com.mishchuk.onlineschool.security.PersonPrincipal;
 import com.mishchuk.onlineschool.service.NotificationService;
+import com.mishchuk.onlineschool.service.NotificationStreams;
 import org.jetbrains.annotations.Contract;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.DisplayName;
@@ -26,17 +30,21 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(NotificationController.class)
-@Import({TestSecurityConfig.class, GlobalExceptionHandler.class})
+@Import({TestSecurityConfig.class, GlobalExceptionHandler.class, CurrentPerson.class})
 class NotificationControllerTest {
 
     @Autowired
@@ -51,6 +59,12 @@ class NotificationControllerTest {
     @MockBean
     private CustomUserDetailsService userDetailsService;
 
+    @MockBean
+    private NotificationStreams notificationStreams;
+
+    @MockBean
+    private PersonRepository personRepository;
+
     @MockBean
     private JwtUtils jwtUtils;
 
@@ -63,7 +77,7 @@ class NotificationControllerTest {
         PersonEntity person = personEntity(PersonRole.USER);
         when(userDetailsService.getPerson("user@test.com")).thenReturn(person);
         when(notificationService.getUserNotifications(eq(person.getId()), any(Pageable.class)))
-                .thenReturn(new PageImpl<>(List.of(notificationEntity())));
+                .thenReturn(new PageImpl<>(List.of(notificationDto())));
 
         mockMvc.perform(get("/notifications"))
                 .andExpect(status().isOk())
@@ -84,45 +98,78 @@ class NotificationControllerTest {
 
     @Test
     @DisplayName("PUT /notifications/{id}/read — авторизований → 200 OK")
-    @WithMockUser
+    @WithMockUser(username = "user@test.com")
     void markAsRead_authenticated_returns200() throws Exception {
         UUID id = UUID.randomUUID();
-        doNothing().when(notificationService).markAsRead(id);
+        PersonEntity person = personEntity(PersonRole.USER);
+        when(userDetailsService.getPerson("user@test.com")).thenReturn(person);
+        doNothing().when(notificationService).markAsRead(person.getId(), id);
 
         mockMvc.perform(put("/notifications/{id}/read", id))
                 .andExpect(status().isOk());
 
-        verify(notificationService, times(1)).markAsRead(id);
+        verify(notificationService, times(1)).markAsRead(person.getId(), id);
+    }
+
+    // СЕКЦІЯ: PUT /notifications/read
+
+    @Test
+    @DisplayName("PUT /notifications/read — позначає список сповіщень одним запитом")
+    @WithMockUser(username = "user@test.com")
+    void markManyAsRead_authenticated_returns200() throws Exception {
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+        PersonEntity person = personEntity(PersonRole.USER);
+        when(userDetailsService.getPerson("user@test.com")).thenReturn(person);
+        when(notificationService.markAsRead(person.getId(), ids)).thenReturn(2);
+
+        mockMvc.perform(put("/notifications/read")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(ids)))
+                .andExpect(status().isOk());
+
+        verify(notificationService, times(1)).markAsRead(person.getId(), ids);
+    }
+
+    @Test
+    @DisplayName("PUT /notifications/read — анонімний → 401 Unauthorized")
+    void markManyAsRead_anonymous_returns401() throws Exception {
+        mockMvc.perform(put("/notifications/read")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isUnauthorized());
     }
 
     // СЕКЦІЯ: PUT /notifications/{id}/unread
 
     @Test
     @DisplayName("PUT /notifications/{id}/unread — авторизований → 200 OK")
-    @WithMockUser
+    @WithMockUser(username = "user@test.com")
     void markAsUnread_authenticated_returns200() throws Exception {
         UUID id = UUID.randomUUID();
-        doNothing().when(notificationService).markAsUnread(id);
+        PersonEntity person = personEntity(PersonRole.USER);
+        when(userDetailsService.getPerson("user@test.com")).thenReturn(person);
+        doNothing().when(notificationService).markAsUnread(person.getId(), id);
 
         mockMvc.perform(put("/notifications/{id}/unread", id))
                 .andExpect(status().isOk());
 
-        verify(notificationService, times(1)).markAsUnread(id);
+        verify(notificationService, times(1)).markAsUnread(person.getId(), id);
     }
 
     // СЕКЦІЯ: GET /notifications/unread-count
 
     @Test
-    @DisplayName("GET /notifications/unread-count — авторизований → 200 OK")
-    @WithMockUser(username = "user@test.com")
+    @DisplayName("GET /notifications/unread-count — авторизований → 200 OK, id з токена без завантаження користувача")
     void getUnreadCount_authenticated_returns200() throws Exception {
-        PersonEntity person = personEntity(PersonRole.USER);
-        when(userDetailsService.getPerson("user@test.com")).thenReturn(person);
-        when(notificationService.getUnreadCount(person.getId())).thenReturn(5L);
+        UUID personId = UUID.randomUUID();
+        PersonPrincipal principal = new PersonPrincipal(personId, "user@test.com", null, PersonRole.USER, null, 0);
+        when(notificationService.getUnreadCount(personId)).thenReturn(5L);
 
-        mockMvc.perform(get("/notifications/unread-count"))
+        mockMvc.perform(get("/notifications/unread-count").with(user(principal)))
                 .andExpect(status().isOk())
                 .andExpect(content().string("5"));
+
+        verifyNoInteractions(personRepository, userDetailsService);
     }
 
     @Test
@@ -132,6 +179,45 @@ class NotificationControllerTest {
                 .andExpect(status().isUnauthorized());
     }
 
+    // СЕКЦІЯ: GET /notifications/stream
+
+    @Test
+    @DisplayName("GET /notifications/stream — авторизований → 200 OK, потік відкрито")
+    @WithMockUser(username = "user@test.com")
+    void stream_authenticated_opensStream() throws Exception {
+        PersonEntity person = personEntity(PersonRole.USER);
+        when(userDetailsService.getPerson("user@test.com")).thenReturn(person);
+        when(notificationStreams.open(person)).thenReturn(Optional.of(new SseEmitter()));
+
+        mockMvc.perform(get("/notifications/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Accel-Buffering", "no"));
+
+        verify(notificationStreams, times(1)).open(person);
+    }
+
+    @Test
+    @DisplayName("GET /notifications/stream — ліміт потоків вичерпано → 503 Service Unavailable")
+    @WithMockUser(username = "user@test.com")
+    void stream_atCapacity_returns503() throws Exception {
+        PersonEntity person = personEntity(PersonRole.USER);
+        when(userDetailsService.getPerson("user@test.com")).thenReturn(person);
+        when(notificationStreams.open(person)).thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/notifications/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    @DisplayName("GET /notifications/stream — анонімний → 401 Unauthorized")
+    void stream_anonymous_returns401() throws Exception {
+        mockMvc.perform(get("/notifications/stream").accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(notificationStreams);
+    }
+
     // СЕКЦІЯ: PUT /notifications/read-all
 
     @Test
@@ -140,7 +226,7 @@ class NotificationControllerTest {
     void markAllAsRead_authenticated_returns200() throws Exception {
         PersonEntity person = personEntity(PersonRole.USER);
         when(userDetailsService.getPerson("user@test.com")).thenReturn(person);
-        doNothing().when(notificationService).markAllAsRead(person.getId());
+        when(notificationService.markAllAsRead(person.getId())).thenReturn(1);
 
         mockMvc.perform(put("/notifications/read-all"))
                 .andExpect(status().isOk());
@@ -163,7 +249,7 @@ class NotificationControllerTest {
     void markAllAsUnread_authenticated_returns200() throws Exception {
         PersonEntity person = personEntity(PersonRole.USER);
         when(userDetailsService.getPerson("user@test.com")).thenReturn(person);
-        doNothing().when(notificationService).markAllAsUnread(person.getId());
+        when(notificationService.markAllAsUnread(person.getId())).thenReturn(1);
 
         mockMvc.perform(put("/notifications/unread-all"))
                 .andExpect(status().isOk());
@@ -186,7 +272,7 @@ class NotificationControllerTest {
     void deleteAll_authenticated_returns204() throws Exception {
         PersonEntity person = personEntity(PersonRole.USER);
         when(userDetailsService.getPerson("user@test.com")).thenReturn(person);
-        doNothing().when(notificationService).deleteAll(person.getId());
+        when(notificationService.deleteAll(person.getId())).thenReturn(1);
 
         mockMvc.perform(delete("/notifications/all"))
                 .andExpect(status().isNoContent());
@@ -208,10 +294,13 @@ class NotificationControllerTest {
     @WithMockUser(username = "user@test.com")
     void deleteNotification_authenticated_returns204() throws Exception {
         UUID id = UUID.randomUUID();
+        PersonEntity person = personEntity(PersonRole.USER);
+        when(userDetailsService.getPerson("user@test.com")).thenReturn(person);
+
         mockMvc.perform(delete("/notifications/{id}", id))
                 .andExpect(status().isNoContent());
 
-        verify(notificationService, times(1)).deleteNotification(id);
+        verify(notificationService, times(1)).deleteNotification(person.getId(), id);
     }
 
     @Test
@@ -325,14 +414,9 @@ class NotificationControllerTest {
 
     @NotNull
     @Contract(" -> new")
-    private NotificationEntity notificationEntity() {
-        NotificationEntity e = new NotificationEntity();
-        e.setId(UUID.randomUUID());
-        e.setTitle("Title");
-        e.setMessage("Message");
-        e.setType(NotificationType.SYSTEM);
-        e.setRead(false);
-        return e;
+    private NotificationDto notificationDto() {
+        return new NotificationDto(UUID.randomUUID(), "Title", "Message", NotificationType.SYSTEM, false,
+                OffsetDateTime.now(), null);
     }
 
     @NotNull
@@ -0,0 +1,72 @@
+package com.mishchuk.onlineschool.controller;
+
+import com.mishchuk.onlineschool.controller.dto.SearchPageDto;
+import com.mishchuk.onlineschool.controller.dto.SearchResultDto;
+import com.mishchuk.onlineschool.exception.BadRequestException;
+import com.mishchuk.onlineschool.exception.GlobalExceptionHandler;
+import com.mishchuk.onlineschool.repository.PersonRepository;
+import com.mishchuk.onlineschool.security.CurrentPerson;
+import com.mishchuk.onlineschool.security.CustomUserDetailsService;
+import com.mishchuk.onlineschool.security.JwtUtils;
+import com.mishchuk.onlineschool.service.SearchService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(SearchController.class)
+@Import({TestSecurityConfig.class, GlobalExceptionHandler.class, CurrentPerson.class})
+class SearchControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private SearchService searchService;
+
+    @MockBean
+    private CustomUserDetailsService userDetailsService;
+
+    @MockBean
+    private JwtUtils jwtUtils;
+
+    @MockBean
+    private PersonRepository personRepository;
+
+    // СЕКЦІЯ: GET /search
+
+    @Test
+    @DisplayName("GET /search — повертає сторінку результатів з підсвіченням")
+    void search_returnsPage() throws Exception {
+        UUID id = UUID.randomUUID();
+        when(searchService.search("kotlin", 1, 10)).thenReturn(new SearchPageDto(List.of(
+                new SearchResultDto("LESSON", id, UUID.randomUUID(), UUID.randomUUID(),
+                        "<mark>Kotlin</mark>", "", 0.6, true, null)), 1, 10, false));
+
+        mockMvc.perform(get("/search").param("q", "kotlin").param("page", "1").param("size", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items[0].id").value(id.toString()))
+                .andExpect(jsonPath("$.items[0].title").value("<mark>Kotlin</mark>"))
+                .andExpect(jsonPath("$.items[0].locked").value(true))
+                .andExpect(jsonPath("$.hasMore").value(false));
+    }
+
+    @Test
+    @DisplayName("GET /search — порожній запит → 400 Bad Request")
+    void search_blankQuery_returns400() throws Exception {
+        when(searchService.search("", null, null)).thenThrow(new BadRequestException("Search query must not be empty"));
+
+        mockMvc.perform(get("/search").param("q", ""))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,170 @@
+package com.mishchuk.onlineschool.integration;
+
+import com.mishchuk.onlineschool.OnlineSchoolApplication;
+import com.mishchuk.onlineschool.repository.SchedulerLockRepository;
+import com.mishchuk.onlineschool.scheduler.SchedulerLock;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts two application instances on one database, the way replicas run in production,
+ * and checks that a job guarded by {@link SchedulerLock} runs on only one of them at a time.
+ *
+ * Covered scenarios:
+ *  — both instances start the same job at the same moment — exactly one runs it
+ *  — while one instance runs the job, the other skips it; afterwards the other may run it
+ *  — an instance that died holding the lock blocks the job only until its lease ends
+ */
+class SchedulerLockIntegrationTest {
+
+    private static final Duration LEASE = Duration.ofMinutes(1);
+
+    private static ConfigurableApplicationContext first;
+    private static ConfigurableApplicationContext second;
+
+    @BeforeAll
+    static void startInstances() {
+        first = start();
+        second = start();
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        if (second != null) {
+            second.close();
+        }
+        if (first != null) {
+            first.close();
+        }
+    }
+
+    // ─────────────────────── simultaneous start ───────────────────────
+
+    @Test
+    @DisplayName("Одночасний запуск на двох інстансах — задача виконується рівно один раз")
+    void simultaneousStart_runsOnce() throws Exception {
+        String name = uniqueName();
+        AtomicInteger runs = new AtomicInteger();
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        Runnable job = () -> {
+            runs.incrementAndGet();
+            sleep(300);
+        };
+        Callable<Boolean> onFirst = () -> {
+            barrier.await();
+            return lock(first).runExclusively(name, LEASE, Duration.ZERO, job);
+        };
+        Callable<Boolean> onSecond = () -> {
+            barrier.await();
+            return lock(second).runExclusively(name, LEASE, Duration.ZERO, job);
+        };
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            List<Future<Boolean>> results = pool.invokeAll(List.of(onFirst, onSecond));
+
+            assertThat(runs.get()).isEqualTo(1);
+            assertThat(List.of(results.get(0).get(), results.get(1).get())).containsExactlyInAnyOrder(true, false);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    // ─────────────────────── held / released ───────────────────────
+
+    @Test
+    @DisplayName("Поки перший інстанс тримає блокування, другий пропускає задачу; після звільнення — виконує")
+    void heldLock_skippedUntilReleased() {
+        String name = uniqueName();
+        AtomicBoolean secondRanInside = new AtomicBoolean();
+
+        boolean firstRan = lock(first).runExclusively(name, LEASE, Duration.ZERO, () -> {
+            secondRanInside.set(lock(second).runExclusively(name, LEASE, Duration.ZERO, () -> { }));
+            sleep(50);
+        });
+        boolean secondRanAfter = lock(second).runExclusively(name, LEASE, Duration.ZERO, () -> { });
+
+        assertThat(firstRan).isTrue();
+        assertThat(secondRanInside).isFalse();
+        assertThat(secondRanAfter).isTrue();
+        assertThat(lock(first).metrics(name)).hasValueSatisfying(metrics -> {
+            assertThat(metrics.acquired()).isEqualTo(1);
+            assertThat(metrics.lastHeldMillis()).isGreaterThanOrEqualTo(50);
+        });
+        assertThat(lock(second).metrics(name)).hasValueSatisfying(metrics -> {
+            assertThat(metrics.acquired()).isEqualTo(1);
+            assertThat(metrics.skipped()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    @DisplayName("lockAtLeastFor — звільнене блокування не береться повторно до кінця мінімального часу")
+    void lockAtLeastFor_keepsLockAfterRelease() {
+        String name = uniqueName();
+
+        lock(first).runExclusively(name, LEASE, Duration.ofMinutes(1), () -> { });
+
+        assertThat(lock(second).runExclusively(name, LEASE, Duration.ZERO, () -> { })).isFalse();
+    }
+
+    // ─────────────────────── lease expiry ───────────────────────
+
+    @Test
+    @DisplayName("Інстанс впав, не звільнивши блокування — задача знову доступна після закінчення оренди")
+    void crashedHolder_lockFreedAfterLease() {
+        String name = uniqueName();
+        TransactionTemplate transaction = new TransactionTemplate(first.getBean(PlatformTransactionManager.class));
+        Boolean taken = transaction.execute(status -> first.getBean(SchedulerLockRepository.class)
+                .tryAcquire(name, "crashed-instance", Duration.ofMillis(300)));
+
+        boolean duringLease = lock(second).runExclusively(name, LEASE, Duration.ZERO, () -> { });
+        sleep(600);
+        boolean afterLease = lock(second).runExclusively(name, LEASE, Duration.ZERO, () -> { });
+
+        assertThat(taken).isTrue();
+        assertThat(duringLease).isFalse();
+        assertThat(afterLease).isTrue();
+    }
+
+    private static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(OnlineSchoolApplication.class)
+                .profiles("test")
+                // command-line args outrank application.yml, unlike builder default properties
+                .run("--server.port=0");
+    }
+
+    private static SchedulerLock lock(ConfigurableApplicationContext context) {
+        return context.getBean(SchedulerLock.class);
+    }
+
+    private static String uniqueName() {
+        return "it-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.mishchuk.onlineschool.integration;
+
+import com.mishchuk.onlineschool.repository.PersonRepository;
+import com.mishchuk.onlineschool.repository.entity.PersonEntity;
+import com.mishchuk.onlineschool.repository.entity.PersonRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Counts SQL statements issued per endpoint to make sure the authenticated person
+ * is resolved at most once per request, however many layers ask for it, and not at all
+ * where the token claims are enough.
+ *
+ * Covered scenarios:
+ *  — GET /notifications/unread-count — one lookup of the current person
+ *  — POST /notifications/send-to-users — controller and service share a single lookup; recipients are
+ *    read inside the fan-out INSERT, not by a separate select
+ *  — GET /courses — no lookup of the current person, the role comes from the token
+ */
+class SqlStatementCountIntegrationTest extends AbstractIntegrationTest {
+
+    @Autowired
+    private PersonRepository personRepository;
+
+    private String email;
+    private String userToken;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        email = AuthHelper.randomEmail();
+        mockMvc.perform(post("/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of(
+                                "email",     email,
+                                "password",  "Password1!",
+                                "firstName", "Sql",
+                                "lastName",  "Counter",
+                                "language",  "uk"
+                        ))))
+                .andExpect(status().isOk());
+        userToken = AuthHelper.login(mockMvc, objectMapper, email, "Password1!");
+    }
+
+    // ─────────────────────── GET /notifications/unread-count ───────────────────────
+
+    @Test
+    @DisplayName("GET /notifications/unread-count — закешована кількість без жодного запиту до БД")
+    void unreadCount_cacheHit_noStatements() throws Exception {
+        warmUp(get("/notifications/unread-count"), userToken);
+
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/notifications/unread-count")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().isOk());
+
+        assertThat(SqlStatementCounter.selectsFrom("persons")).isZero();
+        assertThat(SqlStatementCounter.count()).isZero();
+    }
+
+    // ─────────────────────── POST /notifications/send-to-users ───────────────────────
+
+    @Test
+    @DisplayName("POST /notifications/send-to-users — контролер і сервіс використовують один запит до persons")
+    void sendToUsers_sharesCurrentPersonBetweenLayers() throws Exception {
+        PersonEntity admin = personRepository.findByEmail(email).orElseThrow();
+        admin.setRole(PersonRole.ADMIN);
+        personRepository.save(admin);
+        String adminToken = AuthHelper.login(mockMvc, objectMapper, email, "Password1!");
+
+        String body = objectMapper.writeValueAsString(Map.of(
+                "title",   "Hello",
+                "message", "Statement count",
+                "userIds", List.of(admin.getId())
+        ));
+        warmUp(post("/notifications/send-to-users").contentType(MediaType.APPLICATION_JSON).content(body),
+                adminToken);
+
+        SqlStatementCounter.reset();
+        mockMvc.perform(post("/notifications/send-to-users")
+                        .header("Authorization", "Bearer " + adminToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isOk());
+
+        // one lookup of the current admin; the recipients are read by the INSERT ... SELECT itself
+        assertThat(SqlStatementCounter.selectsFrom("persons")).isEqualTo(1);
+    }
+
+    // ─────────────────────── GET /courses ───────────────────────
+
+    @Test
+    @DisplayName("GET /courses — роль береться з токена, persons не читається")
+    void getCourses_roleFromToken_noPersonLookup() throws Exception {
+        warmUp(get("/courses"), userToken);
+
+        SqlStatementCounter.reset();
+        mockMvc.perform(get("/courses")
+                        .header("Authorization", "Bearer " + userToken))
+                .andExpect(status().is2xxSuccessful());
+
+        assertThat(SqlStatementCounter.selectsFrom("persons")).isZero();
+    }
+
+    /**
+     * Issues the request once so that per-person caches (token version) are populated
+     * and do not show up in the measured request.
+     */
+    private void warmUp(org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder request,
+                        String token) throws Exception {
+        mockMvc.perform(request.header("Authorization", "Bearer " + token))
+                .andExpect(status().is2xxSuccessful());
+    }
+}
@@ -0,0 +1,40 @@
+package com.mishchuk.onlineschool.integration;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Hibernate statement inspector that records every SQL statement issued by the current thread.
+ * Registered through application-test.yml; MockMvc requests run on the test thread,
+ * so statements of background tasks (e-mails, schedulers) are not mixed in.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> STATEMENTS = ThreadLocal.withInitial(ArrayList::new);
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.get().add(sql.toLowerCase(Locale.ROOT));
+        return sql;
+    }
+
+    public static void reset() {
+        STATEMENTS.get().clear();
+    }
+
+    public static int count() {
+        return STATEMENTS.get().size();
+    }
+
+    /**
+     * Number of SELECT statements reading from the given table.
+     */
+    public static long selectsFrom(String table) {
+        return STATEMENTS.get().stream()
+                .filter(sql -> sql.startsWith("select") && sql.contains(" from " + table + " "))
+                .count();
+    }
+}
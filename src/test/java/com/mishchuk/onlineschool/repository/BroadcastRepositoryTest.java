@@ -0,0 +1,187 @@
+package com.mishchuk.onlineschool.repository;
+
+import com.mishchuk.onlineschool.repository.NotificationRepositoryCustom.FeedItem;
+import com.mishchuk.onlineschool.repository.entity.BroadcastEntity;
+import com.mishchuk.onlineschool.repository.entity.NotificationEntity;
+import com.mishchuk.onlineschool.repository.entity.NotificationType;
+import com.mishchuk.onlineschool.repository.entity.PersonEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BroadcastRepositoryTest extends AbstractRepositoryTest {
+
+    @Autowired private BroadcastRepository    broadcastRepository;
+    @Autowired private NotificationRepository notificationRepository;
+    @Autowired private PersonRepository       personRepository;
+    @Autowired private TestEntityManager      entityManager;
+
+    private PersonEntity alice;
+    private PersonEntity bob;
+
+    @BeforeEach
+    void setUp() {
+        alice = personRepository.save(person("alice@test.com", null));
+        bob   = personRepository.save(person("bob@test.com", null));
+    }
+
+    // ─────────────────────── findFeed ───────────────────────
+
+    @Test
+    @DisplayName("findFeed — об'єднує особисті сповіщення з оголошеннями для всіх")
+    void findFeed_mergesPersonalAndBroadcasts() {
+        notificationRepository.save(notification(alice, "Особисте"));
+        BroadcastEntity broadcast = broadcastRepository.save(broadcast("Для всіх", null));
+        flushAndClear();
+
+        Page<FeedItem> feed = notificationRepository.findFeed(alice.getId(), PageRequest.of(0, 10));
+
+        assertThat(feed.getTotalElements()).isEqualTo(2);
+        assertThat(feed.getContent()).extracting(FeedItem::title)
+                .containsExactlyInAnyOrder("Особисте", "Для всіх");
+        assertThat(feed.getContent()).filteredOn(item -> item.id().equals(broadcast.getId()))
+                .singleElement()
+                .satisfies(item -> assertThat(item.read()).isFalse());
+    }
+
+    @Test
+    @DisplayName("findFeed — оголошення власника бачать лише він та створені ним користувачі")
+    void findFeed_ownedBroadcast_scopedToOwnerAudience() {
+        PersonEntity carol = personRepository.save(person("carol@test.com", alice));
+        broadcastRepository.save(broadcast("Від alice", alice));
+        flushAndClear();
+
+        assertThat(notificationRepository.findFeed(alice.getId(), PageRequest.of(0, 10)).getTotalElements()).isEqualTo(1);
+        assertThat(notificationRepository.findFeed(carol.getId(), PageRequest.of(0, 10)).getTotalElements()).isEqualTo(1);
+        assertThat(notificationRepository.findFeed(bob.getId(), PageRequest.of(0, 10)).getTotalElements()).isZero();
+    }
+
+    @Test
+    @DisplayName("findFeed — користувач, створений після оголошення, його не бачить")
+    void findFeed_personCreatedLater_doesNotSeeOlderBroadcast() {
+        broadcastRepository.save(broadcast("Старе", null));
+        flushAndClear();
+        entityManager.getEntityManager()
+                .createNativeQuery("UPDATE persons SET created_at = NOW() + INTERVAL '1 hour' WHERE id = :id")
+                .setParameter("id", bob.getId())
+                .executeUpdate();
+
+        assertThat(notificationRepository.findFeed(bob.getId(), PageRequest.of(0, 10)).getTotalElements()).isZero();
+        assertThat(notificationRepository.findFeed(alice.getId(), PageRequest.of(0, 10)).getTotalElements()).isEqualTo(1);
+    }
+
+    // ─────────────────────── receipts ───────────────────────
+
+    @Test
+    @DisplayName("markRead — впливає лише на квитанцію конкретного користувача")
+    void markRead_perPerson() {
+        BroadcastEntity broadcast = broadcastRepository.save(broadcast("Для всіх", null));
+        flushAndClear();
+
+        assertThat(broadcastRepository.markRead(broadcast.getId(), alice.getId(), true)).isEqualTo(1);
+
+        assertThat(broadcastRepository.countUnread(alice.getId())).isZero();
+        assertThat(broadcastRepository.countUnread(bob.getId())).isEqualTo(1);
+
+        broadcastRepository.markRead(broadcast.getId(), alice.getId(), false);
+        assertThat(broadcastRepository.countUnread(alice.getId())).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("markRead (список) — пропускає id, що не є адресованими оголошеннями")
+    void markRead_many_skipsUnknownIds() {
+        BroadcastEntity first = broadcastRepository.save(broadcast("Перше", null));
+        broadcastRepository.save(broadcast("Друге", null));
+        BroadcastEntity foreign = broadcastRepository.save(broadcast("Від alice", alice));
+        flushAndClear();
+
+        int marked = broadcastRepository.markRead(
+                List.of(first.getId(), foreign.getId(), UUID.randomUUID()), bob.getId(), true);
+
+        assertThat(marked).isEqualTo(1);
+        assertThat(broadcastRepository.countUnread(bob.getId())).isEqualTo(1);
+        assertThat(broadcastRepository.markRead(List.of(), bob.getId(), true)).isZero();
+    }
+
+    @Test
+    @DisplayName("markRead — 0 для оголошення, не адресованого користувачу")
+    void markRead_notAddressed_returnsZero() {
+        BroadcastEntity broadcast = broadcastRepository.save(broadcast("Від alice", alice));
+        flushAndClear();
+
+        assertThat(broadcastRepository.markRead(broadcast.getId(), bob.getId(), true)).isZero();
+    }
+
+    @Test
+    @DisplayName("markDeleted — приховує оголошення зі стрічки лише цього користувача")
+    void markDeleted_hidesForThatPersonOnly() {
+        BroadcastEntity broadcast = broadcastRepository.save(broadcast("Для всіх", null));
+        flushAndClear();
+
+        assertThat(broadcastRepository.markDeleted(broadcast.getId(), alice.getId())).isEqualTo(1);
+
+        assertThat(notificationRepository.findFeed(alice.getId(), PageRequest.of(0, 10)).getTotalElements()).isZero();
+        assertThat(notificationRepository.findFeed(bob.getId(), PageRequest.of(0, 10)).getTotalElements()).isEqualTo(1);
+        assertThat(broadcastRepository.markRead(broadcast.getId(), alice.getId(), true)).isZero();
+    }
+
+    @Test
+    @DisplayName("markAllRead / markAllUnread / markAllDeleted — масові квитанції користувача")
+    void bulkReceipts() {
+        broadcastRepository.save(broadcast("Перше", null));
+        broadcastRepository.save(broadcast("Друге", null));
+        flushAndClear();
+
+        assertThat(broadcastRepository.markAllRead(alice.getId())).isEqualTo(2);
+        assertThat(broadcastRepository.countUnread(alice.getId())).isZero();
+
+        assertThat(broadcastRepository.markAllUnread(alice.getId())).isEqualTo(2);
+        assertThat(broadcastRepository.countUnread(alice.getId())).isEqualTo(2);
+
+        assertThat(broadcastRepository.markAllDeleted(alice.getId())).isEqualTo(2);
+        assertThat(broadcastRepository.countUnread(alice.getId())).isZero();
+        assertThat(broadcastRepository.countUnread(bob.getId())).isEqualTo(2);
+    }
+
+    // ─────────────────────── helpers ───────────────────────
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private BroadcastEntity broadcast(String title, PersonEntity owner) {
+        BroadcastEntity b = new BroadcastEntity();
+        b.setOwner(owner);
+        b.setTitle(title);
+        b.setMessage("Текст");
+        b.setType(NotificationType.ADMIN_ANNOUNCEMENT);
+        return b;
+    }
+
+    private PersonEntity person(String email, PersonEntity createdBy) {
+        PersonEntity p = new PersonEntity();
+        p.setEmail(email);
+        p.setPassword("pass");
+        p.setCreatedBy(createdBy);
+        return p;
+    }
+
+    private NotificationEntity notification(PersonEntity recipient, String title) {
+        NotificationEntity n = new NotificationEntity();
+        n.setRecipient(recipient);
+        n.setTitle(title);
+        n.setMessage("Message for " + title);
+        n.setType(NotificationType.GENERIC);
+        return n;
+    }
+}
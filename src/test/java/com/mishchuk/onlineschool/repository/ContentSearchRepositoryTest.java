@@ -0,0 +1,103 @@
+package com.mishchuk.onlineschool.repository;
+
+import com.mishchuk.onlineschool.repository.ContentSearchRepository.SearchHit;
+import com.mishchuk.onlineschool.repository.entity.CourseEntity;
+import com.mishchuk.onlineschool.repository.entity.CourseStatus;
+import com.mishchuk.onlineschool.repository.entity.LessonEntity;
+import com.mishchuk.onlineschool.repository.entity.ModuleEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(ContentSearchRepository.class)
+class ContentSearchRepositoryTest extends AbstractRepositoryTest {
+
+    @Autowired private ContentSearchRepository contentSearchRepository;
+    @Autowired private CourseRepository courseRepository;
+    @Autowired private ModuleRepository moduleRepository;
+    @Autowired private LessonRepository lessonRepository;
+
+    private CourseEntity published;
+
+    @BeforeEach
+    void setUp() {
+        published = courseRepository.save(course("Kotlin для початківців", "Корутини та <b>DSL</b>", CourseStatus.PUBLISHED));
+        CourseEntity draft = courseRepository.save(course("Kotlin чернетка", "Ще не готово", CourseStatus.DRAFT));
+
+        ModuleEntity module = new ModuleEntity();
+        module.setName("Вступ");
+        module.setDescription("Змінні, функції, kotlin синтаксис");
+        module.setCourse(published);
+        moduleRepository.save(module);
+
+        LessonEntity lesson = new LessonEntity();
+        lesson.setName("Корутини на практиці");
+        lesson.setDescription("Запуск корутин у Kotlin");
+        lesson.setVideoUrl("https://video/1");
+        lesson.setModule(module);
+        lessonRepository.save(lesson);
+
+        ModuleEntity draftModule = new ModuleEntity();
+        draftModule.setName("Kotlin чернетковий модуль");
+        draftModule.setCourse(draft);
+        moduleRepository.save(draftModule);
+
+        courseRepository.flush();
+    }
+
+    // ─────────────────────── search ───────────────────────
+
+    @Test
+    @DisplayName("search — знаходить курси, модулі та уроки; назва важить більше за опис")
+    void search_findsAllTypesRankedByWeight() {
+        List<SearchHit> hits = contentSearchRepository.search("kotlin", true, 0, 10);
+
+        assertThat(hits).extracting(SearchHit::type)
+                .containsExactlyInAnyOrder(SearchHit.Type.COURSE, SearchHit.Type.MODULE, SearchHit.Type.LESSON);
+        assertThat(hits.get(0).type()).isEqualTo(SearchHit.Type.COURSE);
+        assertThat(hits).allSatisfy(hit -> assertThat(hit.courseId()).isEqualTo(published.getId()));
+        assertThat(hits).filteredOn(hit -> hit.type() == SearchHit.Type.LESSON)
+                .extracting(SearchHit::videoUrl).containsExactly("https://video/1");
+    }
+
+    @Test
+    @DisplayName("search — чернетки видно лише без фільтра опублікованих")
+    void search_publishedOnly_hidesDrafts() {
+        assertThat(contentSearchRepository.search("чернетка", true, 0, 10)).isEmpty();
+        assertThat(contentSearchRepository.search("чернетка", false, 0, 10))
+                .extracting(SearchHit::type).containsExactly(SearchHit.Type.COURSE);
+    }
+
+    @Test
+    @DisplayName("search — підсвічування екранує HTML і обгортає збіг у <mark>")
+    void search_headlineEscapesHtml() {
+        List<SearchHit> hits = contentSearchRepository.search("dsl", true, 0, 10);
+
+        assertThat(hits).hasSize(1);
+        assertThat(hits.get(0).snippet()).contains("<mark>DSL</mark>").contains("&lt;b&gt;").doesNotContain("<b>");
+    }
+
+    @Test
+    @DisplayName("search — limit/offset ріжуть впорядковану вибірку")
+    void search_pagination() {
+        List<SearchHit> all = contentSearchRepository.search("kotlin", true, 0, 10);
+        List<SearchHit> second = contentSearchRepository.search("kotlin", true, 1, 1);
+
+        assertThat(second).hasSize(1);
+        assertThat(second.get(0).id()).isEqualTo(all.get(1).id());
+    }
+
+    private CourseEntity course(String name, String description, CourseStatus status) {
+        CourseEntity c = new CourseEntity();
+        c.setName(name);
+        c.setDescription(description);
+        c.setStatus(status);
+        return c;
+    }
+}
@@ -0,0 +1,78 @@
+package com.mishchuk.onlineschool.repository;
+
+import com.mishchuk.onlineschool.repository.entity.CourseCloneJobEntity;
+import com.mishchuk.onlineschool.repository.entity.CourseCloneJobStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.OffsetDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CourseCloneJobRepositoryTest extends AbstractRepositoryTest {
+
+    @Autowired private CourseCloneJobRepository courseCloneJobRepository;
+    @Autowired private TestEntityManager        entityManager;
+
+    // ─────────────────────── deleteFinishedBefore ───────────────────────
+
+    @Test
+    @DisplayName("deleteFinishedBefore — видаляє лише давно завершені завдання, незавершені лишаються")
+    void deleteFinishedBefore_onlyOldFinished() {
+        CourseCloneJobEntity old = save(CourseCloneJobStatus.COMPLETED, OffsetDateTime.now().minusHours(2));
+        CourseCloneJobEntity recent = save(CourseCloneJobStatus.FAILED, OffsetDateTime.now());
+        CourseCloneJobEntity pending = save(CourseCloneJobStatus.PENDING, null);
+
+        int deleted = courseCloneJobRepository.deleteFinishedBefore(OffsetDateTime.now().minusHours(1));
+        entityManager.clear();
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(courseCloneJobRepository.findById(old.getId())).isEmpty();
+        assertThat(courseCloneJobRepository.findById(recent.getId())).isPresent();
+        assertThat(courseCloneJobRepository.findById(pending.getId())).isPresent();
+    }
+
+    // ─────────────────────── markRunning ───────────────────────
+
+    @Test
+    @DisplayName("markRunning — переводить у RUNNING лише завдання в PENDING")
+    void markRunning_onlyPending() {
+        CourseCloneJobEntity pending = save(CourseCloneJobStatus.PENDING, null);
+        CourseCloneJobEntity running = save(CourseCloneJobStatus.RUNNING, null);
+        OffsetDateTime now = OffsetDateTime.now();
+
+        assertThat(courseCloneJobRepository.markRunning(pending.getId(), now)).isEqualTo(1);
+        assertThat(courseCloneJobRepository.markRunning(running.getId(), now)).isZero();
+        assertThat(courseCloneJobRepository.markRunning(pending.getId(), now)).isZero();
+        entityManager.clear();
+
+        assertThat(courseCloneJobRepository.findById(pending.getId()))
+                .get().extracting(CourseCloneJobEntity::getStatus).isEqualTo(CourseCloneJobStatus.RUNNING);
+    }
+
+    // ─────────────────────── lockUnfinished ───────────────────────
+
+    @Test
+    @DisplayName("lockUnfinished — повертає лише незавершене завдання")
+    void lockUnfinished_skipsFinished() {
+        CourseCloneJobEntity running = save(CourseCloneJobStatus.RUNNING, null);
+        CourseCloneJobEntity completed = save(CourseCloneJobStatus.COMPLETED, OffsetDateTime.now());
+
+        assertThat(courseCloneJobRepository.lockUnfinished(running.getId())).isPresent();
+        assertThat(courseCloneJobRepository.lockUnfinished(completed.getId())).isEmpty();
+    }
+
+    // ─────────────────────── helpers ───────────────────────
+
+    private CourseCloneJobEntity save(CourseCloneJobStatus status, OffsetDateTime finishedAt) {
+        CourseCloneJobEntity job = new CourseCloneJobEntity();
+        job.setSourceCourseId(UUID.randomUUID());
+        job.setCourseId(UUID.randomUUID());
+        job.setStatus(status);
+        job.setFinishedAt(finishedAt);
+        return courseCloneJobRepository.saveAndFlush(job);
+    }
+}
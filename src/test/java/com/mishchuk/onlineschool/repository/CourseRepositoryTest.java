@@ -0,0 +1,89 @@
+package com.mishchuk.onlineschool.repository;
+
+import com.mishchuk.onlineschool.repository.CourseRepositoryCustom.CatalogRow;
+import com.mishchuk.onlineschool.repository.entity.CourseEntity;
+import com.mishchuk.onlineschool.repository.entity.CourseStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CourseRepositoryTest extends AbstractRepositoryTest {
+
+    @Autowired private CourseRepository courseRepository;
+
+    @BeforeEach
+    void setUp() {
+        courseRepository.save(course("Java Basics", "100", CourseStatus.PUBLISHED));
+        courseRepository.save(course("Spring Boot", "300", CourseStatus.PUBLISHED));
+        courseRepository.save(course("Advanced Java", "200", CourseStatus.PUBLISHED));
+        courseRepository.save(course("Kotlin", "200", CourseStatus.PUBLISHED));
+        courseRepository.save(course("Java Draft", "50", CourseStatus.DRAFT));
+        courseRepository.save(course("Free 100% Java_intro", null, CourseStatus.PUBLISHED));
+        courseRepository.flush();
+    }
+
+    // ─────────────────────── findCatalogKeys ───────────────────────
+
+    @Test
+    @DisplayName("findCatalogKeys — сторінки по ціні йдуть одна за одною без пропусків і повторів")
+    void findCatalogKeys_keysetPagesCoverAllRowsInOrder() {
+        List<String> names = new ArrayList<>();
+        String afterKey = null;
+        UUID afterId = null;
+        List<CatalogRow> page;
+        do {
+            page = courseRepository.findCatalogKeys(new CourseCatalogQuery(CourseStatus.PUBLISHED, null, null, null,
+                    null, CourseCatalogQuery.Sort.PRICE, false, afterKey, afterId, 2));
+            for (CatalogRow row : page) {
+                names.add(courseRepository.findById(row.id()).orElseThrow().getName());
+            }
+            if (!page.isEmpty()) {
+                afterKey = page.get(page.size() - 1).sortKey();
+                afterId = page.get(page.size() - 1).id();
+            }
+        } while (page.size() == 2);
+
+        assertThat(names).hasSize(5);
+        assertThat(names.get(0)).isEqualTo("Free 100% Java_intro"); // no price sorts as 0
+        assertThat(names.subList(1, 2)).containsExactly("Java Basics");
+        assertThat(names.subList(2, 4)).containsExactlyInAnyOrder("Advanced Java", "Kotlin");
+        assertThat(names.get(4)).isEqualTo("Spring Boot");
+    }
+
+    @Test
+    @DisplayName("findCatalogKeys — фільтр за назвою та ціною, сортування за назвою за спаданням")
+    void findCatalogKeys_filtersByNameAndPrice() {
+        List<CatalogRow> rows = courseRepository.findCatalogKeys(new CourseCatalogQuery(CourseStatus.PUBLISHED,
+                new BigDecimal("100"), new BigDecimal("250"), null, "java",
+                CourseCatalogQuery.Sort.NAME, true, null, null, 10));
+
+        assertThat(rows).extracting(CatalogRow::sortKey).containsExactly("java basics", "advanced java");
+    }
+
+    @Test
+    @DisplayName("findCatalogKeys — символи % і _ у пошуку трактуються буквально")
+    void findCatalogKeys_searchEscapesWildcards() {
+        List<CatalogRow> rows = courseRepository.findCatalogKeys(new CourseCatalogQuery(null, null, null, null,
+                "100%", CourseCatalogQuery.Sort.CREATED, true, null, null, 10));
+
+        assertThat(rows).hasSize(1);
+        assertThat(courseRepository.findById(rows.get(0).id()).orElseThrow().getName())
+                .isEqualTo("Free 100% Java_intro");
+    }
+
+    private CourseEntity course(String name, String price, CourseStatus status) {
+        CourseEntity c = new CourseEntity();
+        c.setName(name);
+        c.setPrice(price != null ? new BigDecimal(price) : null);
+        c.setStatus(status);
+        return c;
+    }
+}
@@ -0,0 +1,98 @@
+package com.mishchuk.onlineschool.repository;
+
+import com.mishchuk.onlineschool.repository.DelayedTaskRepository.ClaimedTask;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(DelayedTaskRepository.class)
+class DelayedTaskRepositoryTest extends AbstractRepositoryTest {
+
+    private static final String TYPE = "TEST";
+
+    @Autowired private DelayedTaskRepository delayedTaskRepository;
+
+    private final OffsetDateTime now = OffsetDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+    // ─────────────────────── claimDue ───────────────────────
+
+    @Test
+    @DisplayName("claimDue — бере лише прострочені задачі, найстаріші першими, і орендує їх")
+    void claimDue_claimsDueTasksInOrder() {
+        UUID older = UUID.randomUUID();
+        UUID newer = UUID.randomUUID();
+        delayedTaskRepository.schedule(TYPE, newer, now.minusSeconds(1));
+        delayedTaskRepository.schedule(TYPE, older, now.minusMinutes(1));
+        delayedTaskRepository.schedule(TYPE, UUID.randomUUID(), now.plusMinutes(1));
+
+        List<ClaimedTask> claimed = delayedTaskRepository.claimDue(now, now.plusMinutes(5), 10);
+
+        assertThat(claimed).extracting(ClaimedTask::subjectId).containsExactlyInAnyOrder(older, newer);
+        assertThat(claimed).extracting(ClaimedTask::attempts).containsOnly(1);
+        // орендовані задачі не видаються вдруге до кінця оренди
+        assertThat(delayedTaskRepository.claimDue(now, now.plusMinutes(5), 10)).isEmpty();
+        assertThat(delayedTaskRepository.findNextDueAt()).hasValueSatisfying(
+                next -> assertThat(next.toInstant()).isEqualTo(now.plusMinutes(1).toInstant()));
+    }
+
+    @Test
+    @DisplayName("claimDue — не більше limit задач за раз")
+    void claimDue_respectsLimit() {
+        delayedTaskRepository.schedule(TYPE, UUID.randomUUID(), now.minusMinutes(2));
+        delayedTaskRepository.schedule(TYPE, UUID.randomUUID(), now.minusMinutes(1));
+
+        assertThat(delayedTaskRepository.claimDue(now, now.plusMinutes(5), 1)).hasSize(1);
+        assertThat(delayedTaskRepository.claimDue(now, now.plusMinutes(5), 1)).hasSize(1);
+    }
+
+    // ─────────────────────── schedule / complete ───────────────────────
+
+    @Test
+    @DisplayName("schedule — повторне планування переносить існуючу задачу, а не дублює")
+    void schedule_sameSubject_movesDueTime() {
+        UUID subject = UUID.randomUUID();
+        delayedTaskRepository.schedule(TYPE, subject, now.minusMinutes(1));
+        delayedTaskRepository.schedule(TYPE, subject, now.plusDays(1));
+
+        assertThat(delayedTaskRepository.claimDue(now, now.plusMinutes(5), 10)).isEmpty();
+        assertThat(delayedTaskRepository.findNextDueAt()).hasValueSatisfying(
+                next -> assertThat(next.toInstant()).isEqualTo(now.plusDays(1).toInstant()));
+    }
+
+    @Test
+    @DisplayName("complete — видаляє задачу з тією ж орендою, але лишає перенесену після захоплення")
+    void complete_keepsRescheduledTask() {
+        UUID done = UUID.randomUUID();
+        UUID rescheduled = UUID.randomUUID();
+        delayedTaskRepository.schedule(TYPE, done, now.minusMinutes(1));
+        delayedTaskRepository.schedule(TYPE, rescheduled, now.minusMinutes(1));
+        OffsetDateTime lease = now.plusMinutes(5);
+        List<ClaimedTask> claimed = delayedTaskRepository.claimDue(now, lease, 10);
+        delayedTaskRepository.schedule(TYPE, rescheduled, now.plusDays(30));
+
+        int deleted = delayedTaskRepository.complete(claimed.stream().map(ClaimedTask::id).toList(), lease);
+
+        assertThat(deleted).isEqualTo(1);
+        assertThat(delayedTaskRepository.findNextDueAt()).hasValueSatisfying(
+                next -> assertThat(next.toInstant()).isEqualTo(now.plusDays(30).toInstant()));
+    }
+
+    @Test
+    @DisplayName("cancel — прибирає задачу; порожня черга → findNextDueAt порожній")
+    void cancel_removesTask() {
+        UUID subject = UUID.randomUUID();
+        delayedTaskRepository.schedule(TYPE, subject, now.plusMinutes(1));
+
+        delayedTaskRepository.cancel(TYPE, subject);
+
+        assertThat(delayedTaskRepository.findNextDueAt()).isEmpty();
+    }
+}
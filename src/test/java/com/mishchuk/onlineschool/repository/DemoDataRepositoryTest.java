@@ -0,0 +1,173 @@
+package com.mishchuk.onlineschool.repository;
+
+import com.mishchuk.onlineschool.repository.DemoDataRepository.LessonParents;
+import com.mishchuk.onlineschool.repository.entity.CourseEntity;
+import com.mishchuk.onlineschool.repository.entity.LessonEntity;
+import com.mishchuk.onlineschool.repository.entity.ModuleEntity;
+import com.mishchuk.onlineschool.repository.entity.PersonEntity;
+import com.mishchuk.onlineschool.repository.entity.PromoCodeEntity;
+import com.mishchuk.onlineschool.repository.entity.PromoCodeScope;
+import com.mishchuk.onlineschool.repository.entity.PromoCodeStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(DemoDataRepository.class)
+class DemoDataRepositoryTest extends AbstractRepositoryTest {
+
+    @Autowired private DemoDataRepository demoDataRepository;
+    @Autowired private PersonRepository   personRepository;
+    @Autowired private CourseRepository   courseRepository;
+    @Autowired private ModuleRepository   moduleRepository;
+    @Autowired private LessonRepository   lessonRepository;
+    @Autowired private PromoCodeRepository promoCodeRepository;
+    @Autowired private TestEntityManager  entityManager;
+
+    private PersonEntity demo;
+    private PersonEntity admin;
+
+    @BeforeEach
+    void setUp() {
+        admin = personRepository.save(person("admin@test.com", null));
+        demo  = personRepository.save(person("demo@test.com", null));
+    }
+
+    // ─────────────────────── content ───────────────────────
+
+    @Test
+    @DisplayName("Видаляє курси демо-користувача разом з модулями й уроками, чужий контент лишається")
+    void deletesDemoContentWithChildren() {
+        CourseEntity demoCourse = courseRepository.save(course("Демо курс", demo));
+        ModuleEntity adminModuleInDemoCourse = moduleRepository.save(module(demoCourse, admin));
+        LessonEntity adminLessonInDemoCourse = lessonRepository.save(lesson(adminModuleInDemoCourse, admin));
+        CourseEntity realCourse = courseRepository.save(course("Справжній курс", admin));
+        ModuleEntity realModule = moduleRepository.save(module(realCourse, admin));
+        LessonEntity realLesson = lessonRepository.save(lesson(realModule, admin));
+
+        deleteContent(OffsetDateTime.now().plusMinutes(1));
+
+        assertThat(courseRepository.existsById(demoCourse.getId())).isFalse();
+        assertThat(moduleRepository.existsById(adminModuleInDemoCourse.getId())).isFalse();
+        assertThat(lessonRepository.existsById(adminLessonInDemoCourse.getId())).isFalse();
+        assertThat(courseRepository.existsById(realCourse.getId())).isTrue();
+        assertThat(moduleRepository.existsById(realModule.getId())).isTrue();
+        assertThat(lessonRepository.existsById(realLesson.getId())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Демо-урок у справжньому модулі — повертає модуль і курс для оновлення лічильників")
+    void demoLessonInRealModule_returnsParents() {
+        CourseEntity realCourse = courseRepository.save(course("Справжній курс", admin));
+        ModuleEntity realModule = moduleRepository.save(module(realCourse, admin));
+        LessonEntity demoLesson = lessonRepository.save(lesson(realModule, demo));
+        flushAndClear();
+
+        LessonParents parents = demoDataRepository.deleteLessons(List.of(demo.getId()), OffsetDateTime.now().plusMinutes(1));
+
+        assertThat(parents.deleted()).isEqualTo(1);
+        assertThat(parents.moduleIds()).containsExactly(realModule.getId());
+        assertThat(parents.courseIds()).containsExactly(realCourse.getId());
+        assertThat(lessonRepository.existsById(demoLesson.getId())).isFalse();
+        assertThat(moduleRepository.existsById(realModule.getId())).isTrue();
+    }
+
+    @Test
+    @DisplayName("Рядки, створені після порогу, не видаляються")
+    void createdAfterThreshold_survives() {
+        CourseEntity demoCourse = courseRepository.save(course("Свіжий демо курс", demo));
+        ModuleEntity demoModule = moduleRepository.save(module(demoCourse, demo));
+
+        deleteContent(OffsetDateTime.now().minusHours(1));
+
+        assertThat(courseRepository.existsById(demoCourse.getId())).isTrue();
+        assertThat(moduleRepository.existsById(demoModule.getId())).isTrue();
+    }
+
+    // ─────────────────────── persons / promo codes ───────────────────────
+
+    @Test
+    @DisplayName("Видаляє користувачів і промокоди, створені демо-адміном")
+    void deletesDemoPersonsAndPromoCodes() {
+        PersonEntity invited = personRepository.save(person("invited@test.com", demo));
+        PersonEntity realUser = personRepository.save(person("real@test.com", admin));
+        PromoCodeEntity demoCode = promoCodeRepository.save(promoCode("DEMO10", demo));
+        PromoCodeEntity realCode = promoCodeRepository.save(promoCode("REAL10", admin));
+        flushAndClear();
+
+        OffsetDateTime threshold = OffsetDateTime.now().plusMinutes(1);
+        int promoCodes = demoDataRepository.deletePromoCodes(List.of(demo.getId()), threshold);
+        int persons = demoDataRepository.deletePersons(List.of(demo.getId()), threshold);
+
+        assertThat(promoCodes).isEqualTo(1);
+        assertThat(persons).isEqualTo(1);
+        assertThat(personRepository.existsById(invited.getId())).isFalse();
+        assertThat(personRepository.existsById(realUser.getId())).isTrue();
+        assertThat(promoCodeRepository.existsById(demoCode.getId())).isFalse();
+        assertThat(promoCodeRepository.existsById(realCode.getId())).isTrue();
+    }
+
+    // ─────────────────────── helpers ───────────────────────
+
+    private void deleteContent(OffsetDateTime threshold) {
+        flushAndClear();
+        List<UUID> creators = List.of(demo.getId());
+        demoDataRepository.deleteLessons(creators, threshold);
+        demoDataRepository.deleteModules(creators, threshold);
+        demoDataRepository.deleteReviewRequests(creators, threshold);
+        demoDataRepository.deleteCourses(creators, threshold);
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private PersonEntity person(String email, PersonEntity createdBy) {
+        PersonEntity p = new PersonEntity();
+        p.setEmail(email);
+        p.setPassword("pass");
+        p.setCreatedBy(createdBy);
+        return p;
+    }
+
+    private CourseEntity course(String name, PersonEntity createdBy) {
+        CourseEntity c = new CourseEntity();
+        c.setName(name);
+        c.setCreatedBy(createdBy);
+        return c;
+    }
+
+    private ModuleEntity module(CourseEntity course, PersonEntity createdBy) {
+        ModuleEntity m = new ModuleEntity();
+        m.setName("Модуль");
+        m.setCourse(course);
+        m.setCreatedBy(createdBy);
+        return m;
+    }
+
+    private LessonEntity lesson(ModuleEntity module, PersonEntity createdBy) {
+        LessonEntity l = new LessonEntity();
+        l.setName("Урок");
+        l.setModule(module);
+        l.setCreatedBy(createdBy);
+        return l;
+    }
+
+    private PromoCodeEntity promoCode(String code, PersonEntity createdBy) {
+        PromoCodeEntity p = new PromoCodeEntity();
+        p.setCode(code);
+        p.setStatus(PromoCodeStatus.ACTIVE);
+        p.setScope(PromoCodeScope.GLOBAL);
+        p.setCreatedBy(createdBy);
+        return p;
+    }
+}
@@ -1,5 +1,7 @@
 package com.mishchuk.onlineschool.repository;
 
+import com.mishchuk.onlineschool.repository.EnrollmentRepositoryCustom.DueReminder;
+import com.mishchuk.onlineschool.repository.EnrollmentRepositoryCustom.ExpiredEnrollment;
 import com.mishchuk.onlineschool.repository.entity.CourseEntity;
 import com.mishchuk.onlineschool.repository.entity.EnrollmentEntity;
 import com.mishchuk.onlineschool.repository.entity.PersonEntity;
@@ -9,13 +11,18 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
 import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.Optional;
+import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
 
 class EnrollmentRepositoryTest extends AbstractRepositoryTest {
 
+    private static final UUID FIRST_ID = new UUID(0, 0);
+
     @Autowired private EnrollmentRepository enrollmentRepository;
     @Autowired private PersonRepository     personRepository;
     @Autowired private CourseRepository     courseRepository;
@@ -142,6 +149,143 @@ class EnrollmentRepositoryTest extends AbstractRepositoryTest {
         assertThat(result).isEmpty();
     }
 
+    // ─────────────────────── blockExpired ───────────────────────
+
+    @Test
+    @DisplayName("blockExpired — блокує лише передані активні зарахування з минулим expiresAt і повертає їх")
+    void blockExpired_blocksOnlyDueActiveEnrollments() {
+        OffsetDateTime now = OffsetDateTime.now();
+        EnrollmentEntity expired = enrollment(alice, courseA, "ACTIVE");
+        expired.setExpiresAt(now.minusSeconds(1));
+        enrollmentRepository.save(expired);
+        EnrollmentEntity renewed = enrollment(bob, courseA, "ACTIVE");
+        renewed.setExpiresAt(now.plusDays(30));
+        enrollmentRepository.save(renewed);
+        EnrollmentEntity alreadyBlocked = enrollment(bob, courseB, "BLOCKED");
+        alreadyBlocked.setExpiresAt(now.minusDays(1));
+        enrollmentRepository.save(alreadyBlocked);
+        EnrollmentEntity notRequested = enrollment(alice, courseB, "ACTIVE");
+        notRequested.setExpiresAt(now.minusDays(1));
+        enrollmentRepository.save(notRequested);
+
+        List<ExpiredEnrollment> result = enrollmentRepository.blockExpired(
+                List.of(expired.getId(), renewed.getId(), alreadyBlocked.getId()), now);
+
+        assertThat(result).containsExactly(new ExpiredEnrollment(expired.getId(), alice.getId(), courseA.getId()));
+        assertThat(enrollmentRepository.findByStatus("ACTIVE")).extracting(EnrollmentEntity::getId)
+                .containsExactlyInAnyOrder(renewed.getId(), notRequested.getId());
+    }
+
+    @Test
+    @DisplayName("blockExpired — порожній список id → нічого не робить")
+    void blockExpired_noIds_returnsEmpty() {
+        assertThat(enrollmentRepository.blockExpired(List.of(), OffsetDateTime.now())).isEmpty();
+    }
+
+    // ─────────────────────── expiration reminders ───────────────────────
+
+    @Test
+    @DisplayName("findDueExpirationReminders — повертає активні зарахування з вікна, доки нагадування не записане")
+    void findDueExpirationReminders_untilRecorded() {
+        OffsetDateTime from = OffsetDateTime.now().plusDays(30);
+        EnrollmentEntity due = enrollment(alice, courseA, "ACTIVE");
+        due.setExpiresAt(from.plusHours(1));
+        enrollmentRepository.save(due);
+        EnrollmentEntity later = enrollment(bob, courseA, "ACTIVE");
+        later.setExpiresAt(from.plusDays(2));
+        enrollmentRepository.save(later);
+        EnrollmentEntity blocked = enrollment(bob, courseB, "BLOCKED");
+        blocked.setExpiresAt(from.plusHours(2));
+        enrollmentRepository.save(blocked);
+
+        List<DueReminder> first = enrollmentRepository.findDueExpirationReminders(from, FIRST_ID, from.plusDays(1), 10);
+
+        assertThat(first).singleElement().satisfies(reminder -> {
+            assertThat(reminder.enrollmentId()).isEqualTo(due.getId());
+            assertThat(reminder.studentId()).isEqualTo(alice.getId());
+            assertThat(reminder.email()).isEqualTo("alice@test.com");
+            assertThat(reminder.courseName()).isEqualTo("Java Basics");
+            assertThat(reminder.expiresAt().toInstant()).isCloseTo(due.getExpiresAt().toInstant(),
+                    within(1, ChronoUnit.MILLIS));
+        });
+        // ще не записане — знайдеться знову
+        assertThat(enrollmentRepository.findDueExpirationReminders(from, FIRST_ID, from.plusDays(1), 10)).hasSize(1);
+
+        assertThat(enrollmentRepository.recordExpirationReminder(due.getId(), first.get(0).expiresAt())).isTrue();
+        assertThat(enrollmentRepository.recordExpirationReminder(due.getId(), first.get(0).expiresAt())).isFalse();
+        assertThat(enrollmentRepository.findDueExpirationReminders(from, FIRST_ID, from.plusDays(1), 10)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("findDueExpirationReminders — сторінки продовжуються після останнього (expiresAt, id)")
+    void findDueExpirationReminders_keysetPaging() {
+        OffsetDateTime from = OffsetDateTime.now().plusDays(30);
+        EnrollmentEntity first = enrollment(alice, courseA, "ACTIVE");
+        first.setExpiresAt(from.plusHours(1));
+        enrollmentRepository.save(first);
+        EnrollmentEntity second = enrollment(bob, courseA, "ACTIVE");
+        second.setExpiresAt(from.plusHours(2));
+        enrollmentRepository.save(second);
+
+        List<DueReminder> page = enrollmentRepository.findDueExpirationReminders(from, FIRST_ID, from.plusDays(1), 1);
+        DueReminder last = page.get(0);
+
+        assertThat(page).extracting(DueReminder::enrollmentId).containsExactly(first.getId());
+        assertThat(enrollmentRepository.findDueExpirationReminders(last.expiresAt(), last.enrollmentId(),
+                from.plusDays(1), 1))
+                .extracting(DueReminder::enrollmentId).containsExactly(second.getId());
+    }
+
+    @Test
+    @DisplayName("recordExpirationReminder — продовжений доступ (новий expiresAt) нагадується знову")
+    void recordExpirationReminder_extendedEnrollment_remindedAgain() {
+        OffsetDateTime from = OffsetDateTime.now().plusDays(30);
+        EnrollmentEntity due = enrollment(alice, courseA, "ACTIVE");
+        due.setExpiresAt(from.plusHours(1));
+        enrollmentRepository.save(due);
+        assertThat(enrollmentRepository.recordExpirationReminder(due.getId(), due.getExpiresAt())).isTrue();
+
+        due.setExpiresAt(from.plusDays(10));
+        enrollmentRepository.save(due);
+
+        assertThat(enrollmentRepository.findDueExpirationReminders(from, FIRST_ID, from.plusDays(11), 10))
+                .extracting(DueReminder::enrollmentId).containsExactly(due.getId());
+    }
+
+    @Test
+    @DisplayName("recordFailedExpirationReminder — невдалі спроби повторюються до ліміту й не потрапляють у нове вікно")
+    void recordFailedExpirationReminder_retriedUntilLimit() {
+        OffsetDateTime from = OffsetDateTime.now().plusDays(30);
+        EnrollmentEntity due = enrollment(alice, courseA, "ACTIVE");
+        due.setExpiresAt(from.plusHours(1));
+        enrollmentRepository.save(due);
+
+        assertThat(enrollmentRepository.recordFailedExpirationReminder(due.getId(), due.getExpiresAt())).isEqualTo(1);
+        assertThat(enrollmentRepository.findDueExpirationReminders(from, FIRST_ID, from.plusDays(1), 10)).isEmpty();
+        assertThat(enrollmentRepository.findRetriableExpirationReminders(OffsetDateTime.now(), FIRST_ID, 2, 10))
+                .extracting(DueReminder::enrollmentId).containsExactly(due.getId());
+
+        assertThat(enrollmentRepository.recordFailedExpirationReminder(due.getId(), due.getExpiresAt())).isEqualTo(2);
+        assertThat(enrollmentRepository.findRetriableExpirationReminders(OffsetDateTime.now(), FIRST_ID, 2, 10))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("recordExpirationReminder — після невдалої спроби записує відправку один раз")
+    void recordExpirationReminder_afterFailedAttempt_recordedOnce() {
+        OffsetDateTime from = OffsetDateTime.now().plusDays(30);
+        EnrollmentEntity due = enrollment(alice, courseA, "ACTIVE");
+        due.setExpiresAt(from.plusHours(1));
+        enrollmentRepository.save(due);
+        enrollmentRepository.recordFailedExpirationReminder(due.getId(), due.getExpiresAt());
+
+        assertThat(enrollmentRepository.recordExpirationReminder(due.getId(), due.getExpiresAt())).isTrue();
+        assertThat(enrollmentRepository.recordExpirationReminder(due.getId(), due.getExpiresAt())).isFalse();
+        assertThat(enrollmentRepository.recordFailedExpirationReminder(due.getId(), due.getExpiresAt())).isZero();
+        assertThat(enrollmentRepository.findRetriableExpirationReminders(OffsetDateTime.now(), FIRST_ID, 5, 10))
+                .isEmpty();
+    }
+
     // ─────────────────────── helpers ───────────────────────
 
     private PersonEntity person(String email) {
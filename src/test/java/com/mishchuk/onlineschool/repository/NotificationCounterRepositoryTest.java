@@ -0,0 +1,132 @@
+package com.mishchuk.onlineschool.repository;
+
+import com.mishchuk.onlineschool.repository.NotificationRepositoryCustom.Broadcast;
+import com.mishchuk.onlineschool.repository.entity.NotificationEntity;
+import com.mishchuk.onlineschool.repository.entity.NotificationType;
+import com.mishchuk.onlineschool.repository.entity.PersonEntity;
+import com.mishchuk.onlineschool.repository.entity.PersonRole;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(NotificationCounterRepository.class)
+class NotificationCounterRepositoryTest extends AbstractRepositoryTest {
+
+    @Autowired private NotificationCounterRepository counterRepository;
+    @Autowired private NotificationRepository        notificationRepository;
+    @Autowired private PersonRepository              personRepository;
+    @Autowired private TestEntityManager             entityManager;
+
+    private PersonEntity alice;
+    private PersonEntity bob;
+
+    @BeforeEach
+    void setUp() {
+        alice = personRepository.save(person("alice@test.com"));
+        bob   = personRepository.save(person("bob@test.com"));
+        entityManager.flush();
+    }
+
+    // ─────────────────────── adjust / reset / recount ───────────────────────
+
+    @Test
+    @DisplayName("adjust — створює лічильник і не опускає його нижче нуля")
+    void adjust_upsertsAndClampsAtZero() {
+        assertThat(counterRepository.findUnread(alice.getId())).isZero();
+
+        counterRepository.adjust(alice.getId(), 2);
+        counterRepository.adjust(alice.getId(), -1);
+        assertThat(counterRepository.findUnread(alice.getId())).isEqualTo(1);
+
+        counterRepository.adjust(alice.getId(), -5);
+        assertThat(counterRepository.findUnread(alice.getId())).isZero();
+        assertThat(counterRepository.findUnread(bob.getId())).isZero();
+    }
+
+    @Test
+    @DisplayName("reset / recount — обнуляє та перераховує з нотифікацій")
+    void resetAndRecount() {
+        save(notification(alice, false));
+        save(notification(alice, false));
+        save(notification(alice, true));
+        counterRepository.adjust(alice.getId(), 7);
+
+        counterRepository.reset(alice.getId());
+        assertThat(counterRepository.findUnread(alice.getId())).isZero();
+
+        counterRepository.recount(alice.getId());
+        assertThat(counterRepository.findUnread(alice.getId())).isEqualTo(2);
+    }
+
+    // ─────────────────────── fan-out ───────────────────────
+
+    @Test
+    @DisplayName("insertForPersons / insertForRole — збільшують лічильники отримувачів тим самим запитом")
+    void fanOut_bumpsRecipientCounters() {
+        PersonEntity admin = person("admin@test.com");
+        admin.setRole(PersonRole.ADMIN);
+        personRepository.saveAndFlush(admin);
+        Broadcast broadcast = new Broadcast("Оголошення", "Текст", NotificationType.ADMIN_ANNOUNCEMENT, null);
+
+        assertThat(notificationRepository.insertForPersons(broadcast, List.of(alice.getId(), bob.getId()), null))
+                .isEqualTo(2);
+        assertThat(notificationRepository.insertForRole(broadcast, PersonRole.ADMIN)).isEqualTo(1);
+        notificationRepository.insertForPersons(broadcast, List.of(alice.getId()), null);
+
+        assertThat(counterRepository.findUnread(alice.getId())).isEqualTo(2);
+        assertThat(counterRepository.findUnread(bob.getId())).isEqualTo(1);
+        assertThat(counterRepository.findUnread(admin.getId())).isEqualTo(1);
+    }
+
+    // ─────────────────────── repair ───────────────────────
+
+    @Test
+    @DisplayName("repair — виправляє лише лічильники, що розійшлися з нотифікаціями")
+    void repair_fixesOnlyDrifted() {
+        save(notification(alice, false));
+        save(notification(alice, false));
+        save(notification(bob, false));
+        counterRepository.adjust(alice.getId(), 5);
+        counterRepository.adjust(bob.getId(), 1);
+        PersonEntity carol = personRepository.saveAndFlush(person("carol@test.com"));
+        counterRepository.adjust(carol.getId(), 3);
+
+        int fixed = counterRepository.repair();
+
+        assertThat(fixed).isEqualTo(2);
+        assertThat(counterRepository.findUnread(alice.getId())).isEqualTo(2);
+        assertThat(counterRepository.findUnread(bob.getId())).isEqualTo(1);
+        assertThat(counterRepository.findUnread(carol.getId())).isZero();
+        assertThat(counterRepository.repair()).isZero();
+    }
+
+    // ─────────────────────── helpers ───────────────────────
+
+    private PersonEntity person(String email) {
+        PersonEntity p = new PersonEntity();
+        p.setEmail(email);
+        p.setPassword("pass");
+        return p;
+    }
+
+    private NotificationEntity notification(PersonEntity recipient, boolean read) {
+        NotificationEntity n = new NotificationEntity();
+        n.setRecipient(recipient);
+        n.setTitle("Title");
+        n.setMessage("Message");
+        n.setType(NotificationType.GENERIC);
+        n.setRead(read);
+        return n;
+    }
+
+    private void save(NotificationEntity n) {
+        notificationRepository.saveAndFlush(n);
+    }
+}
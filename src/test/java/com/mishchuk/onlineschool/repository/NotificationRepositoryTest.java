@@ -1,8 +1,10 @@
 package com.mishchuk.onlineschool.repository;
 
+import com.mishchuk.onlineschool.repository.NotificationRepositoryCustom.Broadcast;
 import com.mishchuk.onlineschool.repository.entity.NotificationEntity;
 import com.mishchuk.onlineschool.repository.entity.NotificationType;
 import com.mishchuk.onlineschool.repository.entity.PersonEntity;
+import com.mishchuk.onlineschool.repository.entity.PersonRole;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -128,8 +130,102 @@ class NotificationRepositoryTest extends AbstractRepositoryTest {
         assertThat(count).isZero();
     }
 
+    // ─────────────────────── bulk read / delete ───────────────────────
+
+    @Test
+    @DisplayName("updateReadByRecipientId — змінює лише сповіщення отримувача і повертає кількість змінених")
+    void updateReadByRecipientId_onlyThatRecipient() {
+        save(notification(alice, "A1"));
+        NotificationEntity alreadyRead = notification(alice, "A2");
+        alreadyRead.setRead(true);
+        save(alreadyRead);
+        save(notification(bob, "B1"));
+
+        int updated = notificationRepository.updateReadByRecipientId(alice.getId(), true);
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(notificationRepository.countByRecipientIdAndIsReadFalse(alice.getId())).isZero();
+        assertThat(notificationRepository.countByRecipientIdAndIsReadFalse(bob.getId())).isEqualTo(1);
+
+        assertThat(notificationRepository.updateReadByRecipientId(alice.getId(), false)).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("findByIdAndRecipientId — не знаходить чуже сповіщення")
+    void findByIdAndRecipientId_onlyOwn() {
+        NotificationEntity a1 = save(notification(alice, "A1"));
+
+        assertThat(notificationRepository.findByIdAndRecipientId(a1.getId(), alice.getId())).isPresent();
+        assertThat(notificationRepository.findByIdAndRecipientId(a1.getId(), bob.getId())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("markReadByRecipientIdAndIdIn — ігнорує чужі сповіщення")
+    void markReadByIds_ignoresOtherRecipients() {
+        NotificationEntity a1 = save(notification(alice, "A1"));
+        save(notification(alice, "A2"));
+        NotificationEntity b1 = save(notification(bob, "B1"));
+
+        int updated = notificationRepository.markReadByRecipientIdAndIdIn(alice.getId(), List.of(a1.getId(), b1.getId()));
+
+        assertThat(updated).isEqualTo(1);
+        assertThat(notificationRepository.countByRecipientIdAndIsReadFalse(alice.getId())).isEqualTo(1);
+        assertThat(notificationRepository.countByRecipientIdAndIsReadFalse(bob.getId())).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("deleteByRecipientId — видаляє лише сповіщення отримувача")
+    void deleteByRecipientId_onlyThatRecipient() {
+        save(notification(alice, "A1"));
+        save(notification(alice, "A2"));
+        save(notification(bob, "B1"));
+
+        int deleted = notificationRepository.deleteByRecipientId(alice.getId());
+
+        assertThat(deleted).isEqualTo(2);
+        assertThat(notificationRepository.count()).isEqualTo(1);
+    }
+
+    // ─────────────────────── broadcast fan-out ───────────────────────
+
+    @Test
+    @DisplayName("insertForRole — лише користувачі з вказаною роллю")
+    void insertForRole_onlyThatRole() {
+        PersonEntity admin = person("admin@test.com");
+        admin.setRole(PersonRole.ADMIN);
+        personRepository.saveAndFlush(admin);
+
+        int sent = notificationRepository.insertForRole(broadcast(), PersonRole.ADMIN);
+
+        assertThat(sent).isEqualTo(1);
+        assertThat(notificationRepository.countByRecipientIdAndIsReadFalse(admin.getId())).isEqualTo(1);
+        assertThat(notificationRepository.countByRecipientIdAndIsReadFalse(alice.getId())).isZero();
+    }
+
+    @Test
+    @DisplayName("insertForPersons — лише передані IDs, з ownerId ще й у межах власника")
+    void insertForPersons_selectedAndScoped() {
+        PersonEntity carol = person("carol@test.com");
+        carol.setCreatedBy(alice);
+        personRepository.saveAndFlush(carol);
+
+        int unscoped = notificationRepository.insertForPersons(broadcast(), List.of(bob.getId()), null);
+        int scoped = notificationRepository.insertForPersons(broadcast(), List.of(bob.getId(), carol.getId()), alice.getId());
+
+        assertThat(unscoped).isEqualTo(1);
+        assertThat(scoped).isEqualTo(1);
+        assertThat(notificationRepository.countByRecipientIdAndIsReadFalse(bob.getId())).isEqualTo(1);
+        assertThat(notificationRepository.countByRecipientIdAndIsReadFalse(carol.getId())).isEqualTo(1);
+        assertThat(notificationRepository.countByRecipientIdAndIsReadFalse(alice.getId())).isZero();
+        assertThat(notificationRepository.insertForPersons(broadcast(), List.of(), null)).isZero();
+    }
+
     // ─────────────────────── helpers ───────────────────────
 
+    private Broadcast broadcast() {
+        return new Broadcast("Оголошення", "Текст", NotificationType.ADMIN_ANNOUNCEMENT, null);
+    }
+
     private PersonEntity person(String email) {
         PersonEntity p = new PersonEntity();
         p.setEmail(email);
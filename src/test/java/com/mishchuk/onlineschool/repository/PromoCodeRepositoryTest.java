@@ -8,6 +8,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -19,6 +20,7 @@ class PromoCodeRepositoryTest extends AbstractRepositoryTest {
 
     @Autowired private PromoCodeRepository promoCodeRepository;
     @Autowired private PersonRepository    personRepository;
+    @Autowired private TestEntityManager   entityManager;
 
     private PersonEntity creator;
 
@@ -69,81 +71,49 @@ class PromoCodeRepositoryTest extends AbstractRepositoryTest {
         assertThat(result).isEmpty();
     }
 
-    // ─────────────────────── findByStatusAndValidFromLessThanEqual ───────────────────────
+    // ─────────────────────── activateDue / deactivateExpired ───────────────────────
 
     @Test
-    @DisplayName("findByStatusAndValidFromLessThanEqual — знаходить активні коди де validFrom <= заданої дати")
-    void findByStatusAndValidFrom_returnsMatchingCodes() {
-        LocalDateTime yesterday  = LocalDateTime.now().minusDays(1);
-        LocalDateTime tomorrow   = LocalDateTime.now().plusDays(1);
-
-        PromoCodeEntity started  = promoCode("STARTED", PromoCodeStatus.ACTIVE);
-        started.setValidFrom(yesterday);
-        promoCodeRepository.save(started);
-
-        PromoCodeEntity notYet   = promoCode("NOTYET", PromoCodeStatus.ACTIVE);
-        notYet.setValidFrom(tomorrow);
-        promoCodeRepository.save(notYet);
-
-        PromoCodeEntity inactive = promoCode("INACTIVE", PromoCodeStatus.INACTIVE);
-        inactive.setValidFrom(yesterday);
-        promoCodeRepository.save(inactive);
-
-        List<PromoCodeEntity> result = promoCodeRepository
-                .findByStatusAndValidFromLessThanEqual(PromoCodeStatus.ACTIVE, LocalDateTime.now());
-
-        assertThat(result).hasSize(1);
-        assertThat(result.get(0).getCode()).isEqualTo("STARTED");
-    }
-
-    @Test
-    @DisplayName("findByStatusAndValidFromLessThanEqual — повертає порожній список якщо немає відповідних кодів")
-    void findByStatusAndValidFrom_noMatch_returnsEmpty() {
-        PromoCodeEntity future = promoCode("FUTURE", PromoCodeStatus.ACTIVE);
-        future.setValidFrom(LocalDateTime.now().plusDays(5));
-        promoCodeRepository.save(future);
-
-        List<PromoCodeEntity> result = promoCodeRepository
-                .findByStatusAndValidFromLessThanEqual(PromoCodeStatus.ACTIVE, LocalDateTime.now());
-
-        assertThat(result).isEmpty();
-    }
-
-    @Test
-    @DisplayName("findByStatusAndValidFromLessThanEqual — validFrom рівно зараз включається (inclusive)")
-    void findByStatusAndValidFrom_exactBoundary_included() {
-        LocalDateTime boundary = LocalDateTime.now();
-
-        PromoCodeEntity exact = promoCode("EXACT", PromoCodeStatus.ACTIVE);
-        exact.setValidFrom(boundary);
-        promoCodeRepository.save(exact);
-
-        List<PromoCodeEntity> result = promoCodeRepository
-                .findByStatusAndValidFromLessThanEqual(PromoCodeStatus.ACTIVE, boundary);
-
-        assertThat(result).hasSize(1);
+    @DisplayName("activateDue — активує лише передані INACTIVE коди, чий validFrom настав і які ще не закінчились")
+    void activateDue_activatesOnlyDueCodes() {
+        LocalDateTime now = LocalDateTime.now();
+        PromoCodeEntity due = promoCodeRepository.save(promoCode("DUE10", PromoCodeStatus.INACTIVE, now.minusMinutes(1), null));
+        PromoCodeEntity future = promoCodeRepository.save(promoCode("FUTURE10", PromoCodeStatus.INACTIVE, now.plusDays(1), null));
+        PromoCodeEntity expired = promoCodeRepository.save(
+                promoCode("EXPIRED10", PromoCodeStatus.INACTIVE, now.minusDays(2), now.minusDays(1)));
+        PromoCodeEntity notRequested = promoCodeRepository.save(
+                promoCode("OTHER10", PromoCodeStatus.INACTIVE, now.minusMinutes(1), null));
+        promoCodeRepository.flush();
+
+        int activated = promoCodeRepository.activateDue(List.of(due.getId(), future.getId(), expired.getId()), now);
+        entityManager.clear();
+
+        assertThat(activated).isEqualTo(1);
+        assertThat(statusOf(due)).isEqualTo(PromoCodeStatus.ACTIVE);
+        assertThat(promoCodeRepository.findById(due.getId())).get()
+                .extracting(PromoCodeEntity::getStatusUpdatedAt).isNotNull();
+        assertThat(statusOf(future)).isEqualTo(PromoCodeStatus.INACTIVE);
+        assertThat(statusOf(expired)).isEqualTo(PromoCodeStatus.INACTIVE);
+        assertThat(statusOf(notRequested)).isEqualTo(PromoCodeStatus.INACTIVE);
     }
 
     @Test
-    @DisplayName("findByStatusAndValidFromLessThanEqual — фільтрує по статусу")
-    void findByStatusAndValidFrom_statusFilter_works() {
-        LocalDateTime yesterday = LocalDateTime.now().minusDays(1);
-
-        PromoCodeEntity active   = promoCode("ACTIVE10", PromoCodeStatus.ACTIVE);
-        active.setValidFrom(yesterday);
-        promoCodeRepository.save(active);
-
-        PromoCodeEntity inactive = promoCode("INACTIVE10", PromoCodeStatus.INACTIVE);
-        inactive.setValidFrom(yesterday);
-        promoCodeRepository.save(inactive);
-
-        List<PromoCodeEntity> activeResult = promoCodeRepository
-                .findByStatusAndValidFromLessThanEqual(PromoCodeStatus.ACTIVE, LocalDateTime.now());
-        List<PromoCodeEntity> inactiveResult = promoCodeRepository
-                .findByStatusAndValidFromLessThanEqual(PromoCodeStatus.INACTIVE, LocalDateTime.now());
-
-        assertThat(activeResult).hasSize(1).extracting(PromoCodeEntity::getCode).containsOnly("ACTIVE10");
-        assertThat(inactiveResult).hasSize(1).extracting(PromoCodeEntity::getCode).containsOnly("INACTIVE10");
+    @DisplayName("deactivateExpired — деактивує лише передані ACTIVE коди з validUntil у минулому")
+    void deactivateExpired_deactivatesOnlyExpiredCodes() {
+        LocalDateTime now = LocalDateTime.now();
+        PromoCodeEntity expired = promoCodeRepository.save(promoCode("GONE10", PromoCodeStatus.ACTIVE, null, now.minusSeconds(1)));
+        PromoCodeEntity valid = promoCodeRepository.save(promoCode("VALID10", PromoCodeStatus.ACTIVE, null, now.plusDays(1)));
+        PromoCodeEntity unlimited = promoCodeRepository.save(promoCode("FOREVER10", PromoCodeStatus.ACTIVE, null, null));
+        promoCodeRepository.flush();
+
+        int deactivated = promoCodeRepository.deactivateExpired(
+                List.of(expired.getId(), valid.getId(), unlimited.getId()), now);
+        entityManager.clear();
+
+        assertThat(deactivated).isEqualTo(1);
+        assertThat(statusOf(expired)).isEqualTo(PromoCodeStatus.INACTIVE);
+        assertThat(statusOf(valid)).isEqualTo(PromoCodeStatus.ACTIVE);
+        assertThat(statusOf(unlimited)).isEqualTo(PromoCodeStatus.ACTIVE);
     }
 
     // ─────────────────────── helpers ───────────────────────
@@ -163,4 +133,15 @@ class PromoCodeRepositoryTest extends AbstractRepositoryTest {
         pc.setCreatedBy(creator);
         return pc;
     }
+
+    private PromoCodeEntity promoCode(String code, PromoCodeStatus status, LocalDateTime validFrom, LocalDateTime validUntil) {
+        PromoCodeEntity pc = promoCode(code, status);
+        pc.setValidFrom(validFrom);
+        pc.setValidUntil(validUntil);
+        return pc;
+    }
+
+    private PromoCodeStatus statusOf(PromoCodeEntity promoCode) {
+        return promoCodeRepository.findById(promoCode.getId()).orElseThrow().getStatus();
+    }
 }
@@ -0,0 +1,39 @@
+package com.mishchuk.onlineschool.repository;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Import;
+
+import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@Import(SchedulerRunRepository.class)
+class SchedulerRunRepositoryTest extends AbstractRepositoryTest {
+
+    private static final String NAME = "test-job";
+
+    @Autowired private SchedulerRunRepository schedulerRunRepository;
+
+    private final OffsetDateTime now = OffsetDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+
+    // ─────────────────────── recordSuccess / findCoveredUntil ───────────────────────
+
+    @Test
+    @DisplayName("findCoveredUntil — порожньо, доки завдання жодного разу не завершилось успішно")
+    void findCoveredUntil_neverRun_isEmpty() {
+        assertThat(schedulerRunRepository.findCoveredUntil(NAME)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("recordSuccess — зберігає та оновлює межу, до якої завдання відпрацювало")
+    void recordSuccess_storesAndMovesCoveredUntil() {
+        schedulerRunRepository.recordSuccess(NAME, now);
+        schedulerRunRepository.recordSuccess(NAME, now.plusDays(1));
+
+        assertThat(schedulerRunRepository.findCoveredUntil(NAME)).hasValueSatisfying(
+                coveredUntil -> assertThat(coveredUntil.toInstant()).isEqualTo(now.plusDays(1).toInstant()));
+    }
+}
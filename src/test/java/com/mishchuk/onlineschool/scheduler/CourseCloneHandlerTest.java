@@ -0,0 +1,173 @@
+package com.mishchuk.onlineschool.scheduler;
+
+import com.mishchuk.onlineschool.repository.CourseCloneJobRepository;
+import com.mishchuk.onlineschool.repository.CourseRepository;
+import com.mishchuk.onlineschool.repository.DelayedTaskRepository;
+import com.mishchuk.onlineschool.repository.FileRepository;
+import com.mishchuk.onlineschool.repository.LessonRepository;
+import com.mishchuk.onlineschool.repository.ModuleRepository;
+import com.mishchuk.onlineschool.repository.entity.CourseCloneJobEntity;
+import com.mishchuk.onlineschool.repository.entity.CourseCloneJobStatus;
+import com.mishchuk.onlineschool.repository.entity.CourseEntity;
+import com.mishchuk.onlineschool.service.CourseCounters;
+import com.mishchuk.onlineschool.service.CourseTreeCloner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourseCloneHandlerTest {
+
+    @Mock private CourseCloneJobRepository courseCloneJobRepository;
+    @Mock private DelayedTaskRepository delayedTaskRepository;
+    @Mock private CourseRepository courseRepository;
+    @Mock private ModuleRepository moduleRepository;
+    @Mock private LessonRepository lessonRepository;
+    @Mock private FileRepository fileRepository;
+    @Mock private CourseCounters courseCounters;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private CourseCloneHandler handler;
+    private UUID sourceId;
+    private UUID targetId;
+    private UUID adminId;
+    private CourseCloneJobEntity job;
+
+    @BeforeEach
+    void setUp() {
+        handler = new CourseCloneHandler(courseCloneJobRepository, delayedTaskRepository, courseRepository,
+                moduleRepository, lessonRepository, fileRepository, courseCounters, transactionManager);
+        sourceId = UUID.randomUUID();
+        targetId = UUID.randomUUID();
+        adminId = UUID.randomUUID();
+
+        job = new CourseCloneJobEntity();
+        job.setId(UUID.randomUUID());
+        job.setSourceCourseId(sourceId);
+        job.setCourseId(targetId);
+        job.setCreatedById(adminId);
+    }
+
+    @AfterEach
+    void tearDown() {
+        handler.shutdown();
+    }
+
+    // ─────────────────────── handle ───────────────────────
+
+    @Test
+    @DisplayName("handle — передає незавершене завдання потоку копіювання й тримає його задачу в черзі")
+    void handle_unfinishedJob_copiedInBackgroundAndRechecked() {
+        when(courseCloneJobRepository.findAllById(List.of(job.getId()))).thenReturn(List.of(job));
+        when(courseCloneJobRepository.lockUnfinished(job.getId())).thenReturn(Optional.of(job));
+
+        handler.handle(List.of(job.getId()));
+
+        verify(delayedTaskRepository).schedule(eq(CourseTreeCloner.TASK_TYPE), eq(job.getId()), any());
+        verify(delayedTaskRepository, timeout(5000)).cancel(CourseTreeCloner.TASK_TYPE, job.getId());
+        assertThat(job.getStatus()).isEqualTo(CourseCloneJobStatus.COMPLETED);
+    }
+
+    @Test
+    @DisplayName("handle — завдання, завершене попередньою спробою, не запускається повторно")
+    void handle_finishedJob_skipped() {
+        job.setStatus(CourseCloneJobStatus.COMPLETED);
+        job.setFinishedAt(OffsetDateTime.now());
+        when(courseCloneJobRepository.findAllById(List.of(job.getId()))).thenReturn(List.of(job));
+
+        handler.handle(List.of(job.getId()));
+
+        verifyNoInteractions(delayedTaskRepository, moduleRepository, lessonRepository, fileRepository, courseCounters);
+        verify(courseCloneJobRepository, never()).save(any());
+    }
+
+    // ─────────────────────── run ───────────────────────
+
+    @Test
+    @DisplayName("run — копіює модулі, уроки й файли по одному запиту на рівень і зберігає COMPLETED")
+    void run_copiesEachLevelOnce() {
+        UUID moduleId = UUID.randomUUID();
+        when(courseCloneJobRepository.lockUnfinished(job.getId())).thenReturn(Optional.of(job));
+        when(moduleRepository.copyIntoCourse(sourceId, targetId, adminId)).thenReturn(2);
+        when(lessonRepository.copyIntoCourse(sourceId, targetId, adminId)).thenReturn(40);
+        when(fileRepository.copyIntoCourse(sourceId, targetId, adminId)).thenReturn(7);
+        when(moduleRepository.findIdsByCourseId(targetId)).thenReturn(List.of(moduleId));
+
+        handler.run(job.getId());
+
+        InOrder order = inOrder(moduleRepository, lessonRepository, fileRepository, courseCounters,
+                courseCloneJobRepository, delayedTaskRepository);
+        order.verify(courseCloneJobRepository).markRunning(eq(job.getId()), any());
+        order.verify(moduleRepository).copyIntoCourse(sourceId, targetId, adminId);
+        order.verify(lessonRepository).copyIntoCourse(sourceId, targetId, adminId);
+        order.verify(fileRepository).copyIntoCourse(sourceId, targetId, adminId);
+        order.verify(courseCounters).refresh(List.of(moduleId), List.of(targetId));
+        order.verify(courseCloneJobRepository).save(job);
+        order.verify(delayedTaskRepository).cancel(CourseTreeCloner.TASK_TYPE, job.getId());
+
+        assertThat(job.getStatus()).isEqualTo(CourseCloneJobStatus.COMPLETED);
+        assertThat(job.getModulesCopied()).isEqualTo(2);
+        assertThat(job.getLessonsCopied()).isEqualTo(40);
+        assertThat(job.getFilesCopied()).isEqualTo(7);
+        assertThat(job.getFinishedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("run — завдання заблоковане іншим запуском → нічого не копіюється і не видаляється")
+    void run_lockedByAnotherRun_skipped() {
+        when(courseCloneJobRepository.lockUnfinished(job.getId())).thenReturn(Optional.empty());
+
+        handler.run(job.getId());
+
+        verifyNoInteractions(moduleRepository, lessonRepository, fileRepository, courseCounters, courseRepository);
+        verify(courseCloneJobRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("run — помилка копіювання → FAILED, порожня копія курсу видаляється")
+    void run_failure_discardsEmptyCopy() {
+        CourseEntity copy = new CourseEntity();
+        when(courseCloneJobRepository.lockUnfinished(job.getId())).thenReturn(Optional.of(job));
+        when(moduleRepository.copyIntoCourse(sourceId, targetId, adminId)).thenThrow(new IllegalStateException("boom"));
+        when(courseRepository.findById(targetId)).thenReturn(Optional.of(copy));
+
+        handler.run(job.getId());
+
+        assertThat(job.getStatus()).isEqualTo(CourseCloneJobStatus.FAILED);
+        assertThat(job.getError()).isNotNull();
+        verify(courseRepository).delete(copy);
+        verify(courseCloneJobRepository).save(job);
+        verify(delayedTaskRepository).cancel(CourseTreeCloner.TASK_TYPE, job.getId());
+        verify(lessonRepository, never()).copyIntoCourse(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("run — після помилки копію вже взяв інший запуск → курс не видаляється")
+    void run_failure_copyTakenOver_keepsCourse() {
+        when(courseCloneJobRepository.lockUnfinished(job.getId()))
+                .thenReturn(Optional.of(job))
+                .thenReturn(Optional.empty());
+        when(moduleRepository.copyIntoCourse(sourceId, targetId, adminId)).thenThrow(new IllegalStateException("boom"));
+
+        handler.run(job.getId());
+
+        verifyNoInteractions(courseRepository);
+        verify(courseCloneJobRepository, never()).save(any());
+        assertThat(job.getStatus()).isNotEqualTo(CourseCloneJobStatus.FAILED);
+    }
+}
@@ -0,0 +1,159 @@
+package com.mishchuk.onlineschool.scheduler;
+
+import com.mishchuk.onlineschool.repository.EnrollmentRepository;
+import com.mishchuk.onlineschool.repository.EnrollmentRepositoryCustom.DueReminder;
+import com.mishchuk.onlineschool.repository.SchedulerRunRepository;
+import com.mishchuk.onlineschool.service.EmailService;
+import com.mishchuk.onlineschool.service.NotificationService;
+import com.mishchuk.onlineschool.service.NotificationService.NewNotification;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourseExpirationReminderSchedulerTest {
+
+    @Mock private EnrollmentRepository enrollmentRepository;
+    @Mock private SchedulerRunRepository schedulerRunRepository;
+    @Mock private NotificationService notificationService;
+    @Mock private EmailService emailService;
+    @Mock private SchedulerLock schedulerLock;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private CourseExpirationReminderScheduler scheduler;
+
+    @BeforeEach
+    void setUp() {
+        scheduler = new CourseExpirationReminderScheduler(enrollmentRepository, schedulerRunRepository,
+                notificationService, emailService, schedulerLock, transactionManager);
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduler.shutdown();
+    }
+
+    // ─────────────────────── sendDueReminders ───────────────────────
+
+    @Test
+    @DisplayName("sendDueReminders — записує нагадування і сповіщення лише після успішного листа")
+    void sendDueReminders_recordsAfterSuccessfulSend() {
+        DueReminder reminder = reminder("alice@test.com");
+        when(schedulerRunRepository.findCoveredUntil(CourseExpirationReminderScheduler.JOB_NAME))
+                .thenReturn(Optional.empty());
+        when(enrollmentRepository.findDueExpirationReminders(any(), any(), any(), anyInt()))
+                .thenReturn(List.of(reminder));
+        when(enrollmentRepository.recordExpirationReminder(reminder.enrollmentId(), reminder.expiresAt()))
+                .thenReturn(true);
+
+        scheduler.sendDueReminders();
+
+        verify(emailService).sendCourseExpirationReminderEmail(eq("alice@test.com"), any(), any(), any());
+        verify(enrollmentRepository).recordExpirationReminder(reminder.enrollmentId(), reminder.expiresAt());
+        ArgumentCaptor<List<NewNotification>> notifications = ArgumentCaptor.forClass(List.class);
+        verify(notificationService).createNotifications(notifications.capture());
+        assertThat(notifications.getValue()).singleElement().satisfies(notification -> {
+            assertThat(notification.recipientId()).isEqualTo(reminder.studentId());
+            assertThat(notification.message()).contains(reminder.expiresAt().toLocalDate().toString());
+        });
+        verify(schedulerRunRepository).recordSuccess(eq(CourseExpirationReminderScheduler.JOB_NAME), any());
+    }
+
+    @Test
+    @DisplayName("sendDueReminders — лист не відправився → записується спроба, вікно все одно зсувається")
+    void sendDueReminders_failedSend_recordsAttemptAndAdvances() {
+        DueReminder failing = reminder("broken@test.com");
+        DueReminder ok = reminder("bob@test.com");
+        when(schedulerRunRepository.findCoveredUntil(CourseExpirationReminderScheduler.JOB_NAME))
+                .thenReturn(Optional.empty());
+        when(enrollmentRepository.findDueExpirationReminders(any(), any(), any(), anyInt()))
+                .thenReturn(List.of(failing, ok));
+        doThrow(new MailSendException("smtp down")).when(emailService)
+                .sendCourseExpirationReminderEmail(eq("broken@test.com"), any(), any(), any());
+        when(enrollmentRepository.recordExpirationReminder(ok.enrollmentId(), ok.expiresAt())).thenReturn(true);
+        when(enrollmentRepository.recordFailedExpirationReminder(failing.enrollmentId(), failing.expiresAt()))
+                .thenReturn(1);
+
+        scheduler.sendDueReminders();
+
+        verify(enrollmentRepository, never()).recordExpirationReminder(eq(failing.enrollmentId()), any());
+        verify(enrollmentRepository).recordFailedExpirationReminder(failing.enrollmentId(), failing.expiresAt());
+        verify(enrollmentRepository).recordExpirationReminder(ok.enrollmentId(), ok.expiresAt());
+        verify(schedulerRunRepository).recordSuccess(eq(CourseExpirationReminderScheduler.JOB_NAME), any());
+    }
+
+    @Test
+    @DisplayName("sendDueReminders — повторює нагадування, що не відправились раніше, з обмеженням спроб")
+    void sendDueReminders_retriesEarlierFailures() {
+        DueReminder retried = reminder("alice@test.com");
+        when(schedulerRunRepository.findCoveredUntil(CourseExpirationReminderScheduler.JOB_NAME))
+                .thenReturn(Optional.empty());
+        when(enrollmentRepository.findRetriableExpirationReminders(any(), any(),
+                eq(CourseExpirationReminderScheduler.MAX_ATTEMPTS), anyInt()))
+                .thenReturn(List.of(retried));
+        when(enrollmentRepository.findDueExpirationReminders(any(), any(), any(), anyInt())).thenReturn(List.of());
+        when(enrollmentRepository.recordExpirationReminder(retried.enrollmentId(), retried.expiresAt()))
+                .thenReturn(true);
+
+        scheduler.sendDueReminders();
+
+        verify(emailService).sendCourseExpirationReminderEmail(eq("alice@test.com"), any(), any(), any());
+        verify(enrollmentRepository).recordExpirationReminder(retried.enrollmentId(), retried.expiresAt());
+    }
+
+    @Test
+    @DisplayName("sendDueReminders — сканує від межі останнього успішного запуску, а не лише один день")
+    void sendDueReminders_scansFromLastSuccessfulRun() {
+        OffsetDateTime coveredUntil = OffsetDateTime.now().plusDays(25);
+        when(schedulerRunRepository.findCoveredUntil(CourseExpirationReminderScheduler.JOB_NAME))
+                .thenReturn(Optional.of(coveredUntil));
+        when(enrollmentRepository.findDueExpirationReminders(any(), any(), any(), anyInt())).thenReturn(List.of());
+
+        scheduler.sendDueReminders();
+
+        verify(enrollmentRepository).findDueExpirationReminders(eq(coveredUntil), any(),
+                any(), eq(CourseExpirationReminderScheduler.BATCH_SIZE));
+        verifyNoInteractions(emailService, notificationService);
+        verify(schedulerRunRepository).recordSuccess(eq(CourseExpirationReminderScheduler.JOB_NAME), any());
+    }
+
+    @Test
+    @DisplayName("sendDueReminders — вже записане іншим запуском нагадування не дублює сповіщення")
+    void sendDueReminders_alreadyRecorded_noDuplicateNotification() {
+        DueReminder reminder = reminder("alice@test.com");
+        when(schedulerRunRepository.findCoveredUntil(CourseExpirationReminderScheduler.JOB_NAME))
+                .thenReturn(Optional.empty());
+        when(enrollmentRepository.findDueExpirationReminders(any(), any(), any(), anyInt()))
+                .thenReturn(List.of(reminder));
+        when(enrollmentRepository.recordExpirationReminder(reminder.enrollmentId(), reminder.expiresAt()))
+                .thenReturn(false);
+
+        scheduler.sendDueReminders();
+
+        verify(notificationService).createNotifications(List.of());
+    }
+
+    // ─────────────────────── helpers ───────────────────────
+
+    private DueReminder reminder(String email) {
+        return new DueReminder(UUID.randomUUID(), UUID.randomUUID(), email, "Іванка", "Java 101",
+                OffsetDateTime.now().plusDays(30));
+    }
+}
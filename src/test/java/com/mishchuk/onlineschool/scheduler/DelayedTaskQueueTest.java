@@ -0,0 +1,149 @@
+package com.mishchuk.onlineschool.scheduler;
+
+import com.mishchuk.onlineschool.repository.DelayedTaskRepository;
+import com.mishchuk.onlineschool.repository.DelayedTaskRepository.ClaimedTask;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DelayedTaskQueueTest {
+
+    private static final String TYPE = "TEST";
+
+    @Mock private DelayedTaskRepository delayedTaskRepository;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private final List<List<UUID>> handled = new ArrayList<>();
+    private RuntimeException failure;
+    private UUID badSubject;
+    private DelayedTaskQueue queue;
+
+    @BeforeEach
+    void setUp() {
+        DelayedTaskHandler handler = new DelayedTaskHandler() {
+            @Override
+            public String type() {
+                return TYPE;
+            }
+
+            @Override
+            public void handle(List<UUID> subjectIds) {
+                handled.add(subjectIds);
+                if (failure != null || subjectIds.contains(badSubject)) {
+                    throw failure != null ? failure : new IllegalStateException("bad subject");
+                }
+            }
+        };
+        queue = new DelayedTaskQueue(delayedTaskRepository, List.of(handler), transactionManager, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        queue.shutdown();
+    }
+
+    // ─────────────────────── drain ───────────────────────
+
+    @Test
+    @DisplayName("drain — передає суб'єкти обробнику і завершує задачі з тією ж орендою")
+    void drain_handlesAndCompletesTasks() {
+        ClaimedTask task = new ClaimedTask(UUID.randomUUID(), TYPE, UUID.randomUUID(), 1);
+        when(delayedTaskRepository.claimDue(any(), any(), eq(DelayedTaskQueue.BATCH_SIZE))).thenReturn(List.of(task));
+        when(delayedTaskRepository.findNextDueAt()).thenReturn(Optional.empty());
+
+        queue.drain();
+
+        assertThat(handled).containsExactly(List.of(task.subjectId()));
+        ArgumentCaptor<OffsetDateTime> lease = ArgumentCaptor.forClass(OffsetDateTime.class);
+        verify(delayedTaskRepository).claimDue(any(), lease.capture(), anyInt());
+        verify(delayedTaskRepository).complete(List.of(task.id()), lease.getValue());
+    }
+
+    @Test
+    @DisplayName("drain — помилка обробника залишає задачі до кінця оренди для повтору")
+    void drain_handlerFails_tasksKept() {
+        failure = new IllegalStateException("boom");
+        ClaimedTask task = new ClaimedTask(UUID.randomUUID(), TYPE, UUID.randomUUID(), 1);
+        when(delayedTaskRepository.claimDue(any(), any(), anyInt())).thenReturn(List.of(task));
+        when(delayedTaskRepository.findNextDueAt()).thenReturn(Optional.empty());
+
+        queue.drain();
+
+        assertThat(handled).hasSize(1);
+        verify(delayedTaskRepository, never()).complete(any(), any());
+    }
+
+    @Test
+    @DisplayName("drain — партія з одним збійним суб'єктом → решта завершується поодинці, збійна лишається")
+    void drain_batchWithBadSubject_completesOthersOneByOne() {
+        ClaimedTask first = new ClaimedTask(UUID.randomUUID(), TYPE, UUID.randomUUID(), 1);
+        ClaimedTask bad = new ClaimedTask(UUID.randomUUID(), TYPE, UUID.randomUUID(), 1);
+        ClaimedTask last = new ClaimedTask(UUID.randomUUID(), TYPE, UUID.randomUUID(), 1);
+        badSubject = bad.subjectId();
+        when(delayedTaskRepository.claimDue(any(), any(), anyInt())).thenReturn(List.of(first, bad, last));
+        when(delayedTaskRepository.findNextDueAt()).thenReturn(Optional.empty());
+
+        queue.drain();
+
+        assertThat(handled).containsExactly(
+                List.of(first.subjectId(), bad.subjectId(), last.subjectId()),
+                List.of(first.subjectId()),
+                List.of(bad.subjectId()),
+                List.of(last.subjectId()));
+        verify(delayedTaskRepository).complete(eq(List.of(first.id())), any());
+        verify(delayedTaskRepository).complete(eq(List.of(last.id())), any());
+        verify(delayedTaskRepository, never()).complete(eq(List.of(bad.id())), any());
+        verify(delayedTaskRepository, times(2)).complete(any(), any());
+    }
+
+    @Test
+    @DisplayName("drain — задачі з вичерпаними спробами або невідомого типу відкидаються без обробника")
+    void drain_exhaustedOrUnknown_dropped() {
+        ClaimedTask exhausted = new ClaimedTask(UUID.randomUUID(), TYPE, UUID.randomUUID(),
+                DelayedTaskQueue.MAX_ATTEMPTS + 1);
+        ClaimedTask unknown = new ClaimedTask(UUID.randomUUID(), "UNKNOWN", UUID.randomUUID(), 1);
+        when(delayedTaskRepository.claimDue(any(), any(), anyInt())).thenReturn(List.of(exhausted, unknown));
+        when(delayedTaskRepository.findNextDueAt()).thenReturn(Optional.empty());
+
+        queue.drain();
+
+        assertThat(handled).isEmpty();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<UUID>> ids = ArgumentCaptor.forClass(Collection.class);
+        verify(delayedTaskRepository).complete(ids.capture(), any());
+        assertThat(ids.getValue()).containsExactly(exhausted.id(), unknown.id());
+    }
+
+    @Test
+    @DisplayName("drain — повна партія → забирає наступну, доки черга не спорожніє")
+    void drain_fullBatch_claimsAgain() {
+        List<ClaimedTask> full = new ArrayList<>();
+        for (int i = 0; i < DelayedTaskQueue.BATCH_SIZE; i++) {
+            full.add(new ClaimedTask(UUID.randomUUID(), TYPE, UUID.randomUUID(), 1));
+        }
+        when(delayedTaskRepository.claimDue(any(), any(), anyInt())).thenReturn(full, List.of());
+        when(delayedTaskRepository.findNextDueAt()).thenReturn(Optional.empty());
+
+        queue.drain();
+
+        verify(delayedTaskRepository, times(2)).claimDue(any(), any(), anyInt());
+        assertThat(handled).hasSize(1);
+    }
+}
@@ -0,0 +1,67 @@
+package com.mishchuk.onlineschool.security;
+
+import com.mishchuk.onlineschool.repository.entity.PersonEntity;
+import com.mishchuk.onlineschool.repository.entity.PersonRole;
+import com.mishchuk.onlineschool.repository.entity.PersonStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtUtilsTest {
+
+    private JwtUtils jwtUtils;
+
+    @BeforeEach
+    void setUp() {
+        jwtUtils = new JwtUtils();
+        ReflectionTestUtils.setField(jwtUtils, "secretKey", "dGVzdC1zZWNyZXQta2V5LWZvci11bml0LXRlc3RzLW9ubHk=");
+        ReflectionTestUtils.setField(jwtUtils, "jwtExpiration", 900000L);
+        ReflectionTestUtils.setField(jwtUtils, "refreshTokenExpiration", 604800000L);
+    }
+
+    @Test
+    @DisplayName("generateToken — claims особи відновлюються з токена без звернення до БД")
+    void generateToken_personPrincipal_roundTripsClaims() {
+        PersonEntity person = new PersonEntity();
+        person.setId(UUID.randomUUID());
+        person.setEmail("admin@test.com");
+        person.setRole(PersonRole.ADMIN);
+        person.setStatus(PersonStatus.ACTIVE);
+        person.setTokenVersion(3);
+
+        String token = jwtUtils.generateToken(PersonPrincipal.from(person));
+        PersonPrincipal principal = jwtUtils.extractPrincipal(token);
+
+        assertThat(principal).isNotNull();
+        assertThat(principal.getId()).isEqualTo(person.getId());
+        assertThat(principal.getUsername()).isEqualTo("admin@test.com");
+        assertThat(principal.getRole()).isEqualTo(PersonRole.ADMIN);
+        assertThat(principal.getStatus()).isEqualTo(PersonStatus.ACTIVE);
+        assertThat(principal.getTokenVersion()).isEqualTo(3);
+        assertThat(principal.getAuthorities()).extracting("authority").containsExactly("ROLE_ADMIN");
+    }
+
+    @Test
+    @DisplayName("extractPrincipal — токен без claims особи повертає null (fallback на БД)")
+    void extractPrincipal_legacyToken_returnsNull() {
+        String token = jwtUtils.generateToken(
+                User.withUsername("user@test.com").password("x").roles("USER").build());
+
+        assertThat(jwtUtils.extractPrincipal(token)).isNull();
+        assertThat(jwtUtils.extractUsername(token)).isEqualTo("user@test.com");
+    }
+
+    @Test
+    @DisplayName("extractPrincipal — refresh-токен не приймається як access-токен")
+    void extractPrincipal_refreshToken_returnsNull() {
+        String token = jwtUtils.generateRefreshToken(UUID.randomUUID());
+
+        assertThat(jwtUtils.extractPrincipal(token)).isNull();
+    }
+}
@@ -1,14 +1,10 @@
 package com.mishchuk.onlineschool.service;
 
 import com.mishchuk.onlineschool.controller.dto.PersonDto;
-import com.mishchuk.onlineschool.repository.CourseRepository;
-import com.mishchuk.onlineschool.repository.LessonRepository;
-import com.mishchuk.onlineschool.repository.ModuleRepository;
-import com.mishchuk.onlineschool.repository.PersonRepository;
 import com.mishchuk.onlineschool.repository.entity.RefreshTokenEntity;
+import com.mishchuk.onlineschool.scheduler.DelayedTaskQueue;
 import com.mishchuk.onlineschool.scheduler.DemoCleanupScheduler;
 import com.mishchuk.onlineschool.security.CustomUserDetailsService;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,7 +13,6 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.security.authentication.AuthenticationManager;
-import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.OffsetDateTime;
 import java.util.Optional;
@@ -42,24 +37,13 @@ class AuthServiceImplTest {
     @Mock private RefreshTokenService refreshTokenService;
     @Mock private EmailService emailService;
     @Mock private NotificationService notificationService;
-
-    @Mock private PersonRepository personRepository;
-    @Mock private CourseRepository courseRepository;
-    @Mock private ModuleRepository moduleRepository;
-    @Mock private LessonRepository lessonRepository;
+    @Mock private DelayedTaskQueue delayedTaskQueue;
 
     @InjectMocks
     private AuthServiceImpl authService;
 
     private final UUID personId = UUID.fromString("00000000-0000-0000-0000-000000000001");
 
-    @BeforeEach
-    void setUp() {
-        DemoCleanupScheduler scheduler = new DemoCleanupScheduler(
-                personRepository, courseRepository, moduleRepository, lessonRepository);
-        ReflectionTestUtils.setField(authService, "demoCleanupScheduler", scheduler);
-    }
-
     // ─────────────────────── logout ───────────────────────
 
     @Test
@@ -67,8 +51,7 @@ class AuthServiceImplTest {
     void logout_nullToken_doesNothing() {
         authService.logout(null);
 
-        verifyNoInteractions(refreshTokenService, personService,
-                personRepository, courseRepository, moduleRepository, lessonRepository);
+        verifyNoInteractions(refreshTokenService, personService, delayedTaskQueue);
     }
 
     @Test
@@ -86,40 +69,37 @@ class AuthServiceImplTest {
         verify(refreshTokenService).deleteByPersonId(uuidCaptor.capture());
         assertThat(uuidCaptor.getValue()).isEqualTo(personId);
 
-        verify(personRepository, never()).findById(any());
-        verifyNoInteractions(courseRepository, moduleRepository, lessonRepository);
+        verifyNoInteractions(delayedTaskQueue);
     }
 
     @Test
-    @DisplayName("logout — очищає дані FAKE_USER при виході (виклик cleanupDataForUser)")
+    @DisplayName("logout — ставить у чергу очищення даних FAKE_USER при виході")
     void logout_fakeUser_triggersCleanup() {
         RefreshTokenEntity tokenEntity = buildToken(personId, "fake.token");
         PersonDto fakeUserDto = buildPersonDto(personId, "FAKE_USER");
 
         when(refreshTokenService.findByToken("fake.token")).thenReturn(tokenEntity);
         when(personService.getPerson(personId)).thenReturn(Optional.of(fakeUserDto));
-        when(personRepository.findById(personId)).thenReturn(Optional.empty());
 
         authService.logout("fake.token");
 
         verify(refreshTokenService).deleteByPersonId(personId);
-        verify(personRepository).findById(personId);
+        verify(delayedTaskQueue).schedule(eq(DemoCleanupScheduler.TASK_TYPE), eq(personId), any(OffsetDateTime.class));
     }
 
     @Test
-    @DisplayName("logout — очищає дані FAKE_ADMIN при виході (виклик cleanupDataForUser)")
+    @DisplayName("logout — ставить у чергу очищення даних FAKE_ADMIN при виході")
     void logout_fakeAdmin_triggersCleanup() {
         RefreshTokenEntity tokenEntity = buildToken(personId, "fakeadmin.token");
         PersonDto fakeAdminDto = buildPersonDto(personId, "FAKE_ADMIN");
 
         when(refreshTokenService.findByToken("fakeadmin.token")).thenReturn(tokenEntity);
         when(personService.getPerson(personId)).thenReturn(Optional.of(fakeAdminDto));
-        when(personRepository.findById(personId)).thenReturn(Optional.empty());
 
         authService.logout("fakeadmin.token");
 
         verify(refreshTokenService).deleteByPersonId(personId);
-        verify(personRepository).findById(personId);
+        verify(delayedTaskQueue).schedule(eq(DemoCleanupScheduler.TASK_TYPE), eq(personId), any(OffsetDateTime.class));
     }
 
     @Test
@@ -133,7 +113,7 @@ class AuthServiceImplTest {
         authService.logout("orphan.token");
 
         verify(refreshTokenService).deleteByPersonId(personId);
-        verifyNoInteractions(personRepository, courseRepository, moduleRepository, lessonRepository);
+        verifyNoInteractions(delayedTaskQueue);
     }
 
     @Test
@@ -0,0 +1,164 @@
+package com.mishchuk.onlineschool.service;
+
+import com.mishchuk.onlineschool.controller.dto.CourseDto;
+import com.mishchuk.onlineschool.mapper.CourseMapper;
+import com.mishchuk.onlineschool.repository.CourseRepository;
+import com.mishchuk.onlineschool.repository.entity.CourseEntity;
+import com.mishchuk.onlineschool.repository.entity.CourseStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourseCatalogTest {
+
+    @Mock private CourseRepository courseRepository;
+    @Mock private CourseMapper courseMapper;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private DatabaseEvents databaseEvents;
+
+    private CourseCatalog courseCatalog;
+
+    @BeforeEach
+    void setUp() {
+        courseCatalog = new CourseCatalog(courseRepository, courseMapper, eventPublisher, databaseEvents);
+    }
+
+    // ─────────────────────── getPublishedCourses ───────────────────────
+
+    @Test
+    @DisplayName("getPublishedCourses — містить лише PUBLISHED курси і не звертається до БД повторно")
+    void getPublishedCourses_onlyPublished_builtOnce() {
+        CourseEntity published = course(CourseStatus.PUBLISHED, null);
+        CourseEntity draft = course(CourseStatus.DRAFT, null);
+        when(courseRepository.findAll()).thenReturn(List.of(published, draft));
+        when(courseMapper.toDto(published)).thenReturn(dto(published.getId(), "Published", null));
+
+        List<CourseDto> first = courseCatalog.getPublishedCourses();
+        List<CourseDto> second = courseCatalog.getPublishedCourses();
+
+        assertThat(first).extracting(CourseDto::name).containsExactly("Published");
+        assertThat(second).isSameAs(first);
+        verify(courseRepository, times(1)).findAll();
+        verify(courseMapper, never()).toDto(draft);
+    }
+
+    // ─────────────────────── onCatalogChanged ───────────────────────
+
+    @Test
+    @DisplayName("onCatalogChanged — оновлює змінений курс і прибирає знятий з публікації")
+    void onCatalogChanged_refreshesAndRemovesCourses() {
+        CourseEntity renamed = course(CourseStatus.PUBLISHED, null);
+        CourseEntity unpublished = course(CourseStatus.PUBLISHED, null);
+        when(courseRepository.findAll()).thenReturn(List.of(renamed, unpublished));
+        when(courseMapper.toDto(renamed)).thenReturn(dto(renamed.getId(), "Old name", null));
+        when(courseMapper.toDto(unpublished)).thenReturn(dto(unpublished.getId(), "Unpublished", null));
+        courseCatalog.getPublishedCourses();
+
+        CourseEntity renamedReloaded = course(CourseStatus.PUBLISHED, null);
+        renamedReloaded.setId(renamed.getId());
+        CourseEntity unpublishedReloaded = course(CourseStatus.DRAFT, null);
+        unpublishedReloaded.setId(unpublished.getId());
+        when(courseRepository.findById(renamed.getId())).thenReturn(Optional.of(renamedReloaded));
+        when(courseRepository.findById(unpublished.getId())).thenReturn(Optional.of(unpublishedReloaded));
+        when(courseMapper.toDto(renamedReloaded)).thenReturn(dto(renamed.getId(), "New name", null));
+
+        courseCatalog.onCatalogChanged(new CourseCatalog.CatalogChanged(
+                Set.of(renamed.getId(), unpublished.getId()), false));
+
+        assertThat(courseCatalog.getPublishedCourses()).extracting(CourseDto::name).containsExactly("New name");
+        verify(courseRepository, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("onCatalogChanged — перезавантажує курси, що посилаються на змінений як nextCourse")
+    void onCatalogChanged_refreshesDependentCourses() {
+        CourseEntity next = course(CourseStatus.PUBLISHED, null);
+        CourseEntity previous = course(CourseStatus.PUBLISHED, next);
+        when(courseRepository.findAll()).thenReturn(List.of(next, previous));
+        when(courseMapper.toDto(next)).thenReturn(dto(next.getId(), "Next", null));
+        when(courseMapper.toDto(previous)).thenReturn(dto(previous.getId(), "Previous", next.getId()));
+        courseCatalog.getPublishedCourses();
+
+        when(courseRepository.findById(next.getId())).thenReturn(Optional.of(next));
+        when(courseRepository.findById(previous.getId())).thenReturn(Optional.of(previous));
+
+        courseCatalog.onCatalogChanged(new CourseCatalog.CatalogChanged(Set.of(next.getId()), false));
+
+        verify(courseRepository).findById(previous.getId());
+    }
+
+    // ─────────────────────── courseChanged ───────────────────────
+
+    @Test
+    @DisplayName("courseChanged — ігнорує null та не публікує порожню подію")
+    void courseChanged_ignoresNullIds() {
+        courseCatalog.courseChanged((UUID) null);
+
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+        verify(databaseEvents, never()).publish(any(), any());
+    }
+
+    @Test
+    @DisplayName("courseChanged — сповіщає інші інстанси, власне повідомлення ігнорується")
+    void courseChanged_notifiesOtherInstances() {
+        UUID courseId = UUID.randomUUID();
+
+        courseCatalog.courseChanged(courseId);
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(databaseEvents).publish(eq(CourseCatalog.CHANNEL), payload.capture());
+        assertThat(payload.getValue()).endsWith(" " + courseId);
+        verify(eventPublisher).publishEvent(new CourseCatalog.CatalogChanged(Set.of(courseId), false));
+
+        courseCatalog.onRemoteChange(payload.getValue());
+
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    // ─────────────────────── onRemoteChange ───────────────────────
+
+    @Test
+    @DisplayName("onRemoteChange — зміна з іншого інстансу оновлює лише згадані курси")
+    void onRemoteChange_otherInstance_publishesLocalEvent() {
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+
+        courseCatalog.onRemoteChange("other-instance " + first + "," + second);
+        courseCatalog.onRemoteChange("other-instance *");
+
+        verify(eventPublisher).publishEvent(new CourseCatalog.CatalogChanged(Set.of(first, second), false));
+        verify(eventPublisher).publishEvent(new CourseCatalog.CatalogChanged(Set.of(), true));
+    }
+
+    private CourseEntity course(CourseStatus status, CourseEntity nextCourse) {
+        CourseEntity course = new CourseEntity();
+        course.setId(UUID.randomUUID());
+        course.setStatus(status);
+        course.setNextCourse(nextCourse);
+        return course;
+    }
+
+    private CourseDto dto(UUID id, String name, UUID nextCourseId) {
+        return new CourseDto(id, name, null, 0, 0, 0,
+                "PUBLISHED", null, null, null, null, null,
+                null, null, null, null, null, null,
+                null, nextCourseId, null, null, null, false,
+                null, null, null, null, null, null);
+    }
+}
@@ -1,22 +1,42 @@
 package com.mishchuk.onlineschool.service;
 
+import com.mishchuk.onlineschool.controller.dto.CourseCloneJobDto;
 import com.mishchuk.onlineschool.controller.dto.CourseCreateDto;
 import com.mishchuk.onlineschool.controller.dto.CourseDto;
+import com.mishchuk.onlineschool.controller.dto.CoursePageDto;
+import com.mishchuk.onlineschool.controller.dto.CoursePageRequest;
+import com.mishchuk.onlineschool.controller.dto.CourseTreeDto;
 import com.mishchuk.onlineschool.controller.dto.CourseUpdateDto;
+import com.mishchuk.onlineschool.controller.dto.FileDto;
 import com.mishchuk.onlineschool.exception.BadRequestException;
 import com.mishchuk.onlineschool.exception.ResourceNotFoundException;
 import com.mishchuk.onlineschool.mapper.CourseMapper;
+import com.mishchuk.onlineschool.mapper.FileMapper;
+import com.mishchuk.onlineschool.mapper.ModuleMapper;
+import com.mishchuk.onlineschool.repository.CourseCatalogQuery;
+import com.mishchuk.onlineschool.repository.CourseCoverDerivativeRepository;
+import com.mishchuk.onlineschool.repository.CourseCoverRepository;
 import com.mishchuk.onlineschool.repository.CourseRepository;
+import com.mishchuk.onlineschool.repository.CourseRepositoryCustom.CatalogRow;
 import com.mishchuk.onlineschool.repository.CourseReviewRequestRepository;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import com.mishchuk.onlineschool.repository.EnrollmentRepository;
+import com.mishchuk.onlineschool.repository.FileRepository;
+import com.mishchuk.onlineschool.repository.LessonRepository;
+import com.mishchuk.onlineschool.repository.ModuleRepository;
 import com.mishchuk.onlineschool.repository.PersonRepository;
+import com.mishchuk.onlineschool.repository.entity.CourseCoverEntity;
 import com.mishchuk.onlineschool.repository.entity.CourseEntity;
 import com.mishchuk.onlineschool.repository.entity.CourseStatus;
 import com.mishchuk.onlineschool.repository.entity.EnrollmentEntity;
+import com.mishchuk.onlineschool.repository.entity.FileEntity;
+import com.mishchuk.onlineschool.repository.entity.LessonEntity;
+import com.mishchuk.onlineschool.repository.entity.ModuleEntity;
 import com.mishchuk.onlineschool.repository.entity.NotificationType;
 import com.mishchuk.onlineschool.repository.entity.PersonEntity;
 import com.mishchuk.onlineschool.repository.entity.PersonRole;
+import com.mishchuk.onlineschool.security.CurrentPerson;
+import com.mishchuk.onlineschool.security.PersonPrincipal;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -32,6 +52,7 @@ import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
 import java.util.Collections;
@@ -48,11 +69,24 @@ import static org.mockito.Mockito.*;
 class CourseServiceImplTest {
 
     @Mock private CourseRepository courseRepository;
+    @Mock private CourseCoverRepository courseCoverRepository;
+    @Mock private CourseCoverDerivativeRepository courseCoverDerivativeRepository;
+    @Mock private CoverImagePipeline coverImagePipeline;
+    @Mock private CoverContentStore coverContentStore;
+    @Mock private CourseTreeCloner courseTreeCloner;
     @Mock private EnrollmentRepository enrollmentRepository;
+    @Mock private ModuleRepository moduleRepository;
+    @Mock private LessonRepository lessonRepository;
+    @Mock private FileRepository fileRepository;
     @Mock private CourseMapper courseMapper;
+    @Mock private ModuleMapper moduleMapper;
+    @Mock private FileMapper fileMapper;
     @Mock private NotificationService notificationService;
     @Mock private CourseReviewRequestRepository courseReviewRequestRepository;
     @Mock private EmailService emailService;
+    @Mock private EntitlementService entitlementService;
+    @Mock private EnrollmentExpiry enrollmentExpiry;
+    @Mock private CourseCounters courseCounters;
     @Mock private PersonRepository personRepository;
 
     @InjectMocks
@@ -62,6 +96,8 @@ class CourseServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(courseService, "currentPerson", new CurrentPerson(personRepository));
+        ReflectionTestUtils.setField(courseService, "courseCatalog", new CourseCatalog(courseRepository, courseMapper, event -> {}, mock(DatabaseEvents.class)));
         adminUser = new PersonEntity();
         adminUser.setId(UUID.fromString("00000000-0000-0000-0000-000000000001"));
         adminUser.setEmail("admin@test.com");
@@ -151,6 +187,97 @@ class CourseServiceImplTest {
         verifyNoInteractions(courseMapper);
     }
 
+    // ─────────────────────── getCourseTree ───────────────────────
+
+    @Test
+    @DisplayName("getCourseTree — адміністратор отримує модулі, уроки та файли фіксованою кількістю запитів")
+    void getCourseTree_admin_returnsFullTree() {
+        TreeFixture tree = treeFixture();
+        FileEntity file = new FileEntity();
+        file.setId(UUID.randomUUID());
+        file.setLesson(tree.lesson());
+        FileDto fileDto = FileDto.builder().id(file.getId()).build();
+        when(fileRepository.findTreeByCourseId(tree.course().getId())).thenReturn(List.of(file));
+        when(fileMapper.toDto(file)).thenReturn(fileDto);
+
+        CourseTreeDto result = courseService.getCourseTree(tree.course().getId()).orElseThrow();
+
+        assertThat(result.locked()).isFalse();
+        assertThat(result.modules()).hasSize(1);
+        CourseTreeDto.LessonNode lesson = result.modules().get(0).lessons().get(0);
+        assertThat(lesson.lesson().videoUrl()).isEqualTo("https://video/1");
+        assertThat(lesson.lesson().filesCount()).isEqualTo(1);
+        assertThat(lesson.files()).containsExactly(fileDto);
+        verifyNoInteractions(entitlementService);
+    }
+
+    @Test
+    @DisplayName("getCourseTree — без доступу уроки очищені, файли не завантажуються")
+    void getCourseTree_noAccess_scrubsLessons() {
+        PersonEntity student = personEntity("student@test.com", PersonRole.USER);
+        setSecurityContext("student@test.com");
+        when(personRepository.findByEmail("student@test.com")).thenReturn(Optional.of(student));
+        TreeFixture tree = treeFixture();
+        when(entitlementService.hasCourseAccess(student.getId(), tree.course())).thenReturn(false);
+
+        CourseTreeDto result = courseService.getCourseTree(tree.course().getId()).orElseThrow();
+
+        assertThat(result.locked()).isTrue();
+        CourseTreeDto.LessonNode lesson = result.modules().get(0).lessons().get(0);
+        assertThat(lesson.lesson().videoUrl()).isNull();
+        assertThat(lesson.lesson().filesCount()).isZero();
+        assertThat(lesson.lesson().createdBy()).isNull();
+        assertThat(lesson.files()).isEmpty();
+        verifyNoInteractions(fileRepository);
+    }
+
+    @Test
+    @DisplayName("getCourseTree — курс не існує → Optional.empty()")
+    void getCourseTree_notFound_returnsEmpty() {
+        UUID id = UUID.randomUUID();
+        when(courseRepository.findForListingByIdIn(List.of(id))).thenReturn(List.of());
+
+        assertThat(courseService.getCourseTree(id)).isEmpty();
+        verifyNoInteractions(moduleRepository, lessonRepository, fileRepository);
+    }
+
+    private TreeFixture treeFixture() {
+        CourseEntity course = new CourseEntity();
+        course.setId(UUID.randomUUID());
+        course.setName("Course");
+        ModuleEntity module = new ModuleEntity();
+        module.setId(UUID.randomUUID());
+        module.setName("Module");
+        module.setCourse(course);
+        LessonEntity lesson = new LessonEntity();
+        lesson.setId(UUID.randomUUID());
+        lesson.setName("Lesson");
+        lesson.setVideoUrl("https://video/1");
+        lesson.setModule(module);
+        lesson.setCreatedBy(adminUser);
+
+        when(courseRepository.findForListingByIdIn(List.of(course.getId()))).thenReturn(List.of(course));
+        when(moduleRepository.findTreeByCourseId(course.getId())).thenReturn(List.of(module));
+        when(lessonRepository.findTreeByCourseId(course.getId())).thenReturn(List.of(lesson));
+        return new TreeFixture(course, module, lesson);
+    }
+
+    private record TreeFixture(CourseEntity course, ModuleEntity module, LessonEntity lesson) {
+    }
+
+    // ─────────────────────── getCourseCoverImage ───────────────────────
+
+    @Test
+    @DisplayName("getCourseCoverImage — читає лише байти обкладинки, без графа курсу")
+    void getCourseCoverImage_readsOnlyBytes() {
+        UUID id = UUID.randomUUID();
+        byte[] bytes = {1, 2, 3};
+        when(coverContentStore.read(id)).thenReturn(Optional.of(bytes));
+
+        assertThat(courseService.getCourseCoverImage(id)).contains(bytes);
+        verifyNoInteractions(courseRepository);
+    }
+
     // ─────────────────────── getAllCourses ───────────────────────
 
     @Test
@@ -191,6 +318,24 @@ class CourseServiceImplTest {
         verify(courseMapper, never()).toDto(archived);
     }
 
+    @Test
+    @DisplayName("getAllCourses — роль з токена, користувач не завантажується з БД")
+    void getAllCourses_tokenPrincipal_noPersonLoad() {
+        var principal = new PersonPrincipal(UUID.randomUUID(), "user@test.com", null, PersonRole.USER, null, 0);
+        SecurityContextHolder.setContext(new SecurityContextImpl(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities())));
+        CourseEntity draft = courseOfStatus(CourseStatus.DRAFT);
+        CourseEntity published = courseOfStatus(CourseStatus.PUBLISHED);
+        when(courseRepository.findAll()).thenReturn(List.of(draft, published));
+        when(courseMapper.toDto(published)).thenReturn(buildCourseDto(published.getId()));
+
+        List<CourseDto> result = courseService.getAllCourses();
+
+        assertThat(result).hasSize(1);
+        verify(personRepository, never()).findById(any());
+        verify(personRepository, never()).findByEmail(any());
+    }
+
     @Test
     @DisplayName("getAllCourses — порожній репозиторій повертає порожній список")
     void getAllCourses_empty_returnsEmptyList() {
@@ -202,6 +347,124 @@ class CourseServiceImplTest {
         verifyNoInteractions(courseMapper);
     }
 
+    // ─────────────────────── getCoursePage ───────────────────────
+
+    @Test
+    @DisplayName("getCoursePage — зайвий рядок означає наступну сторінку, курсор веде від останнього елемента")
+    void getCoursePage_hasMore_returnsCursorAfterLastItem() {
+        CourseEntity first = courseOfStatus(CourseStatus.PUBLISHED);
+        CourseEntity second = courseOfStatus(CourseStatus.PUBLISHED);
+        when(courseRepository.findCatalogKeys(any())).thenReturn(List.of(
+                new CatalogRow(first.getId(), "100.00"),
+                new CatalogRow(second.getId(), "200.00"),
+                new CatalogRow(UUID.randomUUID(), "300.00")));
+        when(courseRepository.findForListingByIdIn(List.of(first.getId(), second.getId())))
+                .thenReturn(List.of(second, first));
+        CourseDto firstDto = buildCourseDto(first.getId());
+        CourseDto secondDto = buildCourseDto(second.getId());
+        when(courseMapper.toDto(first)).thenReturn(firstDto);
+        when(courseMapper.toDto(second)).thenReturn(secondDto);
+
+        CoursePageDto page = courseService.getCoursePage(pageRequest(null, "price", null, 2));
+
+        assertThat(page.items()).containsExactly(firstDto, secondDto);
+        assertThat(page.nextCursor()).isNotNull();
+
+        courseService.getCoursePage(pageRequest(null, "price", page.nextCursor(), 2));
+
+        ArgumentCaptor<CourseCatalogQuery> captor = ArgumentCaptor.forClass(CourseCatalogQuery.class);
+        verify(courseRepository, times(2)).findCatalogKeys(captor.capture());
+        CourseCatalogQuery next = captor.getAllValues().get(1);
+        assertThat(next.afterId()).isEqualTo(second.getId());
+        assertThat(next.afterKey()).isEqualTo("200.00");
+        assertThat(next.limit()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("getCoursePage — USER отримує лише PUBLISHED незалежно від фільтра статусу")
+    void getCoursePage_regularUser_forcedToPublished() {
+        PersonEntity regularUser = personEntity("user@test.com", PersonRole.USER);
+        setSecurityContext("user@test.com");
+        when(personRepository.findByEmail("user@test.com")).thenReturn(Optional.of(regularUser));
+        when(courseRepository.findCatalogKeys(any())).thenReturn(List.of());
+
+        CoursePageDto page = courseService.getCoursePage(pageRequest(CourseStatus.DRAFT, null, null, null));
+
+        assertThat(page.items()).isEmpty();
+        assertThat(page.nextCursor()).isNull();
+        ArgumentCaptor<CourseCatalogQuery> captor = ArgumentCaptor.forClass(CourseCatalogQuery.class);
+        verify(courseRepository).findCatalogKeys(captor.capture());
+        assertThat(captor.getValue().status()).isEqualTo(CourseStatus.PUBLISHED);
+        assertThat(captor.getValue().sort()).isEqualTo(CourseCatalogQuery.Sort.CREATED);
+        assertThat(captor.getValue().descending()).isTrue();
+        assertThat(captor.getValue().limit()).isEqualTo(CourseServiceImpl.DEFAULT_PAGE_SIZE + 1);
+    }
+
+    @Test
+    @DisplayName("getCoursePage — курсор іншого сортування або пошкоджений курсор → BadRequestException")
+    void getCoursePage_foreignOrBrokenCursor_throws() {
+        String nameCursor = new CourseCatalogCursor(CourseCatalogQuery.Sort.NAME, false, "abc", UUID.randomUUID()).encode();
+
+        assertThatThrownBy(() -> courseService.getCoursePage(pageRequest(null, "price", nameCursor, null)))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> courseService.getCoursePage(pageRequest(null, "price", "not-a-cursor", null)))
+                .isInstanceOf(BadRequestException.class);
+        assertThatThrownBy(() -> courseService.getCoursePage(pageRequest(null, "rating", null, null)))
+                .isInstanceOf(BadRequestException.class);
+        verify(courseRepository, never()).findCatalogKeys(any());
+    }
+
+    // ─────────────────────── getAllCoursesWithEnrollment ───────────────────────
+
+    @Test
+    @DisplayName("getAllCoursesWithEnrollment — накладає зарахування користувача на курси каталогу і чернетки")
+    void getAllCoursesWithEnrollment_overlaysEnrollments() {
+        UUID userId = UUID.randomUUID();
+        CourseEntity published = courseOfStatus(CourseStatus.PUBLISHED);
+        CourseEntity other = courseOfStatus(CourseStatus.PUBLISHED);
+        CourseEntity draft = courseOfStatus(CourseStatus.DRAFT);
+        CourseDto publishedDto = buildCourseDto(published.getId());
+        CourseDto otherDto = buildCourseDto(other.getId());
+        CourseDto draftDto = buildCourseDto(draft.getId());
+        CourseDto enrolledDto = buildCourseDto(published.getId());
+
+        EnrollmentEntity enrollment = new EnrollmentEntity();
+        enrollment.setCourse(published);
+        enrollment.setStatus("ACTIVE");
+
+        when(enrollmentRepository.findByStudentId(userId)).thenReturn(List.of(enrollment));
+        when(courseRepository.findAll()).thenReturn(List.of(published, other, draft));
+        when(courseRepository.findByStatusNot(CourseStatus.PUBLISHED)).thenReturn(List.of(draft));
+        when(courseMapper.toDto(published)).thenReturn(publishedDto);
+        when(courseMapper.toDto(other)).thenReturn(otherDto);
+        when(courseMapper.toDto(draft)).thenReturn(draftDto);
+        when(courseMapper.withEnrollment(publishedDto, enrollment)).thenReturn(enrolledDto);
+
+        List<CourseDto> result = courseService.getAllCoursesWithEnrollment(userId);
+
+        assertThat(result).containsExactlyInAnyOrder(enrolledDto, otherDto, draftDto);
+        verify(courseMapper, times(1)).withEnrollment(any(), any());
+        verify(enrollmentRepository, times(1)).findByStudentId(userId);
+    }
+
+    @Test
+    @DisplayName("getAllCoursesWithEnrollment — без зарахувань повертає курси без змін")
+    void getAllCoursesWithEnrollment_noEnrollments_returnsCatalog() {
+        UUID userId = UUID.randomUUID();
+        CourseEntity published = courseOfStatus(CourseStatus.PUBLISHED);
+        CourseDto publishedDto = buildCourseDto(published.getId());
+
+        when(enrollmentRepository.findByStudentId(userId)).thenReturn(Collections.emptyList());
+        when(courseRepository.findAll()).thenReturn(List.of(published));
+        when(courseRepository.findByStatusNot(CourseStatus.PUBLISHED)).thenReturn(Collections.emptyList());
+        when(courseMapper.toDto(published)).thenReturn(publishedDto);
+
+        List<CourseDto> result = courseService.getAllCoursesWithEnrollment(userId);
+
+        assertThat(result).containsExactly(publishedDto);
+        verify(courseMapper, never()).withEnrollment(any(), any());
+    }
+
     // ─────────────────────── deleteCourse ───────────────────────
 
     @Test
@@ -231,6 +494,24 @@ class CourseServiceImplTest {
         verify(courseRepository).delete(entity);
     }
 
+    @Test
+    @DisplayName("deleteCourse — об'єкт обкладинки звільняється після коміту")
+    void deleteCourse_releasesCoverObject() {
+        UUID id = UUID.randomUUID();
+        CourseEntity entity = new CourseEntity();
+        entity.setId(id);
+        CourseCoverEntity cover = new CourseCoverEntity();
+        cover.setStorageKey("covers/abc");
+        entity.setCoverImage(cover);
+
+        when(courseRepository.findById(id)).thenReturn(Optional.of(entity));
+
+        courseService.deleteCourse(id);
+
+        verify(coverContentStore).releaseAfterCommit("covers/abc");
+        verify(courseRepository).delete(entity);
+    }
+
     @Test
     @DisplayName("deleteCourse — FAKE_ADMIN може видаляти лише свій курс")
     void deleteCourse_fakeAdmin_ownCourse_succeeds() {
@@ -397,6 +678,27 @@ class CourseServiceImplTest {
         assertThat(cloned.getCreatedBy()).isEqualTo(adminUser);
     }
 
+    @Test
+    @DisplayName("cloneCourse — вміст курсу копіюється фоновим завданням, а не каскадом збереження")
+    void cloneCourse_schedulesContentCopy() {
+        UUID id = UUID.randomUUID();
+        CourseEntity original = new CourseEntity();
+        original.setId(id);
+        original.setName("Тест");
+        original.setModules(List.of(new ModuleEntity()));
+        CourseCloneJobDto job = new CourseCloneJobDto(UUID.randomUUID(), id, UUID.randomUUID(),
+                CourseCloneJobDto.Status.PENDING, 0, 0, 0, null, null, null);
+
+        when(courseRepository.findById(id)).thenReturn(Optional.of(original));
+        when(courseTreeCloner.schedule(eq(id), any(), eq(adminUser.getId()))).thenReturn(job);
+
+        assertThat(courseService.cloneCourse(id)).isEqualTo(job);
+
+        ArgumentCaptor<CourseEntity> captor = ArgumentCaptor.forClass(CourseEntity.class);
+        verify(courseRepository).save(captor.capture());
+        assertThat(captor.getValue().getModules()).isNullOrEmpty();
+    }
+
     @Test
     @DisplayName("cloneCourse — версія 1.0 → клон отримує 2.0")
     void cloneCourse_version1_becomes2() {
@@ -525,16 +827,23 @@ class CourseServiceImplTest {
         return new CourseDto(id, "Test", null, 0, 0, 0,
                 null, null, null, null, null, null,
                 null, null, null, null, null, null,
-                null, null, null, null, null, null, null);
+                null, null, null, null, null, null,
+                null, null, null, null, null, null);
     }
 
     private CourseCreateDto buildCreateDto(BigDecimal price, Integer discountPct, BigDecimal discountAmt) {
         return new CourseCreateDto("Тест курс", "Опис", price, null, null, null,
-                discountPct, discountAmt, null, null);
+                discountPct, discountAmt, null, null,
+                null, null, null, null, null);
     }
 
     private CourseUpdateDto buildUpdateDto(Integer discountPct, BigDecimal discountAmt) {
         return new CourseUpdateDto("Назва", "Опис", BigDecimal.valueOf(100), null,
-                null, null, null, discountPct, discountAmt, null, null, null);
+                null, null, null, discountPct, discountAmt, null, null, null,
+                null, null, null, null, null);
+    }
+
+    private static CoursePageRequest pageRequest(CourseStatus status, String sort, String cursor, Integer size) {
+        return new CoursePageRequest(status, null, null, null, null, sort, null, cursor, size);
     }
 }
@@ -0,0 +1,99 @@
+package com.mishchuk.onlineschool.service;
+
+import com.mishchuk.onlineschool.controller.dto.CourseCloneJobDto;
+import com.mishchuk.onlineschool.repository.CourseCloneJobRepository;
+import com.mishchuk.onlineschool.repository.entity.CourseCloneJobEntity;
+import com.mishchuk.onlineschool.repository.entity.CourseCloneJobStatus;
+import com.mishchuk.onlineschool.scheduler.DelayedTaskQueue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.OffsetDateTime;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CourseTreeClonerTest {
+
+    @Mock private CourseCloneJobRepository courseCloneJobRepository;
+    @Mock private DelayedTaskQueue delayedTaskQueue;
+
+    @InjectMocks private CourseTreeCloner cloner;
+
+    private UUID sourceId;
+    private UUID targetId;
+    private UUID adminId;
+
+    @BeforeEach
+    void setUp() {
+        sourceId = UUID.randomUUID();
+        targetId = UUID.randomUUID();
+        adminId = UUID.randomUUID();
+    }
+
+    // ─────────────────────── schedule ───────────────────────
+
+    @Test
+    @DisplayName("schedule — зберігає завдання PENDING і ставить копіювання в чергу відкладених задач")
+    void schedule_persistsPendingJobAndQueuesTask() {
+        UUID jobId = UUID.randomUUID();
+        when(courseCloneJobRepository.save(any())).thenAnswer(invocation -> {
+            CourseCloneJobEntity job = invocation.getArgument(0);
+            job.setId(jobId);
+            return job;
+        });
+
+        CourseCloneJobDto job = cloner.schedule(sourceId, targetId, adminId);
+
+        assertThat(job.jobId()).isEqualTo(jobId);
+        assertThat(job.status()).isEqualTo(CourseCloneJobDto.Status.PENDING);
+        assertThat(job.sourceCourseId()).isEqualTo(sourceId);
+        assertThat(job.courseId()).isEqualTo(targetId);
+        verify(courseCloneJobRepository).deleteFinishedBefore(any());
+        verify(delayedTaskQueue).schedule(eq(CourseTreeCloner.TASK_TYPE), eq(jobId), any());
+    }
+
+    // ─────────────────────── find ───────────────────────
+
+    @Test
+    @DisplayName("find — читає стан завдання з таблиці, тож відповідає будь-який інстанс")
+    void find_readsPersistedJob() {
+        CourseCloneJobEntity stored = new CourseCloneJobEntity();
+        stored.setId(UUID.randomUUID());
+        stored.setSourceCourseId(sourceId);
+        stored.setCourseId(targetId);
+        stored.setStatus(CourseCloneJobStatus.COMPLETED);
+        stored.setModulesCopied(2);
+        stored.setLessonsCopied(40);
+        stored.setFilesCopied(7);
+        stored.setFinishedAt(OffsetDateTime.now());
+        when(courseCloneJobRepository.findById(stored.getId())).thenReturn(Optional.of(stored));
+
+        CourseCloneJobDto job = cloner.find(stored.getId()).orElseThrow();
+
+        assertThat(job.status()).isEqualTo(CourseCloneJobDto.Status.COMPLETED);
+        assertThat(job.modulesCopied()).isEqualTo(2);
+        assertThat(job.lessonsCopied()).isEqualTo(40);
+        assertThat(job.filesCopied()).isEqualTo(7);
+        assertThat(job.finishedAt()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("find — невідоме завдання → empty")
+    void find_unknown_returnsEmpty() {
+        UUID jobId = UUID.randomUUID();
+        when(courseCloneJobRepository.findById(jobId)).thenReturn(Optional.empty());
+
+        assertThat(cloner.find(jobId)).isEmpty();
+    }
+}
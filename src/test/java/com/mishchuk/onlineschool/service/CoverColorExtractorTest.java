@@ -0,0 +1,103 @@
+package com.mishchuk.onlineschool.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CoverColorExtractorTest {
+
+    private final CoverColorExtractor extractor = new CoverColorExtractor();
+
+    // ─────────────────────── averageColor(BufferedImage) ───────────────────────
+
+    @ParameterizedTest
+    @ValueSource(ints = {
+            BufferedImage.TYPE_INT_RGB,
+            BufferedImage.TYPE_INT_ARGB,
+            BufferedImage.TYPE_INT_BGR,
+            BufferedImage.TYPE_3BYTE_BGR,
+            BufferedImage.TYPE_4BYTE_ABGR,
+            BufferedImage.TYPE_BYTE_GRAY,
+            BufferedImage.TYPE_USHORT_565_RGB
+    })
+    @DisplayName("averageColor — читання растра збігається з попіксельним getRGB для різних типів зображень")
+    void averageColor_matchesPerPixelReference(int type) {
+        BufferedImage image = noise(97, 61, type);
+
+        assertThat(extractor.averageColor(image)).isEqualTo(perPixelAverage(image));
+    }
+
+    @Test
+    @DisplayName("averageColor — підзображення (subimage) обробляється коректно")
+    void averageColor_subimage() {
+        BufferedImage image = noise(200, 100, BufferedImage.TYPE_INT_RGB);
+        BufferedImage part = image.getSubimage(10, 10, 50, 40);
+
+        assertThat(extractor.averageColor(part)).isEqualTo(perPixelAverage(part));
+    }
+
+    // ─────────────────────── averageColor(byte[]) ───────────────────────
+
+    @Test
+    @DisplayName("averageColor(byte[]) — великий суцільний кадр декодується з проріджуванням")
+    void averageColor_encoded_subsampled() throws IOException {
+        byte[] png = solidPng(4000, 2000, new Color(10, 120, 250));
+
+        assertThat(extractor.averageColor(png)).contains("#0a78fa");
+        assertThat(extractor.decodeSubsampled(png, CoverColorExtractor.COLOR_SAMPLE_WIDTH).getWidth())
+                .isBetween(CoverColorExtractor.COLOR_SAMPLE_WIDTH, 2 * CoverColorExtractor.COLOR_SAMPLE_WIDTH);
+    }
+
+    @Test
+    @DisplayName("averageColor(byte[]) — нерозпізнані байти → порожній результат")
+    void averageColor_encoded_unsupported() throws IOException {
+        assertThat(extractor.averageColor(new byte[]{1, 2, 3})).isEmpty();
+    }
+
+    private static BufferedImage noise(int width, int height, int type) {
+        BufferedImage image = new BufferedImage(width, height, type);
+        Random random = new Random(42);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                image.setRGB(x, y, 0xFF000000 | random.nextInt(0x1000000));
+            }
+        }
+        return image;
+    }
+
+    private static String perPixelAverage(BufferedImage image) {
+        long r = 0, g = 0, b = 0;
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int pixel = image.getRGB(x, y);
+                r += (pixel >> 16) & 0xFF;
+                g += (pixel >> 8) & 0xFF;
+                b += pixel & 0xFF;
+            }
+        }
+        long pixels = (long) image.getWidth() * image.getHeight();
+        return String.format("#%02x%02x%02x", r / pixels, g / pixels, b / pixels);
+    }
+
+    private static byte[] solidPng(int width, int height, Color color) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(color);
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,113 @@
+package com.mishchuk.onlineschool.service;
+
+import com.mishchuk.onlineschool.repository.CourseCoverRepository;
+import com.mishchuk.onlineschool.repository.entity.CourseCoverEntity;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CoverContentStoreTest {
+
+    @Mock private CourseCoverRepository courseCoverRepository;
+    @Mock private CoverObjectStorage objectStorage;
+
+    // ─────────────────────── write ───────────────────────
+
+    @Test
+    @DisplayName("write — з об'єктним сховищем у рядку лишаються тільки ключ, хеш і розмір")
+    void write_objectStorage_keepsOnlyKey() throws IOException {
+        CoverContentStore store = new CoverContentStore(courseCoverRepository, Optional.of(objectStorage));
+        CourseCoverEntity cover = cover("abc");
+        byte[] data = {1, 2, 3};
+
+        store.write(cover, data);
+
+        verify(objectStorage).put("covers/abc", data, "image/png");
+        assertThat(cover.getStorageKey()).isEqualTo("covers/abc");
+        assertThat(cover.getImageData()).isNull();
+        assertThat(cover.getSizeBytes()).isEqualTo(3L);
+    }
+
+    @Test
+    @DisplayName("write — без об'єктного сховища байти зберігаються в БД")
+    void write_database_keepsBytes() throws IOException {
+        CoverContentStore store = new CoverContentStore(courseCoverRepository, Optional.empty());
+        CourseCoverEntity cover = cover("abc");
+        byte[] data = {1, 2, 3};
+
+        store.write(cover, data);
+
+        assertThat(cover.getStorageKey()).isNull();
+        assertThat(cover.getImageData()).isEqualTo(data);
+        assertThat(cover.getSizeBytes()).isEqualTo(3L);
+    }
+
+    // ─────────────────────── read ───────────────────────
+
+    @Test
+    @DisplayName("read — ключ задано → байти читаються зі сховища, не з БД")
+    void read_storageKey_readsObject() throws IOException {
+        CoverContentStore store = new CoverContentStore(courseCoverRepository, Optional.of(objectStorage));
+        UUID courseId = UUID.randomUUID();
+        CourseCoverRepository.CoverMetadata metadata = mock(CourseCoverRepository.CoverMetadata.class);
+        when(metadata.getStorageKey()).thenReturn("covers/abc");
+        when(objectStorage.get("covers/abc")).thenReturn(new byte[]{7});
+
+        assertThat(store.read(courseId, metadata)).contains(new byte[]{7});
+        verify(courseCoverRepository, never()).findImageDataByCourseId(any());
+    }
+
+    @Test
+    @DisplayName("read — ще не перенесена обкладинка читається з БД")
+    void read_notMigrated_readsDatabase() {
+        CoverContentStore store = new CoverContentStore(courseCoverRepository, Optional.of(objectStorage));
+        UUID courseId = UUID.randomUUID();
+        CourseCoverRepository.CoverMetadata metadata = mock(CourseCoverRepository.CoverMetadata.class);
+        when(courseCoverRepository.findImageDataByCourseId(courseId)).thenReturn(Optional.of(new byte[]{5}));
+
+        assertThat(store.read(courseId, metadata)).contains(new byte[]{5});
+        verifyNoInteractions(objectStorage);
+    }
+
+    // ─────────────────────── releaseAfterCommit ───────────────────────
+
+    @Test
+    @DisplayName("releaseAfterCommit — об'єкт, на який ще посилається клон, не видаляється")
+    void release_stillReferenced_keepsObject() throws IOException {
+        CoverContentStore store = new CoverContentStore(courseCoverRepository, Optional.of(objectStorage));
+        when(courseCoverRepository.existsByStorageKey("covers/abc")).thenReturn(true);
+
+        store.releaseAfterCommit("covers/abc");
+
+        verify(objectStorage, never()).delete(any());
+    }
+
+    @Test
+    @DisplayName("releaseAfterCommit — останнє посилання зникло → об'єкт видаляється")
+    void release_unreferenced_deletesObject() throws IOException {
+        CoverContentStore store = new CoverContentStore(courseCoverRepository, Optional.of(objectStorage));
+        when(courseCoverRepository.existsByStorageKey("covers/abc")).thenReturn(false);
+
+        store.releaseAfterCommit("covers/abc");
+
+        verify(objectStorage).delete("covers/abc");
+    }
+
+    private static CourseCoverEntity cover(String hash) {
+        CourseCoverEntity cover = new CourseCoverEntity();
+        cover.setContentHash(hash);
+        cover.setContentType("image/png");
+        return cover;
+    }
+}
@@ -0,0 +1,141 @@
+package com.mishchuk.onlineschool.service;
+
+import com.mishchuk.onlineschool.repository.CourseCoverDerivativeRepository;
+import com.mishchuk.onlineschool.repository.CourseCoverRepository;
+import com.mishchuk.onlineschool.repository.entity.CourseCoverDerivativeEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.imageio.ImageIO;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CoverImagePipelineTest {
+
+    @Mock private CourseCoverRepository courseCoverRepository;
+    @Mock private CourseCoverDerivativeRepository derivativeRepository;
+    @Mock private CourseCatalog courseCatalog;
+    @Mock private CoverContentStore coverContentStore;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private PlatformTransactionManager transactionManager;
+
+    private CoverImagePipeline pipeline;
+    private UUID courseId;
+
+    @BeforeEach
+    void setUp() {
+        pipeline = new CoverImagePipeline(courseCoverRepository, derivativeRepository, courseCatalog,
+                new CoverColorExtractor(), coverContentStore, eventPublisher, transactionManager);
+        courseId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void tearDown() {
+        pipeline.shutdown();
+    }
+
+    // ─────────────────────── derivativeWidthFor ───────────────────────
+
+    @Test
+    @DisplayName("derivativeWidthFor — обирає найменшу ширину, що не менша за запитану")
+    void derivativeWidthFor_snapsUp() {
+        assertThat(CoverImagePipeline.derivativeWidthFor(1)).contains(320);
+        assertThat(CoverImagePipeline.derivativeWidthFor(320)).contains(320);
+        assertThat(CoverImagePipeline.derivativeWidthFor(321)).contains(640);
+        assertThat(CoverImagePipeline.derivativeWidthFor(2000)).isEmpty();
+    }
+
+    // ─────────────────────── process ───────────────────────
+
+    @Test
+    @DisplayName("process — рендерить 320/640/1280 JPEG і рахує колір з найменшого")
+    void process_rendersAllWidthsAndAverageColor() throws IOException {
+        stubSource("hash", png(2000, 1000, new Color(128, 128, 128)));
+        when(courseCoverRepository.updateAverageColor(courseId, "hash", "#808080")).thenReturn(1);
+
+        pipeline.process(courseId);
+
+        ArgumentCaptor<CourseCoverDerivativeEntity> captor = ArgumentCaptor.forClass(CourseCoverDerivativeEntity.class);
+        verify(derivativeRepository).deleteByCourseId(courseId);
+        verify(derivativeRepository, times(3)).save(captor.capture());
+        assertThat(captor.getAllValues()).extracting(CourseCoverDerivativeEntity::getWidth)
+                .containsExactly(320, 640, 1280);
+        BufferedImage small = ImageIO.read(new ByteArrayInputStream(captor.getAllValues().get(0).getImageData()));
+        assertThat(small.getWidth()).isEqualTo(320);
+        assertThat(small.getHeight()).isEqualTo(160);
+        verify(courseCatalog).courseChanged(courseId);
+    }
+
+    @Test
+    @DisplayName("process — маленький оригінал отримує лише одну перекодовану копію")
+    void process_smallOriginal_singleDerivative() throws IOException {
+        stubSource("hash", png(200, 100, Color.BLUE));
+        when(courseCoverRepository.updateAverageColor(eq(courseId), eq("hash"), anyString())).thenReturn(1);
+
+        pipeline.process(courseId);
+
+        verify(derivativeRepository, times(1)).save(any());
+    }
+
+    @Test
+    @DisplayName("process — обкладинку замінили під час рендерингу → нічого не зберігається")
+    void process_coverReplaced_discardsResult() throws IOException {
+        stubSource("old-hash", png(800, 400, Color.RED));
+        when(courseCoverRepository.updateAverageColor(eq(courseId), eq("old-hash"), anyString())).thenReturn(0);
+
+        pipeline.process(courseId);
+
+        verify(derivativeRepository, never()).deleteByCourseId(any());
+        verify(derivativeRepository, never()).save(any());
+        verifyNoInteractions(courseCatalog);
+    }
+
+    @Test
+    @DisplayName("process — нерозпізнаний формат не ламає конвеєр")
+    void process_undecodableImage_skipped() {
+        stubSource("hash", new byte[]{1, 2, 3});
+
+        pipeline.process(courseId);
+
+        verify(courseCoverRepository, never()).updateAverageColor(any(), any(), any());
+        verifyNoInteractions(derivativeRepository);
+    }
+
+    private void stubSource(String hash, byte[] data) {
+        CourseCoverRepository.CoverMetadata metadata = mock(CourseCoverRepository.CoverMetadata.class);
+        when(metadata.getContentHash()).thenReturn(hash);
+        when(courseCoverRepository.findMetadataByCourseId(courseId)).thenReturn(Optional.of(metadata));
+        when(coverContentStore.read(courseId, metadata)).thenReturn(Optional.of(data));
+    }
+
+    private static byte[] png(int width, int height, Color color) throws IOException {
+        BufferedImage image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        g.setColor(color);
+        g.fillRect(0, 0, width, height);
+        g.dispose();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
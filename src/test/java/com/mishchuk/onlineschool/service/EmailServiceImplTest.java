@@ -12,6 +12,7 @@ import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
@@ -24,6 +25,7 @@ import java.time.LocalDate;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -231,6 +233,18 @@ class EmailServiceImplTest {
         verify(javaMailSender).send(any(jakarta.mail.internet.MimeMessage.class));
     }
 
+    @Test
+    @DisplayName("sendCourseExpirationReminderEmail — помилка відправки передається викликачу, щоб повторити пізніше")
+    void sendCourseExpirationReminderEmail_sendFails_throws() {
+        doThrow(new MailSendException("smtp down"))
+                .when(javaMailSender).send(any(jakarta.mail.internet.MimeMessage.class));
+
+        assertThatThrownBy(() ->
+                emailService.sendCourseExpirationReminderEmail(
+                        "user@test.com", "Іванка", "Java 101", LocalDate.of(2025, 12, 31)))
+                .isInstanceOf(MailSendException.class);
+    }
+
     @Test
     @DisplayName("sendCourseExpirationReminderEmail — не кидає виключень для минулої дати")
     void sendCourseExpirationReminderEmail_pastDate_doesNotThrow() {
@@ -42,6 +42,8 @@ class EnrollmentServiceImplTest {
     @Mock private EnrollmentMapper enrollmentMapper;
     @Mock private EmailService emailService;
     @Mock private NotificationService notificationService;
+    @Mock private EntitlementService entitlementService;
+    @Mock private EnrollmentExpiry enrollmentExpiry;
 
     @InjectMocks
     private EnrollmentServiceImpl enrollmentService;
@@ -155,6 +157,7 @@ class EnrollmentServiceImplTest {
         assertThat(expiresAt).isNotNull();
         // Перевіряємо точне значення з допуском 5 секунд
         assertThat(expiresAt).isCloseTo(before, byLessThan(5L, ChronoUnit.SECONDS));
+        verify(enrollmentExpiry).scheduleFor(entity);
     }
 
     @Test
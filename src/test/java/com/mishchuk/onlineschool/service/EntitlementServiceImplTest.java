@@ -0,0 +1,246 @@
+package com.mishchuk.onlineschool.service;
+
+import com.mishchuk.onlineschool.repository.EnrollmentRepository;
+import com.mishchuk.onlineschool.repository.entity.CourseEntity;
+import com.mishchuk.onlineschool.repository.entity.EnrollmentEntity;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.OffsetDateTime;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EntitlementServiceImplTest {
+
+    @Mock private EnrollmentRepository enrollmentRepository;
+    @Mock private DatabaseEvents databaseEvents;
+
+    @InjectMocks
+    private EntitlementServiceImpl entitlementService;
+
+    private UUID personId;
+    private CourseEntity course;
+
+    @BeforeEach
+    void setUp() {
+        // 5 хвилин — як у конфігурації за замовчуванням
+        ReflectionTestUtils.setField(entitlementService, "ttlMillis", 300000L);
+        personId = UUID.randomUUID();
+        course = new CourseEntity();
+        course.setId(UUID.randomUUID());
+    }
+
+    // ─────────────────────── hasCourseAccess ───────────────────────
+
+    @Test
+    @DisplayName("hasCourseAccess — активний Enrollment дає доступ")
+    void hasCourseAccess_activeEnrollment_true() {
+        when(enrollmentRepository.findByStudentIdAndCourseId(personId, course.getId()))
+                .thenReturn(Optional.of(enrollment("ACTIVE", OffsetDateTime.now().plusDays(10))));
+
+        assertThat(entitlementService.hasCourseAccess(personId, course)).isTrue();
+    }
+
+    @Test
+    @DisplayName("hasCourseAccess — BLOCKED або протермінований Enrollment не дає доступу")
+    void hasCourseAccess_blockedOrExpired_false() {
+        CourseEntity other = new CourseEntity();
+        other.setId(UUID.randomUUID());
+        when(enrollmentRepository.findByStudentIdAndCourseId(personId, course.getId()))
+                .thenReturn(Optional.of(enrollment("BLOCKED", null)));
+        when(enrollmentRepository.findByStudentIdAndCourseId(personId, other.getId()))
+                .thenReturn(Optional.of(enrollment("ACTIVE", OffsetDateTime.now().minusDays(1))));
+
+        assertThat(entitlementService.hasCourseAccess(personId, course)).isFalse();
+        assertThat(entitlementService.hasCourseAccess(personId, other)).isFalse();
+    }
+
+    @Test
+    @DisplayName("hasCourseAccess — строк визначає лише expiresAt; без нього доступ безстроковий")
+    void hasCourseAccess_onlyExpiresAtLimitsAccess() {
+        course.setAccessDuration(30);
+        EnrollmentEntity enrollment = enrollment("ACTIVE", null);
+        enrollment.setCreatedAt(OffsetDateTime.now().minusDays(31));
+        when(enrollmentRepository.findByStudentIdAndCourseId(personId, course.getId()))
+                .thenReturn(Optional.of(enrollment));
+
+        assertThat(entitlementService.hasCourseAccess(personId, course)).isTrue();
+    }
+
+    @Test
+    @DisplayName("hasCourseAccess — повторна перевірка не звертається до БД")
+    void hasCourseAccess_cached_singleQuery() {
+        when(enrollmentRepository.findByStudentIdAndCourseId(personId, course.getId()))
+                .thenReturn(Optional.empty());
+
+        assertThat(entitlementService.hasCourseAccess(personId, course)).isFalse();
+        assertThat(entitlementService.hasCourseAccess(personId, course)).isFalse();
+
+        verify(enrollmentRepository, times(1)).findByStudentIdAndCourseId(personId, course.getId());
+    }
+
+    // ─────────────────────── evict ───────────────────────
+
+    @Test
+    @DisplayName("evict — після інвалідації Enrollment читається заново")
+    void evict_reloadsEnrollment() {
+        when(enrollmentRepository.findByStudentIdAndCourseId(personId, course.getId()))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(enrollment("ACTIVE", null)));
+
+        assertThat(entitlementService.hasCourseAccess(personId, course)).isFalse();
+        entitlementService.evict(personId, course.getId());
+        assertThat(entitlementService.hasCourseAccess(personId, course)).isTrue();
+    }
+
+    @Test
+    @DisplayName("evict — у транзакції інвалідує запис ще раз після коміту, інші записи лишаються")
+    void evict_inTransaction_evictsAgainAfterCommit() {
+        CourseEntity other = new CourseEntity();
+        other.setId(UUID.randomUUID());
+        when(enrollmentRepository.findByStudentIdAndCourseId(eq(personId), any()))
+                .thenReturn(Optional.of(enrollment("ACTIVE", null)));
+        entitlementService.hasCourseAccess(personId, other);
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            entitlementService.evict(personId, course.getId());
+            // читач під час транзакції кешує стан до запису
+            entitlementService.hasCourseAccess(personId, course);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        entitlementService.hasCourseAccess(personId, course);
+        entitlementService.hasCourseAccess(personId, other);
+
+        verify(enrollmentRepository, times(2)).findByStudentIdAndCourseId(personId, course.getId());
+        verify(enrollmentRepository, times(1)).findByStudentIdAndCourseId(personId, other.getId());
+    }
+
+    @Test
+    @DisplayName("evictCourse / evictPerson — інвалідують усі записи курсу або користувача")
+    void evictCourseAndPerson_reloadEnrollment() {
+        when(enrollmentRepository.findByStudentIdAndCourseId(personId, course.getId()))
+                .thenReturn(Optional.of(enrollment("ACTIVE", null)));
+
+        entitlementService.hasCourseAccess(personId, course);
+        entitlementService.evictCourse(course.getId());
+        entitlementService.hasCourseAccess(personId, course);
+        entitlementService.evictPerson(personId);
+        entitlementService.hasCourseAccess(personId, course);
+
+        verify(enrollmentRepository, times(3)).findByStudentIdAndCourseId(personId, course.getId());
+    }
+
+    @Test
+    @DisplayName("evictAll — інвалідує лише передані пари користувач/курс")
+    void evictAll_evictsOnlyGivenPairs() {
+        CourseEntity other = new CourseEntity();
+        other.setId(UUID.randomUUID());
+        when(enrollmentRepository.findByStudentIdAndCourseId(eq(personId), any()))
+                .thenReturn(Optional.of(enrollment("ACTIVE", null)));
+
+        entitlementService.hasCourseAccess(personId, course);
+        entitlementService.hasCourseAccess(personId, other);
+        entitlementService.evictAll(Map.of(personId, Set.of(course.getId())));
+        entitlementService.hasCourseAccess(personId, course);
+        entitlementService.hasCourseAccess(personId, other);
+
+        verify(enrollmentRepository, times(2)).findByStudentIdAndCourseId(personId, course.getId());
+        verify(enrollmentRepository, times(1)).findByStudentIdAndCourseId(personId, other.getId());
+    }
+
+    // ─────────────────────── інші інстанси ───────────────────────
+
+    @Test
+    @DisplayName("evict / evictPerson / evictCourse — публікують інвалідацію для інших інстансів")
+    void evict_publishesToOtherInstances() {
+        entitlementService.evict(personId, course.getId());
+        entitlementService.evictPerson(personId);
+        entitlementService.evictCourse(course.getId());
+
+        ArgumentCaptor<String> payloads = ArgumentCaptor.forClass(String.class);
+        verify(databaseEvents, times(3)).publish(eq(EntitlementServiceImpl.CHANNEL), payloads.capture());
+        assertThat(payloads.getAllValues()).satisfiesExactly(
+                payload -> assertThat(payload).endsWith(" keys " + personId + ":" + course.getId()),
+                payload -> assertThat(payload).endsWith(" person " + personId),
+                payload -> assertThat(payload).endsWith(" course " + course.getId()));
+    }
+
+    @Test
+    @DisplayName("evictAll — забагато пар для одного повідомлення → інші інстанси інвалідують усе")
+    void evictAll_tooManyKeys_publishesAll() {
+        Set<UUID> courseIds = new HashSet<>();
+        for (int i = 0; i < 101; i++) {
+            courseIds.add(UUID.randomUUID());
+        }
+
+        entitlementService.evictAll(Map.of(personId, courseIds));
+
+        ArgumentCaptor<String> payload = ArgumentCaptor.forClass(String.class);
+        verify(databaseEvents).publish(eq(EntitlementServiceImpl.CHANNEL), payload.capture());
+        assertThat(payload.getValue()).endsWith(" all");
+    }
+
+    @Test
+    @DisplayName("onRemoteEviction — інвалідація з іншого інстансу скидає записи, власна ігнорується")
+    void onRemoteEviction_otherInstanceEvicts_ownIgnored() {
+        when(enrollmentRepository.findByStudentIdAndCourseId(personId, course.getId()))
+                .thenReturn(Optional.of(enrollment("ACTIVE", null)));
+        entitlementService.evict(UUID.randomUUID(), UUID.randomUUID());
+        ArgumentCaptor<String> own = ArgumentCaptor.forClass(String.class);
+        verify(databaseEvents).publish(eq(EntitlementServiceImpl.CHANNEL), own.capture());
+
+        entitlementService.hasCourseAccess(personId, course);
+        entitlementService.onRemoteEviction(own.getValue().split(" ")[0] + " person " + personId);
+        entitlementService.hasCourseAccess(personId, course);
+        entitlementService.onRemoteEviction("other-instance keys " + personId + ":" + course.getId());
+        entitlementService.hasCourseAccess(personId, course);
+        entitlementService.onRemoteEviction("other-instance course " + course.getId());
+        entitlementService.hasCourseAccess(personId, course);
+        entitlementService.onRemoteEviction("other-instance all");
+        entitlementService.hasCourseAccess(personId, course);
+
+        verify(enrollmentRepository, times(4)).findByStudentIdAndCourseId(personId, course.getId());
+    }
+
+    @Test
+    @DisplayName("перепідключення слухача — кеш скидається, бо інвалідації могли загубитися")
+    void reconnect_clearsCache() {
+        ArgumentCaptor<Runnable> onReconnect = ArgumentCaptor.forClass(Runnable.class);
+        verify(databaseEvents).subscribe(eq(EntitlementServiceImpl.CHANNEL), any(), onReconnect.capture());
+        when(enrollmentRepository.findByStudentIdAndCourseId(personId, course.getId()))
+                .thenReturn(Optional.of(enrollment("ACTIVE", null)));
+
+        entitlementService.hasCourseAccess(personId, course);
+        onReconnect.getValue().run();
+        entitlementService.hasCourseAccess(personId, course);
+
+        verify(enrollmentRepository, times(2)).findByStudentIdAndCourseId(personId, course.getId());
+    }
+
+    private EnrollmentEntity enrollment(String status, OffsetDateTime expiresAt) {
+        EnrollmentEntity enrollment = new EnrollmentEntity();
+        enrollment.setStatus(status);
+        enrollment.setExpiresAt(expiresAt);
+        enrollment.setCreatedAt(OffsetDateTime.now());
+        return enrollment;
+    }
+}
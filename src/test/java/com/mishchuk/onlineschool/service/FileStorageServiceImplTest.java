@@ -12,6 +12,7 @@ import com.mishchuk.onlineschool.repository.PersonRepository;
 import com.mishchuk.onlineschool.repository.entity.FileEntity;
 import com.mishchuk.onlineschool.repository.entity.PersonEntity;
 import com.mishchuk.onlineschool.repository.entity.PersonRole;
+import com.mishchuk.onlineschool.security.CurrentPerson;
 import ch.qos.logback.classic.Level;
 import ch.qos.logback.classic.Logger;
 import org.slf4j.LoggerFactory;
@@ -60,6 +61,8 @@ class FileStorageServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(fileStorageService, "currentPerson", new CurrentPerson(personRepository));
+        ReflectionTestUtils.setField(fileStorageService, "entitlementService", new EntitlementServiceImpl(enrollmentRepository, mock(DatabaseEvents.class)));
         adminUser = new PersonEntity();
         adminUser.setId(UUID.fromString("00000000-0000-0000-0000-000000000001"));
         adminUser.setEmail("admin@test.com");
@@ -14,6 +14,7 @@ import com.mishchuk.onlineschool.repository.entity.LessonEntity;
 import com.mishchuk.onlineschool.repository.entity.ModuleEntity;
 import com.mishchuk.onlineschool.repository.entity.PersonEntity;
 import com.mishchuk.onlineschool.repository.entity.PersonRole;
+import com.mishchuk.onlineschool.security.CurrentPerson;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -27,6 +28,7 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.OffsetDateTime;
 import java.util.Collections;
@@ -47,6 +49,8 @@ class LessonServiceImplTest {
     @Mock private LessonMapper lessonMapper;
     @Mock private PersonRepository personRepository;
     @Mock private EnrollmentRepository enrollmentRepository;
+    @Mock private CourseCatalog courseCatalog;
+    @Mock private CourseCounters courseCounters;
 
     @InjectMocks
     private LessonServiceImpl lessonService;
@@ -57,6 +61,8 @@ class LessonServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(lessonService, "currentPerson", new CurrentPerson(personRepository));
+        ReflectionTestUtils.setField(lessonService, "entitlementService", new EntitlementServiceImpl(enrollmentRepository, mock(DatabaseEvents.class)));
         adminUser = new PersonEntity();
         adminUser.setId(UUID.fromString("00000000-0000-0000-0000-000000000001"));
         adminUser.setEmail("admin@test.com");
@@ -124,6 +130,7 @@ class LessonServiceImplTest {
         assertThat(entity.getModule()).isSameAs(module);
         assertThat(entity.getCreatedBy()).isSameAs(adminUser);
         verify(lessonRepository).save(entity);
+        verify(courseCounters).refresh(module);
     }
 
     @Test
@@ -16,6 +16,7 @@ import com.mishchuk.onlineschool.repository.entity.LessonEntity;
 import com.mishchuk.onlineschool.repository.entity.ModuleEntity;
 import com.mishchuk.onlineschool.repository.entity.PersonEntity;
 import com.mishchuk.onlineschool.repository.entity.PersonRole;
+import com.mishchuk.onlineschool.security.CurrentPerson;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -29,10 +30,12 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -50,6 +53,8 @@ class ModuleServiceImplTest {
     @Mock private LessonRepository lessonRepository;
     @Mock private PersonRepository personRepository;
     @Mock private EnrollmentRepository enrollmentRepository;
+    @Mock private CourseCatalog courseCatalog;
+    @Mock private CourseCounters courseCounters;
 
     @InjectMocks
     private ModuleServiceImpl moduleService;
@@ -60,6 +65,8 @@ class ModuleServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(moduleService, "currentPerson", new CurrentPerson(personRepository));
+        ReflectionTestUtils.setField(moduleService, "entitlementService", new EntitlementServiceImpl(enrollmentRepository, mock(DatabaseEvents.class)));
         adminUser = new PersonEntity();
         adminUser.setId(UUID.randomUUID());
         adminUser.setEmail("admin@test.com");
@@ -141,6 +148,37 @@ class ModuleServiceImplTest {
         verify(lessonRepository).save(lesson);
     }
 
+    @Test
+    @DisplayName("createModule — перераховує лічильники нового і попереднього модулів та їхніх курсів")
+    void createModule_withLessons_refreshesCounters() {
+        UUID courseId = UUID.randomUUID();
+        UUID lessonId = UUID.randomUUID();
+        ModuleCreateDto dto = new ModuleCreateDto("Модуль 1", courseId, "Опис", List.of(lessonId));
+        CourseEntity course = new CourseEntity();
+        course.setId(courseId);
+        ModuleEntity entity = new ModuleEntity();
+        entity.setId(UUID.randomUUID());
+
+        CourseEntity previousCourse = new CourseEntity();
+        previousCourse.setId(UUID.randomUUID());
+        ModuleEntity previousModule = new ModuleEntity();
+        previousModule.setId(UUID.randomUUID());
+        previousModule.setCourse(previousCourse);
+        LessonEntity lesson = new LessonEntity();
+        lesson.setModule(previousModule);
+
+        when(courseRepository.findById(courseId)).thenReturn(Optional.of(course));
+        when(moduleMapper.toEntity(dto)).thenReturn(entity);
+        when(moduleRepository.save(entity)).thenReturn(entity);
+        when(lessonRepository.findById(lessonId)).thenReturn(Optional.of(lesson));
+
+        moduleService.createModule(dto);
+
+        verify(courseCounters).refresh(
+                Set.of(entity.getId(), previousModule.getId()),
+                Set.of(courseId, previousCourse.getId()));
+    }
+
     // ─────────────────────── getModuleLessons ───────────────────────
 
     @Test
@@ -1,12 +1,18 @@
 package com.mishchuk.onlineschool.service;
 
+import com.mishchuk.onlineschool.controller.dto.NotificationDto;
 import com.mishchuk.onlineschool.exception.ResourceNotFoundException;
+import com.mishchuk.onlineschool.repository.BroadcastRepository;
 import com.mishchuk.onlineschool.repository.NotificationRepository;
+import com.mishchuk.onlineschool.repository.NotificationRepositoryCustom.Broadcast;
+import com.mishchuk.onlineschool.repository.NotificationRepositoryCustom.FeedItem;
 import com.mishchuk.onlineschool.repository.PersonRepository;
+import com.mishchuk.onlineschool.repository.entity.BroadcastEntity;
 import com.mishchuk.onlineschool.repository.entity.NotificationEntity;
 import com.mishchuk.onlineschool.repository.entity.NotificationType;
 import com.mishchuk.onlineschool.repository.entity.PersonEntity;
 import com.mishchuk.onlineschool.repository.entity.PersonRole;
+import com.mishchuk.onlineschool.security.CurrentPerson;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -24,8 +30,9 @@ import org.springframework.security.authentication.UsernamePasswordAuthenticatio
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextImpl;
+import org.springframework.test.util.ReflectionTestUtils;
 
-import java.util.ArrayList;
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -40,7 +47,10 @@ import static org.mockito.Mockito.*;
 class NotificationServiceImplTest {
 
     @Mock private NotificationRepository notificationRepository;
+    @Mock private BroadcastRepository broadcastRepository;
     @Mock private PersonRepository personRepository;
+    @Mock private UnreadCounters unreadCounters;
+    @Mock private NotificationEvents notificationEvents;
 
     @InjectMocks
     private NotificationServiceImpl notificationService;
@@ -52,6 +62,7 @@ class NotificationServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(notificationService, "currentPerson", new CurrentPerson(personRepository));
         recipientId = UUID.randomUUID();
         
         recipient = new PersonEntity();
@@ -94,6 +105,8 @@ class NotificationServiceImplTest {
 
         assertThat(result).isNotNull();
         verify(notificationRepository).save(any(NotificationEntity.class));
+        verify(unreadCounters).adjust(recipientId, 1);
+        verify(notificationEvents).created(List.of(recipientId));
     }
 
     @Test
@@ -106,22 +119,52 @@ class NotificationServiceImplTest {
         ).isInstanceOf(ResourceNotFoundException.class);
 
         verify(notificationRepository, never()).save(any());
+        verifyNoInteractions(unreadCounters, notificationEvents);
+    }
+
+    // ─────────────────────── createNotifications ───────────────────────
+
+    @Test
+    @DisplayName("createNotifications — зберігає всі сповіщення одним saveAll без завантаження одержувачів")
+    @SuppressWarnings("unchecked")
+    void createNotifications_savesBatch() {
+        when(personRepository.getReferenceById(recipientId)).thenReturn(recipient);
+
+        notificationService.createNotifications(List.of(
+                new NotificationService.NewNotification(recipientId, "t1", "m1", NotificationType.COURSE_EXPIRING),
+                new NotificationService.NewNotification(recipientId, "t2", "m2", NotificationType.COURSE_EXPIRING)));
+
+        ArgumentCaptor<List<NotificationEntity>> captor = ArgumentCaptor.forClass(List.class);
+        verify(notificationRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).extracting(NotificationEntity::getMessage).containsExactly("m1", "m2");
+        assertThat(captor.getValue()).allMatch(n -> n.getRecipient() == recipient && !n.isRead());
+        verify(unreadCounters).adjust(recipientId, 2);
+        verify(notificationEvents).created(List.of(recipientId, recipientId));
+        verify(personRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("createNotifications — порожній список нічого не зберігає")
+    void createNotifications_empty_noop() {
+        notificationService.createNotifications(List.of());
+
+        verifyNoInteractions(notificationRepository);
     }
 
     // ─────────────────────── broadcastToAdmins ───────────────────────
 
     @Test
-    @DisplayName("broadcastToAdmins (ADMIN) — надсилає сповіщення всім ADMIN-ам")
+    @DisplayName("broadcastToAdmins (ADMIN) — одним INSERT ... SELECT надсилає всім ADMIN-ам")
     void broadcastToAdmins_admin_sendsToAllAdmins() {
         setSecurityContext("admin@test.com", "ROLE_ADMIN");
         when(personRepository.findByEmail("admin@test.com")).thenReturn(Optional.of(adminUser));
-        
-        PersonEntity admin2 = new PersonEntity();
-        when(personRepository.findAllByRole(PersonRole.ADMIN)).thenReturn(List.of(admin2));
 
-        notificationService.broadcastToAdmins("title", "msg", NotificationType.SYSTEM, null);
+        notificationService.broadcastToAdmins("title", "msg", NotificationType.SYSTEM, "/url");
 
-        verify(notificationRepository).saveAll(anyList());
+        verify(notificationRepository).insertForRole(
+                new Broadcast("title", "msg", NotificationType.SYSTEM, "/url"), PersonRole.ADMIN);
+        verify(personRepository, never()).findAllByRole(any());
+        verify(notificationEvents).publish(NotificationEvent.forRole(NotificationEvent.Kind.CREATED, PersonRole.ADMIN));
     }
 
     @Test
@@ -132,30 +175,31 @@ class NotificationServiceImplTest {
 
         notificationService.broadcastToAdmins("title", "msg", NotificationType.SYSTEM, null);
 
-        // verify findAllByRole was never called, because fake admin scopes to self
-        verify(personRepository, never()).findAllByRole(PersonRole.ADMIN);
-
-        @SuppressWarnings("unchecked")
-        ArgumentCaptor<Iterable<NotificationEntity>> captor = ArgumentCaptor.forClass(Iterable.class);
-        verify(notificationRepository).saveAll(captor.capture());
-        List<NotificationEntity> saved = new ArrayList<>();
-        captor.getValue().forEach(saved::add);
-        assertThat(saved).hasSize(1);
-        assertThat(saved.get(0).getRecipient()).isEqualTo(fakeAdmin);
+        verify(notificationRepository).insertForPersons(
+                new Broadcast("title", "msg", NotificationType.SYSTEM, null), List.of(fakeAdmin.getId()), null);
+        verify(notificationRepository, never()).insertForRole(any(), any());
+        verify(notificationEvents).created(List.of(fakeAdmin.getId()));
     }
 
     // ─────────────────────── sendToAllUsers ───────────────────────
 
     @Test
-    @DisplayName("sendToAllUsers (ADMIN) — надсилає всім користувачам платформи")
+    @DisplayName("sendToAllUsers (ADMIN) — зберігає одне оголошення для всіх без розсилки по persons")
     void sendToAllUsers_admin_sendsToAll() {
         setSecurityContext("admin@test.com", "ROLE_ADMIN");
         when(personRepository.findByEmail("admin@test.com")).thenReturn(Optional.of(adminUser));
-        when(personRepository.findAll()).thenReturn(List.of(recipient));
 
         notificationService.sendToAllUsers("title", "msg", null);
 
-        verify(notificationRepository).saveAll(anyList());
+        ArgumentCaptor<BroadcastEntity> captor = ArgumentCaptor.forClass(BroadcastEntity.class);
+        verify(broadcastRepository).save(captor.capture());
+        assertThat(captor.getValue().getOwner()).isNull();
+        assertThat(captor.getValue().getTitle()).isEqualTo("title");
+        assertThat(captor.getValue().getType()).isEqualTo(NotificationType.ADMIN_ANNOUNCEMENT);
+        verify(unreadCounters).evictAll();
+        verify(notificationEvents).publish(NotificationEvent.forEveryone(NotificationEvent.Kind.CREATED));
+        verify(notificationRepository, never()).insertForPersons(any(), any(), any());
+        verify(personRepository, never()).findAll();
     }
 
     @Test
@@ -163,61 +207,63 @@ class NotificationServiceImplTest {
     void sendToAllUsers_fakeAdmin_scopedToSelfAndCreated() {
         setSecurityContext("fake@test.com", "ROLE_FAKE_ADMIN");
         when(personRepository.findByEmail("fake@test.com")).thenReturn(Optional.of(fakeAdmin));
-        when(personRepository.findAllByCreatedById(fakeAdmin.getId())).thenReturn(List.of(recipient));
 
-        notificationService.sendToAllUsers("title", "msg", null);
+        when(personRepository.getReferenceById(fakeAdmin.getId())).thenReturn(fakeAdmin);
 
-        verify(personRepository, never()).findAll();
+        notificationService.sendToAllUsers("title", "msg", null);
 
-        @SuppressWarnings("unchecked")
-        ArgumentCaptor<Iterable<NotificationEntity>> captor = ArgumentCaptor.forClass(Iterable.class);
-        verify(notificationRepository).saveAll(captor.capture());
-        List<NotificationEntity> saved = new ArrayList<>();
-        captor.getValue().forEach(saved::add);
-        assertThat(saved).hasSize(2); // fakeAdmin + recipient
+        ArgumentCaptor<BroadcastEntity> captor = ArgumentCaptor.forClass(BroadcastEntity.class);
+        verify(broadcastRepository).save(captor.capture());
+        assertThat(captor.getValue().getOwner()).isSameAs(fakeAdmin);
+        verify(notificationEvents).publish(
+                NotificationEvent.forOwnerAudience(NotificationEvent.Kind.CREATED, fakeAdmin.getId()));
     }
 
     // ─────────────────────── sendToUsers ───────────────────────
-    
+
     @Test
-    @DisplayName("sendToUsers (FAKE_ADMIN) — фільтрує IDs лише на дозволені")
-    void sendToUsers_fakeAdmin_filtersRecipients() {
-        setSecurityContext("fake@test.com", "ROLE_FAKE_ADMIN");
-        when(personRepository.findByEmail("fake@test.com")).thenReturn(Optional.of(fakeAdmin));
+    @DisplayName("sendToUsers (ADMIN) — надсилає всім переданим IDs без обмеження")
+    void sendToUsers_admin_unscoped() {
+        setSecurityContext("admin@test.com", "ROLE_ADMIN");
+        when(personRepository.findByEmail("admin@test.com")).thenReturn(Optional.of(adminUser));
+        List<UUID> inputIds = List.of(recipientId, UUID.randomUUID());
+        when(notificationRepository.insertForPersons(
+                new Broadcast("title", "msg", NotificationType.ADMIN_ANNOUNCEMENT, "/url"), inputIds, null))
+                .thenReturn(2);
 
-        PersonEntity createdUser = new PersonEntity();
-        createdUser.setId(UUID.randomUUID());
-        createdUser.setCreatedBy(fakeAdmin);
+        notificationService.sendToUsers("title", "msg", inputIds, "/url");
 
-        PersonEntity otherUser = new PersonEntity();
-        otherUser.setId(UUID.randomUUID());
-        // createdBy null — отже, не дозволений для fakeAdmin
+        verify(notificationEvents).created(inputIds);
+    }
 
-        List<UUID> inputIds = List.of(fakeAdmin.getId(), createdUser.getId(), otherUser.getId());
-        when(personRepository.findAllById(inputIds)).thenReturn(List.of(fakeAdmin, createdUser, otherUser));
+    @Test
+    @DisplayName("sendToUsers (FAKE_ADMIN) — обмежує IDs собою та своїми користувачами")
+    void sendToUsers_fakeAdmin_filtersRecipients() {
+        setSecurityContext("fake@test.com", "ROLE_FAKE_ADMIN");
+        when(personRepository.findByEmail("fake@test.com")).thenReturn(Optional.of(fakeAdmin));
+        List<UUID> inputIds = List.of(fakeAdmin.getId(), recipientId);
 
         notificationService.sendToUsers("title", "msg", inputIds, null);
 
-        // only fakeAdmin and createdUser should be preserved
-        @SuppressWarnings("unchecked")
-        ArgumentCaptor<Iterable<NotificationEntity>> captor = ArgumentCaptor.forClass(Iterable.class);
-        verify(notificationRepository).saveAll(captor.capture());
-        List<NotificationEntity> saved = new ArrayList<>();
-        captor.getValue().forEach(saved::add);
-        assertThat(saved).hasSize(2);
+        verify(notificationRepository).insertForPersons(
+                new Broadcast("title", "msg", NotificationType.ADMIN_ANNOUNCEMENT, null), inputIds, fakeAdmin.getId());
+        verify(personRepository, never()).findAllById(any());
     }
 
     // ─────────────────────── getUserNotifications ───────────────────────
     
     @Test
-    @DisplayName("getUserNotifications — повертає Page")
+    @DisplayName("getUserNotifications — повертає стрічку з особистих сповіщень та оголошень")
     void getUserNotifications_success() {
-        Page<NotificationEntity> page = new PageImpl<>(List.of(new NotificationEntity()));
-        when(notificationRepository.findByRecipientIdOrderByCreatedAtDesc(eq(recipientId), any(PageRequest.class)))
-                .thenReturn(page);
+        FeedItem item = new FeedItem(UUID.randomUUID(), "title", "msg", "/url",
+                NotificationType.ADMIN_ANNOUNCEMENT, true, OffsetDateTime.now());
+        when(notificationRepository.findFeed(eq(recipientId), any(PageRequest.class)))
+                .thenReturn(new PageImpl<>(List.of(item)));
 
-        Page<NotificationEntity> result = notificationService.getUserNotifications(recipientId, PageRequest.of(0, 10));
-        assertThat(result).isSameAs(page);
+        Page<NotificationDto> result = notificationService.getUserNotifications(recipientId, PageRequest.of(0, 10));
+
+        assertThat(result.getContent()).containsExactly(new NotificationDto(item.id(), "title", "msg",
+                NotificationType.ADMIN_ANNOUNCEMENT, true, item.createdAt(), "/url"));
     }
 
     // ─────────────────────── markAsRead / markAsUnread ───────────────────────
@@ -227,14 +273,73 @@ class NotificationServiceImplTest {
     void markAsRead_success() {
         UUID notifId = UUID.randomUUID();
         NotificationEntity notif = new NotificationEntity();
+        notif.setRecipient(recipient);
         notif.setRead(false);
 
-        when(notificationRepository.findById(notifId)).thenReturn(Optional.of(notif));
+        when(notificationRepository.findByIdAndRecipientId(notifId, recipientId)).thenReturn(Optional.of(notif));
 
-        notificationService.markAsRead(notifId);
+        notificationService.markAsRead(recipientId, notifId);
 
         assertThat(notif.isRead()).isTrue();
         verify(notificationRepository).save(notif);
+        verify(unreadCounters).adjust(recipientId, -1);
+        verify(notificationEvents).updated(recipientId);
+        verify(broadcastRepository, never()).markRead(any(UUID.class), any(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("markAsRead — вже прочитане не зберігається і лічильник не змінюється")
+    void markAsRead_alreadyRead_noChange() {
+        UUID notifId = UUID.randomUUID();
+        NotificationEntity notif = new NotificationEntity();
+        notif.setRecipient(recipient);
+        notif.setRead(true);
+
+        when(notificationRepository.findByIdAndRecipientId(notifId, recipientId)).thenReturn(Optional.of(notif));
+
+        notificationService.markAsRead(recipientId, notifId);
+
+        verify(notificationRepository, never()).save(any());
+        verifyNoInteractions(unreadCounters, notificationEvents);
+    }
+
+    @Test
+    @DisplayName("markAsRead — для оголошення записує квитанцію прочитання")
+    void markAsRead_broadcast_marksReceipt() {
+        UUID broadcastId = UUID.randomUUID();
+        when(notificationRepository.findByIdAndRecipientId(broadcastId, recipientId)).thenReturn(Optional.empty());
+        when(broadcastRepository.markRead(broadcastId, recipientId, true)).thenReturn(1);
+
+        notificationService.markAsRead(recipientId, broadcastId);
+
+        verify(broadcastRepository).markRead(broadcastId, recipientId, true);
+        verify(unreadCounters).evict(recipientId);
+    }
+
+    @Test
+    @DisplayName("markAsRead — кидає ResourceNotFoundException якщо немає ні сповіщення, ні оголошення")
+    void markAsRead_notFound_throws() {
+        UUID notifId = UUID.randomUUID();
+        when(notificationRepository.findByIdAndRecipientId(notifId, recipientId)).thenReturn(Optional.empty());
+        when(broadcastRepository.markRead(notifId, recipientId, true)).thenReturn(0);
+
+        assertThatThrownBy(() -> notificationService.markAsRead(recipientId, notifId))
+                .isInstanceOf(ResourceNotFoundException.class);
+    }
+
+    @Test
+    @DisplayName("markAsRead — чуже сповіщення не змінюється, кидає ResourceNotFoundException")
+    void markAsRead_otherRecipient_throws() {
+        UUID notifId = UUID.randomUUID();
+        when(notificationRepository.findByIdAndRecipientId(notifId, recipientId)).thenReturn(Optional.empty());
+        when(broadcastRepository.markRead(notifId, recipientId, true)).thenReturn(0);
+
+        assertThatThrownBy(() -> notificationService.markAsRead(recipientId, notifId))
+                .isInstanceOf(ResourceNotFoundException.class);
+
+        verify(notificationRepository, never()).findById(any());
+        verify(notificationRepository, never()).save(any());
+        verifyNoInteractions(unreadCounters, notificationEvents);
     }
 
     @Test
@@ -242,54 +347,91 @@ class NotificationServiceImplTest {
     void markAsUnread_success() {
         UUID notifId = UUID.randomUUID();
         NotificationEntity notif = new NotificationEntity();
+        notif.setRecipient(recipient);
         notif.setRead(true);
 
-        when(notificationRepository.findById(notifId)).thenReturn(Optional.of(notif));
+        when(notificationRepository.findByIdAndRecipientId(notifId, recipientId)).thenReturn(Optional.of(notif));
 
-        notificationService.markAsUnread(notifId);
+        notificationService.markAsUnread(recipientId, notifId);
 
         assertThat(notif.isRead()).isFalse();
         verify(notificationRepository).save(notif);
+        verify(unreadCounters).adjust(recipientId, 1);
     }
 
     // ─────────────────────── bulk operations ───────────────────────
 
     @Test
-    @DisplayName("markAllAsRead — позначає всі як прочитані")
+    @DisplayName("markAsRead (список) — одним запитом для сповіщень і оголошень, повертає кількість")
+    void markAsRead_many_bulkStatements() {
+        List<UUID> ids = List.of(UUID.randomUUID(), UUID.randomUUID());
+        when(notificationRepository.markReadByRecipientIdAndIdIn(recipientId, ids)).thenReturn(1);
+        when(broadcastRepository.markRead(ids, recipientId, true)).thenReturn(1);
+
+        int marked = notificationService.markAsRead(recipientId, ids);
+
+        assertThat(marked).isEqualTo(2);
+        verify(notificationRepository, never()).findByIdAndRecipientId(any(), any());
+        verify(unreadCounters).adjust(recipientId, -1);
+        verify(unreadCounters).evict(recipientId);
+    }
+
+    @Test
+    @DisplayName("markAsRead (список) — порожній список не звертається до БД")
+    void markAsRead_emptyList_noQueries() {
+        assertThat(notificationService.markAsRead(recipientId, List.of())).isZero();
+
+        verifyNoInteractions(notificationRepository, broadcastRepository, unreadCounters);
+    }
+
+    @Test
+    @DisplayName("markAllAsRead — один UPDATE замість завантаження всіх сповіщень")
     void markAllAsRead_success() {
-        NotificationEntity n1 = new NotificationEntity();
-        n1.setRead(false);
-        when(notificationRepository.findByRecipientIdOrderByCreatedAtDesc(recipientId)).thenReturn(List.of(n1));
+        when(notificationRepository.updateReadByRecipientId(recipientId, true)).thenReturn(3);
+        when(broadcastRepository.markAllRead(recipientId)).thenReturn(2);
 
-        notificationService.markAllAsRead(recipientId);
+        int marked = notificationService.markAllAsRead(recipientId);
 
-        assertThat(n1.isRead()).isTrue();
-        verify(notificationRepository).saveAll(anyList());
+        assertThat(marked).isEqualTo(5);
+        verify(notificationRepository, never()).findByRecipientIdOrderByCreatedAtDesc(recipientId);
+        verify(notificationRepository, never()).saveAll(anyList());
+        verify(unreadCounters).clear(recipientId);
+        verify(notificationEvents).updated(recipientId);
     }
 
     @Test
-    @DisplayName("markAllAsUnread — позначає всі як непрочитані")
+    @DisplayName("markAllAsRead — нічого не змінилося, подія не публікується")
+    void markAllAsRead_nothingChanged_noEvent() {
+        int marked = notificationService.markAllAsRead(recipientId);
+
+        assertThat(marked).isZero();
+        verifyNoInteractions(notificationEvents);
+    }
+
+    @Test
+    @DisplayName("markAllAsUnread — один UPDATE замість завантаження всіх сповіщень")
     void markAllAsUnread_success() {
-        NotificationEntity n1 = new NotificationEntity();
-        n1.setRead(true);
-        when(notificationRepository.findByRecipientIdOrderByCreatedAtDesc(recipientId)).thenReturn(List.of(n1));
+        when(notificationRepository.updateReadByRecipientId(recipientId, false)).thenReturn(3);
+        when(broadcastRepository.markAllUnread(recipientId)).thenReturn(1);
 
-        notificationService.markAllAsUnread(recipientId);
+        int marked = notificationService.markAllAsUnread(recipientId);
 
-        assertThat(n1.isRead()).isFalse();
-        verify(notificationRepository).saveAll(anyList());
+        assertThat(marked).isEqualTo(4);
+        verify(notificationRepository, never()).saveAll(anyList());
+        verify(unreadCounters).recount(recipientId);
     }
 
     @Test
-    @DisplayName("deleteAll — видаляє всі знайдені сповіщення користувача")
+    @DisplayName("deleteAll — один DELETE для сповіщень користувача та приховування оголошень")
     void deleteAll_success() {
-        NotificationEntity n1 = new NotificationEntity();
-        List<NotificationEntity> list = List.of(n1);
-        when(notificationRepository.findByRecipientIdOrderByCreatedAtDesc(recipientId)).thenReturn(list);
+        when(notificationRepository.deleteByRecipientId(recipientId)).thenReturn(3);
+        when(broadcastRepository.markAllDeleted(recipientId)).thenReturn(1);
 
-        notificationService.deleteAll(recipientId);
+        int deleted = notificationService.deleteAll(recipientId);
 
-        verify(notificationRepository).deleteAll(list);
+        assertThat(deleted).isEqualTo(4);
+        verify(notificationRepository, never()).deleteAll(anyList());
+        verify(unreadCounters).clear(recipientId);
     }
 
     // ─────────────────────── deleteNotification ───────────────────────
@@ -298,34 +440,71 @@ class NotificationServiceImplTest {
     @DisplayName("deleteNotification — видаляє якщо існує")
     void deleteNotification_success() {
         UUID notifId = UUID.randomUUID();
-        when(notificationRepository.existsById(notifId)).thenReturn(true);
+        NotificationEntity notif = new NotificationEntity();
+        notif.setRecipient(recipient);
+        when(notificationRepository.findByIdAndRecipientId(notifId, recipientId)).thenReturn(Optional.of(notif));
+
+        notificationService.deleteNotification(recipientId, notifId);
+
+        verify(notificationRepository).delete(notif);
+        verify(unreadCounters).adjust(recipientId, -1);
+        verify(broadcastRepository, never()).markDeleted(any(), any());
+    }
+
+    @Test
+    @DisplayName("deleteNotification — прочитане видаляється без зміни лічильника")
+    void deleteNotification_read_keepsCounter() {
+        UUID notifId = UUID.randomUUID();
+        NotificationEntity notif = new NotificationEntity();
+        notif.setRecipient(recipient);
+        notif.setRead(true);
+        when(notificationRepository.findByIdAndRecipientId(notifId, recipientId)).thenReturn(Optional.of(notif));
+
+        notificationService.deleteNotification(recipientId, notifId);
+
+        verify(notificationRepository).delete(notif);
+        verifyNoInteractions(unreadCounters);
+    }
+
+    @Test
+    @DisplayName("deleteNotification — для оголошення приховує його лише для користувача")
+    void deleteNotification_broadcast_marksDeleted() {
+        UUID broadcastId = UUID.randomUUID();
+        when(notificationRepository.findByIdAndRecipientId(broadcastId, recipientId)).thenReturn(Optional.empty());
+        when(broadcastRepository.markDeleted(broadcastId, recipientId)).thenReturn(1);
 
-        notificationService.deleteNotification(notifId);
+        notificationService.deleteNotification(recipientId, broadcastId);
 
-        verify(notificationRepository).deleteById(notifId);
+        verify(broadcastRepository).markDeleted(broadcastId, recipientId);
+        verify(notificationRepository, never()).delete(any());
+        verify(unreadCounters).evict(recipientId);
     }
 
     @Test
     @DisplayName("deleteNotification — кидає ResourceNotFoundException якщо не існує")
     void deleteNotification_notFound_throws() {
         UUID notifId = UUID.randomUUID();
-        when(notificationRepository.existsById(notifId)).thenReturn(false);
+        when(notificationRepository.findByIdAndRecipientId(notifId, recipientId)).thenReturn(Optional.empty());
+        when(broadcastRepository.markDeleted(notifId, recipientId)).thenReturn(0);
 
-        assertThatThrownBy(() -> notificationService.deleteNotification(notifId))
+        assertThatThrownBy(() -> notificationService.deleteNotification(recipientId, notifId))
                 .isInstanceOf(ResourceNotFoundException.class);
                 
-        verify(notificationRepository, never()).deleteById(any());
+        verify(notificationRepository, never()).delete(any());
+        verify(notificationRepository, never()).findById(any());
+        verifyNoInteractions(unreadCounters, notificationEvents);
     }
 
     // ─────────────────────── getUnreadCount ───────────────────────
 
     @Test
-    @DisplayName("getUnreadCount — повертає кількість непрочитаних")
+    @DisplayName("getUnreadCount — повертає лічильник без підрахунку сповіщень")
     void getUnreadCount_returnsValue() {
-        when(notificationRepository.countByRecipientIdAndIsReadFalse(recipientId)).thenReturn(5L);
+        when(unreadCounters.get(recipientId)).thenReturn(7L);
 
         long count = notificationService.getUnreadCount(recipientId);
 
-        assertThat(count).isEqualTo(5L);
+        assertThat(count).isEqualTo(7L);
+        verifyNoInteractions(notificationRepository, broadcastRepository);
     }
 }
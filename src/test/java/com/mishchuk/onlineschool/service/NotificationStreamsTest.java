@@ -0,0 +1,118 @@
+package com.mishchuk.onlineschool.service;
+
+import com.mishchuk.onlineschool.repository.entity.PersonEntity;
+import com.mishchuk.onlineschool.repository.entity.PersonRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class NotificationStreamsTest {
+
+    @Mock private UnreadCounters unreadCounters;
+
+    private NotificationStreams notificationStreams;
+    private PersonEntity person;
+
+    @BeforeEach
+    void setUp() {
+        // 3 потоки на інстанс, 2 на людину
+        notificationStreams = new NotificationStreams(unreadCounters, 60000L, 3, 2);
+        person = person(PersonRole.USER, null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        notificationStreams.shutdown();
+    }
+
+    // ─────────────────────── open ───────────────────────
+
+    @Test
+    @DisplayName("open — відкриває потік і одразу надсилає кількість непрочитаних")
+    void open_sendsUnreadCount() {
+        when(unreadCounters.get(person.getId())).thenReturn(4L);
+
+        assertThat(notificationStreams.open(person)).isPresent();
+
+        assertThat(notificationStreams.openStreams()).isEqualTo(1);
+        verify(unreadCounters, timeout(1000)).get(person.getId());
+    }
+
+    @Test
+    @DisplayName("open — понад ліміт на людину закриває найстаріший потік")
+    void open_overPersonLimit_closesOldest() {
+        notificationStreams.open(person);
+        notificationStreams.open(person);
+        notificationStreams.open(person);
+
+        assertThat(notificationStreams.openStreams()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("open — понад ліміт інстансу повертає порожній результат")
+    void open_overInstanceLimit_refuses() {
+        notificationStreams.open(person);
+        notificationStreams.open(person(PersonRole.USER, null));
+        notificationStreams.open(person(PersonRole.USER, null));
+
+        assertThat(notificationStreams.open(person(PersonRole.USER, null))).isEmpty();
+        assertThat(notificationStreams.openStreams()).isEqualTo(3);
+    }
+
+    // ─────────────────────── deliver ───────────────────────
+
+    @Test
+    @DisplayName("deliver — оновлює лічильник лише адресатам події")
+    void deliver_onlyToAddressees() {
+        PersonEntity admin = person(PersonRole.ADMIN, null);
+        notificationStreams.open(person);
+        notificationStreams.open(admin);
+        verify(unreadCounters, timeout(1000)).get(person.getId());
+        verify(unreadCounters, timeout(1000)).get(admin.getId());
+
+        notificationStreams.deliver(NotificationEvent.forRole(NotificationEvent.Kind.CREATED, PersonRole.ADMIN));
+
+        verify(unreadCounters, timeout(1000).times(2)).get(admin.getId());
+        verify(unreadCounters, after(200).times(1)).get(person.getId());
+    }
+
+    @Test
+    @DisplayName("deliver — оголошення FAKE_ADMIN отримують він сам і створені ним користувачі")
+    void deliver_ownerAudience() {
+        PersonEntity owner = person(PersonRole.FAKE_ADMIN, null);
+        PersonEntity created = person(PersonRole.USER, owner);
+        notificationStreams.open(created);
+        notificationStreams.open(person);
+        verify(unreadCounters, timeout(1000)).get(created.getId());
+        verify(unreadCounters, timeout(1000)).get(person.getId());
+
+        notificationStreams.deliver(
+                NotificationEvent.forOwnerAudience(NotificationEvent.Kind.UPDATED, owner.getId()));
+        notificationStreams.deliver(
+                NotificationEvent.forPersons(NotificationEvent.Kind.UPDATED, List.of(UUID.randomUUID())));
+
+        verify(unreadCounters, timeout(1000).times(2)).get(created.getId());
+        verify(unreadCounters, after(200).times(1)).get(person.getId());
+    }
+
+    // ─────────────────────── helpers ───────────────────────
+
+    private PersonEntity person(PersonRole role, PersonEntity createdBy) {
+        PersonEntity p = new PersonEntity();
+        p.setId(UUID.randomUUID());
+        p.setRole(role);
+        p.setCreatedBy(createdBy);
+        return p;
+    }
+}
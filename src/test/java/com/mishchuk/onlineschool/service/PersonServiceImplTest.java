@@ -15,6 +15,8 @@ import com.mishchuk.onlineschool.repository.entity.EnrollmentEntity;
 import com.mishchuk.onlineschool.repository.entity.PersonEntity;
 import com.mishchuk.onlineschool.repository.entity.PersonRole;
 import com.mishchuk.onlineschool.repository.entity.PersonStatus;
+import com.mishchuk.onlineschool.security.CurrentPerson;
+import com.mishchuk.onlineschool.security.TokenVersionCache;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -30,6 +32,7 @@ import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.context.SecurityContextImpl;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.List;
 import java.util.Optional;
@@ -52,6 +55,9 @@ class PersonServiceImplTest {
     @Mock private PasswordEncoder passwordEncoder;
     @Mock private EmailService emailService;
     @Mock private NotificationService notificationService;
+    @Mock private TokenVersionCache tokenVersionCache;
+    @Mock private EntitlementService entitlementService;
+    @Mock private EnrollmentExpiry enrollmentExpiry;
 
     @InjectMocks
     private PersonServiceImpl personService;
@@ -63,6 +69,7 @@ class PersonServiceImplTest {
 
     @BeforeEach
     void setUp() {
+        ReflectionTestUtils.setField(personService, "currentPerson", new CurrentPerson(personRepository));
         personId = UUID.fromString("00000000-0000-0000-0000-000000000001");
 
         personEntity = new PersonEntity();
@@ -385,6 +392,26 @@ class PersonServiceImplTest {
         verify(notificationService).broadcastToAdmins(anyString(), anyString(), any());
     }
 
+    @Test
+    @DisplayName("updatePersonStatus — зміна статусу відкликає видані access-токени")
+    void updatePersonStatus_statusChanged_revokesTokens() {
+        when(personRepository.findById(personId)).thenReturn(Optional.of(personEntity));
+
+        personService.updatePersonStatus(personId, "BLOCKED");
+
+        verify(tokenVersionCache).revoke(personEntity);
+    }
+
+    @Test
+    @DisplayName("updatePersonStatus — той самий статус не відкликає токени")
+    void updatePersonStatus_sameStatus_doesNotRevokeTokens() {
+        when(personRepository.findById(personId)).thenReturn(Optional.of(personEntity));
+
+        personService.updatePersonStatus(personId, "ACTIVE");
+
+        verify(tokenVersionCache, never()).revoke(any());
+    }
+
     @Test
     @DisplayName("updatePersonStatus — ADMIN успішно встановлює ACTIVE")
     void updatePersonStatus_admin_active_success() {
@@ -474,6 +501,7 @@ class PersonServiceImplTest {
         assertThat(captor.getValue().getStudent()).isSameAs(personEntity);
         assertThat(captor.getValue().getCourse()).isSameAs(course);
         assertThat(captor.getValue().getStatus()).isEqualTo("ACTIVE");
+        verify(enrollmentExpiry).scheduleFor(captor.getValue());
         verify(emailService).sendCourseAccessGrantedEmail(
                 eq(personEntity.getEmail()), eq(personEntity.getFirstName()), eq("Java Spring Boot"));
     }
@@ -40,7 +40,6 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -52,6 +51,7 @@ class PromoCodeServiceImplTest {
     @Mock private CourseRepository courseRepository;
     @Mock private EnrollmentService enrollmentService;
     @Mock private EnrollmentRepository enrollmentRepository;
+    @Mock private PromoCodeSchedule promoCodeSchedule;
 
     @InjectMocks
     private PromoCodeServiceImpl promoCodeService;
@@ -103,6 +103,7 @@ class PromoCodeServiceImplTest {
         assertThat(captured.getCode()).isEqualTo("SPRING25");
         assertThat(captured.getCreatedBy()).isSameAs(admin);
         assertThat(captured.getStatus()).isEqualTo(PromoCodeStatus.ACTIVE);
+        verify(promoCodeSchedule).scheduleFor(saved);
     }
 
     @Test
@@ -429,6 +430,7 @@ class PromoCodeServiceImplTest {
         promoCodeService.updatePromoCode(entity.getId(), dto, "admin@test.com");
 
         verify(promoCodeRepository).save(entity);
+        verify(promoCodeSchedule).scheduleFor(entity);
         assertThat(entity.getCode()).isEqualTo("UPDATED");
     }
 
@@ -479,6 +481,7 @@ class PromoCodeServiceImplTest {
         promoCodeService.deletePromoCode(entity.getId(), "admin@test.com");
 
         verify(promoCodeRepository).delete(entity);
+        verify(promoCodeSchedule).cancelFor(entity.getId());
     }
 
     @Test
@@ -525,37 +528,6 @@ class PromoCodeServiceImplTest {
         verify(promoCodeRepository, never()).delete(any());
     }
 
-    // ─────────────────────── activateScheduledPromoCodes ───────────────────────
-
-    @Test
-    @DisplayName("activateScheduledPromoCodes — активує INACTIVE промокоди з validFrom що настав")
-    void activateScheduledPromoCodes_activatesDueCode() {
-        PromoCodeEntity due = promoCodeEntity("SCHED50");
-        due.setStatus(PromoCodeStatus.INACTIVE);
-        due.setValidFrom(LocalDateTime.now().minusMinutes(1));
-
-        when(promoCodeRepository.findByStatusAndValidFromLessThanEqual(
-                eq(PromoCodeStatus.INACTIVE), any(LocalDateTime.class)))
-                .thenReturn(List.of(due));
-
-        promoCodeService.activateScheduledPromoCodes();
-
-        assertThat(due.getStatus()).isEqualTo(PromoCodeStatus.ACTIVE);
-        assertThat(due.getStatusUpdatedAt()).isNotNull();
-        verify(promoCodeRepository).saveAll(List.of(due));
-    }
-
-    @Test
-    @DisplayName("activateScheduledPromoCodes — нічого не робить якщо немає промокодів для активації")
-    void activateScheduledPromoCodes_noCodesFound_doesNotSave() {
-        when(promoCodeRepository.findByStatusAndValidFromLessThanEqual(any(), any()))
-                .thenReturn(List.of());
-
-        promoCodeService.activateScheduledPromoCodes();
-
-        verify(promoCodeRepository, never()).saveAll(any());
-    }
-
     // ─────────────────────── helpers ───────────────────────
 
     private PromoCodeCreateDto buildDto(String code, PromoCodeScope scope, LocalDateTime validUntil) {
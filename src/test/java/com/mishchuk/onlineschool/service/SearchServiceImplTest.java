@@ -0,0 +1,161 @@
+package com.mishchuk.onlineschool.service;
+
+import com.mishchuk.onlineschool.controller.dto.SearchPageDto;
+import com.mishchuk.onlineschool.controller.dto.SearchResultDto;
+import com.mishchuk.onlineschool.exception.BadRequestException;
+import com.mishchuk.onlineschool.repository.ContentSearchRepository;
+import com.mishchuk.onlineschool.repository.ContentSearchRepository.SearchHit;
+import com.mishchuk.onlineschool.repository.CourseRepository;
+import com.mishchuk.onlineschool.repository.PersonRepository;
+import com.mishchuk.onlineschool.repository.entity.CourseEntity;
+import com.mishchuk.onlineschool.repository.entity.PersonEntity;
+import com.mishchuk.onlineschool.repository.entity.PersonRole;
+import com.mishchuk.onlineschool.security.CurrentPerson;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.context.SecurityContextImpl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SearchServiceImplTest {
+
+    @Mock private ContentSearchRepository contentSearchRepository;
+    @Mock private CourseRepository courseRepository;
+    @Mock private EntitlementService entitlementService;
+    @Mock private PersonRepository personRepository;
+
+    private SearchServiceImpl searchService;
+
+    @BeforeEach
+    void setUp() {
+        searchService = new SearchServiceImpl(contentSearchRepository, courseRepository, entitlementService,
+                new CurrentPerson(personRepository));
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    // ─────────────────────── search ───────────────────────
+
+    @Test
+    @DisplayName("search — порожній запит → BadRequestException")
+    void search_blankQuery_throws() {
+        assertThatThrownBy(() -> searchService.search("  ", null, null))
+                .isInstanceOf(BadRequestException.class);
+
+        verifyNoInteractions(contentSearchRepository);
+    }
+
+    @Test
+    @DisplayName("search — гість шукає лише в опублікованих, уроки заблоковані без videoUrl")
+    void search_anonymous_publishedOnlyAndLessonsLocked() {
+        UUID courseId = UUID.randomUUID();
+        when(contentSearchRepository.search("kotlin", true, 0, SearchServiceImpl.DEFAULT_PAGE_SIZE + 1))
+                .thenReturn(List.of(
+                        hit(SearchHit.Type.COURSE, courseId, null),
+                        hit(SearchHit.Type.LESSON, courseId, "https://video/1")));
+
+        SearchPageDto page = searchService.search(" kotlin ", null, null);
+
+        assertThat(page.hasMore()).isFalse();
+        assertThat(page.items()).extracting(SearchResultDto::locked).containsExactly(false, true);
+        assertThat(page.items().get(1).videoUrl()).isNull();
+        verifyNoInteractions(courseRepository, entitlementService);
+    }
+
+    @Test
+    @DisplayName("search — користувач з доступом до курсу бачить videoUrl уроку")
+    void search_entitledUser_lessonUnlocked() {
+        PersonEntity user = authenticate(PersonRole.USER);
+        CourseEntity open = course();
+        CourseEntity closed = course();
+        when(contentSearchRepository.search("kotlin", true, 0, SearchServiceImpl.DEFAULT_PAGE_SIZE + 1))
+                .thenReturn(List.of(
+                        hit(SearchHit.Type.LESSON, open.getId(), "https://video/open"),
+                        hit(SearchHit.Type.LESSON, closed.getId(), "https://video/closed")));
+        when(courseRepository.findAllById(Set.of(open.getId(), closed.getId()))).thenReturn(List.of(open, closed));
+        when(entitlementService.hasCourseAccess(user.getId(), open)).thenReturn(true);
+        when(entitlementService.hasCourseAccess(user.getId(), closed)).thenReturn(false);
+
+        SearchPageDto page = searchService.search("kotlin", null, null);
+
+        assertThat(page.items()).extracting(SearchResultDto::videoUrl).containsExactly("https://video/open", null);
+        assertThat(page.items()).extracting(SearchResultDto::locked).containsExactly(false, true);
+    }
+
+    @Test
+    @DisplayName("search — адміністратор бачить чернетки і всі уроки без перевірки доступу")
+    void search_admin_seesEverything() {
+        authenticate(PersonRole.ADMIN);
+        UUID courseId = UUID.randomUUID();
+        when(contentSearchRepository.search("kotlin", false, 0, SearchServiceImpl.DEFAULT_PAGE_SIZE + 1))
+                .thenReturn(List.of(hit(SearchHit.Type.LESSON, courseId, "https://video/1")));
+
+        SearchPageDto page = searchService.search("kotlin", null, null);
+
+        assertThat(page.items().get(0).locked()).isFalse();
+        assertThat(page.items().get(0).videoUrl()).isEqualTo("https://video/1");
+        verifyNoInteractions(entitlementService);
+    }
+
+    @Test
+    @DisplayName("search — зайвий рядок означає наступну сторінку, розмір обмежено MAX_PAGE_SIZE")
+    void search_pagination_hasMoreAndSizeCap() {
+        List<SearchHit> hits = new ArrayList<>();
+        for (int i = 0; i <= SearchServiceImpl.MAX_PAGE_SIZE; i++) {
+            hits.add(hit(SearchHit.Type.COURSE, UUID.randomUUID(), null));
+        }
+        when(contentSearchRepository.search(eq("kotlin"), eq(true), eq(2 * SearchServiceImpl.MAX_PAGE_SIZE),
+                eq(SearchServiceImpl.MAX_PAGE_SIZE + 1))).thenReturn(hits);
+
+        SearchPageDto page = searchService.search("kotlin", 2, 1000);
+
+        assertThat(page.size()).isEqualTo(SearchServiceImpl.MAX_PAGE_SIZE);
+        assertThat(page.items()).hasSize(SearchServiceImpl.MAX_PAGE_SIZE);
+        assertThat(page.hasMore()).isTrue();
+    }
+
+    // ─────────────────────── helpers ───────────────────────
+
+    private PersonEntity authenticate(PersonRole role) {
+        PersonEntity person = new PersonEntity();
+        person.setId(UUID.randomUUID());
+        person.setEmail("person@test.com");
+        person.setRole(role);
+        when(personRepository.findByEmail("person@test.com")).thenReturn(Optional.of(person));
+        var auth = new UsernamePasswordAuthenticationToken(
+                "person@test.com", null, List.of(new SimpleGrantedAuthority("ROLE_" + role.name())));
+        SecurityContextHolder.setContext(new SecurityContextImpl(auth));
+        return person;
+    }
+
+    private static CourseEntity course() {
+        CourseEntity course = new CourseEntity();
+        course.setId(UUID.randomUUID());
+        return course;
+    }
+
+    private static SearchHit hit(SearchHit.Type type, UUID courseId, String videoUrl) {
+        return new SearchHit(type, UUID.randomUUID(), courseId, null, "<mark>Kotlin</mark>", "", 0.5, videoUrl);
+    }
+}
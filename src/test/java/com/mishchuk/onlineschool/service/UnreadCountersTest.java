@@ -0,0 +1,126 @@
+package com.mishchuk.onlineschool.service;
+
+import com.mishchuk.onlineschool.repository.BroadcastRepository;
+import com.mishchuk.onlineschool.repository.NotificationCounterRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UnreadCountersTest {
+
+    @Mock private NotificationCounterRepository counterRepository;
+    @Mock private BroadcastRepository broadcastRepository;
+
+    @InjectMocks
+    private UnreadCounters unreadCounters;
+
+    private UUID personId;
+
+    @BeforeEach
+    void setUp() {
+        // 30 секунд — як у конфігурації за замовчуванням
+        ReflectionTestUtils.setField(unreadCounters, "ttlMillis", 30000L);
+        personId = UUID.randomUUID();
+    }
+
+    // ─────────────────────── get ───────────────────────
+
+    @Test
+    @DisplayName("get — сума особистого лічильника та непрочитаних оголошень, далі з пам'яті")
+    void get_loadsOnceThenFromMemory() {
+        when(counterRepository.findUnread(personId)).thenReturn(3L);
+        when(broadcastRepository.countUnread(personId)).thenReturn(2L);
+
+        assertThat(unreadCounters.get(personId)).isEqualTo(5);
+        assertThat(unreadCounters.get(personId)).isEqualTo(5);
+
+        verify(counterRepository, times(1)).findUnread(personId);
+        verify(broadcastRepository, times(1)).countUnread(personId);
+    }
+
+    @Test
+    @DisplayName("get — після TTL перечитує з БД")
+    void get_expired_reloads() {
+        ReflectionTestUtils.setField(unreadCounters, "ttlMillis", 0L);
+        when(counterRepository.findUnread(personId)).thenReturn(1L, 4L);
+
+        assertThat(unreadCounters.get(personId)).isEqualTo(1);
+        assertThat(unreadCounters.get(personId)).isEqualTo(4);
+    }
+
+    // ─────────────────────── writes ───────────────────────
+
+    @Test
+    @DisplayName("adjust — змінює лічильник у БД, наступний get перечитує його")
+    void adjust_updatesStoredAndReloads() {
+        when(counterRepository.findUnread(personId)).thenReturn(3L, 4L);
+        unreadCounters.get(personId);
+
+        unreadCounters.adjust(personId, -1);
+        unreadCounters.adjust(personId, 2);
+
+        verify(counterRepository).adjust(personId, -1);
+        verify(counterRepository).adjust(personId, 2);
+        assertThat(unreadCounters.get(personId)).isEqualTo(4);
+        verify(counterRepository, times(2)).findUnread(personId);
+    }
+
+    @Test
+    @DisplayName("adjust — нульова зміна не звертається до БД")
+    void adjust_zero_noop() {
+        unreadCounters.adjust(personId, 0);
+
+        verifyNoInteractions(counterRepository);
+    }
+
+    @Test
+    @DisplayName("clear — обнуляє лічильник, наступний get не звертається до БД")
+    void clear_zeroWithoutReload() {
+        unreadCounters.clear(personId);
+
+        assertThat(unreadCounters.get(personId)).isZero();
+        verify(counterRepository).reset(personId);
+        verify(counterRepository, never()).findUnread(any());
+    }
+
+    @Test
+    @DisplayName("recount / evict — наступний get перечитує з БД")
+    void recountAndEvict_forceReload() {
+        when(counterRepository.findUnread(personId)).thenReturn(1L, 2L, 3L);
+        unreadCounters.get(personId);
+
+        unreadCounters.recount(personId);
+        assertThat(unreadCounters.get(personId)).isEqualTo(2);
+
+        unreadCounters.evict(List.of(personId));
+        assertThat(unreadCounters.get(personId)).isEqualTo(3);
+
+        verify(counterRepository).recount(personId);
+    }
+
+    // ─────────────────────── repair ───────────────────────
+
+    @Test
+    @DisplayName("repair — після виправлення скидає кеш")
+    void repair_fixed_evictsAll() {
+        when(counterRepository.findUnread(personId)).thenReturn(1L, 5L);
+        unreadCounters.get(personId);
+        when(counterRepository.repair()).thenReturn(1);
+
+        assertThat(unreadCounters.repair()).isEqualTo(1);
+
+        assertThat(unreadCounters.get(personId)).isEqualTo(5);
+    }
+}